@@ -0,0 +1,121 @@
+package net.javaguids.popin.benchmarks;
+
+import net.javaguids.popin.database.Database;
+import net.javaguids.popin.database.RegistrationDAO;
+import net.javaguids.popin.database.UserDAO;
+import net.javaguids.popin.models.AttendeeEntry;
+import net.javaguids.popin.models.Registration;
+import net.javaguids.popin.models.User;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Loading one event's attendee list out of a large registrations table.
+ *
+ * legacyPath: what AttendeeListController used to do (listAll + filter + findById per attendee).
+ * joinedPages: RegistrationDAO.findAttendeesPage, page by page until the list is complete.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 3)
+@Fork(1)
+public class AttendeeListBenchmark {
+
+    private static final int EVENT_COUNT = 500;
+    private static final int USER_COUNT = 20_000;
+    private static final int TARGET_EVENT_ID = 1;
+    private static final int PAGE_SIZE = 200;
+
+    @Param({"1000000"})
+    public int totalRegistrations;
+
+    @Param({"2000"})
+    public int attendees;
+
+    private final RegistrationDAO registrationDAO = new RegistrationDAO();
+    private final UserDAO userDAO = new UserDAO();
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        BenchmarkDatabase.useTemporaryFile();
+
+        try (Connection conn = Database.getConnection()) {
+            conn.setAutoCommit(false);
+
+            try (PreparedStatement users = conn.prepareStatement(
+                    "INSERT INTO users (username, password_hash, role_name) VALUES (?, 'x', 'ATTENDEE')")) {
+                for (int u = 1; u <= USER_COUNT; u++) {
+                    users.setString(1, "user" + u);
+                    users.addBatch();
+                }
+                users.executeBatch();
+            }
+
+            // events 1..EVENT_COUNT; TARGET_EVENT_ID gets `attendees`, the rest share the remainder
+            int perOtherEvent = Math.min(USER_COUNT, (totalRegistrations - attendees) / (EVENT_COUNT - 1));
+            try (PreparedStatement regs = conn.prepareStatement(
+                    "INSERT INTO registrations (event_id, user_id, status) VALUES (?, ?, 'REGISTERED')")) {
+                for (int event = 1; event <= EVENT_COUNT; event++) {
+                    int count = event == TARGET_EVENT_ID ? attendees : perOtherEvent;
+                    for (int i = 0; i < count; i++) {
+                        regs.setInt(1, event);
+                        regs.setInt(2, (event * 7919 + i) % USER_COUNT + 1);
+                        regs.addBatch();
+                    }
+                    regs.executeBatch();
+                }
+            }
+            conn.commit();
+        }
+    }
+
+    @Benchmark
+    public List<String> legacyPath() {
+        List<String> usernames = new ArrayList<>();
+        for (Registration reg : registrationDAO.listAll()) {
+            if (reg.getEventId() != TARGET_EVENT_ID) continue;
+            if (!"REGISTERED".equalsIgnoreCase(reg.getStatus())
+                    && !"CHECKED_IN".equalsIgnoreCase(reg.getStatus())) {
+                continue;
+            }
+            User u = userDAO.findById(reg.getUserId());
+            if (u != null) {
+                usernames.add(u.getUsername());
+            }
+        }
+        return usernames;
+    }
+
+    @Benchmark
+    public List<AttendeeEntry> joinedPages() {
+        List<AttendeeEntry> all = new ArrayList<>();
+        int afterUserId = 0;
+        while (true) {
+            List<AttendeeEntry> page = registrationDAO.findAttendeesPage(TARGET_EVENT_ID, afterUserId, PAGE_SIZE);
+            all.addAll(page);
+            if (page.size() < PAGE_SIZE) {
+                return all;
+            }
+            afterUserId = page.get(page.size() - 1).getUserId();
+        }
+    }
+}
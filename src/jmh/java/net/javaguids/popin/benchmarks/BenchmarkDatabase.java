@@ -0,0 +1,28 @@
+package net.javaguids.popin.benchmarks;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Points PopIn at a throw-away SQLite file for the current benchmark fork.
+ * Must run before anything touches {@code Database}, whose pool reads the URL once.
+ */
+final class BenchmarkDatabase {
+
+    private BenchmarkDatabase() {}
+
+    static Path useTemporaryFile() {
+        try {
+            Path dir = Files.createTempDirectory("popin-bench");
+            Path db = dir.resolve("bench.db");
+            System.setProperty("popin.db.url", "jdbc:sqlite:" + db);
+            db.toFile().deleteOnExit();
+            dir.toFile().deleteOnExit();
+            return db;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not create benchmark database", e);
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package net.javaguids.popin.benchmarks;
+
+import net.javaguids.popin.database.DatasetGenerator;
+import net.javaguids.popin.database.EventDAO;
+import net.javaguids.popin.database.UserDAO;
+import net.javaguids.popin.models.AnalyticsSnapshot;
+import net.javaguids.popin.models.Event;
+import net.javaguids.popin.models.User;
+import net.javaguids.popin.services.AnalyticsService;
+import net.javaguids.popin.services.AuthService;
+import net.javaguids.popin.services.RegistrationService;
+import net.javaguids.popin.utils.MetricsRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The calls every screen makes, against a DatasetGenerator dataset: us per call.
+ *
+ * The dataset size is set with JMH parameters, e.g. {@code -p users=100000 -p registrations=1000000}.
+ * userCache=off sets {@code popin.cache.users.maxEntries} to 0, so findById and login
+ * go to the database every time. metrics=on records every DAO call in MetricsRegistry
+ * (compare with {@code -p metrics=off,on}).
+ *
+ * findAllUpcoming: EventDAO directly, bypassing EventCatalog, so it measures the query.
+ * registerUser: RegistrationService.registerUser, a fresh user each call (never a duplicate).
+ * login: AuthService.login with valid credentials, cycling through the users.
+ * findById: UserDAO.findById, cycling through the users.
+ * analytics: AnalyticsService.refreshNow, i.e. computing a new snapshot.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 3)
+@Fork(1)
+public class HotPathBenchmark {
+
+    @Param({"10000"})
+    public int users;
+
+    @Param({"2000"})
+    public int events;
+
+    @Param({"100000"})
+    public int registrations;
+
+    @Param({"on", "off"})
+    public String userCache;
+
+    @Param({"off"})
+    public String metrics;
+
+    // created in setUp, after the system properties they read are set
+    private EventDAO eventDAO;
+    private UserDAO userDAO;
+    private AuthService authService;
+    private RegistrationService registrationService;
+
+    private DatasetGenerator.Result dataset;
+    private int openEventId;
+    private int nextUserId;
+    private int nextNewUserId;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        // both read once, when Database / UserDAO are first touched
+        BenchmarkDatabase.useTemporaryFile();
+        if (userCache.equals("off")) {
+            System.setProperty("popin.cache.users.maxEntries", "0");
+        }
+
+        MetricsRegistry.getInstance().setEnabled(metrics.equals("on"));
+        dataset = DatasetGenerator.generate(
+                new DatasetGenerator.Spec(users, events, registrations, registrations / 100, 42));
+        eventDAO = new EventDAO();
+        userDAO = new UserDAO();
+        authService = new AuthService();
+        registrationService = new RegistrationService();
+
+        // registerUser gets its own event, so the dataset's events keep their size
+        int organizerId = dataset.userId(1);
+        eventDAO.createEvent(new Event("Open registration", "benchmark", LocalDateTime.now().plusDays(30),
+                "Arena", Integer.MAX_VALUE, organizerId));
+        openEventId = eventDAO.findByOrganizerId(organizerId).stream()
+                .filter(e -> e.getTitle().equals("Open registration"))
+                .findFirst()
+                .orElseThrow()
+                .getId();
+        nextNewUserId = dataset.userId(users);
+    }
+
+    /** The next generated user's number, 1..users. */
+    private int nextUser() {
+        nextUserId = nextUserId % users + 1;
+        return nextUserId;
+    }
+
+    @Benchmark
+    public List<Event> findAllUpcoming() {
+        return eventDAO.findAllUpcoming();
+    }
+
+    @Benchmark
+    public boolean registerUser() {
+        return registrationService.registerUser(openEventId, ++nextNewUserId);
+    }
+
+    @Benchmark
+    public Optional<User> login() {
+        return authService.login(DatasetGenerator.Result.username(nextUser()), DatasetGenerator.PASSWORD);
+    }
+
+    @Benchmark
+    public User findById() {
+        return userDAO.findById(dataset.userId(nextUser()));
+    }
+
+    @Benchmark
+    public AnalyticsSnapshot analytics() {
+        return AnalyticsService.getInstance().refreshNow();
+    }
+}
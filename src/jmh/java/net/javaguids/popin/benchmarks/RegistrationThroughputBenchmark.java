@@ -0,0 +1,96 @@
+package net.javaguids.popin.benchmarks;
+
+import net.javaguids.popin.database.EventDAO;
+import net.javaguids.popin.models.Event;
+import net.javaguids.popin.services.RegistrationService;
+import net.javaguids.popin.services.SeatReservationEngine;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Registrations/sec for one hot on-sale event, many concurrent buyers.
+ *
+ * currentPath: RegistrationService.admitUser (one SQLite transaction per admission).
+ * seatEngine:  SeatReservationEngine.admitUser, flushed at the end of every batch so the
+ *              number includes the write-behind cost, not just the in-memory decision.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 3)
+@Fork(1)
+@Threads(8)
+public class RegistrationThroughputBenchmark {
+
+    private static final int BATCH = 100;
+
+    private RegistrationService registrationService;
+    private SeatReservationEngine engine;
+    private int currentPathEventId;
+    private int engineEventId;
+
+    // every admission uses a fresh user so nothing is rejected as a duplicate
+    private final AtomicInteger nextUserId = new AtomicInteger();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        BenchmarkDatabase.useTemporaryFile();
+
+        EventDAO eventDAO = new EventDAO();
+        currentPathEventId = createHotEvent(eventDAO, "Current path");
+        engineEventId = createHotEvent(eventDAO, "Seat engine");
+
+        registrationService = new RegistrationService();
+        engine = new SeatReservationEngine();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        engine.close();
+    }
+
+    private static int createHotEvent(EventDAO eventDAO, String title) {
+        eventDAO.createEvent(new Event(title, "benchmark", LocalDateTime.now().plusDays(30),
+                "Arena", Integer.MAX_VALUE, 1));
+        return eventDAO.findAll().stream()
+                .filter(e -> e.getTitle().equals(title))
+                .findFirst()
+                .orElseThrow()
+                .getId();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void currentPath(Blackhole bh) {
+        for (int i = 0; i < BATCH; i++) {
+            bh.consume(registrationService.admitUser(currentPathEventId, nextUserId.incrementAndGet()));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void seatEngine(Blackhole bh) {
+        for (int i = 0; i < BATCH; i++) {
+            bh.consume(engine.admitUser(engineEventId, nextUserId.incrementAndGet()));
+        }
+        engine.flush();
+    }
+}
@@ -0,0 +1,143 @@
+package net.javaguids.popin.benchmarks;
+
+import net.javaguids.popin.database.Database;
+import net.javaguids.popin.database.EventDAO;
+import net.javaguids.popin.models.Event;
+import net.javaguids.popin.models.PaidEvent;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The DAO layer's fixed costs: mapping rows and preparing statements.
+ *
+ * byName / byIndex: ns per row for one page of event summaries. byName is the mapping the
+ *   DAOs used before RowMapper (every getter looks its column label up, for every row);
+ *   byIndex is EventDAO.findAllAt, whose mapper resolves the positions once per result set.
+ * findById: ns per primary-key lookup, where preparing the SQL is most of the work.
+ *
+ * statementCacheSize=0 prepares every statement from scratch, as before the pool cached them.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 3)
+@Fork(1)
+public class RowMappingBenchmark {
+
+    private static final int EVENT_COUNT = 20_000;
+    private static final int PAGE_SIZE = 2_000;
+
+    private static final String PAGE_SQL = "SELECT id, title, date_time, venue, capacity, organizer_id, price, starts_at "
+            + "FROM events ORDER BY starts_at DESC, id DESC LIMIT ? OFFSET ?;";
+
+    @Param({"0", "64"})
+    public int statementCacheSize;
+
+    private final EventDAO eventDAO = new EventDAO();
+    private int nextId;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        // both read once, when Database is first touched
+        BenchmarkDatabase.useTemporaryFile();
+        System.setProperty("popin.pool.statementCacheSize", String.valueOf(statementCacheSize));
+
+        try (Connection conn = Database.getConnection()) {
+            conn.setAutoCommit(false);
+            try (PreparedStatement insert = conn.prepareStatement(
+                    "INSERT INTO events (title, description, date_time, venue, capacity, organizer_id, price, starts_at) "
+                            + "VALUES (?, 'benchmark', ?, ?, 100, ?, ?, ?)")) {
+                LocalDateTime start = LocalDateTime.now().plusDays(1).withNano(0);
+                for (int i = 0; i < EVENT_COUNT; i++) {
+                    LocalDateTime when = start.plusHours(i);
+                    insert.setString(1, "Event " + i);
+                    insert.setString(2, when.toString());
+                    insert.setString(3, "Venue " + (i % 50));
+                    insert.setInt(4, i % 300 + 1);
+                    if (i % 3 == 0) {
+                        insert.setNull(5, java.sql.Types.REAL);
+                    } else {
+                        insert.setDouble(5, 12.5);
+                    }
+                    insert.setLong(6, when.toEpochSecond(ZoneOffset.UTC));
+                    insert.addBatch();
+                }
+                insert.executeBatch();
+            }
+            conn.commit();
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(PAGE_SIZE)
+    public List<Event> byName() throws SQLException {
+        try (Connection conn = Database.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(PAGE_SQL)) {
+            stmt.setInt(1, PAGE_SIZE + 1); // same query as findAllAt, which peeks one row ahead
+            stmt.setInt(2, 0);
+            List<Event> events = new ArrayList<>(PAGE_SIZE);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next() && events.size() < PAGE_SIZE) {
+                    events.add(mapByName(rs));
+                }
+            }
+            return events;
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(PAGE_SIZE)
+    public List<Event> byIndex() {
+        return eventDAO.findAllAt(0, PAGE_SIZE).getEvents();
+    }
+
+    @Benchmark
+    public Event findById() {
+        nextId = nextId % EVENT_COUNT + 1;
+        return eventDAO.findById(nextId);
+    }
+
+    /** EventDAO's row mapping as it was before RowMapper. */
+    private static Event mapByName(ResultSet rs) throws SQLException {
+        int id = rs.getInt("id");
+        String title = rs.getString("title");
+        String venue = rs.getString("venue");
+        int capacity = rs.getInt("capacity");
+        int organizerId = rs.getInt("organizer_id");
+        double price = rs.getDouble("price");
+        boolean hasPrice = !rs.wasNull();
+
+        long startsAt = rs.getLong("starts_at");
+        LocalDateTime dateTime = rs.wasNull()
+                ? LocalDateTime.parse(rs.getString("date_time"))
+                : LocalDateTime.ofEpochSecond(startsAt, 0, ZoneOffset.UTC);
+
+        Event event = hasPrice
+                ? new PaidEvent(id, title, null, dateTime, venue, capacity, organizerId, price)
+                : new Event(id, title, null, dateTime, venue, capacity, organizerId);
+        event.setSummary(true);
+        return event;
+    }
+}
@@ -7,21 +7,39 @@ import javafx.scene.Scene;
 import javafx.scene.control.TableColumn;
 import javafx.scene.control.TableView;
 import javafx.stage.Stage;
-import net.javaguids.popin.database.EventDAO;
+import net.javaguids.popin.database.RegistrationDAO;
+import net.javaguids.popin.database.UserDAO;
 import net.javaguids.popin.models.Event;
+import net.javaguids.popin.models.EventRow;
 import net.javaguids.popin.models.User;
+import net.javaguids.popin.services.AnalyticsService;
+import net.javaguids.popin.services.EventService;
+import net.javaguids.popin.utils.AsyncLoader;
+import net.javaguids.popin.utils.Placeholders;
+
+import java.util.List;
+import java.util.Map;
 
 public class AdminDashboardController implements DashboardController {
 
     private User loggedInAdmin;
 
-    @FXML private TableView<Event> eventsTable;
-    @FXML private TableColumn<Event, String> colTitle;
-    @FXML private TableColumn<Event, String> colOrganizer;
-    @FXML private TableColumn<Event, String> colDate;
-    @FXML private TableColumn<Event, Number> colRegistrations;
+    @FXML private TableView<EventRow> eventsTable;
+    @FXML private TableColumn<EventRow, String> colTitle;
+    @FXML private TableColumn<EventRow, String> colOrganizer;
+    @FXML private TableColumn<EventRow, String> colDate;
+    @FXML private TableColumn<EventRow, Number> colRegistrations;
+
+    private final EventService eventService = new EventService();
+    private final RegistrationDAO registrationDAO = new RegistrationDAO();
+    private final UserDAO userDAO = new UserDAO();
+    private final AsyncLoader async = new AsyncLoader();
+
+    // latest events only; "View All Events" pages through the rest
+    private static final int PREVIEW_SIZE = 10;
 
-    private final EventDAO eventDAO = new EventDAO();
+    // organizer id -> username for the rows on screen, looked up in bulk with the rows
+    private Map<Integer, User> organizers = Map.of();
 
     @FXML
     public void initialize() {
@@ -30,23 +48,23 @@ public class AdminDashboardController implements DashboardController {
             return;
         }
         System.out.println("Admin Dashboard → Initializing preview table");
+        async.cancelWhenClosed(eventsTable);
 
         colTitle.setCellValueFactory(data ->
                 new javafx.beans.property.SimpleStringProperty(data.getValue().getTitle()));
 
         colOrganizer.setCellValueFactory(data ->
-                new javafx.beans.property.SimpleStringProperty(
-                        String.valueOf(data.getValue().getOrganizerId())
-                ));
+                new javafx.beans.property.SimpleStringProperty(organizerName(data.getValue().getOrganizerId())));
 
         colDate.setCellValueFactory(data ->
                 new javafx.beans.property.SimpleStringProperty(
                         data.getValue().getDateTime().toString()
                 ));
 
+        // precomputed in refreshPreview(), so scrolling never queries SQLite
         colRegistrations.setCellValueFactory(data ->
                 new javafx.beans.property.SimpleIntegerProperty(
-                        eventDAO.countRegistered(data.getValue().getId())
+                        data.getValue().getRegisteredCount()
                 ));
 
         refreshPreview();
@@ -55,15 +73,35 @@ public class AdminDashboardController implements DashboardController {
     private void refreshPreview() {
         if (eventsTable != null) {
             System.out.println("Refreshing events preview...");
-            eventsTable.getItems().setAll(eventDAO.findAll());
+            eventsTable.getItems().clear();
+            Placeholders.loading(eventsTable);
+            async.load("preview", () -> {
+                List<Event> events = eventService.getAllEventsPage(null, PREVIEW_SIZE).getEvents();
+                Map<Integer, User> byId = userDAO.findByIds(events.stream().map(Event::getOrganizerId).distinct().toList());
+                return new Preview(EventRow.withCounts(events,
+                        registrationDAO.countRegisteredByEventIds(events.stream().map(Event::getId).toList())), byId);
+            }, preview -> {
+                organizers = preview.organizers();
+                eventsTable.getItems().setAll(preview.rows());
+                Placeholders.empty(eventsTable, "No events yet.");
+            });
         }
     }
 
+    private String organizerName(int organizerId) {
+        User organizer = organizers.get(organizerId);
+        return organizer != null ? organizer.getUsername() : String.valueOf(organizerId);
+    }
+
+    private record Preview(List<EventRow> rows, Map<Integer, User> organizers) {}
+
     @Override
     public void setLoggedInUser(User user) {
         this.loggedInAdmin = user;
         System.out.println("Logged in admin: " + user.getUsername());
         refreshPreview();
+        // warm the analytics cache so the Analytics window opens instantly
+        AnalyticsService.getInstance().refreshInBackground();
     }
 
     @FXML
@@ -86,6 +124,25 @@ public class AdminDashboardController implements DashboardController {
         openScene("/net/javaguids/popin/views/reports-view.fxml", "Reported Events");
     }
 
+    @FXML
+    private void handleSystemHealth() {
+        try {
+            FXMLLoader loader = new FXMLLoader(
+                    getClass().getResource("/net/javaguids/popin/views/system-health.fxml"));
+            Parent root = loader.load();
+
+            // the view refreshes itself until its window closes
+            SystemHealthController controller = loader.getController();
+            Stage stage = new Stage();
+            stage.setTitle("System Health");
+            stage.setScene(new Scene(root));
+            stage.setOnHidden(e -> controller.stop());
+            stage.show();
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+    }
+
     @FXML
     private void handleProfile() {
         if (loggedInAdmin == null) return;
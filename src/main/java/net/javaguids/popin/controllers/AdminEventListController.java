@@ -7,9 +7,12 @@ import javafx.scene.control.*;
 import javafx.stage.Stage;
 import net.javaguids.popin.database.EventDAO;
 import net.javaguids.popin.models.Event;
+import net.javaguids.popin.models.EventCursor;
+import net.javaguids.popin.utils.AsyncLoader;
+import net.javaguids.popin.utils.LazyPagedList;
+import net.javaguids.popin.utils.Placeholders;
 
 import java.time.format.DateTimeFormatter;
-import java.util.List;
 
 public class AdminEventListController {
 
@@ -22,9 +25,21 @@ public class AdminEventListController {
     @FXML private TableColumn<Event, Number> organizerIdColumn;
 
     private final EventDAO eventDAO = new EventDAO();
+    private final AsyncLoader async = new AsyncLoader();
     private final DateTimeFormatter formatter =
             DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
 
+    private static final int PAGE_SIZE = 100;
+    private static final int MAX_PAGES = 10;
+
+    // Every event, latest first, loaded page by page as the admin scrolls
+    private final LazyPagedList<Event> events = new LazyPagedList<>("events", async,
+            eventDAO::countAll,
+            (offset, limit, previous) -> (previous != null
+                    ? eventDAO.findAllPage(EventCursor.after(previous), limit)
+                    : eventDAO.findAllAt(offset, limit)).getEvents(),
+            new Event(0, "Loading…", null, null, "", 0, 0), PAGE_SIZE, MAX_PAGES);
+
     @FXML
     public void initialize() {
         // Guard so a miswired FXML won't crash everything
@@ -60,18 +75,21 @@ public class AdminEventListController {
         organizerIdColumn.setCellValueFactory(c ->
                 new SimpleIntegerProperty(c.getValue().getOrganizerId()));
 
+        async.cancelWhenClosed(eventTable);
+        Placeholders.loading(eventTable);
+        events.showIn(eventTable);
         loadEvents();
     }
 
+    // Count and first page now, the rest as the admin scrolls
     private void loadEvents() {
-        List<Event> events = eventDAO.findAll();
-        eventTable.getItems().setAll(events);
+        events.refresh(() -> Placeholders.empty(eventTable, "No events."));
     }
 
     @FXML
     private void handleDeleteEvent() {
         Event selected = eventTable.getSelectionModel().getSelectedItem();
-        if (selected == null) {
+        if (selected == null || events.isPlaceholder(selected)) {
             showAlert(Alert.AlertType.WARNING,
                     "No selection",
                     "Please select an event to delete.");
@@ -84,17 +102,18 @@ public class AdminEventListController {
         confirm.setContentText("Delete event: \"" + selected.getTitle() + "\"?");
         confirm.showAndWait().ifPresent(result -> {
             if (result.getButtonData() == ButtonBar.ButtonData.OK_DONE) {
-                boolean deleted = eventDAO.deleteEvent(selected.getId());
-                if (deleted) {
-                    showAlert(Alert.AlertType.INFORMATION,
-                            "Deleted",
-                            "Event deleted successfully.");
-                    loadEvents();
-                } else {
-                    showAlert(Alert.AlertType.ERROR,
-                            "Error",
-                            "Could not delete the event.");
-                }
+                async.load(null, () -> eventDAO.deleteEvent(selected.getId()), deleted -> {
+                    if (deleted) {
+                        showAlert(Alert.AlertType.INFORMATION,
+                                "Deleted",
+                                "Event deleted successfully.");
+                        loadEvents();
+                    } else {
+                        showAlert(Alert.AlertType.ERROR,
+                                "Error",
+                                "Could not delete the event.");
+                    }
+                });
             }
         });
     }
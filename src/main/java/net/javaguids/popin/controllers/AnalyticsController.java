@@ -3,17 +3,9 @@ package net.javaguids.popin.controllers;
 import javafx.fxml.FXML;
 import javafx.scene.control.Label;
 import javafx.stage.Stage;
-import net.javaguids.popin.database.EventDAO;
-import net.javaguids.popin.database.RegistrationDAO;
-import net.javaguids.popin.database.UserDAO;
-import net.javaguids.popin.models.Event;
-import net.javaguids.popin.models.PaidEvent;
-import net.javaguids.popin.models.User;
-
-import java.util.Collections;
-import java.util.List;
-import java.util.Map;
-import java.util.stream.Collectors;
+import net.javaguids.popin.models.AnalyticsSnapshot;
+import net.javaguids.popin.services.AnalyticsService;
+import net.javaguids.popin.utils.AsyncLoader;
 
 public class AnalyticsController {
 
@@ -27,82 +19,50 @@ public class AnalyticsController {
     @FXML private Label avgPriceLabel;
     @FXML private Label mostPopularEventLabel;
 
-    private final UserDAO userDAO = new UserDAO();
-    private final EventDAO eventDAO = new EventDAO();
-    private final RegistrationDAO registrationDAO = new RegistrationDAO();
+    private final AnalyticsService analyticsService = AnalyticsService.getInstance();
+    private final AsyncLoader async = new AsyncLoader();
 
     @FXML
     public void initialize() {
-        loadStats();
+        async.cancelWhenClosed(totalUsersLabel);
+        totalUsersLabel.setText("Loading…");
+
+        // cached snapshot; refreshed in the background once it is older than the TTL.
+        // Only the very first request of a session actually waits for SQLite.
+        async.load("stats", analyticsService::getSnapshot, this::showStats);
     }
 
-    private void loadStats() {
+    private void showStats(AnalyticsSnapshot stats) {
         // --------- BASIC TOTALS ---------
-        int userCount = userDAO.countAll();                 // from UserDAO
-        int eventCount = eventDAO.countAll();               // from EventDAO
-        int registrationCount = registrationDAO.listAll().size(); // from RegistrationDAO
-
-        totalUsersLabel.setText("Total users: " + userCount);
-        totalEventsLabel.setText("Total events: " + eventCount);
-        totalRegistrationsLabel.setText("Total registrations: " + registrationCount);
+        totalUsersLabel.setText("Total users: " + stats.getTotalUsers());
+        totalEventsLabel.setText("Total events: " + stats.getTotalEvents());
+        totalRegistrationsLabel.setText("Total registrations: " + stats.getTotalRegistrations());
 
         // --------- MOST ACTIVE ORGANIZER (by event count) ---------
-        List<Event> allEvents = eventDAO.findAll();
-
-        if (allEvents.isEmpty()) {
+        if (stats.getMostActiveOrganizer() == null) {
             mostActiveOrganizerLabel.setText("Most active organizer: no events yet.");
         } else {
-            Map<Integer, Long> countByOrganizer = allEvents.stream()
-                    .collect(Collectors.groupingBy(Event::getOrganizerId, Collectors.counting()));
-
-            Map.Entry<Integer, Long> topEntry =
-                    Collections.max(countByOrganizer.entrySet(), Map.Entry.comparingByValue());
-
-            int organizerId = topEntry.getKey();
-            long organizerEvents = topEntry.getValue();
-
-            User organizer = userDAO.findById(organizerId);
-            String name = (organizer != null) ? organizer.getUsername() : ("User #" + organizerId);
-
             mostActiveOrganizerLabel.setText(
-                    "Most active organizer: " + name + " (" + organizerEvents + " event(s))"
+                    "Most active organizer: " + stats.getMostActiveOrganizer()
+                            + " (" + stats.getMostActiveOrganizerEvents() + " event(s))"
             );
         }
 
         // --------- AVERAGE PRICE PER PAID EVENT ---------
-        double avgPrice = allEvents.stream()
-                .filter(e -> e instanceof PaidEvent)
-                .mapToDouble(e -> ((PaidEvent) e).getPrice())
-                .average()
-                .orElse(0.0);
-
-        if (avgPrice > 0) {
+        if (stats.getAveragePaidPrice() > 0) {
             avgPriceLabel.setText(
-                    String.format("Average ticket price (paid events): €%.2f", avgPrice)
+                    String.format("Average ticket price (paid events): €%.2f", stats.getAveragePaidPrice())
             );
         } else {
             avgPriceLabel.setText("Average ticket price: no paid events yet.");
         }
 
         // --------- MOST POPULAR UPCOMING EVENT (by registrations) ---------
-        List<Event> upcoming = eventDAO.findAllUpcoming();
-
-        Event mostPopular = null;
-        int maxRegistrations = 0;
-
-        for (Event e : upcoming) {
-            int count = registrationDAO.countRegistered(e.getId());
-            if (count > maxRegistrations) {
-                maxRegistrations = count;
-                mostPopular = e;
-            }
-        }
-
-        if (mostPopular != null) {
+        if (stats.getMostPopularUpcomingEvent() != null) {
             mostPopularEventLabel.setText(
                     "Most popular upcoming event: " +
-                            mostPopular.getTitle() +
-                            " (" + maxRegistrations + " registration(s))"
+                            stats.getMostPopularUpcomingEvent() +
+                            " (" + stats.getMostPopularUpcomingRegistrations() + " registration(s))"
             );
         } else {
             mostPopularEventLabel.setText("Most popular upcoming event: none yet.");
@@ -114,4 +74,4 @@ public class AnalyticsController {
         Stage stage = (Stage) totalUsersLabel.getScene().getWindow();
         stage.close();
     }
-}
\ No newline at end of file
+}
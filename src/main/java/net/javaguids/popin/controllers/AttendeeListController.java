@@ -6,23 +6,27 @@ import javafx.fxml.FXML;
 import javafx.scene.control.Alert;
 import javafx.scene.control.ListView;
 import net.javaguids.popin.database.RegistrationDAO;
-import net.javaguids.popin.database.UserDAO;
+import net.javaguids.popin.models.AttendeeEntry;
 import net.javaguids.popin.models.Event;
-import net.javaguids.popin.models.Registration;
-import net.javaguids.popin.models.User;
-
-import java.util.ArrayList;
-import java.util.List;
+import net.javaguids.popin.utils.AsyncLoader;
+import net.javaguids.popin.utils.Placeholders;
 
 public class AttendeeListController {
 
+    private static final int PAGE_SIZE = 200;
+
     @FXML
-    private ListView<String> attendeeListView;
+    private ListView<AttendeeEntry> attendeeListView;
 
     private final RegistrationDAO registrationDAO = new RegistrationDAO();
-    private final UserDAO userDAO = new UserDAO();
+    private final AsyncLoader async = new AsyncLoader();
     private Event event;
 
+    @FXML
+    public void initialize() {
+        async.cancelWhenClosed(attendeeListView);
+    }
+
     public void setEvent(Event event) {
         this.event = event;
         loadAttendees();
@@ -33,32 +37,30 @@ public class AttendeeListController {
             return;
         }
 
-        try {
-            List<Registration> allRegs = registrationDAO.listAll();
-            List<String> usernames = new ArrayList<>();
+        ObservableList<AttendeeEntry> items = FXCollections.observableArrayList();
+        attendeeListView.setItems(items);
+        Placeholders.loading(attendeeListView);
 
-            for (Registration reg : allRegs) {
-                if (reg.getEventId() != event.getId()) continue;
-
-                String status = reg.getStatus();
-                if (!"REGISTERED".equalsIgnoreCase(status)
-                        && !"CHECKED_IN".equalsIgnoreCase(status)) {
-                    continue;
-                }
-
-                User u = userDAO.findById(reg.getUserId());
-                if (u != null) {
-                    usernames.add(u.getUsername());
-                }
-            }
-
-            ObservableList<String> list = FXCollections.observableArrayList(usernames);
-            attendeeListView.setItems(list);
+        loadPage(event.getId(), 0, items);
+    }
 
-        } catch (Exception e) {
-            e.printStackTrace();
-            showError("Could not load attendees: " + e.getMessage());
-        }
+    // Pages are appended as they arrive, so the first names show up before a large
+    // list has finished loading; each page queues the next one.
+    private void loadPage(int eventId, int afterUserId, ObservableList<AttendeeEntry> items) {
+        async.load("attendees",
+                () -> registrationDAO.findAttendeesPage(eventId, afterUserId, PAGE_SIZE),
+                page -> {
+                    items.addAll(page);
+                    if (page.size() == PAGE_SIZE) {
+                        loadPage(eventId, page.get(page.size() - 1).getUserId(), items);
+                    } else {
+                        Placeholders.empty(attendeeListView, "No attendees yet.");
+                    }
+                },
+                e -> {
+                    e.printStackTrace();
+                    showError("Could not load attendees: " + e.getMessage());
+                });
     }
 
     private void showError(String msg) {
@@ -67,4 +69,4 @@ public class AttendeeListController {
         alert.setContentText(msg);
         alert.show();
     }
-}
\ No newline at end of file
+}
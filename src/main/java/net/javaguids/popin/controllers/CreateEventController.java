@@ -7,6 +7,7 @@ import net.javaguids.popin.models.Event;
 import net.javaguids.popin.models.PaidEvent;
 import net.javaguids.popin.models.User;
 import net.javaguids.popin.services.EventService;
+import net.javaguids.popin.utils.AsyncLoader;
 
 import java.time.LocalDateTime;
 import java.time.LocalTime;
@@ -22,14 +23,21 @@ public class CreateEventController {
     @FXML private TextField venueField;
     @FXML private TextField capacityField;
     @FXML private TextField priceField; // optional
+    @FXML private Button saveButton;
 
     private final EventService eventService = new EventService();
+    private final AsyncLoader async = new AsyncLoader();
     private User loggedInUser;      // organizer
     private Event eventToEdit = null; // if non-null → edit mode
 
     private static final DateTimeFormatter TIME_FORMATTER =
             DateTimeFormatter.ofPattern("HH:mm");
 
+    @FXML
+    public void initialize() {
+        async.cancelWhenClosed(titleField);
+    }
+
     // Called by parent controller after login
     public void setLoggedInUser(User user) {
         this.loggedInUser = user;
@@ -136,40 +144,47 @@ public class CreateEventController {
             int organizerId = loggedInUser.getId();
 
             // ---------- CREATE vs UPDATE ----------
-            boolean success;
-            if (eventToEdit == null) {
-                // CREATE NEW EVENT
-                success = eventService.createEvent(
-                        title,
-                        description,
-                        dateTime,
-                        venue,
-                        capacity,
-                        organizerId,
-                        price
-                );
-            } else {
+            Event editing = eventToEdit;
+            Double finalPrice = price;
+            saveButton.setDisable(true);
+            async.load(null, () -> {
+                if (editing == null) {
+                    // CREATE NEW EVENT
+                    return eventService.createEvent(
+                            title,
+                            description,
+                            dateTime,
+                            venue,
+                            capacity,
+                            organizerId,
+                            finalPrice
+                    );
+                }
                 // UPDATE EXISTING EVENT
                 Event updated = new Event(
-                        eventToEdit.getId(),
+                        editing.getId(),
                         title,
                         description,
                         dateTime,
                         venue,
                         capacity,
-                        eventToEdit.getOrganizerId()
+                        editing.getOrganizerId()
                 );
-                success = eventService.updateEvent(updated, price);
-            }
-
-            if (success) {
-                showSuccess(eventToEdit == null
-                        ? "Event created successfully!"
-                        : "Event updated successfully!");
-                closeWindow();
-            } else {
-                showError("Failed to save event. Please try again.");
-            }
+                return eventService.updateEvent(updated, finalPrice);
+            }, success -> {
+                saveButton.setDisable(false);
+                if (success) {
+                    showSuccess(editing == null
+                            ? "Event created successfully!"
+                            : "Event updated successfully!");
+                    closeWindow();
+                } else {
+                    showError("Failed to save event. Please try again.");
+                }
+            }, e -> {
+                saveButton.setDisable(false);
+                showError("An unexpected error occurred while saving the event.");
+            });
 
         } catch (Exception e) {
             // No stack trace in UI; keep it friendly
@@ -15,6 +15,7 @@ import net.javaguids.popin.models.PaidEvent;
 import net.javaguids.popin.models.User;
 import net.javaguids.popin.services.EventService;
 import net.javaguids.popin.services.RegistrationService;
+import net.javaguids.popin.utils.AsyncLoader;
 
 public class EventDetailsController {
 
@@ -38,11 +39,27 @@ public class EventDetailsController {
     private final RegistrationService registrationService = new RegistrationService();
     private final EventService eventService = new EventService();
     private final ReportDAO reportDAO = new ReportDAO(); // NEW
+    private final AsyncLoader async = new AsyncLoader();
+
+    @FXML
+    public void initialize() {
+        async.cancelWhenClosed(titleLabel);
+    }
 
     // Called from EventListController
     public void setEvent(Event event) {
         this.event = event;
         loadEventDetails();
+        if (event.isSummary()) {
+            // lists only load summaries: fetch the description now that it is shown
+            descriptionLabel.setText("Loading…");
+            async.load("details", () -> eventService.getEventById(event.getId()), full -> {
+                if (full != null) {
+                    this.event = full;
+                    loadEventDetails();
+                }
+            });
+        }
     }
 
     // Called from dashboard after login
@@ -80,9 +97,18 @@ public class EventDetailsController {
     }
 
     private void setupAttendeeButtons() {
-        registerButton.setVisible(!registrationService.isEventFull(event.getId())
-                && !registrationService.isUserRegistered(event.getId(), loggedInUser.getId()));
-        cancelButton.setVisible(registrationService.isUserRegistered(event.getId(), loggedInUser.getId()));
+        int eventId = event.getId();
+        int userId = loggedInUser.getId();
+        registerButton.setVisible(false);
+        cancelButton.setVisible(false);
+        async.load("attendeeButtons", () -> {
+            boolean registered = registrationService.isUserRegistered(eventId, userId);
+            boolean full = !registered && registrationService.isEventFull(eventId);
+            return new RegistrationState(registered, full);
+        }, state -> {
+            registerButton.setVisible(!state.full() && !state.registered());
+            cancelButton.setVisible(state.registered());
+        });
         checkInButton.setVisible(false);
         editButton.setVisible(false);
         deleteButton.setVisible(false);
@@ -94,6 +120,8 @@ public class EventDetailsController {
         }
     }
 
+    private record RegistrationState(boolean registered, boolean full) {}
+
     private void setupOrganizerButtons() {
         registerButton.setVisible(false);
         cancelButton.setVisible(false);
@@ -124,32 +152,46 @@ public class EventDetailsController {
     // BUTTON ACTIONS
     // -----------------------------------------
     @FXML private void handleRegister() {
-        try {
-            registrationService.registerUser(event.getId(), loggedInUser.getId());
+        int eventId = event.getId();
+        int userId = loggedInUser.getId();
+        registerButton.setDisable(true);
+        async.load(null, () -> {
+            registrationService.registerUser(eventId, userId);
+            return null;
+        }, ignored -> {
+            registerButton.setDisable(false);
             showSuccess("You are now registered!");
             updateButtonsForRole();
-        } catch (Exception e) {
+        }, e -> {
+            registerButton.setDisable(false);
             showError(e.getMessage());
-        }
+        });
     }
 
     @FXML private void handleCancelRegistration() {
-        try {
-            registrationService.cancelRegistration(event.getId(), loggedInUser.getId());
+        int eventId = event.getId();
+        int userId = loggedInUser.getId();
+        cancelButton.setDisable(true);
+        async.load(null, () -> {
+            registrationService.cancelRegistration(eventId, userId);
+            return null;
+        }, ignored -> {
+            cancelButton.setDisable(false);
             showSuccess("Your registration has been cancelled.");
             updateButtonsForRole();
-        } catch (Exception e) {
+        }, e -> {
+            cancelButton.setDisable(false);
             showError(e.getMessage());
-        }
+        });
     }
 
     @FXML private void handleCheckIn() {
-        try {
-            registrationService.checkInUser(event.getId(), loggedInUser.getId());
-            showSuccess("User checked in successfully.");
-        } catch (Exception e) {
-            showError(e.getMessage());
-        }
+        int eventId = event.getId();
+        int userId = loggedInUser.getId();
+        async.load(null, () -> {
+            registrationService.checkInUser(eventId, userId);
+            return null;
+        }, ignored -> showSuccess("User checked in successfully."), e -> showError(e.getMessage()));
     }
 
     @FXML private void handleEditEvent() {
@@ -183,23 +225,29 @@ public class EventDetailsController {
             return;
         }
 
-        if (reportDAO.hasUserReported(event.getId(), loggedInUser.getId())) {
-            showError("You have already reported this event.");
-            return;
-        }
+        int eventId = event.getId();
+        int userId = loggedInUser.getId();
 
-        Alert confirm = new Alert(Alert.AlertType.CONFIRMATION);
-        confirm.setHeaderText("Report Event");
-        confirm.setContentText("Are you sure you want to report this event?");
-        confirm.showAndWait().ifPresent(result -> {
-            if (result == ButtonType.OK) {
-                boolean ok = reportDAO.addReport(event.getId(), loggedInUser.getId());
-                if (ok) {
-                    showSuccess("Event reported successfully.");
-                } else {
-                    showError("Could not report event. Please try again.");
-                }
+        async.load(null, () -> reportDAO.hasUserReported(eventId, userId), alreadyReported -> {
+            if (alreadyReported) {
+                showError("You have already reported this event.");
+                return;
             }
+
+            Alert confirm = new Alert(Alert.AlertType.CONFIRMATION);
+            confirm.setHeaderText("Report Event");
+            confirm.setContentText("Are you sure you want to report this event?");
+            confirm.showAndWait().ifPresent(result -> {
+                if (result == ButtonType.OK) {
+                    async.load(null, () -> reportDAO.addReport(eventId, userId), ok -> {
+                        if (ok) {
+                            showSuccess("Event reported successfully.");
+                        } else {
+                            showError("Could not report event. Please try again.");
+                        }
+                    });
+                }
+            });
         });
     }
 
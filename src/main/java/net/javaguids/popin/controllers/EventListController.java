@@ -1,7 +1,7 @@
 package net.javaguids.popin.controllers;
 
+import javafx.animation.PauseTransition;
 import javafx.collections.FXCollections;
-import javafx.collections.ObservableList;
 import javafx.fxml.FXML;
 import javafx.scene.control.Alert;
 import javafx.scene.control.Button;
@@ -9,13 +9,28 @@ import javafx.scene.control.ButtonType;
 import javafx.scene.control.ListCell;
 import javafx.scene.control.ListView;
 import javafx.scene.control.TextField;
+import javafx.scene.layout.VBox;
+import javafx.scene.text.Font;
+import javafx.scene.text.FontWeight;
+import javafx.scene.text.Text;
+import javafx.scene.text.TextFlow;
+import javafx.util.Duration;
 import net.javaguids.popin.database.ReportDAO;
 import net.javaguids.popin.models.Event;
+import net.javaguids.popin.models.EventCursor;
+import net.javaguids.popin.models.EventSearchResult;
 import net.javaguids.popin.models.User;
+import net.javaguids.popin.services.AsyncRegistrationService;
+import net.javaguids.popin.services.EventSearchPipeline;
 import net.javaguids.popin.services.EventService;
 import net.javaguids.popin.services.RegistrationService;
+import net.javaguids.popin.services.ServiceExecutor;
+import net.javaguids.popin.utils.AsyncLoader;
+import net.javaguids.popin.utils.LazyPagedList;
+import net.javaguids.popin.utils.Placeholders;
 
-import java.util.List;
+import java.util.HashMap;
+import java.util.Map;
 
 public class EventListController {
 
@@ -29,9 +44,28 @@ public class EventListController {
     private final EventService eventService = new EventService();
     private final RegistrationService registrationService = new RegistrationService();
     private final ReportDAO reportDAO = new ReportDAO(); // NEW
+    private final AsyncRegistrationService asyncRegistrations = new AsyncRegistrationService();
+    private final EventSearchPipeline searchPipeline = EventSearchPipeline.getInstance();
+    private final AsyncLoader async = new AsyncLoader();
 
-    // Holds ALL events so we can filter them
-    private List<Event> fullEventList;
+    // Typing pauses shorter than this only restart the timer, so fast typists trigger one search
+    private static final int SEARCH_DEBOUNCE_MS = 200;
+    private final PauseTransition searchDebounce = new PauseTransition(Duration.millis(SEARCH_DEBOUNCE_MS));
+
+    private static final int PAGE_SIZE = 100;
+    private static final int MAX_PAGES = 10;
+    private static final Event LOADING_EVENT = new Event(0, "Loading…", null, null, "", 0, 0);
+
+    // Upcoming events, loaded page by page as they scroll into view; shown while the search box is empty
+    private final LazyPagedList<Event> upcomingEvents = new LazyPagedList<>("events", async,
+            eventService::countUpcomingEvents,
+            (offset, limit, previous) -> (previous != null
+                    ? eventService.getUpcomingEventsPage(EventCursor.after(previous), limit)
+                    : eventService.getUpcomingEventsAt(offset, limit)).getEvents(),
+            LOADING_EVENT, PAGE_SIZE, MAX_PAGES);
+
+    // Search hits by event id, so cells can show the matching snippet
+    private Map<Integer, EventSearchResult> searchHits = Map.of();
 
     // Logged‑in attendee (set from AttendeeDashboardController)
     private User loggedInUser;
@@ -45,11 +79,19 @@ public class EventListController {
 
     @FXML
     public void initialize() {
+        async.cancelWhenClosed(eventListView);
         loadEvents();
 
-        // Live search listener
+        // Live search listener: a keystroke cancels the running search, the next one starts once typing pauses
         searchField.textProperty().addListener((obs, oldV, newV) -> {
-            filterEvents(newV);
+            async.cancel("search");
+            if (newV == null || newV.isBlank()) {
+                searchDebounce.stop();
+                filterEvents(newV);
+                return;
+            }
+            searchDebounce.setOnFinished(e -> filterEvents(newV));
+            searchDebounce.playFromStart();
         });
 
         // Cell formatting
@@ -59,8 +101,22 @@ public class EventListController {
                 super.updateItem(event, empty);
                 if (empty || event == null) {
                     setText(null);
+                    setGraphic(null);
+                    return;
+                }
+                if (upcomingEvents.isPlaceholder(event)) {
+                    setText(event.getTitle());
+                    setGraphic(null);
+                    return;
+                }
+                String line = event.getTitle() + " — " + event.getDateTime();
+                EventSearchResult hit = searchHits.get(event.getId());
+                if (hit == null) {
+                    setText(line);
+                    setGraphic(null);
                 } else {
-                    setText(event.getTitle() + " — " + event.getDateTime());
+                    setText(null);
+                    setGraphic(new VBox(new Text(line), snippetFlow(hit)));
                 }
             }
         });
@@ -74,36 +130,55 @@ public class EventListController {
         );
     }
 
-    /** Load full event list */
+    /** Count the upcoming events and load the first page; the rest load as they are scrolled to */
     private void loadEvents() {
-        try {
-            fullEventList = eventService.getUpcomingEvents();
-            ObservableList<Event> observableList =
-                    FXCollections.observableArrayList(fullEventList);
-            eventListView.setItems(observableList);
-        } catch (Exception e) {
-            showError("Could not load events: " + e.getMessage());
-        }
+        Placeholders.loading(eventListView);
+        upcomingEvents.refresh(() -> {
+            filterEvents(searchField.getText());
+            Placeholders.empty(eventListView, "No upcoming events.");
+        });
     }
 
-    /** Filter events live by title */
+    /** Search title, description and venue through the full-text index, best matches first */
     private void filterEvents(String keyword) {
         if (keyword == null || keyword.isBlank()) {
-            eventListView.setItems(FXCollections.observableArrayList(fullEventList));
+            async.cancel("search");
+            searchHits = Map.of();
+            eventListView.setItems(upcomingEvents);
             return;
         }
-        String lower = keyword.toLowerCase();
-        List<Event> filtered = fullEventList.stream()
-                .filter(event -> event.getTitle().toLowerCase().contains(lower))
-                .toList();
-        eventListView.setItems(FXCollections.observableArrayList(filtered));
+
+        // cached / narrowed queries complete immediately; others are cancelled down to SQLite if superseded
+        async.await("search", searchPipeline.searchAsync(keyword), results -> {
+            Map<Integer, EventSearchResult> hits = new HashMap<>();
+            for (EventSearchResult result : results) {
+                hits.put(result.getEvent().getId(), result);
+            }
+            searchHits = hits;
+            eventListView.setItems(FXCollections.observableArrayList(
+                    results.stream().map(EventSearchResult::getEvent).toList()));
+            Placeholders.empty(eventListView, "No events match \"" + keyword + "\".");
+        }, e -> showError("Search failed: " + e.getMessage()));
+    }
+
+    /** Snippet with the matched words in bold. */
+    private static TextFlow snippetFlow(EventSearchResult hit) {
+        TextFlow flow = new TextFlow();
+        hit.forEachSnippetPart((text, highlighted) -> {
+            Text part = new Text(text);
+            if (highlighted) {
+                part.setFont(Font.font(null, FontWeight.BOLD, Font.getDefault().getSize()));
+            }
+            flow.getChildren().add(part);
+        });
+        return flow;
     }
 
     // =========================
     // REGISTER / UNREGISTER BTN
     // =========================
     private void updateRegisterButtonState() {
-        Event selected = eventListView.getSelectionModel().getSelectedItem();
+        Event selected = selectedEvent();
 
         if (loggedInUser == null) {
             registerButton.setText("Login required");
@@ -117,47 +192,63 @@ public class EventListController {
             return;
         }
 
-        boolean isRegistered =
-                registrationService.isUserRegistered(selected.getId(), loggedInUser.getId());
-        boolean isFull =
-                registrationService.isEventFull(selected.getId());
+        int eventId = selected.getId();
+        int userId = loggedInUser.getId();
+        registerButton.setDisable(true);
+
+        // both checks run in parallel; keyed, so a newer selection cancels both queries of the
+        // older one and never applies a stale state
+        async.await("registerState",
+                ServiceExecutor.combine(asyncRegistrations.isUserRegistered(eventId, userId),
+                        asyncRegistrations.isEventFull(eventId), RegistrationState::new),
+                state -> {
+                    if (state.registered()) {
+                        registerButton.setText("Unregister");
+                        registerButton.setDisable(false);
+                    } else if (state.full()) {
+                        registerButton.setText("Event full");
+                        registerButton.setDisable(true);
+                    } else {
+                        registerButton.setText("Register");
+                        registerButton.setDisable(false);
+                    }
+                });
+    }
 
-        if (isRegistered) {
-            registerButton.setText("Unregister");
-            registerButton.setDisable(false);
-        } else if (isFull) {
-            registerButton.setText("Event full");
-            registerButton.setDisable(true);
-        } else {
-            registerButton.setText("Register");
-            registerButton.setDisable(false);
-        }
+    /** The selected event, or null if nothing (or a row that is still loading) is selected. */
+    private Event selectedEvent() {
+        Event selected = eventListView.getSelectionModel().getSelectedItem();
+        return upcomingEvents.isPlaceholder(selected) ? null : selected;
     }
 
+    private record RegistrationState(boolean registered, boolean full) {}
+
     @FXML
     private void handleToggleRegistration() {
-        Event selected = eventListView.getSelectionModel().getSelectedItem();
+        Event selected = selectedEvent();
         if (selected == null || loggedInUser == null) {
             return;
         }
 
-        boolean isRegistered =
-                registrationService.isUserRegistered(selected.getId(), loggedInUser.getId());
+        int eventId = selected.getId();
+        int userId = loggedInUser.getId();
+        registerButton.setDisable(true);
 
-        try {
-            if (isRegistered) {
-                registrationService.cancelRegistration(selected.getId(), loggedInUser.getId());
-                showInfo("You have been unregistered from \"" + selected.getTitle() + "\".");
-            } else {
-                registrationService.registerUser(selected.getId(), loggedInUser.getId());
-                showInfo("You are registered for \"" + selected.getTitle() + "\".");
+        async.load(null, () -> {
+            if (registrationService.isUserRegistered(eventId, userId)) {
+                registrationService.cancelRegistration(eventId, userId);
+                return "You have been unregistered from \"" + selected.getTitle() + "\".";
             }
-        } catch (Exception e) {
+            registrationService.registerUser(eventId, userId);
+            return "You are registered for \"" + selected.getTitle() + "\".";
+        }, message -> {
+            showInfo(message);
+            // Refresh button label+state after action
+            updateRegisterButtonState();
+        }, e -> {
             showError(e.getMessage());
-        }
-
-        // Refresh button label+state after action
-        updateRegisterButtonState();
+            updateRegisterButtonState();
+        });
     }
 
     // =========================
@@ -166,7 +257,7 @@ public class EventListController {
     private void updateReportButtonState() {
         if (reportButton == null) return;
 
-        Event selected = eventListView.getSelectionModel().getSelectedItem();
+        Event selected = selectedEvent();
 
         // No user or no event selected → disable
         if (loggedInUser == null || selected == null) {
@@ -182,13 +273,16 @@ public class EventListController {
         }
 
         // If they've already reported, we could disable it too (optional)
-        boolean alreadyReported = reportDAO.hasUserReported(selected.getId(), loggedInUser.getId());
-        reportButton.setDisable(alreadyReported);
+        int eventId = selected.getId();
+        int userId = loggedInUser.getId();
+        reportButton.setDisable(true);
+        async.load("reportState", () -> reportDAO.hasUserReported(eventId, userId),
+                alreadyReported -> reportButton.setDisable(alreadyReported));
     }
 
     @FXML
     private void handleReportEvent() {
-        Event selected = eventListView.getSelectionModel().getSelectedItem();
+        Event selected = selectedEvent();
 
         if (selected == null) {
             showError("Please select an event to report.");
@@ -206,25 +300,31 @@ public class EventListController {
             return;
         }
 
-        if (reportDAO.hasUserReported(selected.getId(), loggedInUser.getId())) {
-            showError("You have already reported this event.");
-            updateReportButtonState();
-            return;
-        }
+        int eventId = selected.getId();
+        int userId = loggedInUser.getId();
 
-        Alert confirm = new Alert(Alert.AlertType.CONFIRMATION);
-        confirm.setHeaderText("Report Event");
-        confirm.setContentText("Are you sure you want to report \"" + selected.getTitle() + "\"?");
-        confirm.showAndWait().ifPresent(result -> {
-            if (result == ButtonType.OK) {
-                boolean ok = reportDAO.addReport(selected.getId(), loggedInUser.getId());
-                if (ok) {
-                    showInfo("Event reported successfully.");
-                } else {
-                    showError("Could not report event. Please try again.");
-                }
+        async.load(null, () -> reportDAO.hasUserReported(eventId, userId), alreadyReported -> {
+            if (alreadyReported) {
+                showError("You have already reported this event.");
                 updateReportButtonState();
+                return;
             }
+
+            Alert confirm = new Alert(Alert.AlertType.CONFIRMATION);
+            confirm.setHeaderText("Report Event");
+            confirm.setContentText("Are you sure you want to report \"" + selected.getTitle() + "\"?");
+            confirm.showAndWait().ifPresent(result -> {
+                if (result == ButtonType.OK) {
+                    async.load(null, () -> reportDAO.addReport(eventId, userId), ok -> {
+                        if (ok) {
+                            showInfo("Event reported successfully.");
+                        } else {
+                            showError("Could not report event. Please try again.");
+                        }
+                        updateReportButtonState();
+                    });
+                }
+            });
         });
     }
 
@@ -11,9 +11,9 @@ import javafx.scene.control.TextField;
 import javafx.stage.Stage;
 import net.javaguids.popin.models.User;
 import net.javaguids.popin.services.AuthService;
+import net.javaguids.popin.utils.AsyncLoader;
 
 import java.io.IOException;
-import java.util.Optional;
 
 public class LoginController {
 
@@ -22,9 +22,11 @@ public class LoginController {
     @FXML private Label errorLabel;   // 🔹 new: inline error
 
     private final AuthService authService = new AuthService();
+    private final AsyncLoader async = new AsyncLoader();
 
     @FXML
     private void initialize() {
+        async.cancelWhenClosed(usernameField);
         if (errorLabel != null) {
             errorLabel.setText("");
             errorLabel.setVisible(false);
@@ -52,14 +54,17 @@ public class LoginController {
             return;
         }
 
-        Optional<User> userOpt = authService.login(username, password);
-
-        if (userOpt.isEmpty()) {
-            showInlineError("Invalid username or password.");
-            return;
-        }
+        // password hashing + lookup run in the background; the dashboard opens on the FX thread
+        async.load("login", () -> authService.login(username, password), userOpt -> {
+            if (userOpt.isEmpty()) {
+                showInlineError("Invalid username or password.");
+                return;
+            }
+            openDashboard(userOpt.get());
+        });
+    }
 
-        User user = userOpt.get();
+    private void openDashboard(User user) {
         String roleName = user.getRole().getName();
 
         try {
@@ -8,11 +8,16 @@ import javafx.scene.Parent;
 import javafx.scene.Scene;
 import javafx.scene.control.*;
 import javafx.stage.Stage;
-import net.javaguids.popin.database.EventDAO;
 import net.javaguids.popin.database.RegistrationDAO;
 import net.javaguids.popin.models.Event;
+import net.javaguids.popin.models.EventCursor;
+import net.javaguids.popin.models.EventPage;
+import net.javaguids.popin.models.EventRow;
 import net.javaguids.popin.models.User;
 import net.javaguids.popin.services.EventService;
+import net.javaguids.popin.utils.AsyncLoader;
+import net.javaguids.popin.utils.LazyPagedList;
+import net.javaguids.popin.utils.Placeholders;
 
 import java.io.IOException;
 import java.time.format.DateTimeFormatter;
@@ -20,24 +25,40 @@ import java.util.List;
 
 public class MyEventsController {
 
-    @FXML private TableView<Event> eventTable;
-    @FXML private TableColumn<Event, String> titleColumn;
-    @FXML private TableColumn<Event, String> dateColumn;
-    @FXML private TableColumn<Event, String> venueColumn;
-    @FXML private TableColumn<Event, Number> capacityColumn;
-    @FXML private TableColumn<Event, Number> goingColumn;
+    @FXML private TableView<EventRow> eventTable;
+    @FXML private TableColumn<EventRow, String> titleColumn;
+    @FXML private TableColumn<EventRow, String> dateColumn;
+    @FXML private TableColumn<EventRow, String> venueColumn;
+    @FXML private TableColumn<EventRow, Number> capacityColumn;
+    @FXML private TableColumn<EventRow, Number> goingColumn;
 
-    private final EventDAO eventDAO = new EventDAO();
     private final RegistrationDAO registrationDAO = new RegistrationDAO();
     private final EventService eventService = new EventService();
+    private final AsyncLoader async = new AsyncLoader();
 
     private final DateTimeFormatter formatter =
             DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
 
+    private static final int PAGE_SIZE = 100;
+    private static final int MAX_PAGES = 10;
+
+    // The organizer's events, loaded page by page as they scroll into view
+    private LazyPagedList<EventRow> rows;
+
     private User loggedInUser;
 
     public void setLoggedInUser(User user) {
         this.loggedInUser = user;
+        int organizerId = user.getId();
+        rows = new LazyPagedList<>("events", async,
+                () -> eventService.countEventsByOrganizer(organizerId),
+                (offset, limit, previous) -> loadRows(organizerId, offset, limit, previous),
+                new EventRow(new Event(0, "Loading…", null, null, "", 0, 0), 0), PAGE_SIZE, MAX_PAGES);
+        if (eventTable != null) {
+            async.cancelWhenClosed(eventTable);
+            Placeholders.loading(eventTable);
+            rows.showIn(eventTable);
+        }
         initColumns();
         loadEvents();
     }
@@ -61,28 +82,52 @@ public class MyEventsController {
         capacityColumn.setCellValueFactory(c ->
                 new SimpleIntegerProperty(c.getValue().getCapacity()));
 
-        // how many registered for each event
+        // how many registered for each event (counted once in loadEvents)
         goingColumn.setCellValueFactory(c ->
-                new SimpleIntegerProperty(
-                        registrationDAO.countRegistered(c.getValue().getId())
-                ));
+                new SimpleIntegerProperty(c.getValue().getRegisteredCount()));
     }
 
     private void loadEvents() {
         if (loggedInUser == null) return;
-        List<Event> events = eventDAO.findByOrganizerId(loggedInUser.getId());
-        eventTable.getItems().setAll(events);
+        rows.refresh(() -> Placeholders.empty(eventTable, "You have not created any events yet."));
+    }
+
+    // One page of events plus the registration counts for just those events
+    private List<EventRow> loadRows(int organizerId, int offset, int limit, EventRow previous) {
+        // through the service, like the count: the first page and the count are cached together
+        EventPage page;
+        if (previous != null || offset == 0) {
+            EventCursor after = previous == null ? null : EventCursor.after(previous.getEvent());
+            page = eventService.getEventsByOrganizerPage(organizerId, after, limit);
+        } else {
+            page = eventService.getEventsByOrganizerAt(organizerId, offset, limit);
+        }
+        List<Event> events = page.getEvents();
+        return EventRow.withCounts(events,
+                registrationDAO.countRegisteredByEventIds(events.stream().map(Event::getId).toList()));
     }
 
     // -------- EDIT --------
     @FXML
     private void handleEditEvent() {
-        Event selected = eventTable.getSelectionModel().getSelectedItem();
+        Event selected = selectedEvent();
         if (selected == null) {
             showAlert(Alert.AlertType.WARNING, "No selection",
                     "Select an event to edit.");
             return;
         }
+        // the table holds summaries; the form needs the description too
+        async.load(null, () -> eventService.getEventById(selected.getId()), full -> {
+            if (full == null) {
+                showAlert(Alert.AlertType.ERROR, "Error", "This event no longer exists.");
+                loadEvents();
+            } else {
+                openEditor(full);
+            }
+        });
+    }
+
+    private void openEditor(Event selected) {
         try {
             FXMLLoader loader = new FXMLLoader(
                     getClass().getResource("/net/javaguids/popin/views/create-event.fxml"));
@@ -118,7 +163,7 @@ public class MyEventsController {
     // -------- DELETE --------
     @FXML
     private void handleDeleteEvent() {
-        Event selected = eventTable.getSelectionModel().getSelectedItem();
+        Event selected = selectedEvent();
         if (selected == null) {
             showAlert(Alert.AlertType.WARNING, "No selection",
                     "Select an event to delete.");
@@ -130,15 +175,16 @@ public class MyEventsController {
         confirm.setContentText("Are you sure you want to delete: " + selected.getTitle() + "?");
         confirm.showAndWait().ifPresent(result -> {
             if (result.getButtonData() == ButtonBar.ButtonData.OK_DONE) {
-                boolean deleted = eventService.deleteEvent(selected.getId());
-                if (deleted) {
-                    showAlert(Alert.AlertType.INFORMATION, "Deleted",
-                            "Event was deleted.");
-                    loadEvents();
-                } else {
-                    showAlert(Alert.AlertType.ERROR, "Error",
-                            "Could not delete event.");
-                }
+                async.load(null, () -> eventService.deleteEvent(selected.getId()), deleted -> {
+                    if (deleted) {
+                        showAlert(Alert.AlertType.INFORMATION, "Deleted",
+                                "Event was deleted.");
+                        loadEvents();
+                    } else {
+                        showAlert(Alert.AlertType.ERROR, "Error",
+                                "Could not delete event.");
+                    }
+                });
             }
         });
     }
@@ -146,21 +192,25 @@ public class MyEventsController {
     // -------- VIEW ATTENDEES (Organizer) --------
     @FXML
     private void handleViewAttendees() {
-        Event selected = eventTable.getSelectionModel().getSelectedItem();
+        Event selected = selectedEvent();
         if (selected == null) {
             showAlert(Alert.AlertType.WARNING, "No selection",
                     "Select an event to view its attendees.");
             return;
         }
 
-        int goingCount = registrationDAO.countRegistered(selected.getId());
-        if (goingCount == 0) {
-            showAlert(Alert.AlertType.INFORMATION,
-                    "No Attendees",
-                    "No one has registered for this event yet.\n(0 attendees)");
-            return;
-        }
+        async.load(null, () -> registrationDAO.countRegistered(selected.getId()), goingCount -> {
+            if (goingCount == 0) {
+                showAlert(Alert.AlertType.INFORMATION,
+                        "No Attendees",
+                        "No one has registered for this event yet.\n(0 attendees)");
+            } else {
+                openAttendeeList(selected);
+            }
+        });
+    }
 
+    private void openAttendeeList(Event selected) {
         try {
             FXMLLoader loader = new FXMLLoader(
                     getClass().getResource("/net/javaguids/popin/views/attendee-list.fxml"));
@@ -193,17 +243,22 @@ public class MyEventsController {
     // -------- VIEW GUEST COUNT --------
     @FXML
     private void handleViewGuestList() {
-        Event selected = eventTable.getSelectionModel().getSelectedItem();
+        Event selected = selectedEvent();
         if (selected == null) {
             showAlert(Alert.AlertType.WARNING, "No selection",
                     "Select an event to view guests.");
             return;
         }
 
-        int goingCount = registrationDAO.countRegistered(selected.getId());
-        showAlert(Alert.AlertType.INFORMATION,
-                "Guest List",
-                "Number of users registered: " + goingCount);
+        async.load(null, () -> registrationDAO.countRegistered(selected.getId()), goingCount ->
+                showAlert(Alert.AlertType.INFORMATION,
+                        "Guest List",
+                        "Number of users registered: " + goingCount));
+    }
+
+    private Event selectedEvent() {
+        EventRow row = eventTable.getSelectionModel().getSelectedItem();
+        return row == null || rows.isPlaceholder(row) ? null : row.getEvent();
     }
 
     @FXML
@@ -8,9 +8,10 @@ import javafx.stage.Stage;
 import net.javaguids.popin.database.RegistrationDAO;
 import net.javaguids.popin.models.Event;
 import net.javaguids.popin.models.User;
+import net.javaguids.popin.utils.AsyncLoader;
+import net.javaguids.popin.utils.Placeholders;
 
 import java.time.format.DateTimeFormatter;
-import java.util.List;
 
 public class MyRegistrationsController {
 
@@ -20,6 +21,7 @@ public class MyRegistrationsController {
     @FXML private TableColumn<Event, String> venueColumn;
 
     private final RegistrationDAO registrationDAO = new RegistrationDAO();
+    private final AsyncLoader async = new AsyncLoader();
     private final DateTimeFormatter formatter =
             DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
 
@@ -28,6 +30,7 @@ public class MyRegistrationsController {
     public void setLoggedInUser(User user) {
         this.loggedInUser = user;
 
+        async.cancelWhenClosed(registrationTable);
         initColumns();
         loadRegistrations();
     }
@@ -48,8 +51,13 @@ public class MyRegistrationsController {
     private void loadRegistrations() {
         if (loggedInUser == null) return;
 
-        List<Event> events = registrationDAO.findByUserId(loggedInUser.getId());
-        registrationTable.getItems().setAll(events);
+        int userId = loggedInUser.getId();
+        registrationTable.getItems().clear();
+        Placeholders.loading(registrationTable);
+        async.load("registrations", () -> registrationDAO.findByUserId(userId), events -> {
+            registrationTable.getItems().setAll(events);
+            Placeholders.empty(registrationTable, "You are not registered for any events.");
+        });
     }
 
     @FXML
@@ -9,9 +9,11 @@ import javafx.scene.control.Label;
 import javafx.scene.control.TableColumn;
 import javafx.scene.control.TableView;
 import javafx.stage.Stage;
-import net.javaguids.popin.database.EventDAO;
 import net.javaguids.popin.models.Event;
 import net.javaguids.popin.models.User;
+import net.javaguids.popin.services.EventService;
+import net.javaguids.popin.utils.AsyncLoader;
+import net.javaguids.popin.utils.Placeholders;
 
 import java.io.IOException;
 import java.time.format.DateTimeFormatter;
@@ -26,7 +28,9 @@ public class OrganizerDashboardController implements DashboardController {
     @FXML private TableColumn<Event, String> dateColumn;
 
     private User loggedInUser;
-    private final EventDAO eventDAO = new EventDAO();
+    private final EventService eventService = new EventService();
+    private final AsyncLoader async = new AsyncLoader();
+    private static final int PREVIEW_SIZE = 5;
     private final DateTimeFormatter formatter =
             DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
 
@@ -36,9 +40,11 @@ public class OrganizerDashboardController implements DashboardController {
         if (welcomeLabel != null && user != null) {
             welcomeLabel.setText("Welcome, " + user.getUsername());
         }
+        if (welcomeLabel != null) {
+            async.cancelWhenClosed(welcomeLabel);
+        }
         initTable();
-        updateStats();
-        loadMyEventsPreview();
+        refresh();
     }
 
     private void initTable() {
@@ -55,23 +61,32 @@ public class OrganizerDashboardController implements DashboardController {
                 ));
     }
 
-    private void updateStats() {
-        if (statsLabel != null && loggedInUser != null) {
-            int count = eventDAO.findByOrganizerId(loggedInUser.getId()).size();
-            statsLabel.setText("You have created " + count + " event(s).");
+    // Stats from an index-only count, preview from the first page: never the whole list (both cached)
+    private void refresh() {
+        if (loggedInUser == null) return;
+
+        int organizerId = loggedInUser.getId();
+        if (myEventsTable != null) {
+            myEventsTable.getItems().clear();
+            Placeholders.loading(myEventsTable);
         }
+        async.load("events", () -> new Preview(
+                eventService.countEventsByOrganizer(organizerId),
+                eventService.getEventsByOrganizerPage(organizerId, null, PREVIEW_SIZE).getEvents()), this::showEvents);
     }
 
-    private void loadMyEventsPreview() {
-        if (myEventsTable == null || loggedInUser == null) return;
-
-        List<Event> events = eventDAO.findByOrganizerId(loggedInUser.getId());
-        if (events.size() > 5) {
-            events = events.subList(0, 5);
+    private void showEvents(Preview preview) {
+        if (statsLabel != null) {
+            statsLabel.setText("You have created " + preview.total() + " event(s).");
+        }
+        if (myEventsTable != null) {
+            myEventsTable.getItems().setAll(preview.events());
+            Placeholders.empty(myEventsTable, "No events yet.");
         }
-        myEventsTable.getItems().setAll(events);
     }
 
+    private record Preview(int total, List<Event> events) {}
+
     @FXML
     private void handleOpenCreateEvent() {
         openWindow("/net/javaguids/popin/views/create-event.fxml", "Create Event");
@@ -119,10 +134,7 @@ public class OrganizerDashboardController implements DashboardController {
             Stage stage = new Stage();
             stage.setTitle(title);
             stage.setScene(new Scene(root));
-            stage.setOnHidden(e -> {
-                updateStats();
-                loadMyEventsPreview();
-            });
+            stage.setOnHidden(e -> refresh());
             stage.show();
         } catch (IOException e) {
             e.printStackTrace();
@@ -6,10 +6,9 @@ import javafx.scene.layout.VBox;
 import javafx.stage.Stage;
 import net.javaguids.popin.database.UserDAO;
 import net.javaguids.popin.models.User;
+import net.javaguids.popin.utils.AsyncLoader;
 import net.javaguids.popin.utils.PasswordHasher;
 
-import java.util.Optional;
-
 public class ProfileController {
 
     @FXML private Label usernameLabel;
@@ -26,8 +25,14 @@ public class ProfileController {
     @FXML private VBox emailSection; // whole email card to hide/show
 
     private final UserDAO userDAO = new UserDAO();
+    private final AsyncLoader async = new AsyncLoader();
     private User loggedInUser;
 
+    @FXML
+    public void initialize() {
+        async.cancelWhenClosed(usernameLabel);
+    }
+
     public void setLoggedInUser(User user) {
         this.loggedInUser = user;
 
@@ -50,11 +55,14 @@ public class ProfileController {
                     emailStatusLabel.setVisible(true);
                     emailStatusLabel.setManaged(true);
 
-                    boolean enabled = userDAO.getEmailNotifications(user.getId());
-                    emailNotificationsCheck.setSelected(enabled);
-                    emailStatusLabel.setText(
-                            "Email notifications: " + (enabled ? "Enabled" : "Disabled")
-                    );
+                    emailStatusLabel.setText("Email notifications: …");
+                    int userId = user.getId();
+                    async.load("emailNotifications", () -> userDAO.getEmailNotifications(userId), enabled -> {
+                        emailNotificationsCheck.setSelected(enabled);
+                        emailStatusLabel.setText(
+                                "Email notifications: " + (enabled ? "Enabled" : "Disabled")
+                        );
+                    });
                 } else {
                     // For non-attendees: no email info line at all
                     emailStatusLabel.setVisible(false);
@@ -82,23 +90,28 @@ public class ProfileController {
             return;
         }
 
-        Optional<User> existingOpt = userDAO.findByUsername(newUsername);
-        if (existingOpt.isPresent()) {
-            showError("This username is already taken.");
-            return;
-        }
-
-        boolean updated = userDAO.updateUsername(loggedInUser.getId(), newUsername);
-        if (!updated) {
-            showError("Could not update username. Please try again.");
-            return;
-        }
+        int userId = loggedInUser.getId();
+        // returns an error message, or null when the username was changed
+        async.load("username", () -> {
+            if (userDAO.findByUsername(newUsername).isPresent()) {
+                return "This username is already taken.";
+            }
+            if (!userDAO.updateUsername(userId, newUsername)) {
+                return "Could not update username. Please try again.";
+            }
+            return null;
+        }, error -> {
+            if (error != null) {
+                showError(error);
+                return;
+            }
 
-        loggedInUser.setUsername(newUsername);
-        usernameLabel.setText("Username: " + newUsername);
-        newUsernameField.clear();
+            loggedInUser.setUsername(newUsername);
+            usernameLabel.setText("Username: " + newUsername);
+            newUsernameField.clear();
 
-        showInfo("Username updated successfully.");
+            showInfo("Username updated successfully.");
+        });
     }
 
     // -------------------- PASSWORD --------------------
@@ -136,25 +149,26 @@ public class ProfileController {
         }
 
         String storedHash = loggedInUser.getPasswordHash();
-        if (!PasswordHasher.matchPassword(oldPw, storedHash)) {
-            showError("Old password is incorrect.");
-            return;
-        }
-
-        String newHash = PasswordHasher.hashPassword(newPw);
-        boolean updated = userDAO.updatePassword(loggedInUser.getId(), newHash);
-        if (!updated) {
-            showError("Could not update password. Please try again.");
-            return;
-        }
-
-        loggedInUser.setPasswordHash(newHash);
+        int userId = loggedInUser.getId();
+        // hashing is deliberately slow, so it runs in the background along with the update
+        async.load("password", () -> {
+            if (!PasswordHasher.matchPassword(oldPw, storedHash)) {
+                throw new IllegalArgumentException("Old password is incorrect.");
+            }
+            String newHash = PasswordHasher.hashPassword(newPw);
+            if (!userDAO.updatePassword(userId, newHash)) {
+                throw new IllegalStateException("Could not update password. Please try again.");
+            }
+            return newHash;
+        }, newHash -> {
+            loggedInUser.setPasswordHash(newHash);
 
-        oldPasswordField.clear();
-        newPasswordField.clear();
-        confirmPasswordField.clear();
+            oldPasswordField.clear();
+            newPasswordField.clear();
+            confirmPasswordField.clear();
 
-        showInfo("Password updated successfully.");
+            showInfo("Password updated successfully.");
+        }, e -> showError(e.getMessage()));
     }
 
     // -------------------- EMAIL PREFERENCES (ATTENDEE only) --------------------
@@ -173,20 +187,22 @@ public class ProfileController {
         }
 
         boolean enabled = emailNotificationsCheck.isSelected();
-        boolean updated = userDAO.updateEmailNotifications(loggedInUser.getId(), enabled);
-        if (!updated) {
-            showError("Could not update email preference. Please try again.");
-            return;
-        }
+        int userId = loggedInUser.getId();
+        async.load("emailNotifications", () -> userDAO.updateEmailNotifications(userId, enabled), updated -> {
+            if (!updated) {
+                showError("Could not update email preference. Please try again.");
+                return;
+            }
 
-        // Update label (only visible for attendees anyway)
-        if (emailStatusLabel != null) {
-            emailStatusLabel.setText(
-                    "Email notifications: " + (enabled ? "Enabled" : "Disabled")
-            );
-        }
+            // Update label (only visible for attendees anyway)
+            if (emailStatusLabel != null) {
+                emailStatusLabel.setText(
+                        "Email notifications: " + (enabled ? "Enabled" : "Disabled")
+                );
+            }
 
-        showInfo("Email notification preferences saved.");
+            showInfo("Email notification preferences saved.");
+        });
     }
 
     // -------------------- HELPERS --------------------
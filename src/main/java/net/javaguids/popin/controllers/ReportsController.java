@@ -1,62 +1,72 @@
 package net.javaguids.popin.controllers;
 
+import javafx.beans.property.SimpleStringProperty;
 import javafx.fxml.FXML;
+import javafx.scene.control.Button;
 import javafx.scene.control.TableColumn;
 import javafx.scene.control.TableView;
 import javafx.scene.control.cell.PropertyValueFactory;
-import net.javaguids.popin.database.EventDAO;
 import net.javaguids.popin.database.ReportDAO;
-import net.javaguids.popin.models.Event;
+import net.javaguids.popin.models.ReportedEvent;
+import net.javaguids.popin.utils.AsyncLoader;
+import net.javaguids.popin.utils.Placeholders;
 
-import java.util.Map;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
 
 public class ReportsController {
 
-    @FXML private TableView<ReportRow> reportsTable;
-    @FXML private TableColumn<ReportRow, String> colEventTitle;
-    @FXML private TableColumn<ReportRow, Integer> colCount;
+    private static final int PAGE_SIZE = 100;
+
+    @FXML private TableView<ReportedEvent> reportsTable;
+    @FXML private TableColumn<ReportedEvent, String> colEventTitle;
+    @FXML private TableColumn<ReportedEvent, String> colOrganizer;
+    @FXML private TableColumn<ReportedEvent, Integer> colCount;
+    @FXML private TableColumn<ReportedEvent, String> colFirstReport;
+    @FXML private TableColumn<ReportedEvent, String> colLastReport;
+    @FXML private TableColumn<ReportedEvent, String> colVelocity;
+    @FXML private Button loadMoreButton;
 
     private final ReportDAO reportDAO = new ReportDAO();
-    private final EventDAO eventDAO = new EventDAO();
+    private final AsyncLoader async = new AsyncLoader();
+
+    private final DateTimeFormatter formatter =
+            DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
 
     @FXML
     public void initialize() {
         colEventTitle.setCellValueFactory(new PropertyValueFactory<>("eventTitle"));
+        colOrganizer.setCellValueFactory(new PropertyValueFactory<>("organizerName"));
         colCount.setCellValueFactory(new PropertyValueFactory<>("reportCount"));
+        colFirstReport.setCellValueFactory(c ->
+                new SimpleStringProperty(format(c.getValue().getFirstReportedAt())));
+        colLastReport.setCellValueFactory(c ->
+                new SimpleStringProperty(format(c.getValue().getLastReportedAt())));
+        colVelocity.setCellValueFactory(c ->
+                new SimpleStringProperty(String.format("%.1f", c.getValue().getReportsPerDay())));
 
+        async.cancelWhenClosed(reportsTable);
+        Placeholders.loading(reportsTable);
         loadData();
     }
 
+    // One query per page, however many events have been reported
     private void loadData() {
-        Map<Integer, Integer> counts = reportDAO.getReportCountsByEvent();
-        for (Map.Entry<Integer, Integer> entry : counts.entrySet()) {
-            int eventId = entry.getKey();
-            int count = entry.getValue();
-            Event e = eventDAO.findById(eventId);
-            if (e != null) {
-                reportsTable.getItems().add(
-                        new ReportRow(e.getTitle(), count)
-                );
-            }
-        }
+        int offset = reportsTable.getItems().size();
+        loadMoreButton.setDisable(true);
+        async.load("page", () -> reportDAO.findReportedEvents(PAGE_SIZE, offset), page -> {
+            reportsTable.getItems().addAll(page);
+            loadMoreButton.setDisable(page.size() < PAGE_SIZE);
+            Placeholders.empty(reportsTable, "No events have been reported.");
+        });
     }
 
-    // simple POJO for table rows
-    public static class ReportRow {
-        private final String eventTitle;
-        private final int reportCount;
-
-        public ReportRow(String eventTitle, int reportCount) {
-            this.eventTitle = eventTitle;
-            this.reportCount = reportCount;
-        }
-
-        public String getEventTitle() {
-            return eventTitle;
-        }
+    @FXML
+    private void handleLoadMore() {
+        loadData();
+    }
 
-        public int getReportCount() {
-            return reportCount;
-        }
+    private String format(LocalDateTime time) {
+        return time != null ? time.format(formatter) : "";
     }
-}
\ No newline at end of file
+}
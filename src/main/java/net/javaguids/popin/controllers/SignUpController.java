@@ -7,6 +7,7 @@ import javafx.scene.control.*;
 import javafx.scene.layout.VBox;
 import javafx.stage.Stage;
 import net.javaguids.popin.services.AuthService;
+import net.javaguids.popin.utils.AsyncLoader;
 
 public class SignUpController {
 
@@ -20,12 +21,15 @@ public class SignUpController {
     @FXML private PasswordField adminCodeField;
 
     private final AuthService authService = new AuthService();
+    private final AsyncLoader async = new AsyncLoader();
 
     private static final int MIN_PASSWORD_LENGTH = 6;
     private static final String ADMIN_SECRET_CODE = "POPIN";
 
     @FXML
     public void initialize() {
+        async.cancelWhenClosed(usernameField);
+
         if (errorLabel != null) {
             errorLabel.setText("");
             errorLabel.setVisible(false);
@@ -123,13 +127,20 @@ public class SignUpController {
             }
         }
 
-        boolean success = authService.registerUser(username, password, role);
-        if (!success) {
-            showInlineError("Invalid fields or user already exists.");
-            return;
+        if (signUpButton != null) {
+            signUpButton.setDisable(true);
         }
+        async.load("signUp", () -> authService.registerUser(username, password, role), success -> {
+            if (!success) {
+                showInlineError("Invalid fields or user already exists.");
+                if (signUpButton != null) {
+                    signUpButton.setDisable(false);
+                }
+                return;
+            }
 
-        goToLogin();
+            goToLogin();
+        });
     }
 
     private void showInlineError(String msg) {
@@ -0,0 +1,149 @@
+package net.javaguids.popin.controllers;
+
+import eu.hansolo.tilesfx.Tile;
+import eu.hansolo.tilesfx.TileBuilder;
+import javafx.animation.KeyFrame;
+import javafx.animation.Timeline;
+import javafx.fxml.FXML;
+import javafx.scene.layout.FlowPane;
+import javafx.stage.Stage;
+import javafx.util.Duration;
+import net.javaguids.popin.models.SystemHealth;
+import net.javaguids.popin.services.SystemHealthMonitor;
+import net.javaguids.popin.utils.AsyncLoader;
+import net.javaguids.popin.utils.FxStallMonitor;
+import net.javaguids.popin.utils.MetricsRegistry;
+
+/**
+ * Live tiles for query throughput, DAO latency, connections, cache hit ratios and FX stalls.
+ *
+ * Every {@code popin.health.refreshMs} (default 1000) a Timeline asks for a new sample; it is
+ * taken on a background thread and only the tile updates run on the FX thread. DAO metrics
+ * are recorded while any such view is open (see {@link MetricsRegistry#acquire()}), so the
+ * opener must call {@link #stop()} when the window closes.
+ */
+public class SystemHealthController {
+
+    private static final long REFRESH_MS = Long.getLong("popin.health.refreshMs", 1000);
+    private static final double TILE_SIZE = 200;
+
+    @FXML private FlowPane tilePane;
+
+    private final AsyncLoader async = new AsyncLoader();
+    private final FxStallMonitor fxStalls = new FxStallMonitor();
+    private final SystemHealthMonitor monitor = new SystemHealthMonitor(fxStalls);
+    private final MetricsRegistry metrics = MetricsRegistry.getInstance();
+    private boolean metricsAcquired;
+    private Timeline refresher;
+
+    private Tile throughputTile;
+    private Tile latencyTile;
+    private Tile connectionsTile;
+    private Tile eventCacheTile;
+    private Tile userCacheTile;
+    private Tile statementCacheTile;
+    private Tile fxStallTile;
+
+    @FXML
+    public void initialize() {
+        async.cancelWhenClosed(tilePane);
+
+        throughputTile = sparkLine("Query throughput", "calls/s", 0);
+        latencyTile = sparkLine("DAO latency p99", "ms", 2);
+        connectionsTile = TileBuilder.create()
+                .skinType(Tile.SkinType.GAUGE)
+                .prefSize(TILE_SIZE, TILE_SIZE)
+                .title("Connections in use")
+                .unit("of pool")
+                .minValue(0)
+                .maxValue(1)
+                .decimals(0)
+                .build();
+        eventCacheTile = hitRatio("Event cache hits");
+        userCacheTile = hitRatio("User cache hits");
+        statementCacheTile = hitRatio("Statement cache hits");
+        fxStallTile = sparkLine("FX thread stall", "ms", 0);
+
+        tilePane.getChildren().addAll(throughputTile, latencyTile, connectionsTile,
+                eventCacheTile, userCacheTile, statementCacheTile, fxStallTile);
+
+        metrics.acquire();
+        metricsAcquired = true;
+        fxStalls.start();
+
+        refresher = new Timeline(new KeyFrame(Duration.millis(REFRESH_MS), e -> refresh()));
+        refresher.setCycleCount(Timeline.INDEFINITE);
+        refresher.play();
+    }
+
+    private static Tile sparkLine(String title, String unit, int decimals) {
+        return TileBuilder.create()
+                .skinType(Tile.SkinType.SPARK_LINE)
+                .prefSize(TILE_SIZE, TILE_SIZE)
+                .title(title)
+                .unit(unit)
+                .decimals(decimals)
+                .averagingPeriod(60)
+                .build();
+    }
+
+    private static Tile hitRatio(String title) {
+        return TileBuilder.create()
+                .skinType(Tile.SkinType.CIRCULAR_PROGRESS)
+                .prefSize(TILE_SIZE, TILE_SIZE)
+                .title(title)
+                .unit("%")
+                .minValue(0)
+                .maxValue(100)
+                .decimals(0)
+                .build();
+    }
+
+    private void refresh() {
+        // a sample still running (e.g. the pool is busy) is replaced, never queued up
+        async.load("sample", monitor::sample, this::show,
+                e -> System.err.println("SystemHealthController: sampling failed: " + e.getMessage()));
+    }
+
+    private void show(SystemHealth health) {
+        throughputTile.setValue(health.getCallsPerSecond());
+
+        latencyTile.setValue(health.getP99Millis());
+        latencyTile.setText(health.getSlowestOperation() == null
+                ? "No DAO calls yet"
+                : "Slowest: " + health.getSlowestOperation());
+
+        connectionsTile.setMaxValue(health.getConnectionPoolSize());
+        connectionsTile.setValue(health.getConnectionsInUse());
+        connectionsTile.setDescription(health.getConnectionWaiters() + " waiting");
+
+        showRatio(eventCacheTile, health.getEventCacheHitRatio());
+        showRatio(userCacheTile, health.getUserCacheHitRatio());
+        showRatio(statementCacheTile, health.getStatementCacheHitRatio());
+
+        fxStallTile.setValue(health.getFxWorstDelayMillis());
+        fxStallTile.setText(String.format("%.0f ms stalled since opened", health.getFxStalledMillis()));
+    }
+
+    private static void showRatio(Tile tile, double ratio) {
+        tile.setValue(ratio < 0 ? 0 : ratio * 100);
+        tile.setText(ratio < 0 ? "No lookups yet" : "");
+    }
+
+    /** Stop refreshing and release the metrics; call when the window closes. */
+    public void stop() {
+        refresher.stop();
+        async.cancelAll();
+        fxStalls.close();
+        if (metricsAcquired) {
+            metricsAcquired = false;
+            metrics.release();
+        }
+    }
+
+    @FXML
+    private void handleClose() {
+        Stage stage = (Stage) tilePane.getScene().getWindow();
+        stage.close();
+    }
+}
@@ -8,9 +8,11 @@ import javafx.scene.control.TableColumn;
 import javafx.scene.control.TableView;
 import javafx.stage.Stage;
 import net.javaguids.popin.database.UserDAO;
+import net.javaguids.popin.models.Attendee;
 import net.javaguids.popin.models.User;
-
-import java.util.List;
+import net.javaguids.popin.utils.AsyncLoader;
+import net.javaguids.popin.utils.LazyPagedList;
+import net.javaguids.popin.utils.Placeholders;
 
 public class UserListController {
 
@@ -27,6 +29,25 @@ public class UserListController {
     private TableColumn<User, String> roleColumn;
 
     private final UserDAO userDAO = new UserDAO();
+    private final AsyncLoader async = new AsyncLoader();
+
+    private static final int PAGE_SIZE = 100;
+    private static final int MAX_PAGES = 10;
+
+    // All users in id order, loaded page by page as the admin scrolls
+    private final LazyPagedList<User> users = new LazyPagedList<>("users", async,
+            userDAO::countAll,
+            (offset, limit, previous) -> previous != null
+                    ? userDAO.listPage(previous.getId(), limit)
+                    : userDAO.listAt(offset, limit),
+            loadingRow(), PAGE_SIZE, MAX_PAGES);
+
+    // Placeholder for rows still loading; no role, so the role column stays blank
+    private static User loadingRow() {
+        User row = new Attendee(0, "Loading…", "");
+        row.setRole(null);
+        return row;
+    }
 
     @FXML
     public void initialize() {
@@ -44,19 +65,21 @@ public class UserListController {
                                 : ""
                 ));
 
+        async.cancelWhenClosed(userTable);
+        Placeholders.loading(userTable);
+        users.showIn(userTable);
         loadUsers();
     }
 
     private void loadUsers() {
-        List<User> users = userDAO.listAll();
-        userTable.getItems().setAll(users);
+        users.refresh(() -> Placeholders.empty(userTable, "No users."));
     }
 
     @FXML
     private void handleDeleteUser() {
         User selected = userTable.getSelectionModel().getSelectedItem();
 
-        if (selected == null) {
+        if (selected == null || users.isPlaceholder(selected)) {
             showError("No user selected", "Please select a user to delete.");
             return;
         }
@@ -72,15 +95,14 @@ public class UserListController {
         // Show dialog and check result
         confirm.showAndWait().ifPresent(buttonType -> {
             switch (buttonType.getButtonData()) {
-                case OK_DONE, YES -> {
-                    boolean deleted = userDAO.deleteById(selected.getId());
+                case OK_DONE, YES -> async.load(null, () -> userDAO.deleteById(selected.getId()), deleted -> {
                     if (deleted) {
                         showInfo("User deleted", "User was deleted successfully.");
                         loadUsers();
                     } else {
                         showError("Delete failed", "Could not delete user from database.");
                     }
-                }
+                });
                 default -> {
                     // Cancel / close – do nothing
                 }
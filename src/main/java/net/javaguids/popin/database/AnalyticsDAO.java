@@ -0,0 +1,101 @@
+package net.javaguids.popin.database;
+
+import net.javaguids.popin.exceptions.DatabaseOperationException;
+import net.javaguids.popin.models.AnalyticsSnapshot;
+
+import java.sql.*;
+import java.time.Instant;
+
+/**
+ * Aggregate queries behind the Analytics screen.
+ * Each figure is computed in SQL; no rows are materialized in Java.
+ */
+public class AnalyticsDAO {
+
+    // ---------------- SNAPSHOT ----------------
+    /**
+     * Compute every dashboard figure in three aggregate statements.
+     * They run in one read transaction, so all figures describe the same moment.
+     */
+    public AnalyticsSnapshot loadSnapshot() {
+        return DaoMetrics.time("AnalyticsDAO.loadSnapshot", () -> {
+            String totalsSql = """
+                SELECT
+                    (SELECT COUNT(*) FROM users),
+                    (SELECT COUNT(*) FROM events),
+                    (SELECT COUNT(*) FROM registrations),
+                    (SELECT COUNT(*) FROM events WHERE price IS NOT NULL),
+                    (SELECT AVG(price) FROM events WHERE price IS NOT NULL);
+            """;
+
+            String organizerSql = """
+                SELECT e.organizer_id, u.username, COUNT(*) AS event_count
+                FROM events e
+                LEFT JOIN users u ON u.id = e.organizer_id
+                GROUP BY e.organizer_id
+                ORDER BY event_count DESC
+                LIMIT 1;
+            """;
+
+            // Ties go to the soonest event, as the old per-event loop did
+            String popularSql = """
+                SELECT e.title, COUNT(*) AS registered
+                FROM events e
+                JOIN registrations r ON r.event_id = e.id AND r.status = 'REGISTERED'
+                WHERE e.starts_at > ?
+                GROUP BY e.id
+                ORDER BY registered DESC, e.starts_at ASC
+                LIMIT 1;
+            """;
+
+            try (Connection conn = Database.getConnection()) {
+                conn.setAutoCommit(false);
+
+                int users, events, registrations, paidEvents;
+                double avgPrice;
+                try (Statement st = conn.createStatement();
+                     ResultSet rs = st.executeQuery(totalsSql)) {
+                    users = rs.getInt(1);
+                    events = rs.getInt(2);
+                    registrations = rs.getInt(3);
+                    paidEvents = rs.getInt(4);
+                    avgPrice = rs.getDouble(5);
+                }
+
+                String organizer = null;
+                int organizerEvents = 0;
+                try (Statement st = conn.createStatement();
+                     ResultSet rs = st.executeQuery(organizerSql)) {
+                    if (rs.next()) {
+                        String username = rs.getString(2);
+                        organizer = username != null ? username : "User #" + rs.getInt(1);
+                        organizerEvents = rs.getInt(3);
+                    }
+                }
+
+                String popular = null;
+                int popularRegistrations = 0;
+                try (PreparedStatement stmt = conn.prepareStatement(popularSql)) {
+                    stmt.setLong(1, EventDAO.nowEpochSeconds());
+                    try (ResultSet rs = stmt.executeQuery()) {
+                        if (rs.next()) {
+                            popular = rs.getString(1);
+                            popularRegistrations = rs.getInt(2);
+                        }
+                    }
+                }
+
+                conn.commit();
+
+                return new AnalyticsSnapshot(users, events, registrations,
+                        organizer, organizerEvents,
+                        paidEvents, avgPrice,
+                        popular, popularRegistrations,
+                        Instant.now());
+
+            } catch (SQLException e) {
+                throw new DatabaseOperationException("Error computing analytics.", e);
+            }
+        });
+    }
+}
@@ -11,81 +11,60 @@ import java.sql.*;
  */
 public class AttendanceDAO {
 
-    public AttendanceDAO() {
-        createTableIfNotExists();
-    }
-
-    private void createTableIfNotExists() {
-        String sql = """
-            CREATE TABLE IF NOT EXISTS event_attendance (
-                id INTEGER PRIMARY KEY AUTOINCREMENT,
-                event_id INTEGER NOT NULL,
-                user_id  INTEGER NOT NULL,
-                status   TEXT NOT NULL,   -- GOING / INTERESTED / FAVORITE
-                UNIQUE(event_id, user_id)
-            );
-        """;
-
-        try (Connection conn = Database.getConnection();
-             Statement stmt = conn.createStatement()) {
-
-            stmt.execute(sql);
-
-        } catch (SQLException e) {
-            throw new DatabaseOperationException("Failed to create event_attendance table.", e);
-        }
-    }
-
     // ---------- PUBLIC API ----------
 
     public boolean markGoing(int eventId, int userId) {
-        return setStatus(eventId, userId, "GOING");
+        return DaoMetrics.time("AttendanceDAO.markGoing", () -> setStatus(eventId, userId, "GOING"));
     }
 
     public boolean markInterested(int eventId, int userId) {
-        return setStatus(eventId, userId, "INTERESTED");
+        return DaoMetrics.time("AttendanceDAO.markInterested", () -> setStatus(eventId, userId, "INTERESTED"));
     }
 
     public boolean markFavorite(int eventId, int userId) {
-        return setStatus(eventId, userId, "FAVORITE");
+        return DaoMetrics.time("AttendanceDAO.markFavorite", () -> setStatus(eventId, userId, "FAVORITE"));
     }
 
     /** Remove any attendance record for this user/event. */
     public boolean clearAttendance(int eventId, int userId) {
-        String sql = "DELETE FROM event_attendance WHERE event_id = ? AND user_id = ?";
+        return DaoMetrics.time("AttendanceDAO.clearAttendance", () -> {
+            String sql = "DELETE FROM event_attendance WHERE event_id = ? AND user_id = ?";
 
-        try (Connection conn = Database.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            try (Connection conn = Database.getConnection();
+                 PreparedStatement stmt = conn.prepareStatement(sql)) {
 
-            stmt.setInt(1, eventId);
-            stmt.setInt(2, userId);
-            int rows = stmt.executeUpdate();
-            return rows > 0;
+                stmt.setInt(1, eventId);
+                stmt.setInt(2, userId);
+                int rows = stmt.executeUpdate();
+                return rows > 0;
 
-        } catch (SQLException e) {
-            throw new DatabaseOperationException(
-                    "Error clearing attendance for event " + eventId + ", user " + userId, e);
-        }
+            } catch (SQLException e) {
+                throw new DatabaseOperationException(
+                        "Error clearing attendance for event " + eventId + ", user " + userId, e);
+            }
+        });
     }
 
     /** How many users marked status = 'GOING' for this event. */
     public int countGoingByEventId(int eventId) {
-        String sql = "SELECT COUNT(*) FROM event_attendance WHERE event_id = ? AND status = 'GOING'";
+        return DaoMetrics.time("AttendanceDAO.countGoingByEventId", () -> {
+            String sql = "SELECT COUNT(*) FROM event_attendance WHERE event_id = ? AND status = 'GOING'";
 
-        try (Connection conn = Database.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            try (Connection conn = Database.getConnection();
+                 PreparedStatement stmt = conn.prepareStatement(sql)) {
 
-            stmt.setInt(1, eventId);
-            ResultSet rs = stmt.executeQuery();
-            if (rs.next()) {
-                return rs.getInt(1);
-            }
-            return 0;
+                stmt.setInt(1, eventId);
+                ResultSet rs = stmt.executeQuery();
+                if (rs.next()) {
+                    return rs.getInt(1);
+                }
+                return 0;
 
-        } catch (SQLException e) {
-            throw new DatabaseOperationException(
-                    "Error counting GOING attendance for event " + eventId, e);
-        }
+            } catch (SQLException e) {
+                throw new DatabaseOperationException(
+                        "Error counting GOING attendance for event " + eventId, e);
+            }
+        });
     }
 
     // ---------- INTERNAL HELPER ----------
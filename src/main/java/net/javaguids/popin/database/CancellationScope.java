@@ -0,0 +1,75 @@
+package net.javaguids.popin.database;
+
+import java.sql.SQLException;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Lets another thread stop the queries a piece of work is running.
+ *
+ * Work started through {@link #call(Callable)} runs with this scope bound to its thread.
+ * Every connection borrowed from the pool meanwhile registers with the scope, and
+ * {@link #cancel()} calls {@code Statement.cancel()} on the statements still open on them
+ * (SQLite aborts the running step with SQLITE_INTERRUPT). Connections already handed back
+ * to the pool are never touched, so cancelling cannot hit another caller's query.
+ */
+public final class CancellationScope {
+
+    private static final ThreadLocal<CancellationScope> CURRENT = new ThreadLocal<>();
+
+    private final Set<Runnable> cancellers = ConcurrentHashMap.newKeySet();
+    private volatile boolean cancelled;
+
+    /** Run {@code work} on the calling thread with this scope bound to it. */
+    public <T> T call(Callable<T> work) throws Exception {
+        CancellationScope previous = CURRENT.get();
+        CURRENT.set(this);
+        try {
+            return work.call();
+        } finally {
+            if (previous == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(previous);
+            }
+        }
+    }
+
+    /** Abort the running statements and refuse new ones. Safe to call from any thread, more than once. */
+    public void cancel() {
+        cancelled = true;
+        for (Runnable canceller : cancellers) {
+            canceller.run();
+        }
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    // ---------------- POOL HOOKS ----------------
+    /** The scope bound to the current thread, or null. */
+    static CancellationScope current() {
+        return CURRENT.get();
+    }
+
+    /** Fails fast once cancelled so cancelled work does not start new queries. */
+    void throwIfCancelled() throws SQLException {
+        if (cancelled) {
+            throw new SQLException("Query was cancelled.");
+        }
+    }
+
+    void register(Runnable canceller) {
+        cancellers.add(canceller);
+        if (cancelled) {
+            // cancel() may have run between the caller's check and the add
+            canceller.run();
+        }
+    }
+
+    void unregister(Runnable canceller) {
+        cancellers.remove(canceller);
+    }
+}
@@ -0,0 +1,659 @@
+package net.javaguids.popin.database;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.sql.Statement;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Small bounded pool of long-lived JDBC connections.
+ *
+ * Callers keep using try-with-resources: the handed-out connection is a proxy
+ * whose close() returns the physical connection to the pool instead of closing it.
+ * Connections borrowed inside a {@link CancellationScope} can have their running
+ * statements cancelled from another thread.
+ *
+ * With a statement cache, each physical connection also keeps its most recently used
+ * {@code prepareStatement(sql)} results. Closing such a statement closes its open result set
+ * and clears its parameters, then keeps it for the next borrower preparing the same SQL,
+ * which skips SQLite's parse and plan step (about two thirds of a primary-key lookup).
+ */
+public class ConnectionPool implements AutoCloseable {
+
+    /** Opens a new physical connection (URL, PRAGMAs etc. are up to the caller). */
+    @FunctionalInterface
+    public interface ConnectionFactory {
+        Connection create() throws SQLException;
+    }
+
+    // Idle connections are only re-validated if they sat unused for longer than this
+    private static final long VALIDATION_INTERVAL_MS = 5_000;
+    private static final int VALIDATION_TIMEOUT_SECONDS = 1;
+
+    private final ConnectionFactory factory;
+    private final int maxSize;
+    private final long maxLifetimeMs;
+    private final long idleTimeoutMs;
+    private final long borrowTimeoutMs;
+    private final int statementCacheSize;
+
+    private final Semaphore permits;
+    private final Deque<PooledEntry> idle = new ArrayDeque<>(); // guarded by itself, most recently used first
+    private volatile boolean closed;
+
+    private final AtomicInteger nextId = new AtomicInteger();
+    private final LongAdder created = new LongAdder();
+    private final LongAdder destroyed = new LongAdder();
+    private final LongAdder borrowed = new LongAdder();
+    private final LongAdder timeouts = new LongAdder();
+    private final LongAdder waitNanos = new LongAdder();
+    private final LongAdder statementHits = new LongAdder();
+    private final LongAdder statementMisses = new LongAdder();
+
+    public ConnectionPool(ConnectionFactory factory,
+                          int maxSize,
+                          long maxLifetimeMs,
+                          long idleTimeoutMs,
+                          long borrowTimeoutMs) {
+        this(factory, maxSize, maxLifetimeMs, idleTimeoutMs, borrowTimeoutMs, 0);
+    }
+
+    /** @param statementCacheSize prepared statements kept per connection; 0 disables the cache */
+    public ConnectionPool(ConnectionFactory factory,
+                          int maxSize,
+                          long maxLifetimeMs,
+                          long idleTimeoutMs,
+                          long borrowTimeoutMs,
+                          int statementCacheSize) {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("Pool size must be at least 1.");
+        }
+        this.factory = factory;
+        this.maxSize = maxSize;
+        this.maxLifetimeMs = maxLifetimeMs;
+        this.idleTimeoutMs = idleTimeoutMs;
+        this.borrowTimeoutMs = borrowTimeoutMs;
+        this.statementCacheSize = Math.max(0, statementCacheSize);
+        this.permits = new Semaphore(maxSize, true);
+    }
+
+    // ---------------- BORROW ----------------
+    public Connection borrow() throws SQLException {
+        if (closed) {
+            throw new SQLException("Connection pool is closed.");
+        }
+        CancellationScope scope = CancellationScope.current();
+        if (scope != null) {
+            scope.throwIfCancelled();
+        }
+
+        long waitStart = System.nanoTime();
+        boolean acquired;
+        try {
+            acquired = permits.tryAcquire(borrowTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a database connection.", e);
+        }
+        waitNanos.add(System.nanoTime() - waitStart);
+
+        if (!acquired) {
+            timeouts.increment();
+            throw new SQLTimeoutException(
+                    "Timed out after " + borrowTimeoutMs + " ms waiting for a database connection.");
+        }
+
+        try {
+            PooledEntry entry = takeHealthyIdle();
+            if (entry == null) {
+                entry = open();
+            }
+            borrowed.increment();
+            return entry.newHandle(scope);
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    private PooledEntry takeHealthyIdle() {
+        while (true) {
+            PooledEntry entry;
+            synchronized (idle) {
+                entry = idle.pollFirst();
+            }
+            if (entry == null) {
+                return null;
+            }
+            if (isUsable(entry, System.currentTimeMillis())) {
+                return entry;
+            }
+            destroy(entry);
+        }
+    }
+
+    private boolean isUsable(PooledEntry entry, long now) {
+        if (isExpired(entry, now) || isIdleTooLong(entry, now)) {
+            return false;
+        }
+        try {
+            if (entry.connection.isClosed()) {
+                return false;
+            }
+            if (now - entry.lastReturnedAt > VALIDATION_INTERVAL_MS) {
+                return entry.connection.isValid(VALIDATION_TIMEOUT_SECONDS);
+            }
+            return true;
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    private PooledEntry open() throws SQLException {
+        Connection physical = factory.create();
+        created.increment();
+        return new PooledEntry(nextId.incrementAndGet(), physical, System.currentTimeMillis());
+    }
+
+    // ---------------- RELEASE ----------------
+    private void release(PooledEntry entry) {
+        long now = System.currentTimeMillis();
+        boolean reusable = !closed && reset(entry) && !isExpired(entry, now);
+
+        if (reusable) {
+            entry.lastReturnedAt = now;
+            synchronized (idle) {
+                idle.offerFirst(entry);
+            }
+        } else {
+            destroy(entry);
+        }
+
+        permits.release();
+        evictIdle();
+    }
+
+    /** Undo whatever the previous borrower left behind so the next one starts clean. */
+    private boolean reset(PooledEntry entry) {
+        try {
+            Connection conn = entry.connection;
+            if (conn.isClosed()) {
+                return false;
+            }
+            if (!conn.getAutoCommit()) {
+                conn.rollback();
+                conn.setAutoCommit(true);
+            }
+            conn.clearWarnings();
+            return true;
+        } catch (SQLException e) {
+            System.err.println("ConnectionPool: discarding connection #" + entry.id
+                    + " that could not be reset: " + e.getMessage());
+            return false;
+        }
+    }
+
+    // ---------------- EVICTION ----------------
+    /** Close idle connections that passed their idle timeout or max lifetime. */
+    public void evictIdle() {
+        long now = System.currentTimeMillis();
+        List<PooledEntry> evicted = new ArrayList<>();
+
+        synchronized (idle) {
+            Iterator<PooledEntry> it = idle.descendingIterator(); // oldest first
+            while (it.hasNext()) {
+                PooledEntry entry = it.next();
+                if (isExpired(entry, now) || isIdleTooLong(entry, now)) {
+                    it.remove();
+                    evicted.add(entry);
+                }
+            }
+        }
+
+        for (PooledEntry entry : evicted) {
+            destroy(entry);
+        }
+    }
+
+    private boolean isExpired(PooledEntry entry, long now) {
+        return maxLifetimeMs > 0 && now - entry.createdAt >= maxLifetimeMs;
+    }
+
+    private boolean isIdleTooLong(PooledEntry entry, long now) {
+        return idleTimeoutMs > 0 && now - entry.lastReturnedAt >= idleTimeoutMs;
+    }
+
+    private void destroy(PooledEntry entry) {
+        try {
+            entry.connection.close();
+        } catch (SQLException e) {
+            System.err.println("ConnectionPool: error closing connection #" + entry.id + ": " + e.getMessage());
+        }
+        destroyed.increment();
+    }
+
+    // ---------------- SHUTDOWN ----------------
+    /** Closes idle connections now; borrowed ones are closed as they come back. */
+    @Override
+    public void close() {
+        closed = true;
+        List<PooledEntry> toClose;
+        synchronized (idle) {
+            toClose = new ArrayList<>(idle);
+            idle.clear();
+        }
+        for (PooledEntry entry : toClose) {
+            destroy(entry);
+        }
+    }
+
+    // ---------------- STATISTICS ----------------
+    public Stats getStats() {
+        int idleCount;
+        synchronized (idle) {
+            idleCount = idle.size();
+        }
+        long borrows = borrowed.sum();
+        return new Stats(
+                maxSize,
+                maxSize - permits.availablePermits(),
+                idleCount,
+                created.sum(),
+                destroyed.sum(),
+                borrows,
+                timeouts.sum(),
+                permits.getQueueLength(),
+                borrows == 0 ? 0 : waitNanos.sum() / borrows / 1_000,
+                statementHits.sum(),
+                statementMisses.sum()
+        );
+    }
+
+    /** Immutable point-in-time view of the pool counters. */
+    public static class Stats {
+        private final int maxSize;
+        private final int active;
+        private final int idle;
+        private final long created;
+        private final long destroyed;
+        private final long borrowed;
+        private final long timeouts;
+        private final int waiting;
+        private final long averageWaitMicros;
+        private final long statementHits;
+        private final long statementMisses;
+
+        public Stats(int maxSize, int active, int idle, long created, long destroyed,
+                     long borrowed, long timeouts, int waiting, long averageWaitMicros,
+                     long statementHits, long statementMisses) {
+            this.maxSize = maxSize;
+            this.active = active;
+            this.idle = idle;
+            this.created = created;
+            this.destroyed = destroyed;
+            this.borrowed = borrowed;
+            this.timeouts = timeouts;
+            this.waiting = waiting;
+            this.averageWaitMicros = averageWaitMicros;
+            this.statementHits = statementHits;
+            this.statementMisses = statementMisses;
+        }
+
+        public int getMaxSize() { return maxSize; }
+        public int getActive() { return active; }
+        public int getIdle() { return idle; }
+        public long getCreated() { return created; }
+        public long getDestroyed() { return destroyed; }
+        public long getBorrowed() { return borrowed; }
+        public long getTimeouts() { return timeouts; }
+        public int getWaiting() { return waiting; }
+        public long getAverageWaitMicros() { return averageWaitMicros; }
+        /** prepareStatement calls answered from a connection's statement cache. */
+        public long getStatementHits() { return statementHits; }
+        /** prepareStatement calls that had to prepare (cache disabled, full, or SQL already in use). */
+        public long getStatementMisses() { return statementMisses; }
+
+        @Override
+        public String toString() {
+            return "active=" + active + "/" + maxSize
+                    + ", idle=" + idle
+                    + ", waiting=" + waiting
+                    + ", created=" + created
+                    + ", destroyed=" + destroyed
+                    + ", borrowed=" + borrowed
+                    + ", timeouts=" + timeouts
+                    + ", avgWait=" + averageWaitMicros + "us"
+                    + ", statements=" + statementHits + " cached/" + statementMisses + " prepared";
+        }
+    }
+
+    // ---------------- INTERNALS ----------------
+    private final class PooledEntry {
+        private final int id;
+        private final Connection connection;
+        private final long createdAt;
+        private volatile long lastReturnedAt;
+
+        // SQL -> prepared statement, least recently used first; only used by the current borrower
+        private final Map<String, CachedStatement> statements = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedStatement> eldest) {
+                if (size() <= statementCacheSize) {
+                    return false;
+                }
+                eldest.getValue().evict();
+                return true;
+            }
+        };
+
+        private PooledEntry(int id, Connection connection, long createdAt) {
+            this.id = id;
+            this.connection = connection;
+            this.createdAt = createdAt;
+            this.lastReturnedAt = createdAt;
+        }
+
+        private Connection newHandle(CancellationScope scope) {
+            return (Connection) Proxy.newProxyInstance(
+                    ConnectionPool.class.getClassLoader(),
+                    new Class<?>[]{Connection.class},
+                    new Handle(this, scope));
+        }
+    }
+
+    /** One borrow of a pooled connection; close() hands it back exactly once. */
+    private final class Handle implements InvocationHandler {
+        private final PooledEntry entry;
+        private final AtomicBoolean returned = new AtomicBoolean();
+
+        // Only used when borrowed inside a CancellationScope; statements guarded by this
+        private final CancellationScope scope;
+        private final List<Statement> statements = new ArrayList<>();
+        private final Runnable canceller = this::cancelStatements;
+
+        // cached statements currently lent out through this handle
+        private final List<Loan> lent = new ArrayList<>();
+
+        private Handle(PooledEntry entry, CancellationScope scope) {
+            this.entry = entry;
+            this.scope = scope;
+            if (scope != null) {
+                scope.register(canceller);
+            }
+        }
+
+        /**
+         * Runs on the cancelling thread. Holding the lock while checking {@code returned}
+         * guarantees the connection is not released (and reused) halfway through.
+         */
+        private void cancelStatements() {
+            synchronized (this) {
+                if (returned.get()) {
+                    return;
+                }
+                for (Statement statement : statements) {
+                    try {
+                        statement.cancel();
+                    } catch (SQLException e) {
+                        System.err.println("ConnectionPool: could not cancel statement on connection #"
+                                + entry.id + ": " + e.getMessage());
+                    }
+                }
+            }
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close" -> {
+                    if (returned.compareAndSet(false, true)) {
+                        giveBackAll();
+                        if (scope != null) {
+                            scope.unregister(canceller);
+                            synchronized (this) {
+                                statements.clear();
+                            }
+                        }
+                        release(entry);
+                    }
+                    return null;
+                }
+                case "isClosed" -> {
+                    if (returned.get()) return true;
+                }
+                case "equals" -> {
+                    return proxy == args[0];
+                }
+                case "hashCode" -> {
+                    return System.identityHashCode(proxy);
+                }
+                case "toString" -> {
+                    return "PooledConnection#" + entry.id + (returned.get() ? " (returned)" : "");
+                }
+                default -> { }
+            }
+
+            if (returned.get()) {
+                throw new SQLException("Connection has already been returned to the pool.");
+            }
+
+            boolean tracked = scope != null && isStatementFactory(method.getName());
+            if (tracked) {
+                scope.throwIfCancelled();
+            }
+
+            Object result;
+            if (statementCacheSize > 0 && method.getName().equals("prepareStatement")
+                    && args.length == 1 && isCacheable((String) args[0])) {
+                result = prepareCached(proxy, (String) args[0]);
+            } else {
+                try {
+                    result = method.invoke(entry.connection, args);
+                } catch (InvocationTargetException e) {
+                    throw e.getCause();
+                }
+            }
+
+            if (tracked) {
+                synchronized (this) {
+                    statements.add((Statement) result);
+                }
+            }
+            return result;
+        }
+
+        // ---------------- STATEMENT CACHE ----------------
+        private PreparedStatement prepareCached(Object connectionProxy, String sql) throws SQLException {
+            CachedStatement cached = entry.statements.get(sql);
+            if (cached != null && !cached.inUse && !cached.statement.isClosed()) {
+                statementHits.increment();
+            } else if (cached != null && cached.inUse) {
+                // the same SQL is already open on this connection (nested use): plain statement
+                statementMisses.increment();
+                return entry.connection.prepareStatement(sql);
+            } else {
+                statementMisses.increment();
+                cached = new CachedStatement(sql, entry.connection.prepareStatement(sql));
+                entry.statements.put(sql, cached);
+            }
+            cached.inUse = true;
+            Loan loan = new Loan(this, cached, connectionProxy);
+            lent.add(loan);
+            return (PreparedStatement) Proxy.newProxyInstance(
+                    ConnectionPool.class.getClassLoader(),
+                    new Class<?>[]{PreparedStatement.class},
+                    loan);
+        }
+
+        private void giveBack(Loan loan) {
+            lent.remove(loan);
+            if (!loan.cached.reset()) {
+                entry.statements.remove(loan.cached.sql, loan.cached);
+            }
+        }
+
+        /** The borrower is done with the connection; statements it left open go back too. */
+        private void giveBackAll() {
+            for (Loan loan : new ArrayList<>(lent)) {
+                loan.end();
+            }
+        }
+
+        /**
+         * sqlite-jdbc leaves an INSERT statement active after executeUpdate (for generated keys)
+         * until it is closed, and while any statement is active a cancel's interrupt never
+         * clears: every later query on the connection would fail. Inserts are not cached.
+         */
+        private static boolean isCacheable(String sql) {
+            String head = sql.stripLeading();
+            return !head.regionMatches(true, 0, "INSERT", 0, 6)
+                    && !head.regionMatches(true, 0, "REPLACE", 0, 7);
+        }
+
+        private static boolean isStatementFactory(String methodName) {
+            return methodName.equals("createStatement")
+                    || methodName.equals("prepareStatement")
+                    || methodName.equals("prepareCall");
+        }
+    }
+
+    /** A physical statement in a connection's cache, lent to one caller at a time. */
+    private static final class CachedStatement {
+        private final String sql;
+        private final PreparedStatement statement;
+        private boolean inUse;
+        private boolean evicted;
+        private ResultSet results; // the caller's last result set, closed when the statement comes back
+
+        private CachedStatement(String sql, PreparedStatement statement) {
+            this.sql = sql;
+            this.statement = statement;
+        }
+
+        /** Dropped from the cache: close now, or when the current caller is done with it. */
+        private void evict() {
+            evicted = true;
+            if (!inUse) {
+                closeQuietly();
+            }
+        }
+
+        /**
+         * Make the statement ready for its next caller. An open result set would keep
+         * SQLite's read snapshot (and block WAL checkpoints), so it is always closed.
+         * Returns false if the statement was closed instead.
+         */
+        private boolean reset() {
+            inUse = false;
+            try {
+                if (results != null) {
+                    results.close();
+                    results = null;
+                }
+                if (!evicted) {
+                    statement.clearParameters();
+                    return true;
+                }
+            } catch (SQLException e) {
+                System.err.println("ConnectionPool: dropping cached statement that could not be reset: " + e.getMessage());
+            }
+            closeQuietly();
+            return false;
+        }
+
+        private void closeQuietly() {
+            try {
+                statement.close();
+            } catch (SQLException e) {
+                System.err.println("ConnectionPool: error closing cached statement: " + e.getMessage());
+            }
+        }
+    }
+
+    /** One caller's use of a cached statement; close() gives it back to the connection's cache. */
+    private static final class Loan implements InvocationHandler {
+        private final Handle handle;
+        private final CachedStatement cached;
+        private final Object connectionProxy;
+        private boolean closed;
+
+        private Loan(Handle handle, CachedStatement cached, Object connectionProxy) {
+            this.handle = handle;
+            this.cached = cached;
+            this.connectionProxy = connectionProxy;
+        }
+
+        /** Idempotent, so a statement closed after its connection cannot reset the next caller's. */
+        private void end() {
+            if (!closed) {
+                closed = true;
+                handle.giveBack(this);
+            }
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close" -> {
+                    end();
+                    return null;
+                }
+                case "isClosed" -> {
+                    return closed || cached.statement.isClosed();
+                }
+                case "getConnection" -> {
+                    return connectionProxy;
+                }
+                case "cancel" -> {
+                    if (closed) return null; // may already be lent to the next query
+                }
+                case "equals" -> {
+                    return proxy == args[0];
+                }
+                case "hashCode" -> {
+                    return System.identityHashCode(proxy);
+                }
+                case "toString" -> {
+                    return "CachedStatement[" + cached.sql + "]" + (closed ? " (closed)" : "");
+                }
+                default -> { }
+            }
+
+            if (closed) {
+                throw new SQLException("Statement is closed.");
+            }
+
+            Object result;
+            try {
+                result = method.invoke(cached.statement, args);
+            } catch (InvocationTargetException e) {
+                // e.g. interrupted by a cancel: SQLite may still count the statement as running,
+                // which would keep the connection's interrupt flag set, so it is not reused
+                cached.evicted = true;
+                throw e.getCause();
+            }
+            if (result instanceof ResultSet rs) {
+                cached.results = rs;
+            }
+            return result;
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package net.javaguids.popin.database;
+
+import net.javaguids.popin.models.EventPage;
+import net.javaguids.popin.utils.MetricsRegistry;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * Times DAO methods into {@link MetricsRegistry}: every public DAO method runs its body
+ * through {@link #time} or {@link #run} under the name "Dao.method".
+ *
+ * Rows are what the method returned: the size of a list, map or page, 0 or 1 for a single
+ * (possibly missing) row, and 1 for counts and write results. A call that throws counts as
+ * an error. While the registry is disabled the body runs with no other work.
+ */
+final class DaoMetrics {
+
+    private static final MetricsRegistry REGISTRY = MetricsRegistry.getInstance();
+
+    private DaoMetrics() {}
+
+    static <T> T time(String operation, Supplier<T> body) {
+        if (!REGISTRY.isEnabled()) {
+            return body.get();
+        }
+        long started = System.nanoTime();
+        T result;
+        try {
+            result = body.get();
+        } catch (RuntimeException | Error e) {
+            REGISTRY.record(operation, System.nanoTime() - started, 0, true);
+            throw e;
+        }
+        REGISTRY.record(operation, System.nanoTime() - started, rows(result), false);
+        return result;
+    }
+
+    static void run(String operation, Runnable body) {
+        time(operation, () -> {
+            body.run();
+            return null;
+        });
+    }
+
+    private static long rows(Object result) {
+        if (result == null) {
+            return 0;
+        }
+        if (result instanceof Collection<?> rows) {
+            return rows.size();
+        }
+        if (result instanceof Map<?, ?> rows) {
+            return rows.size();
+        }
+        if (result instanceof EventPage page) {
+            return page.getEvents().size();
+        }
+        if (result instanceof Optional<?> row) {
+            return row.isPresent() ? 1 : 0;
+        }
+        return 1;
+    }
+}
@@ -3,47 +3,59 @@ package net.javaguids.popin.database;
 import java.sql.Connection;
 import java.sql.DriverManager;
 import java.sql.SQLException;
-import java.sql.Statement;
 
 public class Database {
-    private static final String DB_URL = "jdbc:sqlite:popin.db";
+    private static final String DB_URL = System.getProperty("popin.db.url", "jdbc:sqlite:popin.db");
+    private static final SqliteProfile PROFILE = SqliteProfile.fromSystemProperty();
+
+    // Pool tuning can be overridden with -Dpopin.pool.size=... etc.
+    private static final ConnectionPool POOL = new ConnectionPool(
+            Database::openConnection,
+            Integer.getInteger("popin.pool.size", 8),
+            Long.getLong("popin.pool.maxLifetimeMs", 30 * 60 * 1000L),
+            Long.getLong("popin.pool.idleTimeoutMs", 5 * 60 * 1000L),
+            Long.getLong("popin.pool.borrowTimeoutMs", 10_000L),
+            Integer.getInteger("popin.pool.statementCacheSize", 64)
+    );
 
     static {
-        try (Connection conn = getConnection();
-             Statement stmt = conn.createStatement()) {
-
-            String createUsersTable = """
-                CREATE TABLE IF NOT EXISTS users (
-                    id INTEGER PRIMARY KEY AUTOINCREMENT,
-                    username TEXT NOT NULL UNIQUE,
-                    password_hash TEXT NOT NULL,
-                    role_name TEXT NOT NULL,
-                    email_notifications INTEGER DEFAULT 1
-                );
-            """;
-            stmt.execute(createUsersTable);
-
-            // NEW: reports table (very simple: event + attendee)
-            String createReportsTable = """
-                CREATE TABLE IF NOT EXISTS reports (
-                    id INTEGER PRIMARY KEY AUTOINCREMENT,
-                    event_id INTEGER NOT NULL,
-                    attendee_id INTEGER NOT NULL,
-                    created_at TEXT DEFAULT CURRENT_TIMESTAMP,
-                    FOREIGN KEY (event_id) REFERENCES events(id),
-                    FOREIGN KEY (attendee_id) REFERENCES users(id)
-                );
-            """;
-            stmt.execute(createReportsTable);
-
-            // Event & registration tables are handled in EventDAO / RegistrationDAO
+        Runtime.getRuntime().addShutdownHook(new Thread(POOL::close, "popin-db-pool-shutdown"));
 
-        } catch (SQLException e) {
+        try (Connection conn = getConnection()) {
+            // All tables and indexes are created by versioned migrations (see SchemaMigrations)
+            SchemaMigrator.withDefaultMigrations().migrate(conn);
+
+            System.out.println("Database: schema v" + SchemaMigrator.currentVersion(conn)
+                    + ", " + PROFILE.describeEffective(conn));
+
+        } catch (SQLException | RuntimeException e) {
             System.err.println("Error initializing database: " + e.getMessage());
         }
     }
 
+    private static Connection openConnection() throws SQLException {
+        Connection conn = DriverManager.getConnection(DB_URL);
+        try {
+            PROFILE.apply(conn);
+        } catch (SQLException e) {
+            conn.close();
+            throw e;
+        }
+        return conn;
+    }
+
+    /**
+     * Borrow a pooled connection. Closing it (try-with-resources) returns it to the pool.
+     */
     public static Connection getConnection() throws SQLException {
-        return DriverManager.getConnection(DB_URL);
+        return POOL.borrow();
+    }
+
+    public static SqliteProfile getProfile() {
+        return PROFILE;
+    }
+
+    public static ConnectionPool.Stats getPoolStats() {
+        return POOL.getStats();
     }
 }
\ No newline at end of file
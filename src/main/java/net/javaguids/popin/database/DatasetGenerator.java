@@ -0,0 +1,331 @@
+package net.javaguids.popin.database;
+
+import net.javaguids.popin.exceptions.DatabaseOperationException;
+import net.javaguids.popin.utils.PasswordHasher;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Fills the database with a synthetic but realistically shaped dataset, for reproducing
+ * slowness on large tables in tests, benchmarks and local runs.
+ *
+ * Shape:
+ * - users {@code user1..userN}, all with password {@link #PASSWORD}; user1 is an admin and
+ *   every 40th user an organizer, some organizers running far more events than others;
+ * - a quarter of the events are in the past, the rest within the next six months;
+ * - event popularity follows a Zipf distribution, so a few events hold most registrations;
+ *   capacities are raised where needed so no event is over-booked;
+ * - registrations to past events are mostly checked in, about one in ten is cancelled;
+ * - reports cluster on a handful of events, in bursts of a few days.
+ *
+ * The same spec (including the seed) always produces the same rows, with dates relative to
+ * today. Everything is inserted in batches inside one transaction. It is meant for an empty
+ * (or freshly reset) database: usernames clash with an earlier run's. Rows are written
+ * directly, so callers holding event caches (EventCatalog, AnalyticsService) should clear
+ * them; UserDAO's cache is cleared here.
+ *
+ * Headless use, against {@code popin.db.url}:
+ * {@code java -cp ... net.javaguids.popin.database.DatasetGenerator [registrations] [seed]}
+ */
+public final class DatasetGenerator {
+
+    public static final String PASSWORD = "password";
+
+    private static final int BATCH_SIZE = 10_000;
+    private static final int ORGANIZER_EVERY = 40;
+
+    private static final double EVENT_POPULARITY_SKEW = 1.0;
+    private static final double ORGANIZER_ACTIVITY_SKEW = 0.8;
+    private static final double REPORT_CLUSTERING_SKEW = 1.5;
+
+    private static final DateTimeFormatter REPORT_TIME = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    /** How many rows of each kind to generate, and the seed that fixes them. */
+    public record Spec(int users, int events, int registrations, int reports, long seed) {
+
+        public Spec {
+            if (users < ORGANIZER_EVERY || events < 1 || registrations < 0 || reports < 0) {
+                throw new IllegalArgumentException("Need at least " + ORGANIZER_EVERY + " users and 1 event.");
+            }
+            if ((long) users * events < registrations) {
+                throw new IllegalArgumentException("More registrations than (user, event) pairs.");
+            }
+        }
+
+        /** Proportions of a busy instance: 50 registrations per user, 200 per event, 1 report per 100. */
+        public static Spec ofRegistrations(int registrations, long seed) {
+            return new Spec(Math.max(ORGANIZER_EVERY, registrations / 50), Math.max(1, registrations / 200),
+                    registrations, registrations / 100, seed);
+        }
+    }
+
+    /** What was generated. Generated ids are contiguous, starting at the first ids below. */
+    public record Result(Spec spec, int firstUserId, int firstEventId, long elapsedMillis) {
+
+        /** Database id of generated user {@code n} (1-based, as in "user" + n). */
+        public int userId(int n) {
+            return firstUserId + n - 1;
+        }
+
+        /** Database id of generated event {@code n} (1-based, as in "Event " + n). */
+        public int eventId(int n) {
+            return firstEventId + n - 1;
+        }
+
+        public static String username(int n) {
+            return "user" + n;
+        }
+
+        @Override
+        public String toString() {
+            return spec.users() + " users, " + spec.events() + " events, " + spec.registrations()
+                    + " registrations, " + spec.reports() + " reports in " + elapsedMillis + " ms";
+        }
+    }
+
+    private final Spec spec;
+    private final SplittableRandom random;
+    private final LocalDateTime now = LocalDateTime.now().withNano(0);
+
+    private DatasetGenerator(Spec spec) {
+        this.spec = spec;
+        this.random = new SplittableRandom(spec.seed());
+    }
+
+    public static Result generate(Spec spec) {
+        return new DatasetGenerator(spec).run();
+    }
+
+    public static void main(String[] args) {
+        int registrations = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        long seed = args.length > 1 ? Long.parseLong(args[1]) : 42;
+        System.out.println("DatasetGenerator: " + generate(Spec.ofRegistrations(registrations, seed)));
+    }
+
+    private Result run() {
+        long started = System.nanoTime();
+
+        // decided up front: capacities depend on how many registrations each event gets
+        int[] registrationsPerEvent = registrationsPerEvent();
+        int[] organizerOf = organizers();
+
+        // a failure rolls everything back when the connection returns to the pool
+        try (Connection conn = Database.getConnection()) {
+            conn.setAutoCommit(false);
+            int firstUserId = insertUsers(conn);
+            int firstEventId = insertEvents(conn, firstUserId, organizerOf, registrationsPerEvent);
+            insertRegistrations(conn, firstUserId, firstEventId, registrationsPerEvent);
+            insertReports(conn, firstUserId, firstEventId);
+            conn.commit();
+            return new Result(spec, firstUserId, firstEventId, (System.nanoTime() - started) / 1_000_000);
+
+        } catch (SQLException e) {
+            throw new DatabaseOperationException("Error generating dataset.", e);
+        } finally {
+            UserDAO.clearCache();
+        }
+    }
+
+    // ---------------- DISTRIBUTIONS ----------------
+    private int[] registrationsPerEvent() {
+        int[] counts = new int[spec.events()];
+        Zipf popularity = new Zipf(spec.events(), EVENT_POPULARITY_SKEW);
+        int[] rank = permutation(spec.events()); // popularity is not tied to insertion order
+        for (int r = 0; r < spec.registrations(); ) {
+            int event = rank[popularity.sample(random)];
+            if (counts[event] < spec.users()) { // an event is full once every user registered
+                counts[event]++;
+                r++;
+            }
+        }
+        return counts;
+    }
+
+    /** organizerOf[event] = the organizing user's number. */
+    private int[] organizers() {
+        int organizers = spec.users() / ORGANIZER_EVERY;
+        Zipf activity = new Zipf(organizers, ORGANIZER_ACTIVITY_SKEW);
+        int[] rank = permutation(organizers);
+        int[] organizerOf = new int[spec.events()];
+        for (int e = 0; e < organizerOf.length; e++) {
+            organizerOf[e] = (rank[activity.sample(random)] + 1) * ORGANIZER_EVERY;
+        }
+        return organizerOf;
+    }
+
+    private boolean isPast(int event) {
+        return event % 4 == 3;
+    }
+
+    private int[] permutation(int n) {
+        int[] order = new int[n];
+        Arrays.setAll(order, i -> i);
+        for (int i = n - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int swap = order[i];
+            order[i] = order[j];
+            order[j] = swap;
+        }
+        return order;
+    }
+
+    /** Ranks 0..n-1 with P(k) proportional to 1 / (k + 1)^skew, sampled by binary search. */
+    private static final class Zipf {
+        private final double[] cumulative;
+
+        private Zipf(int n, double skew) {
+            cumulative = new double[n];
+            double sum = 0;
+            for (int k = 0; k < n; k++) {
+                sum += 1 / Math.pow(k + 1, skew);
+                cumulative[k] = sum;
+            }
+        }
+
+        private int sample(SplittableRandom random) {
+            double target = random.nextDouble() * cumulative[cumulative.length - 1];
+            int i = Arrays.binarySearch(cumulative, target);
+            return Math.min(i >= 0 ? i : -i - 1, cumulative.length - 1);
+        }
+    }
+
+    // ---------------- INSERTS ----------------
+    /** Returns the id of user1. */
+    private int insertUsers(Connection conn) throws SQLException {
+        String hash = PasswordHasher.hashPassword(PASSWORD);
+        try (PreparedStatement insert = conn.prepareStatement(
+                "INSERT INTO users (username, password_hash, role_name) VALUES (?, ?, ?)")) {
+            for (int u = 1; u <= spec.users(); u++) {
+                insert.setString(1, Result.username(u));
+                insert.setString(2, hash);
+                insert.setString(3, u == 1 ? "ADMIN" : u % ORGANIZER_EVERY == 0 ? "ORGANIZER" : "ATTENDEE");
+                addBatch(insert, u);
+            }
+            insert.executeBatch();
+        }
+        return lastId(conn, "users") - spec.users() + 1;
+    }
+
+    /** Returns the id of event 1. */
+    private int insertEvents(Connection conn, int firstUserId, int[] organizerOf, int[] registrationsPerEvent)
+            throws SQLException {
+        try (PreparedStatement insert = conn.prepareStatement(
+                "INSERT INTO events (title, description, date_time, venue, capacity, organizer_id, price, starts_at) "
+                        + "VALUES (?, ?, ?, ?, ?, ?, ?, ?)")) {
+            for (int e = 0; e < spec.events(); e++) {
+                LocalDateTime when = (isPast(e) ? now.minusDays(1 + random.nextInt(365)) : now.plusDays(1 + random.nextInt(180)))
+                        .withHour(9 + random.nextInt(13)).withMinute(random.nextBoolean() ? 0 : 30).withSecond(0);
+                // log-uniform between 20 and 2000 seats, never below what the event sold
+                int capacity = (int) Math.max(20 * Math.pow(100, random.nextDouble()), registrationsPerEvent[e]);
+
+                insert.setString(1, "Event " + (e + 1));
+                insert.setString(2, "Generated event " + (e + 1) + ". " + "Lorem ipsum dolor sit amet. ".repeat(1 + random.nextInt(8)));
+                insert.setString(3, when.toString());
+                insert.setString(4, "Venue " + (1 + random.nextInt(200)));
+                insert.setInt(5, capacity);
+                insert.setInt(6, firstUserId + organizerOf[e] - 1);
+                if (random.nextInt(10) < 4) {
+                    insert.setNull(7, Types.REAL);
+                } else {
+                    insert.setDouble(7, 5 * (1 + random.nextInt(20)));
+                }
+                insert.setLong(8, when.toEpochSecond(ZoneOffset.UTC));
+                addBatch(insert, e + 1);
+            }
+            insert.executeBatch();
+        }
+        return lastId(conn, "events") - spec.events() + 1;
+    }
+
+    private void insertRegistrations(Connection conn, int firstUserId, int firstEventId, int[] registrationsPerEvent)
+            throws SQLException {
+        int users = spec.users();
+        int written = 0;
+        try (PreparedStatement insert = conn.prepareStatement(
+                "INSERT INTO registrations (event_id, user_id, status) VALUES (?, ?, ?)")) {
+            for (int e = 0; e < registrationsPerEvent.length; e++) {
+                // distinct users per event: walk the users with a step coprime to their count
+                int start = random.nextInt(users);
+                int step = coprimeStep(users);
+                for (int i = 0; i < registrationsPerEvent[e]; i++) {
+                    int user = (int) ((start + (long) i * step) % users);
+                    insert.setInt(1, firstEventId + e);
+                    insert.setInt(2, firstUserId + user);
+                    insert.setString(3, status(isPast(e)));
+                    addBatch(insert, ++written);
+                }
+            }
+            insert.executeBatch();
+        }
+    }
+
+    private String status(boolean past) {
+        int roll = random.nextInt(100);
+        if (roll < (past ? 10 : 8)) {
+            return "CANCELLED";
+        }
+        return past && roll < 75 ? "CHECKED_IN" : "REGISTERED";
+    }
+
+    private int coprimeStep(int n) {
+        while (true) {
+            int step = 1 + random.nextInt(n);
+            if (gcd(step, n) == 1) {
+                return step;
+            }
+        }
+    }
+
+    private static int gcd(int a, int b) {
+        return b == 0 ? a : gcd(b, a % b);
+    }
+
+    private void insertReports(Connection conn, int firstUserId, int firstEventId) throws SQLException {
+        Zipf clustering = new Zipf(spec.events(), REPORT_CLUSTERING_SKEW);
+        int[] rank = permutation(spec.events());
+        // each reported event draws its reports within a few days of its own moment;
+        // created_at is UTC, like the CURRENT_TIMESTAMP default
+        long nowUtc = LocalDateTime.now(ZoneOffset.UTC).toEpochSecond(ZoneOffset.UTC);
+        long[] burstStart = new long[spec.events()];
+        for (int e = 0; e < burstStart.length; e++) {
+            burstStart[e] = nowUtc - 86_400L * (1 + random.nextInt(90));
+        }
+
+        try (PreparedStatement insert = conn.prepareStatement(
+                "INSERT INTO reports (event_id, attendee_id, created_at) VALUES (?, ?, ?)")) {
+            for (int r = 1; r <= spec.reports(); r++) {
+                int event = rank[clustering.sample(random)];
+                long at = Math.min(nowUtc, burstStart[event] + (long) (-Math.log(1 - random.nextDouble()) * 86_400));
+                insert.setInt(1, firstEventId + event);
+                insert.setInt(2, firstUserId + random.nextInt(spec.users()));
+                insert.setString(3, LocalDateTime.ofEpochSecond(at, 0, ZoneOffset.UTC).format(REPORT_TIME));
+                addBatch(insert, r);
+            }
+            insert.executeBatch();
+        }
+    }
+
+    private static void addBatch(PreparedStatement insert, int rowsSoFar) throws SQLException {
+        insert.addBatch();
+        if (rowsSoFar % BATCH_SIZE == 0) {
+            insert.executeBatch();
+        }
+    }
+
+    private static int lastId(Connection conn, String table) throws SQLException {
+        try (Statement st = conn.createStatement();
+             ResultSet rs = st.executeQuery("SELECT MAX(id) FROM " + table)) {
+            return rs.getInt(1);
+        }
+    }
+}
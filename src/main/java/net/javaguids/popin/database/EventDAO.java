@@ -2,275 +2,665 @@ package net.javaguids.popin.database;
 
 import net.javaguids.popin.exceptions.DatabaseOperationException;
 import net.javaguids.popin.models.Event;
+import net.javaguids.popin.models.EventChange;
+import net.javaguids.popin.models.EventCursor;
+import net.javaguids.popin.models.EventPage;
+import net.javaguids.popin.models.EventSearchResult;
 import net.javaguids.popin.models.PaidEvent;
 
 import java.sql.*;
 import java.time.LocalDateTime;
+import java.time.ZoneOffset;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
 
 public class EventDAO {
 
     private static final DateTimeFormatter FORMATTER = DateTimeFormatter.ISO_LOCAL_DATE_TIME;
 
-    public EventDAO() {
-        createTableIfNotExists();
+    // Columns of an event summary (see Event.isSummary)
+    static final String SUMMARY_COLUMNS =
+            "id, title, date_time, venue, capacity, organizer_id, price, starts_at";
+
+    // Notified after every successful create / update / delete, once its connection is released
+    private static final List<Consumer<EventChange>> CHANGE_LISTENERS = new CopyOnWriteArrayList<>();
+
+    // ---------------- CHANGE LISTENERS ----------------
+    public static void addChangeListener(Consumer<EventChange> listener) {
+        CHANGE_LISTENERS.add(listener);
     }
 
-    // ---------------- TABLE CREATION ----------------
-    private void createTableIfNotExists() {
-        String sql = """
-            CREATE TABLE IF NOT EXISTS events (
-                id INTEGER PRIMARY KEY AUTOINCREMENT,
-                title TEXT NOT NULL,
-                description TEXT,
-                date_time TEXT NOT NULL,
-                venue TEXT NOT NULL,
-                capacity INTEGER NOT NULL,
-                organizer_id INTEGER NOT NULL,
-                price REAL
-            );
-        """;
+    public static void removeChangeListener(Consumer<EventChange> listener) {
+        CHANGE_LISTENERS.remove(listener);
+    }
 
-        try (Connection conn = Database.getConnection();
-             Statement stmt = conn.createStatement()) {
+    private static void fireChanged(EventChange change) {
+        for (Consumer<EventChange> listener : CHANGE_LISTENERS) {
+            listener.accept(change);
+        }
+    }
 
-            stmt.execute(sql);
+    // ---------------- WRITE TRANSACTIONS ----------------
+    @FunctionalInterface
+    private interface Write<T> {
+        T run() throws SQLException;
+    }
 
-        } catch (SQLException e) {
-            throw new DatabaseOperationException("Failed to create events table.", e);
+    /**
+     * Run {@code write}, which reads before it writes, under BEGIN IMMEDIATE so the write lock is
+     * held from the start. In a deferred transaction, another connection committing between the
+     * read and the write makes the write fail with SQLITE_BUSY, and busy_timeout does not retry that.
+     */
+    private static <T> T writeTransaction(Connection conn, Write<T> write) throws SQLException {
+        try (Statement st = conn.createStatement()) {
+            st.execute("BEGIN IMMEDIATE");
+            try {
+                T result = write.run();
+                st.execute("COMMIT");
+                return result;
+            } catch (SQLException | RuntimeException e) {
+                // the pool only rolls back transactions opened through setAutoCommit(false)
+                try {
+                    st.execute("ROLLBACK");
+                } catch (SQLException rollbackError) {
+                    e.addSuppressed(rollbackError);
+                }
+                throw e;
+            }
+        }
+    }
+
+    /** Organizer and start time as stored now, for the change notification; null if there is no such event. */
+    private static Event findOwnerAndTime(Connection conn, int id) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(
+                "SELECT organizer_id, starts_at FROM events WHERE id = ?")) {
+            stmt.setInt(1, id);
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (!rs.next()) {
+                    return null;
+                }
+                Event before = new Event();
+                before.setOrganizerId(rs.getInt(1));
+                long startsAt = rs.getLong(2);
+                before.setDateTime(rs.wasNull() ? null : fromEpochSeconds(startsAt));
+                return before;
+            }
         }
     }
 
     // ---------------- CREATE EVENT ----------------
     public boolean createEvent(Event event) {
-        String sql = """
-            INSERT INTO events (title, description, date_time, venue, capacity, organizer_id, price)
-            VALUES (?, ?, ?, ?, ?, ?, ?);
-        """;
-
-        try (Connection conn = Database.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+        return DaoMetrics.time("EventDAO.createEvent", () -> {
+            String sql = """
+                INSERT INTO events (title, description, date_time, venue, capacity, organizer_id, price, starts_at)
+                VALUES (?, ?, ?, ?, ?, ?, ?, ?);
+            """;
+
+            try (Connection conn = Database.getConnection();
+                 PreparedStatement stmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+
+                stmt.setString(1, event.getTitle());
+                stmt.setString(2, event.getDescription());
+                stmt.setString(3, event.getDateTime().format(FORMATTER));
+                stmt.setString(4, event.getVenue());
+                stmt.setInt(5, event.getCapacity());
+                stmt.setInt(6, event.getOrganizerId());
+
+                if (event instanceof PaidEvent paidEvent) {
+                    stmt.setDouble(7, paidEvent.getPrice());
+                } else {
+                    stmt.setNull(7, Types.REAL);
+                }
+                stmt.setLong(8, toEpochSeconds(event.getDateTime()));
 
-            stmt.setString(1, event.getTitle());
-            stmt.setString(2, event.getDescription());
-            stmt.setString(3, event.getDateTime().format(FORMATTER));
-            stmt.setString(4, event.getVenue());
-            stmt.setInt(5, event.getCapacity());
-            stmt.setInt(6, event.getOrganizerId());
+                int rows = stmt.executeUpdate();
+                if (rows == 0) {
+                    throw new DatabaseOperationException("Creating event failed, no rows affected.");
+                }
 
-            if (event instanceof PaidEvent paidEvent) {
-                stmt.setDouble(7, paidEvent.getPrice());
-            } else {
-                stmt.setNull(7, Types.REAL);
-            }
+                try (ResultSet keys = stmt.getGeneratedKeys()) {
+                    if (keys.next()) {
+                        event.setId(keys.getInt(1));
+                    }
+                }
 
-            int rows = stmt.executeUpdate();
-            if (rows == 0) {
-                throw new DatabaseOperationException("Creating event failed, no rows affected.");
+            } catch (SQLException e) {
+                throw new DatabaseOperationException("Error creating event.", e);
             }
+            fireChanged(EventChange.created(event));
             return true;
-
-        } catch (SQLException e) {
-            throw new DatabaseOperationException("Error creating event.", e);
-        }
+        });
     }
 
     // ---------------- FIND BY ID ----------------
     public Event findById(int id) {
-        String sql = "SELECT * FROM events WHERE id = ?";
+        return DaoMetrics.time("EventDAO.findById", () -> {
+            String sql = "SELECT * FROM events WHERE id = ?";
 
-        try (Connection conn = Database.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            try (Connection conn = Database.getConnection();
+                 PreparedStatement stmt = conn.prepareStatement(sql)) {
 
-            stmt.setInt(1, id);
+                stmt.setInt(1, id);
+                return EVENT_ROW.first(stmt);
 
-            try (ResultSet rs = stmt.executeQuery()) {
-                if (rs.next()) {
-                    return mapRowToEvent(rs);
-                }
-                return null;
+            } catch (SQLException e) {
+                throw new DatabaseOperationException("Error finding event with id " + id, e);
             }
-
-        } catch (SQLException e) {
-            throw new DatabaseOperationException("Error finding event with id " + id, e);
-        }
+        });
     }
 
     // ---------------- COUNT REGISTERED ----------------
     public int countRegistered(int eventId) {
-        String sql = """
-            SELECT COUNT(*) FROM registrations
-            WHERE event_id = ? AND status = 'REGISTERED';
-        """;
+        return DaoMetrics.time("EventDAO.countRegistered", () -> {
+            String sql = """
+                SELECT COUNT(*) FROM registrations
+                WHERE event_id = ? AND status = 'REGISTERED';
+            """;
 
-        try (Connection conn = Database.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            try (Connection conn = Database.getConnection();
+                 PreparedStatement stmt = conn.prepareStatement(sql)) {
 
-            stmt.setInt(1, eventId);
-            ResultSet rs = stmt.executeQuery();
-            return rs.getInt(1);
+                stmt.setInt(1, eventId);
+                ResultSet rs = stmt.executeQuery();
+                return rs.getInt(1);
 
-        } catch (SQLException e) {
-            throw new DatabaseOperationException("Error counting registrations for event " + eventId, e);
-        }
+            } catch (SQLException e) {
+                throw new DatabaseOperationException("Error counting registrations for event " + eventId, e);
+            }
+        });
     }
 
     // ---------------- UPDATE EVENT ----------------
     public boolean updateEvent(Event event, Double price) {
-        String sql = """
-            UPDATE events
-            SET title = ?, description = ?, date_time = ?, venue = ?, capacity = ?, organizer_id = ?, price = ?
-            WHERE id = ?;
-        """;
+        return DaoMetrics.time("EventDAO.updateEvent", () -> {
+            if (event.isSummary()) {
+                // saving it would wipe the description that was never loaded
+                throw new IllegalArgumentException(
+                        "Event " + event.getId() + " is a list summary; load it with findById before updating.");
+            }
+            String sql = """
+                UPDATE events
+                SET title = ?, description = ?, date_time = ?, venue = ?, capacity = ?, organizer_id = ?, price = ?,
+                    starts_at = ?
+                WHERE id = ?;
+            """;
+
+            EventChange change;
+            // read the old owner and time in the same transaction as the write, so the
+            // notification describes exactly what this update replaced
+            try (Connection conn = Database.getConnection();
+                 PreparedStatement stmt = conn.prepareStatement(sql)) {
+                change = writeTransaction(conn, () -> {
+                    Event before = findOwnerAndTime(conn, event.getId());
+                    if (before == null) {
+                        throw new DatabaseOperationException("No event found to update with id " + event.getId());
+                    }
+
+                    stmt.setString(1, event.getTitle());
+                    stmt.setString(2, event.getDescription());
+                    stmt.setString(3, event.getDateTime().format(FORMATTER));
+                    stmt.setString(4, event.getVenue());
+                    stmt.setInt(5, event.getCapacity());
+                    stmt.setInt(6, event.getOrganizerId());
+
+                    if (price != null) {
+                        stmt.setDouble(7, price);
+                    } else {
+                        stmt.setNull(7, Types.REAL);
+                    }
+
+                    stmt.setLong(8, toEpochSeconds(event.getDateTime()));
+                    stmt.setInt(9, event.getId());
+                    stmt.executeUpdate();
+                    return EventChange.updated(before.getOrganizerId(), before.getDateTime(), event);
+                });
+
+            } catch (SQLException e) {
+                throw new DatabaseOperationException("Error updating event with id " + event.getId(), e);
+            }
+            fireChanged(change);
+            return true;
+        });
+    }
 
-        try (Connection conn = Database.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+    // ---------------- DELETE EVENT ----------------
+    public boolean deleteEvent(int id) {
+        return DaoMetrics.time("EventDAO.deleteEvent", () -> {
+            String sql = "DELETE FROM events WHERE id = ?";
+
+            EventChange change;
+            try (Connection conn = Database.getConnection();
+                 PreparedStatement stmt = conn.prepareStatement(sql)) {
+                change = writeTransaction(conn, () -> { // as in updateEvent
+                    Event before = findOwnerAndTime(conn, id);
+                    if (before == null) {
+                        throw new DatabaseOperationException("No event deleted for id " + id);
+                    }
+
+                    stmt.setInt(1, id);
+                    stmt.executeUpdate();
+                    return EventChange.deleted(id, before.getOrganizerId(), before.getDateTime());
+                });
+
+            } catch (SQLException e) {
+                throw new DatabaseOperationException("Error deleting event with id " + id, e);
+            }
+            fireChanged(change);
+            return true;
+        });
+    }
 
-            stmt.setString(1, event.getTitle());
-            stmt.setString(2, event.getDescription());
-            stmt.setString(3, event.getDateTime().format(FORMATTER));
-            stmt.setString(4, event.getVenue());
-            stmt.setInt(5, event.getCapacity());
-            stmt.setInt(6, event.getOrganizerId());
+    // ---------------- FIND EVENTS ----------------
+    // Listings return summaries: every column but the description, which lists never show.
+    // Use findById for the full event.
+    public List<Event> findAll() {
+        return DaoMetrics.time("EventDAO.findAll", () -> {
+            String sql = "SELECT " + SUMMARY_COLUMNS + " FROM events ORDER BY starts_at DESC;";
 
-            if (price != null) {
-                stmt.setDouble(7, price);
-            } else {
-                stmt.setNull(7, Types.REAL);
+            try (Connection conn = Database.getConnection();
+                 PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+                return SUMMARY_ROW.list(stmt);
+
+            } catch (SQLException e) {
+                throw new DatabaseOperationException("Error retrieving all events.", e);
             }
+        });
+    }
 
-            stmt.setInt(8, event.getId());
-            int rows = stmt.executeUpdate();
+    public List<Event> findAllUpcoming() {
+        return DaoMetrics.time("EventDAO.findAllUpcoming", () -> {
+            String sql = """
+                SELECT %s FROM events
+                WHERE starts_at > ?
+                ORDER BY starts_at ASC;
+            """.formatted(SUMMARY_COLUMNS);
+
+            try (Connection conn = Database.getConnection();
+                 PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+                stmt.setLong(1, nowEpochSeconds());
+                return SUMMARY_ROW.list(stmt);
 
-            if (rows == 0) {
-                throw new DatabaseOperationException("No event found to update with id " + event.getId());
+            } catch (SQLException e) {
+                throw new DatabaseOperationException("Error retrieving upcoming events.", e);
             }
-            return true;
+        });
+    }
 
-        } catch (SQLException e) {
-            throw new DatabaseOperationException("Error updating event with id " + event.getId(), e);
-        }
+    public List<Event> findByOrganizerId(int organizerId) {
+        return DaoMetrics.time("EventDAO.findByOrganizerId", () -> {
+            String sql = """
+                SELECT %s FROM events
+                WHERE organizer_id = ?
+                ORDER BY starts_at DESC;
+            """.formatted(SUMMARY_COLUMNS);
+
+            try (Connection conn = Database.getConnection();
+                 PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+                stmt.setInt(1, organizerId);
+                return SUMMARY_ROW.list(stmt);
+
+            } catch (SQLException e) {
+                throw new DatabaseOperationException("Error retrieving events for organizer " + organizerId, e);
+            }
+        });
     }
 
-    // ---------------- DELETE EVENT ----------------
-    public boolean deleteEvent(int id) {
-        String sql = "DELETE FROM events WHERE id = ?";
+    // ---------------- KEYSET PAGES ----------------
+    // Each page seeks straight to the cursor through idx_events_starts_at / idx_events_organizer_starts_at
+    // (the rowid id is the last index column), so page N costs the same as page 1 and never sorts.
 
-        try (Connection conn = Database.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+    /** Like findAll (latest first), one page at a time; {@code after} is null for the first page. */
+    public EventPage findAllPage(EventCursor after, int pageSize) {
+        return DaoMetrics.time("EventDAO.findAllPage", () -> {
+            String sql = after == null
+                    ? "SELECT " + SUMMARY_COLUMNS + " FROM events ORDER BY starts_at DESC, id DESC LIMIT ?;"
+                    : "SELECT " + SUMMARY_COLUMNS + " FROM events WHERE (starts_at, id) < (?, ?) ORDER BY starts_at DESC, id DESC LIMIT ?;";
 
-            stmt.setInt(1, id);
-            int rows = stmt.executeUpdate();
-            if (rows == 0) {
-                throw new DatabaseOperationException("No event deleted for id " + id);
+            try (Connection conn = Database.getConnection();
+                 PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+                int i = bindCursor(stmt, 1, after);
+                stmt.setInt(i, pageSize + 1);
+                return readPage(stmt, pageSize);
+
+            } catch (SQLException e) {
+                throw new DatabaseOperationException("Error retrieving a page of events.", e);
             }
-            return true;
+        });
+    }
 
-        } catch (SQLException e) {
-            throw new DatabaseOperationException("Error deleting event with id " + id, e);
-        }
+    /** Like findAllUpcoming (soonest first), one page at a time. */
+    public EventPage findUpcomingPage(EventCursor after, int pageSize) {
+        return DaoMetrics.time("EventDAO.findUpcomingPage", () -> {
+            String sql = after == null
+                    ? "SELECT " + SUMMARY_COLUMNS + " FROM events WHERE starts_at > ? ORDER BY starts_at ASC, id ASC LIMIT ?;"
+                    : "SELECT " + SUMMARY_COLUMNS + " FROM events WHERE starts_at > ? AND (starts_at, id) > (?, ?) "
+                            + "ORDER BY starts_at ASC, id ASC LIMIT ?;";
+
+            try (Connection conn = Database.getConnection();
+                 PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+                stmt.setLong(1, nowEpochSeconds());
+                int i = bindCursor(stmt, 2, after);
+                stmt.setInt(i, pageSize + 1);
+                return readPage(stmt, pageSize);
+
+            } catch (SQLException e) {
+                throw new DatabaseOperationException("Error retrieving a page of upcoming events.", e);
+            }
+        });
     }
 
-    // ---------------- FIND EVENTS ----------------
-    public List<Event> findAll() {
-        List<Event> events = new ArrayList<>();
-        String sql = "SELECT * FROM events ORDER BY datetime(date_time) DESC;";
+    /** Like findByOrganizerId (latest first), one page at a time. */
+    public EventPage findByOrganizerPage(int organizerId, EventCursor after, int pageSize) {
+        return DaoMetrics.time("EventDAO.findByOrganizerPage", () -> {
+            String sql = after == null
+                    ? "SELECT " + SUMMARY_COLUMNS + " FROM events WHERE organizer_id = ? ORDER BY starts_at DESC, id DESC LIMIT ?;"
+                    : "SELECT " + SUMMARY_COLUMNS + " FROM events WHERE organizer_id = ? AND (starts_at, id) < (?, ?) "
+                            + "ORDER BY starts_at DESC, id DESC LIMIT ?;";
 
-        try (Connection conn = Database.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql);
-             ResultSet rs = stmt.executeQuery()) {
+            try (Connection conn = Database.getConnection();
+                 PreparedStatement stmt = conn.prepareStatement(sql)) {
 
-            while (rs.next()) {
-                events.add(mapRowToEvent(rs));
+                stmt.setInt(1, organizerId);
+                int i = bindCursor(stmt, 2, after);
+                stmt.setInt(i, pageSize + 1);
+                return readPage(stmt, pageSize);
+
+            } catch (SQLException e) {
+                throw new DatabaseOperationException("Error retrieving a page of events for organizer " + organizerId, e);
             }
-            return events;
+        });
+    }
 
-        } catch (SQLException e) {
-            throw new DatabaseOperationException("Error retrieving all events.", e);
-        }
+    // Positional pages, for jumping to a spot no cursor is known for (e.g. dragging a scroll bar).
+    // OFFSET still walks the index up to the position, so continue from getNext() once there.
+
+    /** Page of findAllPage's listing starting at row {@code offset}. */
+    public EventPage findAllAt(int offset, int pageSize) {
+        return DaoMetrics.time("EventDAO.findAllAt", () -> {
+            String sql = "SELECT " + SUMMARY_COLUMNS + " FROM events ORDER BY starts_at DESC, id DESC LIMIT ? OFFSET ?;";
+
+            try (Connection conn = Database.getConnection();
+                 PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+                stmt.setInt(1, pageSize + 1);
+                stmt.setInt(2, offset);
+                return readPage(stmt, pageSize);
+
+            } catch (SQLException e) {
+                throw new DatabaseOperationException("Error retrieving events at offset " + offset, e);
+            }
+        });
     }
 
-    public List<Event> findAllUpcoming() {
-        List<Event> events = new ArrayList<>();
-        String sql = """
-            SELECT * FROM events
-            WHERE datetime(date_time) > datetime('now')
-            ORDER BY datetime(date_time) ASC;
-        """;
+    /** Page of findUpcomingPage's listing starting at row {@code offset}. */
+    public EventPage findUpcomingAt(int offset, int pageSize) {
+        return DaoMetrics.time("EventDAO.findUpcomingAt", () -> {
+            String sql = "SELECT " + SUMMARY_COLUMNS + " FROM events WHERE starts_at > ? ORDER BY starts_at ASC, id ASC LIMIT ? OFFSET ?;";
 
-        try (Connection conn = Database.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql);
-             ResultSet rs = stmt.executeQuery()) {
+            try (Connection conn = Database.getConnection();
+                 PreparedStatement stmt = conn.prepareStatement(sql)) {
 
-            while (rs.next()) {
-                events.add(mapRowToEvent(rs));
+                stmt.setLong(1, nowEpochSeconds());
+                stmt.setInt(2, pageSize + 1);
+                stmt.setInt(3, offset);
+                return readPage(stmt, pageSize);
+
+            } catch (SQLException e) {
+                throw new DatabaseOperationException("Error retrieving upcoming events at offset " + offset, e);
             }
-            return events;
+        });
+    }
 
-        } catch (SQLException e) {
-            throw new DatabaseOperationException("Error retrieving upcoming events.", e);
+    /** Page of findByOrganizerPage's listing starting at row {@code offset}. */
+    public EventPage findByOrganizerAt(int organizerId, int offset, int pageSize) {
+        return DaoMetrics.time("EventDAO.findByOrganizerAt", () -> {
+            String sql = "SELECT " + SUMMARY_COLUMNS + " FROM events WHERE organizer_id = ? "
+                    + "ORDER BY starts_at DESC, id DESC LIMIT ? OFFSET ?;";
+
+            try (Connection conn = Database.getConnection();
+                 PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+                stmt.setInt(1, organizerId);
+                stmt.setInt(2, pageSize + 1);
+                stmt.setInt(3, offset);
+                return readPage(stmt, pageSize);
+
+            } catch (SQLException e) {
+                throw new DatabaseOperationException("Error retrieving events for organizer " + organizerId
+                        + " at offset " + offset, e);
+            }
+        });
+    }
+
+    /** Binds the cursor (if any) from {@code index}; returns the next free parameter index. */
+    private static int bindCursor(PreparedStatement stmt, int index, EventCursor after) throws SQLException {
+        if (after == null) {
+            return index;
         }
+        stmt.setLong(index, toEpochSeconds(after.getStartsAt()));
+        stmt.setInt(index + 1, after.getEventId());
+        return index + 2;
     }
 
-    public List<Event> findByOrganizerId(int organizerId) {
-        List<Event> events = new ArrayList<>();
+    /** Reads up to pageSize rows; the query asks for one extra row only to learn whether more exist. */
+    private static EventPage readPage(PreparedStatement stmt, int pageSize) throws SQLException {
+        if (pageSize < 1) {
+            throw new IllegalArgumentException("Page size must be at least 1.");
+        }
+        List<Event> events = new ArrayList<>(pageSize);
+        boolean hasMore = false;
+        try (ResultSet rs = stmt.executeQuery()) {
+            RowMapper.Reader<Event> reader = SUMMARY_ROW.bind(rs);
+            while (rs.next()) {
+                if (events.size() == pageSize) {
+                    hasMore = true;
+                    break;
+                }
+                events.add(reader.read(rs));
+            }
+        }
+        EventCursor next = hasMore ? EventCursor.after(events.get(events.size() - 1)) : null;
+        return new EventPage(events, next);
+    }
+
+    // ---------------- COUNTS (index-only) ----------------
+    public int countUpcoming() {
+        return DaoMetrics.time("EventDAO.countUpcoming", () -> {
+            String sql = "SELECT COUNT(*) FROM events WHERE starts_at > ?";
+
+            try (Connection conn = Database.getConnection();
+                 PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+                stmt.setLong(1, nowEpochSeconds());
+                try (ResultSet rs = stmt.executeQuery()) {
+                    return rs.getInt(1);
+                }
+
+            } catch (SQLException e) {
+                throw new DatabaseOperationException("Error counting upcoming events.", e);
+            }
+        });
+    }
+
+    public int countByOrganizer(int organizerId) {
+        return DaoMetrics.time("EventDAO.countByOrganizer", () -> {
+            String sql = "SELECT COUNT(*) FROM events WHERE organizer_id = ?";
+
+            try (Connection conn = Database.getConnection();
+                 PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+                stmt.setInt(1, organizerId);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    return rs.getInt(1);
+                }
+
+            } catch (SQLException e) {
+                throw new DatabaseOperationException("Error counting events for organizer " + organizerId, e);
+            }
+        });
+    }
+
+    // ---------------- FULL-TEXT SEARCH ----------------
+    /** Events whose title, description or venue match every word of {@code query} (as prefixes), best first. */
+    public List<EventSearchResult> search(String query, int limit, int offset) {
+        return DaoMetrics.time("EventDAO.search", () -> search(query, null, limit, offset));
+    }
+
+    /** Same as {@link #search(String, int, int)}, limited to events that have not started yet. */
+    public List<EventSearchResult> searchUpcoming(String query, int limit, int offset) {
+        return DaoMetrics.time("EventDAO.searchUpcoming", () -> search(query, nowEpochSeconds(), limit, offset));
+    }
+
+    private List<EventSearchResult> search(String query, Long startsAfter, int limit, int offset) {
+        String match = toMatchQuery(query);
+        if (match.isEmpty()) {
+            return List.of();
+        }
+
+        // bm25 weights follow the column order: a title hit counts most, then venue, then description
         String sql = """
-            SELECT * FROM events
-            WHERE organizer_id = ?
-            ORDER BY datetime(date_time) DESC;
+            SELECT e.*,
+                   snippet(events_fts, -1, ?, ?, '…', 12) AS snippet,
+                   bm25(events_fts, 10.0, 1.0, 3.0) AS score
+            FROM events_fts
+            JOIN events e ON e.id = events_fts.rowid
+            WHERE events_fts MATCH ?
+        """ + (startsAfter != null ? " AND e.starts_at > ?" : "") + """
+            ORDER BY score, e.id
+            LIMIT ? OFFSET ?;
         """;
 
         try (Connection conn = Database.getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
 
-            stmt.setInt(1, organizerId);
-
-            try (ResultSet rs = stmt.executeQuery()) {
-                while (rs.next()) {
-                    events.add(mapRowToEvent(rs));
-                }
+            int i = 1;
+            stmt.setString(i++, EventSearchResult.HIGHLIGHT_START);
+            stmt.setString(i++, EventSearchResult.HIGHLIGHT_END);
+            stmt.setString(i++, match);
+            if (startsAfter != null) {
+                stmt.setLong(i++, startsAfter);
             }
-            return events;
+            stmt.setInt(i++, limit);
+            stmt.setInt(i, offset);
+            return SEARCH_ROW.list(stmt);
 
         } catch (SQLException e) {
-            throw new DatabaseOperationException("Error retrieving events for organizer " + organizerId, e);
+            throw new DatabaseOperationException("Error searching events.", e);
         }
     }
 
+    /**
+     * Turn free text into an FTS5 query: each word becomes a quoted prefix term ("word"*),
+     * so FTS operators and punctuation typed by the user are matched literally, never parsed.
+     */
+    static String toMatchQuery(String text) {
+        if (text == null) {
+            return "";
+        }
+        StringBuilder match = new StringBuilder();
+        for (String word : text.split("[^\\p{L}\\p{N}]+")) {
+            if (word.isEmpty()) {
+                continue;
+            }
+            if (match.length() > 0) {
+                match.append(' ');
+            }
+            match.append('"').append(word).append("\"*");
+        }
+        return match.toString();
+    }
+
     // ---------------- ANALYTICS: COUNT ALL ----------------
     public int countAll() {
-        String sql = "SELECT COUNT(*) FROM events";
+        return DaoMetrics.time("EventDAO.countAll", () -> {
+            String sql = "SELECT COUNT(*) FROM events";
 
-        try (Connection conn = Database.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql);
-             ResultSet rs = stmt.executeQuery()) {
+            try (Connection conn = Database.getConnection();
+                 PreparedStatement stmt = conn.prepareStatement(sql);
+                 ResultSet rs = stmt.executeQuery()) {
 
-            return rs.getInt(1);
+                return rs.getInt(1);
 
-        } catch (SQLException e) {
-            throw new DatabaseOperationException("Error counting events.", e);
-        }
+            } catch (SQLException e) {
+                throw new DatabaseOperationException("Error counting events.", e);
+            }
+        });
     }
 
-    // ---------------- MAP ROW TO EVENT ----------------
-    private Event mapRowToEvent(ResultSet rs) throws SQLException {
-        int id = rs.getInt("id");
-        String title = rs.getString("title");
-        String description = rs.getString("description");
-        String dateString = rs.getString("date_time");
-        String venue = rs.getString("venue");
-        int capacity = rs.getInt("capacity");
-        int organizerId = rs.getInt("organizer_id");
-        double price = rs.getDouble("price");
+    // ---------------- EPOCH HELPERS ----------------
+    // starts_at stores the local wall-clock time as epoch seconds at UTC; events have no
+    // time zone of their own, so this is a lossless, sortable encoding of LocalDateTime.
+    static long toEpochSeconds(LocalDateTime dateTime) {
+        return dateTime.toEpochSecond(ZoneOffset.UTC);
+    }
 
-        LocalDateTime dateTime = LocalDateTime.parse(dateString, FORMATTER);
-        boolean hasPrice = !rs.wasNull();
+    static LocalDateTime fromEpochSeconds(long epochSeconds) {
+        return LocalDateTime.ofEpochSecond(epochSeconds, 0, ZoneOffset.UTC);
+    }
 
-        if (hasPrice) {
-            return new PaidEvent(id, title, description, dateTime, venue, capacity, organizerId, price);
-        }
-        return new Event(id, title, description, dateTime, venue, capacity, organizerId);
+    static long nowEpochSeconds() {
+        return toEpochSeconds(LocalDateTime.now());
+    }
+
+    // ---------------- ROW MAPPING ----------------
+    /** Rows selected with {@link #SUMMARY_COLUMNS}; RegistrationDAO uses it for its events join. */
+    static final RowMapper<Event> SUMMARY_ROW = rs -> eventReader(rs, false);
+
+    /** Full rows, description included. */
+    private static final RowMapper<Event> EVENT_ROW = rs -> eventReader(rs, true);
+
+    /** Full rows plus the {@code snippet} and {@code score} columns of a search. */
+    private static final RowMapper<EventSearchResult> SEARCH_ROW = rs -> {
+        RowMapper.Reader<Event> event = eventReader(rs, true);
+        int snippet = rs.findColumn("snippet");
+        int score = rs.findColumn("score");
+        return row -> new EventSearchResult(event.read(row), row.getString(snippet), row.getDouble(score));
+    };
+
+    /** {@link #SUMMARY_COLUMNS} qualified with a table alias, for joins. */
+    static String summaryColumns(String alias) {
+        return alias + "." + SUMMARY_COLUMNS.replace(", ", ", " + alias + ".");
+    }
+
+    private static RowMapper.Reader<Event> eventReader(ResultSet rs, boolean withDescription) throws SQLException {
+        int id = rs.findColumn("id");
+        int title = rs.findColumn("title");
+        int dateTime = rs.findColumn("date_time");
+        int venue = rs.findColumn("venue");
+        int capacity = rs.findColumn("capacity");
+        int organizerId = rs.findColumn("organizer_id");
+        int price = rs.findColumn("price");
+        int startsAt = rs.findColumn("starts_at");
+        int description = withDescription ? rs.findColumn("description") : 0;
+
+        return row -> {
+            double priceValue = row.getDouble(price);
+            boolean hasPrice = !row.wasNull();
+
+            long startsAtValue = row.getLong(startsAt);
+            LocalDateTime when = row.wasNull()
+                    ? LocalDateTime.parse(row.getString(dateTime), FORMATTER) // row not backfilled
+                    : fromEpochSeconds(startsAtValue);
+
+            Event event = hasPrice
+                    ? new PaidEvent(row.getInt(id), row.getString(title), null, when, row.getString(venue),
+                            row.getInt(capacity), row.getInt(organizerId), priceValue)
+                    : new Event(row.getInt(id), row.getString(title), null, when, row.getString(venue),
+                            row.getInt(capacity), row.getInt(organizerId));
+            if (withDescription) {
+                event.setDescription(row.getString(description));
+            } else {
+                event.setSummary(true);
+            }
+            return event;
+        };
     }
-}
\ No newline at end of file
+}
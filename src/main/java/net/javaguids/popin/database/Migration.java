@@ -0,0 +1,42 @@
+package net.javaguids.popin.database;
+
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+
+/**
+ * One forward-only schema change. Once released, a migration must never be edited;
+ * fix mistakes with a new, higher version instead.
+ */
+public class Migration {
+
+    private final int version;
+    private final String description;
+    private final List<String> statements;
+
+    public Migration(int version, String description, String... statements) {
+        if (version < 1) {
+            throw new IllegalArgumentException("Migration versions start at 1.");
+        }
+        this.version = version;
+        this.description = description;
+        this.statements = List.of(statements);
+    }
+
+    void apply(Statement stmt) throws SQLException {
+        for (String sql : statements) {
+            stmt.execute(sql);
+        }
+    }
+
+    public int getVersion() { return version; }
+
+    public String getDescription() { return description; }
+
+    public List<String> getStatements() { return statements; }
+
+    @Override
+    public String toString() {
+        return "V" + version + " " + description;
+    }
+}
@@ -1,272 +1,443 @@
 package net.javaguids.popin.database;
 
 import net.javaguids.popin.exceptions.DatabaseOperationException;
+import net.javaguids.popin.models.AttendeeEntry;
 import net.javaguids.popin.models.Event;
-import net.javaguids.popin.models.PaidEvent;
 import net.javaguids.popin.models.Registration;
+import net.javaguids.popin.models.RegistrationOutcome;
+import net.javaguids.popin.utils.IntIntHashMap;
 
 import java.sql.*;
-import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 public class RegistrationDAO {
 
-    private static final DateTimeFormatter FORMATTER = DateTimeFormatter.ISO_LOCAL_DATE_TIME;
+    // Bound parameters per IN (...) list, well under SQLite's variable limit
+    private static final int IN_CHUNK_SIZE = 500;
 
-    public RegistrationDAO() {
-        createTableIfNotExists();
-    }
+    private static final RowMapper<Registration> REGISTRATION_ROW = rs -> {
+        int id = rs.findColumn("id");
+        int eventId = rs.findColumn("event_id");
+        int userId = rs.findColumn("user_id");
+        int status = rs.findColumn("status");
+        return row -> new Registration(row.getInt(id), row.getInt(eventId), row.getInt(userId), row.getString(status));
+    };
 
-    // ----------------------------------------------------
-    // CREATE TABLE
-    // ----------------------------------------------------
-    private void createTableIfNotExists() {
-        String sql = """
-            CREATE TABLE IF NOT EXISTS registrations (
-                id INTEGER PRIMARY KEY AUTOINCREMENT,
-                event_id INTEGER NOT NULL,
-                user_id INTEGER NOT NULL,
-                status TEXT NOT NULL,
-                UNIQUE(event_id, user_id)
-            );
-        """;
-
-        try (Connection conn = Database.getConnection();
-             Statement stmt = conn.createStatement()) {
-
-            stmt.execute(sql);
-
-        } catch (SQLException e) {
-            throw new DatabaseOperationException("Failed to create registrations table.", e);
-        }
-    }
+    // SELECT r.user_id, u.username, r.status
+    private static final RowMapper<AttendeeEntry> ATTENDEE_ROW =
+            RowMapper.positional(rs -> new AttendeeEntry(rs.getInt(1), rs.getString(2), rs.getString(3)));
+
+    private static final RowMapper<Integer> USER_ID_ROW = RowMapper.positional(rs -> rs.getInt(1));
 
     // ----------------------------------------------------
     // CREATE REGISTRATION
     // ----------------------------------------------------
     public boolean registerUser(int eventId, int userId) {
-        String sql = """
-            INSERT INTO registrations (event_id, user_id, status)
-            VALUES (?, ?, 'REGISTERED');
-        """;
-
-        try (Connection conn = Database.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-
-            stmt.setInt(1, eventId);
-            stmt.setInt(2, userId);
-            int rows = stmt.executeUpdate();
-            if (rows == 0) {
-                throw new DatabaseOperationException("Registration insert failed, no rows affected.");
+        return DaoMetrics.time("RegistrationDAO.registerUser", () -> {
+            String sql = """
+                INSERT INTO registrations (event_id, user_id, status)
+                VALUES (?, ?, 'REGISTERED');
+            """;
+
+            try (Connection conn = Database.getConnection();
+                 PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+                stmt.setInt(1, eventId);
+                stmt.setInt(2, userId);
+                int rows = stmt.executeUpdate();
+                if (rows == 0) {
+                    throw new DatabaseOperationException("Registration insert failed, no rows affected.");
+                }
+                return true;
+
+            } catch (SQLException e) {
+                // This hits for unique constraint as well (already registered)
+                throw new DatabaseOperationException(
+                        "Error registering user " + userId + " for event " + eventId, e);
             }
-            return true;
+        });
+    }
+
+    // ----------------------------------------------------
+    // ATOMIC ADMISSION (capacity check + insert in one transaction)
+    // ----------------------------------------------------
+    /**
+     * Take a seat for the user if the event is upcoming and not full.
+     * The capacity check and the write are a single statement, so concurrent
+     * callers can never oversell. A cancelled row is re-activated; a checked-in
+     * user is reported as a duplicate and keeps their check-in.
+     */
+    public RegistrationOutcome admit(int eventId, int userId) {
+        return DaoMetrics.time("RegistrationDAO.admit", () -> {
+            String admitSql = """
+                INSERT INTO registrations (event_id, user_id, status)
+                SELECT e.id, ?, 'REGISTERED'
+                FROM events e
+                WHERE e.id = ? AND e.starts_at > ?
+                  AND (SELECT COUNT(*) FROM registrations r
+                       WHERE r.event_id = e.id AND r.status = 'REGISTERED') < e.capacity
+                ON CONFLICT(event_id, user_id) DO UPDATE SET status = 'REGISTERED'
+                WHERE registrations.status = 'CANCELLED';
+            """;
+
+            // Only used when nothing was written, to tell the caller why
+            String reasonSql = """
+                SELECT
+                    (SELECT status FROM registrations WHERE event_id = ? AND user_id = ?),
+                    (SELECT starts_at > ? FROM events WHERE id = ?);
+            """;
+
+            try (Connection conn = Database.getConnection()) {
+                conn.setAutoCommit(false);
+                long now = EventDAO.nowEpochSeconds();
+
+                try (PreparedStatement admit = conn.prepareStatement(admitSql)) {
+                    admit.setInt(1, userId);
+                    admit.setInt(2, eventId);
+                    admit.setLong(3, now);
+
+                    if (admit.executeUpdate() == 1) {
+                        conn.commit();
+                        return RegistrationOutcome.ADMITTED;
+                    }
+                }
+
+                try (PreparedStatement reason = conn.prepareStatement(reasonSql)) {
+                    reason.setInt(1, eventId);
+                    reason.setInt(2, userId);
+                    reason.setLong(3, now);
+                    reason.setInt(4, eventId);
+
+                    try (ResultSet rs = reason.executeQuery()) {
+                        rs.next();
+                        String status = rs.getString(1);
+                        boolean upcoming = rs.getInt(2) == 1;
+                        conn.commit();
+
+                        if ("REGISTERED".equals(status) || "CHECKED_IN".equals(status)) {
+                            return RegistrationOutcome.DUPLICATE;
+                        }
+                        return upcoming ? RegistrationOutcome.FULL : RegistrationOutcome.EVENT_UNAVAILABLE;
+                    }
+                }
 
-        } catch (SQLException e) {
-            // This hits for unique constraint as well (already registered)
-            throw new DatabaseOperationException(
-                    "Error registering user " + userId + " for event " + eventId, e);
-        }
+            } catch (SQLException e) {
+                throw new DatabaseOperationException(
+                        "Error admitting user " + userId + " to event " + eventId, e);
+            }
+        });
     }
 
     // ----------------------------------------------------
     // UPDATE REGISTRATION STATUS
     // ----------------------------------------------------
     public boolean updateStatus(int eventId, int userId, String status) {
-        String sql = """
-            UPDATE registrations SET status = ?
-            WHERE event_id = ? AND user_id = ?;
-        """;
-
-        try (Connection conn = Database.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-
-            stmt.setString(1, status);
-            stmt.setInt(2, eventId);
-            stmt.setInt(3, userId);
-
-            int rows = stmt.executeUpdate();
-            return rows > 0;
-
-        } catch (SQLException e) {
-            throw new DatabaseOperationException(
-                    "Error updating registration status for event " + eventId +
-                            ", user " + userId + " to '" + status + "'", e);
-        }
+        return DaoMetrics.time("RegistrationDAO.updateStatus", () -> {
+            String sql = """
+                UPDATE registrations SET status = ?
+                WHERE event_id = ? AND user_id = ?;
+            """;
+
+            try (Connection conn = Database.getConnection();
+                 PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+                stmt.setString(1, status);
+                stmt.setInt(2, eventId);
+                stmt.setInt(3, userId);
+
+                int rows = stmt.executeUpdate();
+                return rows > 0;
+
+            } catch (SQLException e) {
+                throw new DatabaseOperationException(
+                        "Error updating registration status for event " + eventId +
+                                ", user " + userId + " to '" + status + "'", e);
+            }
+        });
     }
 
     // ----------------------------------------------------
     // CHECK IF USER IS REGISTERED
     // ----------------------------------------------------
     public boolean isUserRegistered(int eventId, int userId) {
-        String sql = """
-            SELECT 1 FROM registrations
-            WHERE event_id = ? AND user_id = ? AND status = 'REGISTERED';
-        """;
+        return DaoMetrics.time("RegistrationDAO.isUserRegistered", () -> {
+            String sql = """
+                SELECT 1 FROM registrations
+                WHERE event_id = ? AND user_id = ? AND status = 'REGISTERED';
+            """;
 
-        try (Connection conn = Database.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            try (Connection conn = Database.getConnection();
+                 PreparedStatement stmt = conn.prepareStatement(sql)) {
 
-            stmt.setInt(1, eventId);
-            stmt.setInt(2, userId);
+                stmt.setInt(1, eventId);
+                stmt.setInt(2, userId);
 
-            ResultSet rs = stmt.executeQuery();
-            return rs.next();
+                ResultSet rs = stmt.executeQuery();
+                return rs.next();
 
-        } catch (SQLException e) {
-            throw new DatabaseOperationException(
-                    "Error checking registration for event " + eventId + ", user " + userId, e);
-        }
+            } catch (SQLException e) {
+                throw new DatabaseOperationException(
+                        "Error checking registration for event " + eventId + ", user " + userId, e);
+            }
+        });
     }
 
     // ----------------------------------------------------
     // COUNT REGISTERED USERS (for capacity)
     // ----------------------------------------------------
     public int countRegistered(int eventId) {
-        String sql = """
-            SELECT COUNT(*) FROM registrations
-            WHERE event_id = ? AND status = 'REGISTERED';
-        """;
-
-        try (Connection conn = Database.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-
-            stmt.setInt(1, eventId);
-            ResultSet rs = stmt.executeQuery();
-            return rs.getInt(1);
-
-        } catch (SQLException e) {
-            throw new DatabaseOperationException(
-                    "Error counting registrations for event " + eventId, e);
-        }
+        return DaoMetrics.time("RegistrationDAO.countRegistered", () -> {
+            String sql = """
+                SELECT COUNT(*) FROM registrations
+                WHERE event_id = ? AND status = 'REGISTERED';
+            """;
+
+            try (Connection conn = Database.getConnection();
+                 PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+                stmt.setInt(1, eventId);
+                ResultSet rs = stmt.executeQuery();
+                return rs.getInt(1);
+
+            } catch (SQLException e) {
+                throw new DatabaseOperationException(
+                        "Error counting registrations for event " + eventId, e);
+            }
+        });
+    }
+
+    // ----------------------------------------------------
+    // COUNT REGISTERED USERS FOR MANY EVENTS (for tables)
+    // ----------------------------------------------------
+    /**
+     * Registered counts for all given events in one grouped query per chunk.
+     * Events without registrations are absent; use getOrDefault(id, 0).
+     */
+    public IntIntHashMap countRegisteredByEventIds(Collection<Integer> eventIds) {
+        return DaoMetrics.time("RegistrationDAO.countRegisteredByEventIds", () -> {
+            IntIntHashMap counts = new IntIntHashMap(eventIds.size());
+            if (eventIds.isEmpty()) {
+                return counts;
+            }
+
+            List<Integer> ids = new ArrayList<>(eventIds);
+
+            try (Connection conn = Database.getConnection()) {
+                for (int from = 0; from < ids.size(); from += IN_CHUNK_SIZE) {
+                    List<Integer> chunk = ids.subList(from, Math.min(from + IN_CHUNK_SIZE, ids.size()));
+                    String sql = "SELECT event_id, COUNT(*) FROM registrations "
+                            + "WHERE status = 'REGISTERED' AND event_id IN ("
+                            + String.join(",", Collections.nCopies(chunk.size(), "?"))
+                            + ") GROUP BY event_id";
+
+                    try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                        for (int i = 0; i < chunk.size(); i++) {
+                            stmt.setInt(i + 1, chunk.get(i));
+                        }
+                        try (ResultSet rs = stmt.executeQuery()) {
+                            while (rs.next()) {
+                                counts.put(rs.getInt(1), rs.getInt(2));
+                            }
+                        }
+                    }
+                }
+                return counts;
+
+            } catch (SQLException e) {
+                throw new DatabaseOperationException(
+                        "Error counting registrations for " + ids.size() + " events", e);
+            }
+        });
     }
 
     // ----------------------------------------------------
     // FIND USER IDS ATTENDING EVENT
     // ----------------------------------------------------
     public List<Integer> findUserIdsByEvent(int eventId) {
-        List<Integer> list = new ArrayList<>();
-        String sql = """
-            SELECT user_id FROM registrations
-            WHERE event_id = ? AND status = 'REGISTERED';
-        """;
+        return DaoMetrics.time("RegistrationDAO.findUserIdsByEvent", () -> {
+            String sql = """
+                SELECT user_id FROM registrations
+                WHERE event_id = ? AND status = 'REGISTERED';
+            """;
 
-        try (Connection conn = Database.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            try (Connection conn = Database.getConnection();
+                 PreparedStatement stmt = conn.prepareStatement(sql)) {
 
-            stmt.setInt(1, eventId);
-            ResultSet rs = stmt.executeQuery();
+                stmt.setInt(1, eventId);
+                return USER_ID_ROW.list(stmt);
 
-            while (rs.next()) {
-                list.add(rs.getInt("user_id"));
+            } catch (SQLException e) {
+                throw new DatabaseOperationException(
+                        "Error retrieving user IDs for event " + eventId, e);
             }
-            return list;
+        });
+    }
 
-        } catch (SQLException e) {
-            throw new DatabaseOperationException(
-                    "Error retrieving user IDs for event " + eventId, e);
-        }
+    // ----------------------------------------------------
+    // ATTENDEE LIST (one page, keyset on user_id)
+    // ----------------------------------------------------
+    /**
+     * Up to {@code limit} registered / checked-in attendees of the event with
+     * user_id greater than {@code afterUserId}, ordered by user_id.
+     * Start with afterUserId = 0 and pass the last entry's user id for the next page.
+     */
+    public List<AttendeeEntry> findAttendeesPage(int eventId, int afterUserId, int limit) {
+        return DaoMetrics.time("RegistrationDAO.findAttendeesPage", () -> {
+            // Walks UNIQUE(event_id, user_id) in order, so each page is a seek, not a sort
+            String sql = """
+                SELECT r.user_id, u.username, r.status
+                FROM registrations r
+                JOIN users u ON u.id = r.user_id
+                WHERE r.event_id = ? AND r.user_id > ?
+                  AND r.status IN ('REGISTERED', 'CHECKED_IN')
+                ORDER BY r.user_id
+                LIMIT ?;
+            """;
+
+            try (Connection conn = Database.getConnection();
+                 PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+                stmt.setInt(1, eventId);
+                stmt.setInt(2, afterUserId);
+                stmt.setInt(3, limit);
+                return ATTENDEE_ROW.list(stmt);
+
+            } catch (SQLException e) {
+                throw new DatabaseOperationException(
+                        "Error loading attendees for event " + eventId, e);
+            }
+        });
     }
 
     // ----------------------------------------------------
     // GET ALL REGISTRATION ENTRIES (raw)
     // ----------------------------------------------------
     public List<Registration> findAllByEvent(int eventId) {
-        List<Registration> list = new ArrayList<>();
-        String sql = "SELECT * FROM registrations WHERE event_id = ?";
-
-        try (Connection conn = Database.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-
-            stmt.setInt(1, eventId);
-            ResultSet rs = stmt.executeQuery();
-
-            while (rs.next()) {
-                list.add(new Registration(
-                        rs.getInt("id"),
-                        rs.getInt("event_id"),
-                        rs.getInt("user_id"),
-                        rs.getString("status")
-                ));
-            }
-            return list;
+        return DaoMetrics.time("RegistrationDAO.findAllByEvent", () -> {
+            String sql = "SELECT * FROM registrations WHERE event_id = ?";
+
+            try (Connection conn = Database.getConnection();
+                 PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+                stmt.setInt(1, eventId);
+                return REGISTRATION_ROW.list(stmt);
 
-        } catch (SQLException e) {
-            throw new DatabaseOperationException(
-                    "Error retrieving registrations for event " + eventId, e);
-        }
+            } catch (SQLException e) {
+                throw new DatabaseOperationException(
+                        "Error retrieving registrations for event " + eventId, e);
+            }
+        });
     }
 
     // ----------------------------------------------------
     // FIND EVENTS REGISTERED BY USER
     // ----------------------------------------------------
     public List<Event> findByUserId(int userId) {
-        List<Event> events = new ArrayList<>();
-
-        String sql = """
-            SELECT e.*
-            FROM registrations r
-            JOIN events e ON r.event_id = e.id
-            WHERE r.user_id = ? AND r.status = 'REGISTERED'
-            ORDER BY datetime(e.date_time) ASC;
-        """;
-
-        try (Connection conn = Database.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-
-            stmt.setInt(1, userId);
-            ResultSet rs = stmt.executeQuery();
-
-            while (rs.next()) {
-                int id = rs.getInt("id");
-                String title = rs.getString("title");
-                String description = rs.getString("description");
-                String dateTimeStr = rs.getString("date_time");
-                String venue = rs.getString("venue");
-                int capacity = rs.getInt("capacity");
-                int organizerId = rs.getInt("organizer_id");
-                double price = rs.getDouble("price");
-
-                LocalDateTime dateTime = LocalDateTime.parse(dateTimeStr, FORMATTER);
-
-                Event e;
-
-                if (!rs.wasNull()) {
-                    e = new PaidEvent(id, title, description, dateTime, venue, capacity, organizerId, price);
-                } else {
-                    e = new Event(id, title, description, dateTime, venue, capacity, organizerId);
-                }
-
-                events.add(e);
+        return DaoMetrics.time("RegistrationDAO.findByUserId", () -> {
+            String sql = """
+                SELECT %s
+                FROM registrations r
+                JOIN events e ON r.event_id = e.id
+                WHERE r.user_id = ? AND r.status = 'REGISTERED'
+                ORDER BY e.starts_at ASC;
+            """.formatted(EventDAO.summaryColumns("e"));
+
+            try (Connection conn = Database.getConnection();
+                 PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+                stmt.setInt(1, userId);
+                return EventDAO.SUMMARY_ROW.list(stmt);
+
+            } catch (SQLException e) {
+                throw new DatabaseOperationException("Error retrieving registrations for user " + userId, e);
             }
-            return events;
-
-        } catch (SQLException e) {
-            throw new DatabaseOperationException("Error retrieving registrations for user " + userId, e);
-        }
+        });
     }
 
     public List<Registration> listAll() {
-        List<Registration> list = new ArrayList<>();
-        String sql = "SELECT * FROM registrations";
-
-        try (Connection conn = Database.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql);
-             ResultSet rs = stmt.executeQuery()) {
-
-            while (rs.next()) {
-                list.add(new Registration(
-                        rs.getInt("id"),
-                        rs.getInt("event_id"),
-                        rs.getInt("user_id"),
-                        rs.getString("status")
-                ));
+        return DaoMetrics.time("RegistrationDAO.listAll", () -> {
+            String sql = "SELECT * FROM registrations";
+
+            try (Connection conn = Database.getConnection();
+                 PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+                return REGISTRATION_ROW.list(stmt);
+
+            } catch (SQLException e) {
+                throw new DatabaseOperationException("Error retrieving all registrations.", e);
             }
-            return list;
+        });
+    }
 
-        } catch (SQLException e) {
-            throw new DatabaseOperationException("Error retrieving all registrations.", e);
-        }
+    // ----------------------------------------------------
+    // BATCH STATUS WRITES (write-behind from SeatReservationEngine)
+    // ----------------------------------------------------
+    /**
+     * Upsert each registration's status, in list order, in a single transaction.
+     */
+    public void saveStatuses(List<Registration> registrations) {
+        DaoMetrics.run("RegistrationDAO.saveStatuses", () -> {
+            String sql = """
+                INSERT INTO registrations (event_id, user_id, status)
+                VALUES (?, ?, ?)
+                ON CONFLICT(event_id, user_id) DO UPDATE SET status = excluded.status;
+            """;
+
+            try (Connection conn = Database.getConnection()) {
+                conn.setAutoCommit(false);
+
+                try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                    for (Registration reg : registrations) {
+                        stmt.setInt(1, reg.getEventId());
+                        stmt.setInt(2, reg.getUserId());
+                        stmt.setString(3, reg.getStatus());
+                        stmt.addBatch();
+                    }
+                    stmt.executeBatch();
+                }
+                conn.commit();
+
+            } catch (SQLException e) {
+                throw new DatabaseOperationException(
+                        "Error saving " + registrations.size() + " registration status change(s)", e);
+            }
+        });
+    }
+
+    // ----------------------------------------------------
+    // REGISTERED USERS OF ALL UPCOMING EVENTS (event_id -> user ids)
+    // ----------------------------------------------------
+    public Map<Integer, List<Integer>> findRegisteredUserIdsForUpcomingEvents() {
+        return DaoMetrics.time("RegistrationDAO.findRegisteredUserIdsForUpcomingEvents", () -> {
+            String sql = """
+                SELECT r.event_id, r.user_id
+                FROM events e
+                JOIN registrations r ON r.event_id = e.id
+                WHERE e.starts_at > ? AND r.status = 'REGISTERED';
+            """;
+
+            Map<Integer, List<Integer>> result = new HashMap<>();
+
+            try (Connection conn = Database.getConnection();
+                 PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+                stmt.setLong(1, EventDAO.nowEpochSeconds());
+
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        result.computeIfAbsent(rs.getInt(1), id -> new ArrayList<>()).add(rs.getInt(2));
+                    }
+                }
+                return result;
+
+            } catch (SQLException e) {
+                throw new DatabaseOperationException("Error loading registrations of upcoming events.", e);
+            }
+        });
     }
-}
\ No newline at end of file
+}
@@ -1,73 +1,114 @@
 package net.javaguids.popin.database;
 
 import net.javaguids.popin.exceptions.DatabaseOperationException;
+import net.javaguids.popin.models.ReportedEvent;
 
 import java.sql.*;
-import java.util.HashMap;
-import java.util.Map;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
 
 public class ReportDAO {
 
-    public boolean addReport(int eventId, int attendeeId) {
-        String sql = "INSERT INTO reports (event_id, attendee_id) VALUES (?, ?)";
-
-        try (Connection conn = Database.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+    // created_at is filled by CURRENT_TIMESTAMP: "yyyy-MM-dd HH:mm:ss" in UTC
+    private static final DateTimeFormatter CREATED_AT_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
 
-            stmt.setInt(1, eventId);
-            stmt.setInt(2, attendeeId);
-            int rows = stmt.executeUpdate();
-            if (rows == 0) {
-                throw new DatabaseOperationException("Adding report failed, no rows affected.");
+    public boolean addReport(int eventId, int attendeeId) {
+        return DaoMetrics.time("ReportDAO.addReport", () -> {
+            String sql = "INSERT INTO reports (event_id, attendee_id) VALUES (?, ?)";
+
+            try (Connection conn = Database.getConnection();
+                 PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+                stmt.setInt(1, eventId);
+                stmt.setInt(2, attendeeId);
+                int rows = stmt.executeUpdate();
+                if (rows == 0) {
+                    throw new DatabaseOperationException("Adding report failed, no rows affected.");
+                }
+                return true;
+
+            } catch (SQLException e) {
+                throw new DatabaseOperationException(
+                        "Error adding report for event " + eventId + ", attendee " + attendeeId, e);
             }
-            return true;
-
-        } catch (SQLException e) {
-            throw new DatabaseOperationException(
-                    "Error adding report for event " + eventId + ", attendee " + attendeeId, e);
-        }
+        });
     }
 
     public boolean hasUserReported(int eventId, int attendeeId) {
-        String sql = "SELECT COUNT(*) FROM reports WHERE event_id = ? AND attendee_id = ?";
+        return DaoMetrics.time("ReportDAO.hasUserReported", () -> {
+            String sql = "SELECT COUNT(*) FROM reports WHERE event_id = ? AND attendee_id = ?";
 
-        try (Connection conn = Database.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            try (Connection conn = Database.getConnection();
+                 PreparedStatement stmt = conn.prepareStatement(sql)) {
 
-            stmt.setInt(1, eventId);
-            stmt.setInt(2, attendeeId);
-            try (ResultSet rs = stmt.executeQuery()) {
-                return rs.next() && rs.getInt(1) > 0;
-            }
+                stmt.setInt(1, eventId);
+                stmt.setInt(2, attendeeId);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    return rs.next() && rs.getInt(1) > 0;
+                }
 
-        } catch (SQLException e) {
-            throw new DatabaseOperationException(
-                    "Error checking report for event " + eventId + ", attendee " + attendeeId, e);
-        }
+            } catch (SQLException e) {
+                throw new DatabaseOperationException(
+                        "Error checking report for event " + eventId + ", attendee " + attendeeId, e);
+            }
+        });
     }
 
-    /** event_id -> report_count */
-    public Map<Integer, Integer> getReportCountsByEvent() {
-        String sql = """
-            SELECT event_id, COUNT(*) AS report_count
-            FROM reports
-            GROUP BY event_id
-            ORDER BY report_count DESC
-        """;
-
-        Map<Integer, Integer> result = new HashMap<>();
-
-        try (Connection conn = Database.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql);
-             ResultSet rs = stmt.executeQuery()) {
-
-            while (rs.next()) {
-                result.put(rs.getInt("event_id"), rs.getInt("report_count"));
+    // ---------------- MODERATION SUMMARY ----------------
+    /**
+     * One page of reported events, most reported first (then most recently reported),
+     * with title, organizer and report timing, in a single joined query.
+     * Reports for events that no longer exist are skipped.
+     */
+    public List<ReportedEvent> findReportedEvents(int limit, int offset) {
+        return DaoMetrics.time("ReportDAO.findReportedEvents", () -> {
+            String sql = """
+                SELECT e.id, e.title, e.organizer_id, u.username,
+                       rc.report_count, rc.first_at, rc.last_at,
+                       rc.report_count / MAX(julianday(rc.last_at) - julianday(rc.first_at), 1.0) AS per_day
+                FROM (
+                    SELECT event_id, COUNT(*) AS report_count,
+                           MIN(created_at) AS first_at, MAX(created_at) AS last_at
+                    FROM reports
+                    GROUP BY event_id
+                ) rc
+                JOIN events e ON e.id = rc.event_id
+                LEFT JOIN users u ON u.id = e.organizer_id
+                ORDER BY rc.report_count DESC, rc.last_at DESC, e.id
+                LIMIT ? OFFSET ?;
+            """;
+
+            try (Connection conn = Database.getConnection();
+                 PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+                stmt.setInt(1, limit);
+                stmt.setInt(2, offset);
+                return REPORTED_ROW.list(stmt);
+
+            } catch (SQLException e) {
+                throw new DatabaseOperationException("Error retrieving reported events.", e);
             }
-            return result;
+        });
+    }
 
-        } catch (SQLException e) {
-            throw new DatabaseOperationException("Error retrieving report counts.", e);
-        }
+    // Columns in the order findReportedEvents selects them
+    private static final RowMapper<ReportedEvent> REPORTED_ROW = RowMapper.positional(rs -> {
+        int organizerId = rs.getInt(3);
+        String organizer = rs.getString(4);
+        return new ReportedEvent(
+                rs.getInt(1),
+                rs.getString(2),
+                organizerId,
+                organizer != null ? organizer : "User #" + organizerId,
+                rs.getInt(5),
+                parseCreatedAt(rs.getString(6)),
+                parseCreatedAt(rs.getString(7)),
+                rs.getDouble(8)
+        );
+    });
+
+    private static LocalDateTime parseCreatedAt(String value) {
+        return value == null ? null : LocalDateTime.parse(value, CREATED_AT_FORMAT);
     }
-}
\ No newline at end of file
+}
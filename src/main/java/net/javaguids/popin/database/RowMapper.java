@@ -0,0 +1,58 @@
+package net.javaguids.popin.database;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Turns result set rows into objects, shared by the DAOs.
+ *
+ * {@link #bind} runs once per result set: it looks up the positions of the columns it reads
+ * by label, so the same mapper works for any SELECT list (or join) that contains them. The
+ * returned {@link Reader} then maps every row with index-based getters only.
+ */
+@FunctionalInterface
+interface RowMapper<T> {
+
+    /** Maps the current row of the result set it was bound to. */
+    @FunctionalInterface
+    interface Reader<T> {
+        T read(ResultSet rs) throws SQLException;
+    }
+
+    Reader<T> bind(ResultSet rs) throws SQLException;
+
+    /** For queries whose column positions are fixed by the SQL itself, e.g. {@code SELECT COUNT(*), ...}. */
+    static <T> RowMapper<T> positional(Reader<T> reader) {
+        return rs -> reader;
+    }
+
+    /** Runs the query and maps every row. */
+    default List<T> list(PreparedStatement stmt) throws SQLException {
+        try (ResultSet rs = stmt.executeQuery()) {
+            return list(rs);
+        }
+    }
+
+    /** Runs the query and maps the first row, or returns null if there is none. */
+    default T first(PreparedStatement stmt) throws SQLException {
+        try (ResultSet rs = stmt.executeQuery()) {
+            return rs.next() ? bind(rs).read(rs) : null;
+        }
+    }
+
+    /** Maps the remaining rows of {@code rs}. */
+    default List<T> list(ResultSet rs) throws SQLException {
+        List<T> rows = new ArrayList<>();
+        Reader<T> reader = null;
+        while (rs.next()) {
+            if (reader == null) {
+                reader = bind(rs);
+            }
+            rows.add(reader.read(rs));
+        }
+        return rows;
+    }
+}
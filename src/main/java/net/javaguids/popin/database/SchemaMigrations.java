@@ -0,0 +1,212 @@
+package net.javaguids.popin.database;
+
+import java.util.List;
+
+/**
+ * Every schema change PopIn has shipped, in order.
+ * Add new migrations at the end with the next version number.
+ */
+public final class SchemaMigrations {
+
+    private SchemaMigrations() {}
+
+    public static List<Migration> all() {
+        return List.of(
+                baselineTables(),
+                hotPathIndexes(),
+                epochEventTimestamps(),
+                reportModerationIndex(),
+                eventFullTextIndex(),
+                eventDescriptionLast()
+        );
+    }
+
+    // ---------------- V1: tables that used to be created by Database / DAO constructors ----------------
+    private static Migration baselineTables() {
+        // IF NOT EXISTS so databases created before migrations existed are adopted as-is
+        return new Migration(1, "baseline tables",
+                """
+                CREATE TABLE IF NOT EXISTS users (
+                    id INTEGER PRIMARY KEY AUTOINCREMENT,
+                    username TEXT NOT NULL UNIQUE,
+                    password_hash TEXT NOT NULL,
+                    role_name TEXT NOT NULL,
+                    email_notifications INTEGER DEFAULT 1
+                );
+                """,
+                """
+                CREATE TABLE IF NOT EXISTS events (
+                    id INTEGER PRIMARY KEY AUTOINCREMENT,
+                    title TEXT NOT NULL,
+                    description TEXT,
+                    date_time TEXT NOT NULL,
+                    venue TEXT NOT NULL,
+                    capacity INTEGER NOT NULL,
+                    organizer_id INTEGER NOT NULL,
+                    price REAL
+                );
+                """,
+                """
+                CREATE TABLE IF NOT EXISTS registrations (
+                    id INTEGER PRIMARY KEY AUTOINCREMENT,
+                    event_id INTEGER NOT NULL,
+                    user_id INTEGER NOT NULL,
+                    status TEXT NOT NULL,
+                    UNIQUE(event_id, user_id)
+                );
+                """,
+                """
+                CREATE TABLE IF NOT EXISTS reports (
+                    id INTEGER PRIMARY KEY AUTOINCREMENT,
+                    event_id INTEGER NOT NULL,
+                    attendee_id INTEGER NOT NULL,
+                    created_at TEXT DEFAULT CURRENT_TIMESTAMP,
+                    FOREIGN KEY (event_id) REFERENCES events(id),
+                    FOREIGN KEY (attendee_id) REFERENCES users(id)
+                );
+                """,
+                """
+                CREATE TABLE IF NOT EXISTS event_attendance (
+                    id INTEGER PRIMARY KEY AUTOINCREMENT,
+                    event_id INTEGER NOT NULL,
+                    user_id  INTEGER NOT NULL,
+                    status   TEXT NOT NULL,   -- GOING / INTERESTED / FAVORITE
+                    UNIQUE(event_id, user_id)
+                );
+                """
+        );
+    }
+
+    // ---------------- V2: indexes for every lookup the DAOs issue ----------------
+    private static Migration hotPathIndexes() {
+        return new Migration(2, "hot path indexes",
+                // countRegistered / findUserIdsByEvent / findAllByEvent (covering for the first two)
+                "CREATE INDEX IF NOT EXISTS idx_registrations_event_status_user "
+                        + "ON registrations(event_id, status, user_id)",
+                // findByUserId: registrations side of the join, covering
+                "CREATE INDEX IF NOT EXISTS idx_registrations_user_status_event "
+                        + "ON registrations(user_id, status, event_id)",
+                // ORDER BY / range on datetime(date_time) can only use an index on the same expression
+                "CREATE INDEX IF NOT EXISTS idx_events_datetime "
+                        + "ON events(datetime(date_time))",
+                // findByOrganizerId ... ORDER BY datetime(date_time)
+                "CREATE INDEX IF NOT EXISTS idx_events_organizer_datetime "
+                        + "ON events(organizer_id, datetime(date_time))",
+                // hasUserReported
+                "CREATE INDEX IF NOT EXISTS idx_reports_event_attendee "
+                        + "ON reports(event_id, attendee_id)",
+                // countGoingByEventId
+                "CREATE INDEX IF NOT EXISTS idx_event_attendance_event_status "
+                        + "ON event_attendance(event_id, status)"
+        );
+    }
+
+    // ---------------- V3: integer start time so range filters / sorts are plain index seeks ----------------
+    private static Migration epochEventTimestamps() {
+        // starts_at = the event's local wall-clock time encoded as epoch seconds at UTC,
+        // which is exactly what strftime('%s', date_time) yields for the ISO text column.
+        return new Migration(3, "events.starts_at epoch column",
+                "ALTER TABLE events ADD COLUMN starts_at INTEGER",
+                "UPDATE events SET starts_at = CAST(strftime('%s', date_time) AS INTEGER)",
+                "CREATE INDEX IF NOT EXISTS idx_events_starts_at ON events(starts_at)",
+                "CREATE INDEX IF NOT EXISTS idx_events_organizer_starts_at ON events(organizer_id, starts_at)",
+                // superseded by the two indexes above
+                "DROP INDEX IF EXISTS idx_events_datetime",
+                "DROP INDEX IF EXISTS idx_events_organizer_datetime"
+        );
+    }
+
+    // ---------------- V4: moderation summary reads reports from one covering index ----------------
+    private static Migration reportModerationIndex() {
+        // ReportDAO.findReportedEvents: GROUP BY event_id with MIN/MAX(created_at)
+        return new Migration(4, "reports moderation index",
+                "CREATE INDEX IF NOT EXISTS idx_reports_event_created ON reports(event_id, created_at)"
+        );
+    }
+
+    // ---------------- V5: FTS5 index over event text, kept in sync by triggers ----------------
+    // Also recreated by V6, which rebuilds the events table they are attached to
+    private static final String FTS_INSERT_TRIGGER = """
+            CREATE TRIGGER IF NOT EXISTS events_fts_insert AFTER INSERT ON events BEGIN
+                INSERT INTO events_fts(rowid, title, description, venue)
+                VALUES (new.id, new.title, new.description, new.venue);
+            END
+            """;
+
+    private static final String FTS_DELETE_TRIGGER = """
+            CREATE TRIGGER IF NOT EXISTS events_fts_delete AFTER DELETE ON events BEGIN
+                INSERT INTO events_fts(events_fts, rowid, title, description, venue)
+                VALUES ('delete', old.id, old.title, old.description, old.venue);
+            END
+            """;
+
+    private static final String FTS_UPDATE_TRIGGER = """
+            CREATE TRIGGER IF NOT EXISTS events_fts_update AFTER UPDATE OF title, description, venue ON events BEGIN
+                INSERT INTO events_fts(events_fts, rowid, title, description, venue)
+                VALUES ('delete', old.id, old.title, old.description, old.venue);
+                INSERT INTO events_fts(rowid, title, description, venue)
+                VALUES (new.id, new.title, new.description, new.venue);
+            END
+            """;
+
+    private static Migration eventFullTextIndex() {
+        // External content: the index stores only tokens and reads column values back from events.
+        // prefix='2 3' keeps search-as-you-type prefixes ("co"*, "con"*) to a single index lookup.
+        return new Migration(5, "events full-text index",
+                """
+                CREATE VIRTUAL TABLE IF NOT EXISTS events_fts USING fts5(
+                    title, description, venue,
+                    content='events', content_rowid='id',
+                    tokenize='unicode61 remove_diacritics 2',
+                    prefix='2 3'
+                )
+                """,
+                FTS_INSERT_TRIGGER,
+                FTS_DELETE_TRIGGER,
+                FTS_UPDATE_TRIGGER,
+                // index the events that existed before this migration
+                "INSERT INTO events_fts(events_fts) VALUES ('rebuild')"
+        );
+    }
+
+    // ---------------- V6: description moved to the end of the events row ----------------
+    private static Migration eventDescriptionLast() {
+        // SQLite stores columns in declaration order, and a long description spills into overflow
+        // pages. List queries skip the description but still had to read through it to reach
+        // venue, price and starts_at. Putting it last lets them stop before it. SQLite cannot
+        // reorder columns in place, so this is the usual copy / drop / rename rebuild (foreign
+        // keys are not enforced, and reports keeps referencing "events" by name).
+        return new Migration(6, "events description column last",
+                """
+                CREATE TABLE events_new (
+                    id INTEGER PRIMARY KEY AUTOINCREMENT,
+                    title TEXT NOT NULL,
+                    date_time TEXT NOT NULL,
+                    venue TEXT NOT NULL,
+                    capacity INTEGER NOT NULL,
+                    organizer_id INTEGER NOT NULL,
+                    price REAL,
+                    starts_at INTEGER,
+                    description TEXT
+                )
+                """,
+                """
+                INSERT INTO events_new (id, title, date_time, venue, capacity, organizer_id, price, starts_at, description)
+                SELECT id, title, date_time, venue, capacity, organizer_id, price, starts_at, description FROM events
+                """,
+                // keep AUTOINCREMENT's high-water mark, so ids of deleted events are not handed out again
+                """
+                UPDATE sqlite_sequence SET seq = (SELECT seq FROM sqlite_sequence WHERE name = 'events')
+                WHERE name = 'events_new' AND EXISTS (SELECT 1 FROM sqlite_sequence WHERE name = 'events')
+                """,
+                // also drops the V3 indexes and V5 triggers; the FTS index keeps its rowids, which are unchanged
+                "DROP TABLE events",
+                "ALTER TABLE events_new RENAME TO events",
+                "CREATE INDEX IF NOT EXISTS idx_events_starts_at ON events(starts_at)",
+                "CREATE INDEX IF NOT EXISTS idx_events_organizer_starts_at ON events(organizer_id, starts_at)",
+                FTS_INSERT_TRIGGER,
+                FTS_DELETE_TRIGGER,
+                FTS_UPDATE_TRIGGER
+        );
+    }
+}
@@ -0,0 +1,113 @@
+package net.javaguids.popin.database;
+
+import net.javaguids.popin.exceptions.DatabaseOperationException;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Brings a database up to the latest schema version.
+ *
+ * Applied versions are recorded in the schema_version table; each pending
+ * migration runs in its own transaction together with its version row, so a
+ * failure leaves the database at the last fully applied version.
+ */
+public class SchemaMigrator {
+
+    private final List<Migration> migrations;
+
+    public SchemaMigrator(List<Migration> migrations) {
+        List<Migration> sorted = new ArrayList<>(migrations);
+        sorted.sort(Comparator.comparingInt(Migration::getVersion));
+
+        for (int i = 1; i < sorted.size(); i++) {
+            if (sorted.get(i).getVersion() == sorted.get(i - 1).getVersion()) {
+                throw new IllegalArgumentException(
+                        "Duplicate migration version " + sorted.get(i).getVersion());
+            }
+        }
+        this.migrations = List.copyOf(sorted);
+    }
+
+    /** Migrator with every migration shipped in {@link SchemaMigrations}. */
+    public static SchemaMigrator withDefaultMigrations() {
+        return new SchemaMigrator(SchemaMigrations.all());
+    }
+
+    /**
+     * Apply all migrations newer than the recorded version.
+     *
+     * @return number of migrations applied (0 when already up to date)
+     */
+    public int migrate(Connection conn) throws SQLException {
+        createVersionTableIfNotExists(conn);
+
+        int current = currentVersion(conn);
+        int applied = 0;
+
+        for (Migration migration : migrations) {
+            if (migration.getVersion() <= current) {
+                continue;
+            }
+            applyInTransaction(conn, migration);
+            System.out.println("SchemaMigrator: applied " + migration);
+            applied++;
+        }
+        return applied;
+    }
+
+    public int latestVersion() {
+        return migrations.isEmpty() ? 0 : migrations.get(migrations.size() - 1).getVersion();
+    }
+
+    public static int currentVersion(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT COALESCE(MAX(version), 0) FROM schema_version")) {
+            return rs.next() ? rs.getInt(1) : 0;
+        }
+    }
+
+    private void createVersionTableIfNotExists(Connection conn) throws SQLException {
+        String sql = """
+            CREATE TABLE IF NOT EXISTS schema_version (
+                version INTEGER PRIMARY KEY,
+                description TEXT NOT NULL,
+                applied_at TEXT DEFAULT CURRENT_TIMESTAMP
+            );
+        """;
+
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute(sql);
+        }
+    }
+
+    private void applyInTransaction(Connection conn, Migration migration) throws SQLException {
+        boolean previousAutoCommit = conn.getAutoCommit();
+        conn.setAutoCommit(false);
+
+        try (Statement stmt = conn.createStatement();
+             PreparedStatement record = conn.prepareStatement(
+                     "INSERT INTO schema_version (version, description) VALUES (?, ?)")) {
+
+            migration.apply(stmt);
+
+            record.setInt(1, migration.getVersion());
+            record.setString(2, migration.getDescription());
+            record.executeUpdate();
+
+            conn.commit();
+
+        } catch (SQLException e) {
+            conn.rollback();
+            throw new DatabaseOperationException("Schema migration " + migration + " failed.", e);
+        } finally {
+            conn.setAutoCommit(previousAutoCommit);
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package net.javaguids.popin.database;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Locale;
+
+/**
+ * Named sets of SQLite session PRAGMAs, applied to every new pooled connection.
+ * Pick one with -Dpopin.db.profile=durable|balanced|throughput (default: balanced).
+ *
+ * All profiles use WAL so dashboard reads do not block behind registration writes.
+ */
+public enum SqliteProfile {
+
+    // fsync on every commit, no memory mapping - safest, slowest writes
+    DURABLE("FULL", 0L, -2_000, "DEFAULT", 5_000),
+
+    // WAL + NORMAL only risks the last commits on power loss, never corruption
+    BALANCED("NORMAL", 64L * 1024 * 1024, -16_000, "MEMORY", 5_000),
+
+    // for bulk loads / benchmarks: no fsync at all, large cache and mmap
+    THROUGHPUT("OFF", 256L * 1024 * 1024, -64_000, "MEMORY", 10_000);
+
+    public static final String PROPERTY = "popin.db.profile";
+
+    private static final String JOURNAL_MODE = "WAL";
+
+    private final String synchronous;
+    private final long mmapSizeBytes;
+    private final int cacheSize;        // negative = KiB, positive = pages (SQLite convention)
+    private final String tempStore;
+    private final int busyTimeoutMs;
+
+    SqliteProfile(String synchronous, long mmapSizeBytes, int cacheSize, String tempStore, int busyTimeoutMs) {
+        this.synchronous = synchronous;
+        this.mmapSizeBytes = mmapSizeBytes;
+        this.cacheSize = cacheSize;
+        this.tempStore = tempStore;
+        this.busyTimeoutMs = busyTimeoutMs;
+    }
+
+    /** Profile selected via system property, falling back to BALANCED. */
+    public static SqliteProfile fromSystemProperty() {
+        return fromName(System.getProperty(PROPERTY));
+    }
+
+    public static SqliteProfile fromName(String name) {
+        if (name == null || name.isBlank()) {
+            return BALANCED;
+        }
+        try {
+            return valueOf(name.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            System.err.println("SqliteProfile: unknown profile '" + name + "', using BALANCED");
+            return BALANCED;
+        }
+    }
+
+    /** Apply this profile's PRAGMAs to a freshly opened connection. */
+    public void apply(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            // busy_timeout first so that switching to WAL waits instead of failing
+            stmt.execute("PRAGMA busy_timeout = " + busyTimeoutMs);
+            stmt.execute("PRAGMA journal_mode = " + JOURNAL_MODE);
+            stmt.execute("PRAGMA synchronous = " + synchronous);
+            stmt.execute("PRAGMA mmap_size = " + mmapSizeBytes);
+            stmt.execute("PRAGMA cache_size = " + cacheSize);
+            stmt.execute("PRAGMA temp_store = " + tempStore);
+        }
+    }
+
+    /** Reads back what SQLite actually applied (e.g. mmap can be capped by the build). */
+    public String describeEffective(Connection conn) throws SQLException {
+        return "profile=" + name().toLowerCase(Locale.ROOT)
+                + ", journal_mode=" + pragma(conn, "journal_mode")
+                + ", synchronous=" + synchronousName(pragma(conn, "synchronous"))
+                + ", mmap_size=" + pragma(conn, "mmap_size")
+                + ", cache_size=" + pragma(conn, "cache_size")
+                + ", temp_store=" + pragma(conn, "temp_store")
+                + ", busy_timeout=" + pragma(conn, "busy_timeout") + "ms";
+    }
+
+    private static String pragma(Connection conn, String name) throws SQLException {
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("PRAGMA " + name)) {
+            return rs.next() ? rs.getString(1) : "?";
+        }
+    }
+
+    private static String synchronousName(String value) {
+        return switch (value) {
+            case "0" -> "OFF";
+            case "1" -> "NORMAL";
+            case "2" -> "FULL";
+            case "3" -> "EXTRA";
+            default -> value;
+        };
+    }
+
+    public String getSynchronous() { return synchronous; }
+    public long getMmapSizeBytes() { return mmapSizeBytes; }
+    public int getCacheSize() { return cacheSize; }
+    public String getTempStore() { return tempStore; }
+    public int getBusyTimeoutMs() { return busyTimeoutMs; }
+}
@@ -0,0 +1,121 @@
+package net.javaguids.popin.database;
+
+import net.javaguids.popin.models.User;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Users by id and by username, shared by every UserDAO so logins, rename checks and
+ * organizer lookups stop re-reading the same rows. UserDAO writes invalidate through it.
+ *
+ * The username index is keyed by the lower-cased name, so a rename that only changes case
+ * still drops the old entry. Lookups still match the stored name exactly, like the
+ * {@code username = ?} query they replace. Returned users are shared: treat them as read-only.
+ *
+ * Bounded by {@code popin.cache.users.maxEntries} (default 10 000); when full it simply
+ * starts over, which is rare for a user table and keeps the hit path lock-free.
+ */
+final class UserCache {
+
+    private static final int DEFAULT_MAX_ENTRIES = Integer.getInteger("popin.cache.users.maxEntries", 10_000);
+
+    private final int maxEntries;
+    private final Map<Integer, User> byId = new ConcurrentHashMap<>();
+    private final Map<String, User> byUsername = new ConcurrentHashMap<>();
+    private final AtomicLong writes = new AtomicLong(); // see put()
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    UserCache() {
+        this(DEFAULT_MAX_ENTRIES);
+    }
+
+    UserCache(int maxEntries) {
+        this.maxEntries = maxEntries;
+    }
+
+    // ---------------- LOOKUPS ----------------
+    /** The cached user with this id, or null on a miss. */
+    User getById(int id) {
+        return count(byId.get(id));
+    }
+
+    /** The cached user with exactly this username, or null on a miss. */
+    User getByUsername(String username) {
+        User user = byUsername.get(key(username));
+        return count(user != null && username.equals(user.getUsername()) ? user : null);
+    }
+
+    private User count(User user) {
+        (user != null ? hits : misses).increment();
+        return user;
+    }
+
+    // ---------------- LOADS ----------------
+    /** Take before reading a user from the database; pass to {@link #put}. */
+    long writeStamp() {
+        return writes.get();
+    }
+
+    /**
+     * Cache a user read from the database. If a write happened since {@code stamp}, the row
+     * may predate it, so it is not kept.
+     */
+    void put(User user, long stamp) {
+        if (byId.size() >= maxEntries) {
+            clear();
+            return;
+        }
+        byId.put(user.getId(), user);
+        byUsername.put(key(user.getUsername()), user);
+        if (writes.get() != stamp) {
+            drop(user);
+        }
+    }
+
+    // ---------------- INVALIDATION ----------------
+    /** Forget the user with this id; UserDAO calls this after every write to the row. */
+    void invalidate(int id) {
+        writes.incrementAndGet();
+        User old = byId.remove(id);
+        if (old != null) {
+            byUsername.remove(key(old.getUsername()), old);
+        }
+    }
+
+    /** Forget whoever holds this name (e.g. a new user takes it). */
+    void invalidate(String username) {
+        writes.incrementAndGet();
+        User old = byUsername.remove(key(username));
+        if (old != null) {
+            byId.remove(old.getId(), old);
+        }
+    }
+
+    void clear() {
+        writes.incrementAndGet();
+        byId.clear();
+        byUsername.clear();
+    }
+
+    private void drop(User user) {
+        byId.remove(user.getId(), user);
+        byUsername.remove(key(user.getUsername()), user);
+    }
+
+    private static String key(String username) {
+        return username.toLowerCase(Locale.ROOT);
+    }
+
+    // ---------------- STATS ----------------
+    int size() { return byId.size(); }
+
+    long getHits() { return hits.sum(); }
+
+    long getMisses() { return misses.sum(); }
+}
@@ -6,19 +6,46 @@ import net.javaguids.popin.exceptions.DatabaseOperationException;
 
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 public class UserDAO {
 
+    // Bound parameters per IN (...) list, well under SQLite's variable limit
+    private static final int IN_CHUNK_SIZE = 500;
+
+    // Shared by every instance; each write below invalidates the rows it touches
+    static final UserCache CACHE = new UserCache();
+
+    /** Forget all cached users, e.g. after the users table was changed without going through UserDAO. */
+    public static void clearCache() {
+        CACHE.clear();
+    }
+
+    /** Lookups by id or username answered from the cache. */
+    public static long getCacheHits() { return CACHE.getHits(); }
+
+    /** Lookups by id or username that had to read the database. */
+    public static long getCacheMisses() { return CACHE.getMisses(); }
+
     // ----------------------------------
     // Map a DB row -> correct User subclass
     // ----------------------------------
-    private User mapRowToUser(ResultSet rs) throws SQLException {
-        int id = rs.getInt("id");
-        String uname = rs.getString("username");
-        String passwordHash = rs.getString("password_hash");
-        String roleName = rs.getString("role_name");
+    private static final RowMapper<User> USER_ROW = rs -> {
+        int id = rs.findColumn("id");
+        int username = rs.findColumn("username");
+        int passwordHash = rs.findColumn("password_hash");
+        int roleName = rs.findColumn("role_name");
+        return row -> toUser(row.getInt(id), row.getString(username), row.getString(passwordHash), row.getString(roleName));
+    };
+
+    private static User toUser(int id, String uname, String passwordHash, String roleName) {
         String upper = roleName != null ? roleName.toUpperCase() : "";
 
         User user;
@@ -41,166 +68,277 @@ public class UserDAO {
     // FIND USER BY USERNAME (used in login)
     // ----------------------------------
     public Optional<User> findByUsername(String username) {
-        String sql = "SELECT id, username, password_hash, role_name FROM users WHERE username = ?";
+        return DaoMetrics.time("UserDAO.findByUsername", () -> {
+            User cached = CACHE.getByUsername(username);
+            if (cached != null) {
+                return Optional.of(cached);
+            }
 
-        try (Connection conn = Database.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            long stamp = CACHE.writeStamp();
+            String sql = "SELECT id, username, password_hash, role_name FROM users WHERE username = ?";
 
-            stmt.setString(1, username);
+            try (Connection conn = Database.getConnection();
+                 PreparedStatement stmt = conn.prepareStatement(sql)) {
 
-            try (ResultSet rs = stmt.executeQuery()) {
-                if (rs.next()) {
-                    return Optional.of(mapRowToUser(rs));
+                stmt.setString(1, username);
+                User user = USER_ROW.first(stmt);
+                if (user != null) {
+                    CACHE.put(user, stamp);
                 }
-                return Optional.empty();
-            }
+                return Optional.ofNullable(user);
 
-        } catch (SQLException e) {
-            throw new DatabaseOperationException(
-                    "Error finding user by username '" + username + "'", e);
-        }
+            } catch (SQLException e) {
+                throw new DatabaseOperationException(
+                        "Error finding user by username '" + username + "'", e);
+            }
+        });
     }
 
     // ----------------------------------
     // FIND USER BY ID
     // ----------------------------------
     public User findById(int id) {
-        String sql = "SELECT id, username, password_hash, role_name FROM users WHERE id = ?";
+        return DaoMetrics.time("UserDAO.findById", () -> {
+            User cached = CACHE.getById(id);
+            if (cached != null) {
+                return cached;
+            }
 
-        try (Connection conn = Database.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            long stamp = CACHE.writeStamp();
+            String sql = "SELECT id, username, password_hash, role_name FROM users WHERE id = ?";
 
-            stmt.setInt(1, id);
-            ResultSet rs = stmt.executeQuery();
+            try (Connection conn = Database.getConnection();
+                 PreparedStatement stmt = conn.prepareStatement(sql)) {
 
-            if (rs.next()) {
-                return mapRowToUser(rs);
+                stmt.setInt(1, id);
+                User user = USER_ROW.first(stmt);
+                if (user != null) {
+                    CACHE.put(user, stamp);
+                }
+                return user;
+
+            } catch (SQLException e) {
+                throw new DatabaseOperationException("Error finding user by id " + id, e);
             }
-            return null;
+        });
+    }
 
-        } catch (SQLException e) {
-            throw new DatabaseOperationException("Error finding user by id " + id, e);
-        }
+    // ----------------------------------
+    // FIND USERS BY IDS (bulk, cache first)
+    // ----------------------------------
+    /** The users with these ids, keyed by id; unknown ids are left out. Misses are read in one IN (...) query per chunk. */
+    public Map<Integer, User> findByIds(Collection<Integer> ids) {
+        return DaoMetrics.time("UserDAO.findByIds", () -> {
+            Map<Integer, User> found = new HashMap<>(ids.size() * 2);
+            Set<Integer> misses = new LinkedHashSet<>();
+            for (int id : ids) {
+                User cached = CACHE.getById(id);
+                if (cached != null) {
+                    found.put(id, cached);
+                } else {
+                    misses.add(id);
+                }
+            }
+            if (misses.isEmpty()) {
+                return found;
+            }
+
+            List<Integer> missing = new ArrayList<>(misses);
+
+            long stamp = CACHE.writeStamp();
+            try (Connection conn = Database.getConnection()) {
+                for (int from = 0; from < missing.size(); from += IN_CHUNK_SIZE) {
+                    List<Integer> chunk = missing.subList(from, Math.min(from + IN_CHUNK_SIZE, missing.size()));
+                    String sql = "SELECT id, username, password_hash, role_name FROM users WHERE id IN ("
+                            + String.join(",", Collections.nCopies(chunk.size(), "?")) + ")";
+
+                    try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                        for (int i = 0; i < chunk.size(); i++) {
+                            stmt.setInt(i + 1, chunk.get(i));
+                        }
+                        for (User user : USER_ROW.list(stmt)) {
+                            CACHE.put(user, stamp);
+                            found.put(user.getId(), user);
+                        }
+                    }
+                }
+                return found;
+
+            } catch (SQLException e) {
+                throw new DatabaseOperationException("Error finding " + missing.size() + " users by id", e);
+            }
+        });
     }
 
     // ----------------------------------
     // CREATE USER (used in signup)
     // ----------------------------------
     public boolean createUser(User user) {
-        String sql = "INSERT INTO users (username, password_hash, role_name) VALUES (?, ?, ?)";
+        return DaoMetrics.time("UserDAO.createUser", () -> {
+            String sql = "INSERT INTO users (username, password_hash, role_name) VALUES (?, ?, ?)";
 
-        try (Connection conn = Database.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            try (Connection conn = Database.getConnection();
+                 PreparedStatement stmt = conn.prepareStatement(sql)) {
 
-            stmt.setString(1, user.getUsername());
-            stmt.setString(2, user.getPasswordHash());
-            stmt.setString(3, user.getRole().getName());
+                stmt.setString(1, user.getUsername());
+                stmt.setString(2, user.getPasswordHash());
+                stmt.setString(3, user.getRole().getName());
 
-            int rows = stmt.executeUpdate();
-            if (rows != 1) {
-                throw new DatabaseOperationException("Creating user failed, no rows affected.");
-            }
-            return true;
+                int rows = stmt.executeUpdate();
+                CACHE.invalidate(user.getUsername());
+                if (rows != 1) {
+                    throw new DatabaseOperationException("Creating user failed, no rows affected.");
+                }
+                return true;
 
-        } catch (SQLException e) {
-            throw new DatabaseOperationException(
-                    "Error creating user '" + user.getUsername() + "'", e);
-        }
+            } catch (SQLException e) {
+                throw new DatabaseOperationException(
+                        "Error creating user '" + user.getUsername() + "'", e);
+            }
+        });
     }
 
     // ----------------------------------
     // LIST ALL USERS (for admin user list)
     // ----------------------------------
     public List<User> listAll() {
-        List<User> users = new ArrayList<>();
-        String sql = "SELECT id, username, password_hash, role_name FROM users";
+        return DaoMetrics.time("UserDAO.listAll", () -> {
+            String sql = "SELECT id, username, password_hash, role_name FROM users";
+
+            try (Connection conn = Database.getConnection();
+                 PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+                return USER_ROW.list(stmt);
 
-        try (Connection conn = Database.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql);
-             ResultSet rs = stmt.executeQuery()) {
+            } catch (SQLException e) {
+                throw new DatabaseOperationException("Error retrieving all users.", e);
+            }
+        });
+    }
+
+    // ----------------------------------
+    // USER PAGES (id order, for the lazy admin table)
+    // ----------------------------------
+    /** Up to {@code limit} users with an id above {@code afterId}; pass 0 for the first page. */
+    public List<User> listPage(int afterId, int limit) {
+        return DaoMetrics.time("UserDAO.listPage", () -> {
+            String sql = "SELECT id, username, password_hash, role_name FROM users WHERE id > ? ORDER BY id LIMIT ?";
+
+            try (Connection conn = Database.getConnection();
+                 PreparedStatement stmt = conn.prepareStatement(sql)) {
 
-            while (rs.next()) {
-                users.add(mapRowToUser(rs));
+                stmt.setInt(1, afterId);
+                stmt.setInt(2, limit);
+                return USER_ROW.list(stmt);
+
+            } catch (SQLException e) {
+                throw new DatabaseOperationException("Error retrieving a page of users.", e);
             }
-            return users;
+        });
+    }
 
-        } catch (SQLException e) {
-            throw new DatabaseOperationException("Error retrieving all users.", e);
-        }
+    /** Same listing from row {@code offset}, for jumps where the previous id is unknown. */
+    public List<User> listAt(int offset, int limit) {
+        return DaoMetrics.time("UserDAO.listAt", () -> {
+            String sql = "SELECT id, username, password_hash, role_name FROM users ORDER BY id LIMIT ? OFFSET ?";
+
+            try (Connection conn = Database.getConnection();
+                 PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+                stmt.setInt(1, limit);
+                stmt.setInt(2, offset);
+                return USER_ROW.list(stmt);
+
+            } catch (SQLException e) {
+                throw new DatabaseOperationException("Error retrieving users at offset " + offset, e);
+            }
+        });
     }
 
     // ----------------------------------
     // ANALYTICS: COUNT ALL USERS
     // ----------------------------------
     public int countAll() {
-        String sql = "SELECT COUNT(*) FROM users";
+        return DaoMetrics.time("UserDAO.countAll", () -> {
+            String sql = "SELECT COUNT(*) FROM users";
 
-        try (Connection conn = Database.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql);
-             ResultSet rs = stmt.executeQuery()) {
+            try (Connection conn = Database.getConnection();
+                 PreparedStatement stmt = conn.prepareStatement(sql);
+                 ResultSet rs = stmt.executeQuery()) {
 
-            return rs.getInt(1);
+                return rs.getInt(1);
 
-        } catch (SQLException e) {
-            throw new DatabaseOperationException("Error counting users.", e);
-        }
+            } catch (SQLException e) {
+                throw new DatabaseOperationException("Error counting users.", e);
+            }
+        });
     }
 
     // ----------------------------------
     // DELETE USER BY ID (admin delete)
     // ----------------------------------
     public boolean deleteById(int id) {
-        String sql = "DELETE FROM users WHERE id = ?";
+        return DaoMetrics.time("UserDAO.deleteById", () -> {
+            String sql = "DELETE FROM users WHERE id = ?";
 
-        try (Connection conn = Database.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            try (Connection conn = Database.getConnection();
+                 PreparedStatement stmt = conn.prepareStatement(sql)) {
 
-            stmt.setInt(1, id);
-            int rows = stmt.executeUpdate();
-            return rows == 1;
+                stmt.setInt(1, id);
+                int rows = stmt.executeUpdate();
+                CACHE.invalidate(id);
+                return rows == 1;
 
-        } catch (SQLException e) {
-            throw new DatabaseOperationException("Error deleting user with id " + id, e);
-        }
+            } catch (SQLException e) {
+                throw new DatabaseOperationException("Error deleting user with id " + id, e);
+            }
+        });
     }
 
     // ----------------------------------
     // UPDATE PASSWORD (for profile page)
     // ----------------------------------
     public boolean updatePassword(int id, String newHash) {
-        String sql = "UPDATE users SET password_hash = ? WHERE id = ?";
+        return DaoMetrics.time("UserDAO.updatePassword", () -> {
+            String sql = "UPDATE users SET password_hash = ? WHERE id = ?";
 
-        try (Connection conn = Database.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            try (Connection conn = Database.getConnection();
+                 PreparedStatement stmt = conn.prepareStatement(sql)) {
 
-            stmt.setString(1, newHash);
-            stmt.setInt(2, id);
-            int rows = stmt.executeUpdate();
-            return rows == 1;
+                stmt.setString(1, newHash);
+                stmt.setInt(2, id);
+                int rows = stmt.executeUpdate();
+                CACHE.invalidate(id);
+                return rows == 1;
 
-        } catch (SQLException e) {
-            throw new DatabaseOperationException("Error updating password for user " + id, e);
-        }
+            } catch (SQLException e) {
+                throw new DatabaseOperationException("Error updating password for user " + id, e);
+            }
+        });
     }
 
     // ----------------------------------
     // UPDATE USERNAME (for profile page)
     // ----------------------------------
     public boolean updateUsername(int id, String newUsername) {
-        String sql = "UPDATE users SET username = ? WHERE id = ?";
-
-        try (Connection conn = Database.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-
-            stmt.setString(1, newUsername);
-            stmt.setInt(2, id);
-            int rows = stmt.executeUpdate();
-            return rows == 1;
-
-        } catch (SQLException e) {
-            throw new DatabaseOperationException(
-                    "Error updating username for user " + id + " to '" + newUsername + "'", e);
-        }
+        return DaoMetrics.time("UserDAO.updateUsername", () -> {
+            String sql = "UPDATE users SET username = ? WHERE id = ?";
+
+            try (Connection conn = Database.getConnection();
+                 PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+                stmt.setString(1, newUsername);
+                stmt.setInt(2, id);
+                int rows = stmt.executeUpdate();
+                CACHE.invalidate(id);
+                CACHE.invalidate(newUsername);
+                return rows == 1;
+
+            } catch (SQLException e) {
+                throw new DatabaseOperationException(
+                        "Error updating username for user " + id + " to '" + newUsername + "'", e);
+            }
+        });
     }
 
     // ----------------------------------
@@ -209,40 +347,44 @@ public class UserDAO {
 
     // Returns true if notifications are enabled (defaults to true on error)
     public boolean getEmailNotifications(int id) {
-        String sql = "SELECT email_notifications FROM users WHERE id = ?";
+        return DaoMetrics.time("UserDAO.getEmailNotifications", () -> {
+            String sql = "SELECT email_notifications FROM users WHERE id = ?";
 
-        try (Connection conn = Database.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            try (Connection conn = Database.getConnection();
+                 PreparedStatement stmt = conn.prepareStatement(sql)) {
 
-            stmt.setInt(1, id);
-            ResultSet rs = stmt.executeQuery();
-            if (rs.next()) {
-                int value = rs.getInt("email_notifications"); // 1 or 0
-                return value != 0;
-            }
-            // If user not found, default to true (or you might want false)
-            return true;
+                stmt.setInt(1, id);
+                ResultSet rs = stmt.executeQuery();
+                if (rs.next()) {
+                    int value = rs.getInt("email_notifications"); // 1 or 0
+                    return value != 0;
+                }
+                // If user not found, default to true (or you might want false)
+                return true;
 
-        } catch (SQLException e) {
-            throw new DatabaseOperationException(
-                    "Error reading email notifications for user " + id, e);
-        }
+            } catch (SQLException e) {
+                throw new DatabaseOperationException(
+                        "Error reading email notifications for user " + id, e);
+            }
+        });
     }
 
     public boolean updateEmailNotifications(int id, boolean enabled) {
-        String sql = "UPDATE users SET email_notifications = ? WHERE id = ?";
+        return DaoMetrics.time("UserDAO.updateEmailNotifications", () -> {
+            String sql = "UPDATE users SET email_notifications = ? WHERE id = ?";
 
-        try (Connection conn = Database.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            try (Connection conn = Database.getConnection();
+                 PreparedStatement stmt = conn.prepareStatement(sql)) {
 
-            stmt.setInt(1, enabled ? 1 : 0);
-            stmt.setInt(2, id);
-            int rows = stmt.executeUpdate();
-            return rows == 1;
+                stmt.setInt(1, enabled ? 1 : 0);
+                stmt.setInt(2, id);
+                int rows = stmt.executeUpdate();
+                return rows == 1;
 
-        } catch (SQLException e) {
-            throw new DatabaseOperationException(
-                    "Error updating email notifications for user " + id, e);
-        }
+            } catch (SQLException e) {
+                throw new DatabaseOperationException(
+                        "Error updating email notifications for user " + id, e);
+            }
+        });
     }
 }
\ No newline at end of file
@@ -0,0 +1,62 @@
+package net.javaguids.popin.models;
+
+import java.time.Instant;
+
+/**
+ * Every figure shown on the Analytics screen, computed together at one point in time.
+ * Immutable, so one instance can be shared by any number of readers.
+ */
+public final class AnalyticsSnapshot {
+
+    private final int totalUsers;
+    private final int totalEvents;
+    private final int totalRegistrations;
+
+    private final String mostActiveOrganizer;       // null when there are no events
+    private final int mostActiveOrganizerEvents;
+
+    private final int paidEventCount;
+    private final double averagePaidPrice;
+
+    private final String mostPopularUpcomingEvent;  // null when no upcoming event has registrations
+    private final int mostPopularUpcomingRegistrations;
+
+    private final Instant computedAt;
+
+    public AnalyticsSnapshot(int totalUsers, int totalEvents, int totalRegistrations,
+                             String mostActiveOrganizer, int mostActiveOrganizerEvents,
+                             int paidEventCount, double averagePaidPrice,
+                             String mostPopularUpcomingEvent, int mostPopularUpcomingRegistrations,
+                             Instant computedAt) {
+        this.totalUsers = totalUsers;
+        this.totalEvents = totalEvents;
+        this.totalRegistrations = totalRegistrations;
+        this.mostActiveOrganizer = mostActiveOrganizer;
+        this.mostActiveOrganizerEvents = mostActiveOrganizerEvents;
+        this.paidEventCount = paidEventCount;
+        this.averagePaidPrice = averagePaidPrice;
+        this.mostPopularUpcomingEvent = mostPopularUpcomingEvent;
+        this.mostPopularUpcomingRegistrations = mostPopularUpcomingRegistrations;
+        this.computedAt = computedAt;
+    }
+
+    public int getTotalUsers() { return totalUsers; }
+
+    public int getTotalEvents() { return totalEvents; }
+
+    public int getTotalRegistrations() { return totalRegistrations; }
+
+    public String getMostActiveOrganizer() { return mostActiveOrganizer; }
+
+    public int getMostActiveOrganizerEvents() { return mostActiveOrganizerEvents; }
+
+    public int getPaidEventCount() { return paidEventCount; }
+
+    public double getAveragePaidPrice() { return averagePaidPrice; }
+
+    public String getMostPopularUpcomingEvent() { return mostPopularUpcomingEvent; }
+
+    public int getMostPopularUpcomingRegistrations() { return mostPopularUpcomingRegistrations; }
+
+    public Instant getComputedAt() { return computedAt; }
+}
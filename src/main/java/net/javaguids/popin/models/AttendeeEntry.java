@@ -0,0 +1,32 @@
+package net.javaguids.popin.models;
+
+/**
+ * One line of an event's attendee list: who, and whether they have checked in.
+ */
+public class AttendeeEntry {
+
+    private final int userId;
+    private final String username;
+    private final String status; // "REGISTERED" or "CHECKED_IN"
+
+    public AttendeeEntry(int userId, String username, String status) {
+        this.userId = userId;
+        this.username = username;
+        this.status = status;
+    }
+
+    public int getUserId() { return userId; }
+
+    public String getUsername() { return username; }
+
+    public String getStatus() { return status; }
+
+    public boolean isCheckedIn() {
+        return "CHECKED_IN".equalsIgnoreCase(status);
+    }
+
+    @Override
+    public String toString() {
+        return isCheckedIn() ? username + " (checked in)" : username;
+    }
+}
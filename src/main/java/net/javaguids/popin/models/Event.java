@@ -11,6 +11,7 @@ public class Event {
     private String venue;
     private int capacity;
     private int organizerId;
+    private boolean summary; // list projection: the description was not loaded
 
     public Event() {}
 
@@ -42,7 +43,10 @@ public class Event {
     public void setTitle(String title) { this.title = title; }
 
     public String getDescription() { return description; }
-    public void setDescription(String description) { this.description = description; }
+    public void setDescription(String description) {
+        this.description = description;
+        this.summary = false; // the description is known now, so the event is complete
+    }
 
     public LocalDateTime getDateTime() { return dateTime; }
     public void setDateTime(LocalDateTime dateTime) { this.dateTime = dateTime; }
@@ -55,4 +59,11 @@ public class Event {
 
     public int getOrganizerId() { return organizerId; }
     public void setOrganizerId(int organizerId) { this.organizerId = organizerId; }
+
+    /**
+     * True for events from list queries, which skip the description (it can be large and
+     * lists never show it). Load the full event by id before showing or editing it.
+     */
+    public boolean isSummary() { return summary; }
+    public void setSummary(boolean summary) { this.summary = summary; }
 }
@@ -0,0 +1,79 @@
+package net.javaguids.popin.models;
+
+import java.time.LocalDateTime;
+
+/**
+ * What a create, update or delete in EventDAO touched: the event's organizer and start
+ * time before the write (absent for a create) and after it, with its capacity (absent for
+ * a delete). Caches use it to drop only the results the write can have changed.
+ */
+public final class EventChange {
+
+    private final int eventId;
+    private final boolean existedBefore;
+    private final int organizerBefore;
+    private final LocalDateTime startsBefore;
+    private final boolean existsAfter;
+    private final int organizerAfter;
+    private final LocalDateTime startsAfter;
+    private final int capacityAfter;
+
+    private EventChange(int eventId,
+                        boolean existedBefore, int organizerBefore, LocalDateTime startsBefore,
+                        boolean existsAfter, int organizerAfter, LocalDateTime startsAfter,
+                        int capacityAfter) {
+        this.eventId = eventId;
+        this.existedBefore = existedBefore;
+        this.organizerBefore = organizerBefore;
+        this.startsBefore = startsBefore;
+        this.existsAfter = existsAfter;
+        this.organizerAfter = organizerAfter;
+        this.startsAfter = startsAfter;
+        this.capacityAfter = capacityAfter;
+    }
+
+    public static EventChange created(Event saved) {
+        return new EventChange(saved.getId(), false, 0, null,
+                true, saved.getOrganizerId(), saved.getDateTime(), saved.getCapacity());
+    }
+
+    public static EventChange updated(int organizerBefore, LocalDateTime startsBefore, Event saved) {
+        return new EventChange(saved.getId(), true, organizerBefore, startsBefore,
+                true, saved.getOrganizerId(), saved.getDateTime(), saved.getCapacity());
+    }
+
+    public static EventChange deleted(int eventId, int organizerBefore, LocalDateTime startsBefore) {
+        return new EventChange(eventId, true, organizerBefore, startsBefore, false, 0, null, 0);
+    }
+
+    public int getEventId() { return eventId; }
+
+    public boolean isDeleted() { return !existsAfter; }
+
+    /** Start time after the write; null for a delete. */
+    public LocalDateTime getStartsAfter() { return startsAfter; }
+
+    /** Capacity after the write; 0 for a delete. */
+    public int getCapacityAfter() { return capacityAfter; }
+
+    /** True if the event belonged to this organizer before or after the write. */
+    public boolean involvesOrganizer(int organizerId) {
+        return (existedBefore && organizerBefore == organizerId)
+                || (existsAfter && organizerAfter == organizerId);
+    }
+
+    /**
+     * True if the event was or is upcoming at {@code now}, i.e. the write can change what an
+     * upcoming-events listing shows. An unknown start time counts as upcoming.
+     */
+    public boolean involvesUpcoming(LocalDateTime now) {
+        return (existedBefore && (startsBefore == null || startsBefore.isAfter(now)))
+                || (existsAfter && (startsAfter == null || startsAfter.isAfter(now)));
+    }
+
+    @Override
+    public String toString() {
+        String kind = !existedBefore ? "created" : existsAfter ? "updated" : "deleted";
+        return "event " + eventId + " " + kind;
+    }
+}
@@ -0,0 +1,32 @@
+package net.javaguids.popin.models;
+
+import java.time.LocalDateTime;
+
+/**
+ * Position in an event listing ordered by start time, then id: the last row of the previous page.
+ * The id breaks ties between events starting at the same time, so no row is skipped or repeated.
+ */
+public final class EventCursor {
+
+    private final LocalDateTime startsAt;
+    private final int eventId;
+
+    public EventCursor(LocalDateTime startsAt, int eventId) {
+        this.startsAt = startsAt;
+        this.eventId = eventId;
+    }
+
+    /** Cursor just past {@code event}. */
+    public static EventCursor after(Event event) {
+        return new EventCursor(event.getDateTime(), event.getId());
+    }
+
+    public LocalDateTime getStartsAt() { return startsAt; }
+
+    public int getEventId() { return eventId; }
+
+    @Override
+    public String toString() {
+        return startsAt + "#" + eventId;
+    }
+}
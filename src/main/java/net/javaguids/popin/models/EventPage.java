@@ -0,0 +1,24 @@
+package net.javaguids.popin.models;
+
+import java.util.List;
+
+/**
+ * One page of a keyset-paginated event listing. Pass {@link #getNext()} to the same
+ * query to get the following page; it is null on the last page.
+ */
+public final class EventPage {
+
+    private final List<Event> events;
+    private final EventCursor next;
+
+    public EventPage(List<Event> events, EventCursor next) {
+        this.events = List.copyOf(events);
+        this.next = next;
+    }
+
+    public List<Event> getEvents() { return events; }
+
+    public EventCursor getNext() { return next; }
+
+    public boolean hasMore() { return next != null; }
+}
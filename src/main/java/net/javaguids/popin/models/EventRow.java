@@ -0,0 +1,47 @@
+package net.javaguids.popin.models;
+
+import net.javaguids.popin.utils.IntIntHashMap;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * One table row: an event plus its registered count, computed once when the table is
+ * loaded so cell rendering never has to query the database.
+ */
+public class EventRow {
+
+    private final Event event;
+    private final int registeredCount;
+
+    public EventRow(Event event, int registeredCount) {
+        this.event = event;
+        this.registeredCount = registeredCount;
+    }
+
+    /** Pair each event with its count; events missing from the map have none. */
+    public static List<EventRow> withCounts(List<Event> events, IntIntHashMap registeredCounts) {
+        List<EventRow> rows = new ArrayList<>(events.size());
+        for (Event event : events) {
+            rows.add(new EventRow(event, registeredCounts.getOrDefault(event.getId(), 0)));
+        }
+        return rows;
+    }
+
+    public Event getEvent() { return event; }
+
+    public int getRegisteredCount() { return registeredCount; }
+
+    public int getId() { return event.getId(); }
+
+    public String getTitle() { return event.getTitle(); }
+
+    public LocalDateTime getDateTime() { return event.getDateTime(); }
+
+    public String getVenue() { return event.getVenue(); }
+
+    public int getCapacity() { return event.getCapacity(); }
+
+    public int getOrganizerId() { return event.getOrganizerId(); }
+}
@@ -0,0 +1,63 @@
+package net.javaguids.popin.models;
+
+import java.util.function.BiConsumer;
+
+/**
+ * One full-text search hit: the event, a snippet of the best-matching column with the
+ * matched terms wrapped in {@link #HIGHLIGHT_START}/{@link #HIGHLIGHT_END}, and its BM25 score.
+ */
+public class EventSearchResult {
+
+    // Control characters never appear in user text, so they are safe as markers
+    public static final String HIGHLIGHT_START = "\u0002";
+    public static final String HIGHLIGHT_END = "\u0003";
+
+    private final Event event;
+    private final String snippet;
+    private final double score;
+
+    public EventSearchResult(Event event, String snippet, double score) {
+        this.event = event;
+        this.snippet = snippet;
+        this.score = score;
+    }
+
+    public Event getEvent() { return event; }
+
+    /** Snippet with highlight markers; see {@link #forEachSnippetPart}. */
+    public String getSnippet() { return snippet; }
+
+    /** BM25 relevance, lower is better (SQLite's convention). */
+    public double getScore() { return score; }
+
+    /** Snippet without highlight markers. */
+    public String getPlainSnippet() {
+        return snippet.replace(HIGHLIGHT_START, "").replace(HIGHLIGHT_END, "");
+    }
+
+    /** Walk the snippet as (text, highlighted) parts, e.g. to render matches in bold. */
+    public void forEachSnippetPart(BiConsumer<String, Boolean> part) {
+        int pos = 0;
+        while (pos < snippet.length()) {
+            int start = snippet.indexOf(HIGHLIGHT_START, pos);
+            if (start < 0) {
+                part.accept(snippet.substring(pos), false);
+                return;
+            }
+            if (start > pos) {
+                part.accept(snippet.substring(pos, start), false);
+            }
+            int end = snippet.indexOf(HIGHLIGHT_END, start);
+            if (end < 0) {
+                end = snippet.length();
+            }
+            part.accept(snippet.substring(start + 1, end), true);
+            pos = end + 1;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return event.getTitle() + " — " + getPlainSnippet();
+    }
+}
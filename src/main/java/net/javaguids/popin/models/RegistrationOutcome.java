@@ -0,0 +1,11 @@
+package net.javaguids.popin.models;
+
+/**
+ * Result of trying to take a seat at an event.
+ */
+public enum RegistrationOutcome {
+    ADMITTED,           // seat taken (new registration or re-activated cancelled one)
+    FULL,               // no seats left
+    DUPLICATE,          // user already holds a REGISTERED seat
+    EVENT_UNAVAILABLE   // event does not exist or has already started
+}
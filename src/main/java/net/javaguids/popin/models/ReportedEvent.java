@@ -0,0 +1,50 @@
+package net.javaguids.popin.models;
+
+import java.time.LocalDateTime;
+
+/**
+ * Moderation summary for one reported event: who runs it and how reports are coming in.
+ * Report timestamps are UTC, as stored by the reports table.
+ */
+public class ReportedEvent {
+
+    private final int eventId;
+    private final String eventTitle;
+    private final int organizerId;
+    private final String organizerName;
+    private final int reportCount;
+    private final LocalDateTime firstReportedAt;
+    private final LocalDateTime lastReportedAt;
+    private final double reportsPerDay;
+
+    public ReportedEvent(int eventId, String eventTitle, int organizerId, String organizerName,
+                         int reportCount, LocalDateTime firstReportedAt, LocalDateTime lastReportedAt,
+                         double reportsPerDay) {
+        this.eventId = eventId;
+        this.eventTitle = eventTitle;
+        this.organizerId = organizerId;
+        this.organizerName = organizerName;
+        this.reportCount = reportCount;
+        this.firstReportedAt = firstReportedAt;
+        this.lastReportedAt = lastReportedAt;
+        this.reportsPerDay = reportsPerDay;
+    }
+
+    public int getEventId() { return eventId; }
+
+    public String getEventTitle() { return eventTitle; }
+
+    public int getOrganizerId() { return organizerId; }
+
+    /** Username, or "User #id" if the organizer account no longer exists. */
+    public String getOrganizerName() { return organizerName; }
+
+    public int getReportCount() { return reportCount; }
+
+    public LocalDateTime getFirstReportedAt() { return firstReportedAt; }
+
+    public LocalDateTime getLastReportedAt() { return lastReportedAt; }
+
+    /** Reports per day between the first and last report (a span under a day counts as one day). */
+    public double getReportsPerDay() { return reportsPerDay; }
+}
@@ -0,0 +1,70 @@
+package net.javaguids.popin.models;
+
+/**
+ * One reading of the System Health figures. Rates and latencies cover the interval since
+ * the previous reading; cache ratios cover everything since startup.
+ * Immutable, so it can be handed from the sampling thread to the UI as is.
+ */
+public final class SystemHealth {
+
+    private final double callsPerSecond;
+    private final double p99Millis;                 // 0 when there were no calls
+    private final String slowestOperation;          // by p99 since startup; null before the first call
+
+    private final int connectionsInUse;
+    private final int connectionPoolSize;
+    private final int connectionWaiters;
+
+    // hits / (hits + misses), or -1 before the first lookup
+    private final double eventCacheHitRatio;
+    private final double userCacheHitRatio;
+    private final double statementCacheHitRatio;
+
+    private final double fxWorstDelayMillis;
+    private final double fxStalledMillis;           // since the monitor started
+
+    public SystemHealth(double callsPerSecond, double p99Millis, String slowestOperation,
+                        int connectionsInUse, int connectionPoolSize, int connectionWaiters,
+                        double eventCacheHitRatio, double userCacheHitRatio, double statementCacheHitRatio,
+                        double fxWorstDelayMillis, double fxStalledMillis) {
+        this.callsPerSecond = callsPerSecond;
+        this.p99Millis = p99Millis;
+        this.slowestOperation = slowestOperation;
+        this.connectionsInUse = connectionsInUse;
+        this.connectionPoolSize = connectionPoolSize;
+        this.connectionWaiters = connectionWaiters;
+        this.eventCacheHitRatio = eventCacheHitRatio;
+        this.userCacheHitRatio = userCacheHitRatio;
+        this.statementCacheHitRatio = statementCacheHitRatio;
+        this.fxWorstDelayMillis = fxWorstDelayMillis;
+        this.fxStalledMillis = fxStalledMillis;
+    }
+
+    /** hits / (hits + misses), or -1 if there were none. */
+    public static double hitRatio(long hits, long misses) {
+        long lookups = hits + misses;
+        return lookups == 0 ? -1 : hits / (double) lookups;
+    }
+
+    public double getCallsPerSecond() { return callsPerSecond; }
+
+    public double getP99Millis() { return p99Millis; }
+
+    public String getSlowestOperation() { return slowestOperation; }
+
+    public int getConnectionsInUse() { return connectionsInUse; }
+
+    public int getConnectionPoolSize() { return connectionPoolSize; }
+
+    public int getConnectionWaiters() { return connectionWaiters; }
+
+    public double getEventCacheHitRatio() { return eventCacheHitRatio; }
+
+    public double getUserCacheHitRatio() { return userCacheHitRatio; }
+
+    public double getStatementCacheHitRatio() { return statementCacheHitRatio; }
+
+    public double getFxWorstDelayMillis() { return fxWorstDelayMillis; }
+
+    public double getFxStalledMillis() { return fxStalledMillis; }
+}
@@ -0,0 +1,93 @@
+package net.javaguids.popin.services;
+
+import net.javaguids.popin.database.AnalyticsDAO;
+import net.javaguids.popin.models.AnalyticsSnapshot;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Serves the Analytics screen from a cached {@link AnalyticsSnapshot}.
+ *
+ * A snapshot older than the TTL (system property {@code popin.analytics.ttlSeconds},
+ * default 60) is still returned immediately while a fresh one is computed in the
+ * background; only the very first request waits for the database.
+ */
+public final class AnalyticsService {
+
+    private static final Duration DEFAULT_TTL =
+            Duration.ofSeconds(Long.getLong("popin.analytics.ttlSeconds", 60));
+
+    private static final AnalyticsService INSTANCE = new AnalyticsService(
+            new AnalyticsDAO(), DEFAULT_TTL,
+            Executors.newSingleThreadExecutor(r -> {
+                Thread t = new Thread(r, "popin-analytics-refresh");
+                t.setDaemon(true);
+                return t;
+            }));
+
+    private final AnalyticsDAO analyticsDAO;
+    private final Duration ttl;
+    private final Executor refresher;
+
+    private final AtomicReference<AnalyticsSnapshot> current = new AtomicReference<>();
+    private final AtomicBoolean refreshing = new AtomicBoolean();
+
+    AnalyticsService(AnalyticsDAO analyticsDAO, Duration ttl, Executor refresher) {
+        this.analyticsDAO = analyticsDAO;
+        this.ttl = ttl;
+        this.refresher = refresher;
+    }
+
+    public static AnalyticsService getInstance() {
+        return INSTANCE;
+    }
+
+    /** The cached snapshot, computed now only if there is none yet. */
+    public AnalyticsSnapshot getSnapshot() {
+        AnalyticsSnapshot snapshot = current.get();
+        if (snapshot == null) {
+            return refreshNow();
+        }
+        if (isStale(snapshot)) {
+            refreshInBackground();
+        }
+        return snapshot;
+    }
+
+    /** Recompute on the calling thread and cache the result. */
+    public AnalyticsSnapshot refreshNow() {
+        AnalyticsSnapshot snapshot = analyticsDAO.loadSnapshot();
+        current.set(snapshot);
+        return snapshot;
+    }
+
+    /** Start a recompute unless one is already running; e.g. to warm the cache at login. */
+    public void refreshInBackground() {
+        if (!refreshing.compareAndSet(false, true)) {
+            return;
+        }
+        refresher.execute(() -> {
+            try {
+                refreshNow();
+            } catch (RuntimeException e) {
+                System.err.println("AnalyticsService: background refresh failed: " + e.getMessage());
+            } finally {
+                refreshing.set(false);
+            }
+        });
+    }
+
+    /** Drop the cached snapshot; the next request recomputes it. */
+    public void invalidate() {
+        current.set(null);
+    }
+
+    private boolean isStale(AnalyticsSnapshot snapshot) {
+        return snapshot.getComputedAt().plus(ttl).isBefore(Instant.now());
+    }
+}
@@ -0,0 +1,33 @@
+package net.javaguids.popin.services;
+
+import net.javaguids.popin.models.User;
+
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Non-blocking counterpart of {@link AuthServiceInterface}, run on the "auth"
+ * {@link ServiceExecutor}. Password hashing is CPU-heavy, so keep its limit low.
+ */
+public class AsyncAuthService {
+
+    private final AuthServiceInterface auth;
+    private final ServiceExecutor executor;
+
+    public AsyncAuthService() {
+        this(new AuthService(), ServiceExecutor.forService("auth"));
+    }
+
+    public AsyncAuthService(AuthServiceInterface auth, ServiceExecutor executor) {
+        this.auth = auth;
+        this.executor = executor;
+    }
+
+    public CompletableFuture<Optional<User>> login(String username, String plainPassword) {
+        return executor.submit(() -> auth.login(username, plainPassword));
+    }
+
+    public CompletableFuture<Boolean> registerUser(String username, String plainPassword, String roleName) {
+        return executor.submitWrite(() -> auth.registerUser(username, plainPassword, roleName));
+    }
+}
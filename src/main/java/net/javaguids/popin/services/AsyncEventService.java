@@ -0,0 +1,100 @@
+package net.javaguids.popin.services;
+
+import net.javaguids.popin.models.Event;
+import net.javaguids.popin.models.EventCursor;
+import net.javaguids.popin.models.EventPage;
+import net.javaguids.popin.models.EventSearchResult;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Non-blocking counterpart of {@link EventServiceInterface}: every call runs on the
+ * "events" {@link ServiceExecutor} and can be cancelled or time out down to the JDBC statement.
+ */
+public class AsyncEventService {
+
+    private final EventServiceInterface events;
+    private final ServiceExecutor executor;
+
+    public AsyncEventService() {
+        this(new EventService(), ServiceExecutor.forService("events"));
+    }
+
+    public AsyncEventService(EventServiceInterface events, ServiceExecutor executor) {
+        this.events = events;
+        this.executor = executor;
+    }
+
+    public CompletableFuture<Boolean> createEvent(String title,
+                                                  String description,
+                                                  LocalDateTime dateTime,
+                                                  String venue,
+                                                  int capacity,
+                                                  int organizerId,
+                                                  Double price) {
+        return executor.submitWrite(() ->
+                events.createEvent(title, description, dateTime, venue, capacity, organizerId, price));
+    }
+
+    public CompletableFuture<Boolean> updateEvent(Event event, Double price) {
+        return executor.submitWrite(() -> events.updateEvent(event, price));
+    }
+
+    public CompletableFuture<Boolean> deleteEvent(int id) {
+        return executor.submitWrite(() -> events.deleteEvent(id));
+    }
+
+    public CompletableFuture<Event> getEventById(int id) {
+        return executor.submit(() -> events.getEventById(id));
+    }
+
+    public CompletableFuture<List<Event>> getUpcomingEvents() {
+        return executor.submit(events::getUpcomingEvents);
+    }
+
+    public CompletableFuture<List<Event>> getAllEvents() {
+        return executor.submit(events::getAllEvents);
+    }
+
+    public CompletableFuture<List<Event>> getEventsByOrganizer(int organizerId) {
+        return executor.submit(() -> events.getEventsByOrganizer(organizerId));
+    }
+
+    public CompletableFuture<EventPage> getUpcomingEventsPage(EventCursor after, int pageSize) {
+        return executor.submit(() -> events.getUpcomingEventsPage(after, pageSize));
+    }
+
+    public CompletableFuture<EventPage> getAllEventsPage(EventCursor after, int pageSize) {
+        return executor.submit(() -> events.getAllEventsPage(after, pageSize));
+    }
+
+    public CompletableFuture<EventPage> getEventsByOrganizerPage(int organizerId, EventCursor after, int pageSize) {
+        return executor.submit(() -> events.getEventsByOrganizerPage(organizerId, after, pageSize));
+    }
+
+    public CompletableFuture<EventPage> getUpcomingEventsAt(int offset, int pageSize) {
+        return executor.submit(() -> events.getUpcomingEventsAt(offset, pageSize));
+    }
+
+    public CompletableFuture<EventPage> getEventsByOrganizerAt(int organizerId, int offset, int pageSize) {
+        return executor.submit(() -> events.getEventsByOrganizerAt(organizerId, offset, pageSize));
+    }
+
+    public CompletableFuture<Integer> countUpcomingEvents() {
+        return executor.submit(events::countUpcomingEvents);
+    }
+
+    public CompletableFuture<Integer> countAllEvents() {
+        return executor.submit(events::countAllEvents);
+    }
+
+    public CompletableFuture<Integer> countEventsByOrganizer(int organizerId) {
+        return executor.submit(() -> events.countEventsByOrganizer(organizerId));
+    }
+
+    public CompletableFuture<List<EventSearchResult>> searchUpcomingEvents(String query, int limit, int offset) {
+        return executor.submit(() -> events.searchUpcomingEvents(query, limit, offset));
+    }
+}
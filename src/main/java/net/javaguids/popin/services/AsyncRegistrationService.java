@@ -0,0 +1,48 @@
+package net.javaguids.popin.services;
+
+import net.javaguids.popin.models.RegistrationOutcome;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Non-blocking counterpart of {@link RegistrationServiceInterface}, run on the
+ * "registrations" {@link ServiceExecutor}.
+ */
+public class AsyncRegistrationService {
+
+    private final RegistrationServiceInterface registrations;
+    private final ServiceExecutor executor;
+
+    public AsyncRegistrationService() {
+        this(new RegistrationService(), ServiceExecutor.forService("registrations"));
+    }
+
+    public AsyncRegistrationService(RegistrationServiceInterface registrations, ServiceExecutor executor) {
+        this.registrations = registrations;
+        this.executor = executor;
+    }
+
+    public CompletableFuture<Boolean> registerUser(int eventId, int userId) {
+        return executor.submitWrite(() -> registrations.registerUser(eventId, userId));
+    }
+
+    public CompletableFuture<RegistrationOutcome> admitUser(int eventId, int userId) {
+        return executor.submitWrite(() -> registrations.admitUser(eventId, userId));
+    }
+
+    public CompletableFuture<Boolean> cancelRegistration(int eventId, int userId) {
+        return executor.submitWrite(() -> registrations.cancelRegistration(eventId, userId));
+    }
+
+    public CompletableFuture<Boolean> checkInUser(int eventId, int userId) {
+        return executor.submitWrite(() -> registrations.checkInUser(eventId, userId));
+    }
+
+    public CompletableFuture<Boolean> isEventFull(int eventId) {
+        return executor.submit(() -> registrations.isEventFull(eventId));
+    }
+
+    public CompletableFuture<Boolean> isUserRegistered(int eventId, int userId) {
+        return executor.submit(() -> registrations.isUserRegistered(eventId, userId));
+    }
+}
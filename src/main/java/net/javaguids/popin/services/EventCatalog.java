@@ -0,0 +1,272 @@
+package net.javaguids.popin.services;
+
+import net.javaguids.popin.database.EventDAO;
+import net.javaguids.popin.models.Event;
+import net.javaguids.popin.models.EventChange;
+import net.javaguids.popin.models.EventPage;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Read-through cache in front of EventDAO, shared by the services: single events by id,
+ * plus the results of common listing and count queries.
+ *
+ * Entries are weighed by their estimated heap size. Once the total passes
+ * {@code popin.cache.events.maxBytes} (default 8 MB), the least recently used entries are
+ * dropped until it is back under 90% of that. A hit is one ConcurrentHashMap read and
+ * a volatile write of the access time, with no lock.
+ *
+ * Every create / update / delete in EventDAO drops exactly what it can affect:
+ * - the event itself;
+ * - results for the organizer it belonged to before and after;
+ * - upcoming-event results if it was or is upcoming;
+ * - results over all events.
+ * Upcoming results also expire after a minute, since events drift out of "upcoming" on
+ * their own. Returned values are shared: treat them as read-only and save changes
+ * through EventService / EventDAO.
+ */
+public final class EventCatalog {
+
+    private static final long DEFAULT_MAX_BYTES = Long.getLong("popin.cache.events.maxBytes", 8L * 1024 * 1024);
+    private static final Duration UPCOMING_MAX_AGE = Duration.ofMinutes(1);
+
+    private static final EventCatalog INSTANCE = new EventCatalog(new EventDAO(), DEFAULT_MAX_BYTES);
+
+    /** Which writes make a cached value stale. */
+    private enum Scope { EVENT, ALL, UPCOMING, ORGANIZER }
+
+    /** {@code id} is the event id for EVENT and the organizer id for ORGANIZER, otherwise 0. */
+    private record Key(Scope scope, int id, String query) {}
+
+    private static final class Entry {
+        private final Object value;
+        private final long weight;
+        private final long expiresAt; // System.nanoTime() deadline, 0 = until invalidated
+        private volatile long lastUsed;
+
+        private Entry(Object value, long weight, long expiresAt, long now) {
+            this.value = value;
+            this.weight = weight;
+            this.expiresAt = expiresAt;
+            this.lastUsed = now;
+        }
+
+        private boolean isExpired(long now) {
+            return expiresAt != 0 && now - expiresAt >= 0;
+        }
+    }
+
+    private final EventDAO eventDAO;
+    private final long maxBytes;
+    private final Map<Key, Entry> entries = new ConcurrentHashMap<>();
+    private final AtomicLong weight = new AtomicLong();
+    private final AtomicLong writes = new AtomicLong(); // bumped before each invalidation, see load()
+    private final ReentrantLock evictionLock = new ReentrantLock();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+
+    EventCatalog(EventDAO eventDAO, long maxBytes) {
+        this.eventDAO = eventDAO;
+        this.maxBytes = maxBytes;
+        EventDAO.addChangeListener(this::invalidate);
+    }
+
+    public static EventCatalog getInstance() {
+        return INSTANCE;
+    }
+
+    // ---------------- LOOKUPS ----------------
+    /** The event with this id, or null if there is none. */
+    public Event findById(int eventId) {
+        return get(new Key(Scope.EVENT, eventId, ""), 0, () -> eventDAO.findById(eventId));
+    }
+
+    /** True if the event exists and has not started yet. */
+    public boolean isUpcoming(int eventId) {
+        Event event = findById(eventId);
+        return event != null && event.getDateTime().isAfter(LocalDateTime.now());
+    }
+
+    // ---------------- CACHED QUERIES ----------------
+    // The query string names the result within its scope, e.g. "list" or "page:100". The loader
+    // must only read events of that scope, or precise invalidation would miss its writes.
+
+    /** Result computed from upcoming events only. */
+    public <T> T upcoming(String query, Supplier<T> loader) {
+        return get(new Key(Scope.UPCOMING, 0, query), UPCOMING_MAX_AGE.toNanos(), loader);
+    }
+
+    /** Result computed from one organizer's events only. */
+    public <T> T forOrganizer(int organizerId, String query, Supplier<T> loader) {
+        return get(new Key(Scope.ORGANIZER, organizerId, query), 0, loader);
+    }
+
+    /** Result that any event write can change. */
+    public <T> T all(String query, Supplier<T> loader) {
+        return get(new Key(Scope.ALL, 0, query), 0, loader);
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T get(Key key, long maxAgeNanos, Supplier<T> loader) {
+        long now = System.nanoTime();
+        Entry entry = entries.get(key);
+        if (entry != null) {
+            if (!entry.isExpired(now)) {
+                entry.lastUsed = now;
+                hits.increment();
+                return (T) entry.value;
+            }
+            remove(key, entry);
+        }
+        misses.increment();
+        return load(key, maxAgeNanos, loader, now);
+    }
+
+    private <T> T load(Key key, long maxAgeNanos, Supplier<T> loader, long now) {
+        long writesBefore = writes.get();
+        T value = loader.get();
+        if (value == null) {
+            return null; // e.g. no such event; not worth an entry
+        }
+
+        Entry fresh = new Entry(value, weigh(value), maxAgeNanos == 0 ? 0 : now + maxAgeNanos, now);
+        Entry previous = entries.put(key, fresh);
+        weight.addAndGet(fresh.weight - (previous == null ? 0 : previous.weight));
+
+        // A write during the load may predate what was read and have missed this entry:
+        // keep the value for this caller only.
+        if (writes.get() != writesBefore) {
+            remove(key, fresh);
+        } else if (weight.get() > maxBytes) {
+            evict();
+        }
+        return value;
+    }
+
+    private void remove(Key key, Entry entry) {
+        if (entries.remove(key, entry)) {
+            weight.addAndGet(-entry.weight);
+        }
+    }
+
+    // ---------------- EVICTION ----------------
+    private void evict() {
+        if (!evictionLock.tryLock()) {
+            return; // another thread is already making room
+        }
+        try {
+            long target = maxBytes / 10 * 9;
+            if (weight.get() <= maxBytes) {
+                return;
+            }
+            // snapshot the access times: hits keep updating them, and the sort needs stable keys
+            List<Candidate> oldestFirst = new ArrayList<>(entries.size());
+            entries.forEach((key, entry) -> oldestFirst.add(new Candidate(key, entry, entry.lastUsed)));
+            oldestFirst.sort(Comparator.comparingLong(Candidate::lastUsed));
+            for (Candidate candidate : oldestFirst) {
+                if (weight.get() <= target) {
+                    break;
+                }
+                if (entries.remove(candidate.key(), candidate.entry())) {
+                    weight.addAndGet(-candidate.entry().weight);
+                    evictions.increment();
+                }
+            }
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    private record Candidate(Key key, Entry entry, long lastUsed) {}
+
+    /** Rough retained size in bytes: object headers, fields and string contents. */
+    static long weigh(Object value) {
+        if (value instanceof Event event) {
+            return 96 + chars(event.getTitle()) + chars(event.getDescription()) + chars(event.getVenue());
+        }
+        if (value instanceof EventPage page) {
+            return 32 + weigh(page.getEvents());
+        }
+        if (value instanceof List<?> list) {
+            long total = 24 + 8L * list.size();
+            for (Object element : list) {
+                total += weigh(element);
+            }
+            return total;
+        }
+        return 16; // boxed counts and flags
+    }
+
+    private static long chars(String text) {
+        return text == null ? 0 : 40 + 2L * text.length();
+    }
+
+    // ---------------- INVALIDATION ----------------
+    /** Drop everything the write can have changed; EventDAO calls this after each write. */
+    public void invalidate(EventChange change) {
+        writes.incrementAndGet();
+        LocalDateTime now = LocalDateTime.now();
+        for (Map.Entry<Key, Entry> e : entries.entrySet()) {
+            Key key = e.getKey();
+            boolean stale = switch (key.scope()) {
+                case EVENT -> key.id() == change.getEventId();
+                case ORGANIZER -> change.involvesOrganizer(key.id());
+                case UPCOMING -> change.involvesUpcoming(now);
+                case ALL -> true;
+            };
+            if (stale) {
+                remove(key, e.getValue());
+                invalidations.increment();
+            }
+        }
+    }
+
+    /** Forget everything, e.g. after events were changed without going through EventDAO. */
+    public void clear() {
+        writes.incrementAndGet();
+        for (Map.Entry<Key, Entry> e : entries.entrySet()) {
+            remove(e.getKey(), e.getValue());
+        }
+    }
+
+    // ---------------- STATS ----------------
+    /** Cached events and query results. */
+    public int size() {
+        return entries.size();
+    }
+
+    /** Estimated bytes held; see {@link #weigh}. */
+    public long getWeight() { return weight.get(); }
+
+    public long getMaxBytes() { return maxBytes; }
+
+    public long getHits() { return hits.sum(); }
+
+    public long getMisses() { return misses.sum(); }
+
+    /** Entries dropped to stay under the size limit. */
+    public long getEvictions() { return evictions.sum(); }
+
+    /** Entries dropped because an event write made them stale. */
+    public long getInvalidations() { return invalidations.sum(); }
+
+    @Override
+    public String toString() {
+        return "EventCatalog[entries=" + size() + ", bytes=" + getWeight() + "/" + maxBytes
+                + ", hits=" + getHits() + ", misses=" + getMisses()
+                + ", evictions=" + getEvictions() + ", invalidations=" + getInvalidations() + "]";
+    }
+}
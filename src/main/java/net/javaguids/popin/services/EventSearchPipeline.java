@@ -0,0 +1,236 @@
+package net.javaguids.popin.services;
+
+import net.javaguids.popin.database.EventDAO;
+import net.javaguids.popin.models.Event;
+import net.javaguids.popin.models.EventSearchResult;
+
+import java.text.Normalizer;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Search-as-you-type over upcoming events with as few database queries as possible.
+ *
+ * Queries are normalized to their words, so "Jazz  night" and "jazz night" are the same.
+ * Recent results are kept in an LRU cache. A query that only narrows a cached one (every
+ * word extends the cached word at the same position, more words may follow) is answered
+ * by filtering the cached hits in memory, as long as the cached list was complete rather
+ * than cut off at the limit. Refined lists keep the cached ranking and snippets.
+ *
+ * Entries expire after a minute (so events drift out of "upcoming") and the whole cache
+ * is dropped whenever EventDAO reports a change.
+ */
+public final class EventSearchPipeline {
+
+    /** The actual full-text query, e.g. EventService.searchUpcomingEvents. */
+    @FunctionalInterface
+    public interface Backend {
+        List<EventSearchResult> search(String query, int limit);
+    }
+
+    private static final int DEFAULT_LIMIT = 200;
+    private static final int DEFAULT_CACHE_SIZE = 64;
+    private static final Duration MAX_AGE = Duration.ofMinutes(1);
+
+    private static final EventSearchPipeline INSTANCE = new EventSearchPipeline(
+            (query, limit) -> new EventService().searchUpcomingEvents(query, limit, 0),
+            ServiceExecutor.forService("search"), DEFAULT_LIMIT, DEFAULT_CACHE_SIZE);
+
+    private final Backend backend;
+    private final ServiceExecutor executor;
+    private final int limit;
+    private final Map<String, CachedResult> cache; // guarded by itself, least recently used first
+    private long generation; // guarded by cache; bumped by clear() so in-flight results are not cached
+
+    private final LongAdder backendQueries = new LongAdder();
+    private final LongAdder cacheHits = new LongAdder();
+    private final LongAdder refinements = new LongAdder();
+
+    EventSearchPipeline(Backend backend, ServiceExecutor executor, int limit, int cacheSize) {
+        this.backend = backend;
+        this.executor = executor;
+        this.limit = limit;
+        this.cache = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedResult> eldest) {
+                return size() > cacheSize;
+            }
+        };
+        EventDAO.addChangeListener(change -> clear());
+    }
+
+    public static EventSearchPipeline getInstance() {
+        return INSTANCE;
+    }
+
+    // ---------------- SEARCH ----------------
+    /**
+     * Results for {@code query}: completed immediately when the cache can answer, otherwise
+     * a database search on the "search" executor. Cancel the returned future when a newer
+     * keystroke supersedes it; that also cancels the running statement.
+     */
+    public CompletableFuture<List<EventSearchResult>> searchAsync(String query) {
+        List<String> words = words(query);
+        if (words.isEmpty()) {
+            return CompletableFuture.completedFuture(List.of());
+        }
+        List<EventSearchResult> cached = fromCache(words);
+        if (cached != null) {
+            return CompletableFuture.completedFuture(cached);
+        }
+        return executor.submit(() -> fetch(words));
+    }
+
+    /** Blocking version of {@link #searchAsync}. */
+    public List<EventSearchResult> search(String query) {
+        List<String> words = words(query);
+        if (words.isEmpty()) {
+            return List.of();
+        }
+        List<EventSearchResult> cached = fromCache(words);
+        return cached != null ? cached : fetch(words);
+    }
+
+    private List<EventSearchResult> fetch(List<String> words) {
+        long startGeneration = currentGeneration();
+        backendQueries.increment();
+        List<EventSearchResult> results = List.copyOf(backend.search(String.join(" ", words), limit));
+        put(words, results, results.size() < limit, startGeneration);
+        return results;
+    }
+
+    /** An exact hit, or a refinement of the narrowest complete cached query; null if neither. */
+    private List<EventSearchResult> fromCache(List<String> words) {
+        String key = String.join(" ", words);
+        long now = System.currentTimeMillis();
+        long startGeneration;
+        CachedResult base = null;
+
+        synchronized (cache) {
+            startGeneration = generation;
+            CachedResult exact = cache.get(key);
+            if (exact != null && !exact.isExpired(now)) {
+                cacheHits.increment();
+                return exact.results;
+            }
+            for (CachedResult candidate : cache.values()) {
+                if (candidate.complete && !candidate.isExpired(now) && narrows(words, candidate.words)
+                        && (base == null || candidate.results.size() < base.results.size())) {
+                    base = candidate;
+                }
+            }
+        }
+        if (base == null) {
+            return null;
+        }
+
+        List<EventSearchResult> refined = new ArrayList<>();
+        for (EventSearchResult hit : base.results) {
+            if (matchesAll(hit.getEvent(), words)) {
+                refined.add(hit);
+            }
+        }
+        refinements.increment();
+        refined = List.copyOf(refined);
+        put(words, refined, true, startGeneration);
+        return refined;
+    }
+
+    private long currentGeneration() {
+        synchronized (cache) {
+            return generation;
+        }
+    }
+
+    private void put(List<String> words, List<EventSearchResult> results, boolean complete, long startGeneration) {
+        synchronized (cache) {
+            if (generation != startGeneration) {
+                return; // cleared while this was computed: the results may predate the change
+            }
+            cache.put(String.join(" ", words),
+                    new CachedResult(words, results, complete, System.currentTimeMillis() + MAX_AGE.toMillis()));
+        }
+    }
+
+    // ---------------- MATCHING ----------------
+    /** True if every match of {@code words} is also a match of {@code cachedWords}. */
+    static boolean narrows(List<String> words, List<String> cachedWords) {
+        if (cachedWords.size() > words.size()) {
+            return false;
+        }
+        for (int i = 0; i < cachedWords.size(); i++) {
+            if (!words.get(i).startsWith(cachedWords.get(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /** Same rule as the FTS query: every word is a prefix of some word in title, description or venue. */
+    private static boolean matchesAll(Event event, List<String> words) {
+        List<String> tokens = words(event.getTitle() + " "
+                + Objects.toString(event.getDescription(), "") + " " + event.getVenue());
+        for (String word : words) {
+            if (tokens.stream().noneMatch(token -> token.startsWith(word))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /** Lowercase words without diacritics, split like the FTS tokenizer (unicode61). */
+    static List<String> words(String text) {
+        if (text == null) {
+            return List.of();
+        }
+        String folded = Normalizer.normalize(text, Normalizer.Form.NFD)
+                .replaceAll("\\p{M}+", "")
+                .toLowerCase(Locale.ROOT);
+        return Arrays.stream(folded.split("[^\\p{L}\\p{N}]+"))
+                .filter(word -> !word.isEmpty())
+                .toList();
+    }
+
+    // ---------------- INVALIDATION / STATS ----------------
+    public void clear() {
+        synchronized (cache) {
+            cache.clear();
+            generation++;
+        }
+    }
+
+    /** Searches that went to the database. */
+    public long getBackendQueries() { return backendQueries.sum(); }
+
+    /** Searches answered by an identical cached query. */
+    public long getCacheHits() { return cacheHits.sum(); }
+
+    /** Searches answered by filtering a broader cached query. */
+    public long getRefinements() { return refinements.sum(); }
+
+    private static final class CachedResult {
+        private final List<String> words;
+        private final List<EventSearchResult> results;
+        private final boolean complete; // false if the backend returned a full page, so more may exist
+        private final long expiresAt;
+
+        private CachedResult(List<String> words, List<EventSearchResult> results, boolean complete, long expiresAt) {
+            this.words = words;
+            this.results = results;
+            this.complete = complete;
+            this.expiresAt = expiresAt;
+        }
+
+        private boolean isExpired(long now) {
+            return now >= expiresAt;
+        }
+    }
+}
@@ -2,6 +2,9 @@ package net.javaguids.popin.services;
 
 import net.javaguids.popin.database.EventDAO;
 import net.javaguids.popin.models.Event;
+import net.javaguids.popin.models.EventCursor;
+import net.javaguids.popin.models.EventPage;
+import net.javaguids.popin.models.EventSearchResult;
 import net.javaguids.popin.models.PaidEvent;
 
 import java.time.LocalDateTime;
@@ -10,6 +13,7 @@ import java.util.List;
 public class EventService implements EventServiceInterface {
 
     private final EventDAO eventDAO = new EventDAO();
+    private final EventCatalog eventCatalog = EventCatalog.getInstance();
 
     @Override
     public boolean createEvent(String title,
@@ -37,18 +41,79 @@ public class EventService implements EventServiceInterface {
         return eventDAO.deleteEvent(id);
     }
 
+    @Override
+    public Event getEventById(int id) {
+        return eventCatalog.findById(id);
+    }
+
     @Override
     public List<Event> getUpcomingEvents() {
-        return eventDAO.findAllUpcoming();
+        return eventCatalog.upcoming("list", eventDAO::findAllUpcoming);
     }
 
     @Override
     public List<Event> getAllEvents() {
-        return eventDAO.findAll();
+        return eventCatalog.all("list", eventDAO::findAll);
     }
 
     @Override
     public List<Event> getEventsByOrganizer(int organizerId) {
-        return eventDAO.findByOrganizerId(organizerId);
+        return eventCatalog.forOrganizer(organizerId, "list", () -> eventDAO.findByOrganizerId(organizerId));
+    }
+
+    @Override
+    public EventPage getUpcomingEventsPage(EventCursor after, int pageSize) {
+        // first pages are what every screen opens with; later ones are rarely asked for twice
+        if (after == null) {
+            return eventCatalog.upcoming("page:" + pageSize, () -> eventDAO.findUpcomingPage(null, pageSize));
+        }
+        return eventDAO.findUpcomingPage(after, pageSize);
+    }
+
+    @Override
+    public EventPage getAllEventsPage(EventCursor after, int pageSize) {
+        if (after == null) {
+            return eventCatalog.all("page:" + pageSize, () -> eventDAO.findAllPage(null, pageSize));
+        }
+        return eventDAO.findAllPage(after, pageSize);
+    }
+
+    @Override
+    public EventPage getEventsByOrganizerPage(int organizerId, EventCursor after, int pageSize) {
+        if (after == null) {
+            return eventCatalog.forOrganizer(organizerId, "page:" + pageSize,
+                    () -> eventDAO.findByOrganizerPage(organizerId, null, pageSize));
+        }
+        return eventDAO.findByOrganizerPage(organizerId, after, pageSize);
+    }
+
+    @Override
+    public EventPage getUpcomingEventsAt(int offset, int pageSize) {
+        return eventDAO.findUpcomingAt(offset, pageSize);
+    }
+
+    @Override
+    public EventPage getEventsByOrganizerAt(int organizerId, int offset, int pageSize) {
+        return eventDAO.findByOrganizerAt(organizerId, offset, pageSize);
+    }
+
+    @Override
+    public int countUpcomingEvents() {
+        return eventCatalog.upcoming("count", eventDAO::countUpcoming);
+    }
+
+    @Override
+    public int countAllEvents() {
+        return eventCatalog.all("count", eventDAO::countAll);
+    }
+
+    @Override
+    public int countEventsByOrganizer(int organizerId) {
+        return eventCatalog.forOrganizer(organizerId, "count", () -> eventDAO.countByOrganizer(organizerId));
+    }
+
+    @Override
+    public List<EventSearchResult> searchUpcomingEvents(String query, int limit, int offset) {
+        return eventDAO.searchUpcoming(query, limit, offset);
     }
 }
\ No newline at end of file
@@ -1,6 +1,9 @@
 package net.javaguids.popin.services;
 
 import net.javaguids.popin.models.Event;
+import net.javaguids.popin.models.EventCursor;
+import net.javaguids.popin.models.EventPage;
+import net.javaguids.popin.models.EventSearchResult;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -19,9 +22,31 @@ public interface EventServiceInterface {
 
     boolean deleteEvent(int id);
 
+    Event getEventById(int id);
+
     List<Event> getUpcomingEvents();
 
     List<Event> getAllEvents();
 
     List<Event> getEventsByOrganizer(int organizerId);
+
+    // Keyset pages: pass null for the first page, then the previous page's getNext()
+    EventPage getUpcomingEventsPage(EventCursor after, int pageSize);
+
+    EventPage getAllEventsPage(EventCursor after, int pageSize);
+
+    EventPage getEventsByOrganizerPage(int organizerId, EventCursor after, int pageSize);
+
+    // Page starting at a row position, for jumps where no cursor is known
+    EventPage getUpcomingEventsAt(int offset, int pageSize);
+
+    EventPage getEventsByOrganizerAt(int organizerId, int offset, int pageSize);
+
+    int countUpcomingEvents();
+
+    int countAllEvents();
+
+    int countEventsByOrganizer(int organizerId);
+
+    List<EventSearchResult> searchUpcomingEvents(String query, int limit, int offset);
 }
\ No newline at end of file
@@ -1,41 +1,31 @@
 package net.javaguids.popin.services;
 
-import net.javaguids.popin.database.EventDAO;
 import net.javaguids.popin.database.RegistrationDAO;
 import net.javaguids.popin.exceptions.EventFullException;
 import net.javaguids.popin.models.Event;
+import net.javaguids.popin.models.RegistrationOutcome;
+
+import java.time.LocalDateTime;
 
 public class RegistrationService implements RegistrationServiceInterface {
 
     private final RegistrationDAO registrationDAO = new RegistrationDAO();
-    private final EventDAO eventDAO = new EventDAO();
+    private final EventCatalog eventCatalog = EventCatalog.getInstance();
 
     @Override
     public boolean registerUser(int eventId, int userId) {
-        if (registrationDAO.isUserRegistered(eventId, userId)) {
-            throw new IllegalStateException("You are already registered for this event.");
-        }
-
-        Event event = eventDAO.findAllUpcoming().stream()
-                .filter(e -> e.getId() == eventId)
-                .findFirst()
-                .orElseThrow(() -> new IllegalArgumentException("Event not found."));
-
-        int currentCount = registrationDAO.countRegistered(eventId);
-        if (currentCount >= event.getCapacity()) {
-            throw new EventFullException("This event is full.");
-        }
-
-        boolean reactivated = registrationDAO.updateStatus(eventId, userId, "REGISTERED");
-        if (reactivated) {
-            return true;
-        }
+        return switch (admitUser(eventId, userId)) {
+            case ADMITTED -> true;
+            case DUPLICATE -> throw new IllegalStateException("You are already registered for this event.");
+            case EVENT_UNAVAILABLE -> throw new IllegalArgumentException("Event not found.");
+            case FULL -> throw new EventFullException("This event is full.");
+        };
+    }
 
-        boolean success = registrationDAO.registerUser(eventId, userId);
-        if (!success) {
-            throw new RuntimeException("Could not register for event.");
-        }
-        return true;
+    /** Decides and records the registration atomically; see RegistrationDAO.admit. */
+    @Override
+    public RegistrationOutcome admitUser(int eventId, int userId) {
+        return registrationDAO.admit(eventId, userId);
     }
 
     @Override
@@ -56,12 +46,9 @@ public class RegistrationService implements RegistrationServiceInterface {
 
     @Override
     public boolean isEventFull(int eventId) {
-        Event event = eventDAO.findAllUpcoming().stream()
-                .filter(e -> e.getId() == eventId)
-                .findFirst()
-                .orElse(null);
-
-        if (event == null) return true;
+        // one lookup: the event can be deleted between two
+        Event event = eventCatalog.findById(eventId);
+        if (event == null || !event.getDateTime().isAfter(LocalDateTime.now())) return true;
         return registrationDAO.countRegistered(eventId) >= event.getCapacity();
     }
 
@@ -1,9 +1,13 @@
 package net.javaguids.popin.services;
 
+import net.javaguids.popin.models.RegistrationOutcome;
+
 public interface RegistrationServiceInterface {
 
     boolean registerUser(int eventId, int userId);
 
+    RegistrationOutcome admitUser(int eventId, int userId);
+
     boolean cancelRegistration(int eventId, int userId);
 
     boolean checkInUser(int eventId, int userId);
@@ -0,0 +1,400 @@
+package net.javaguids.popin.services;
+
+import net.javaguids.popin.database.EventDAO;
+import net.javaguids.popin.database.RegistrationDAO;
+import net.javaguids.popin.exceptions.EventFullException;
+import net.javaguids.popin.models.Event;
+import net.javaguids.popin.models.EventChange;
+import net.javaguids.popin.models.Registration;
+import net.javaguids.popin.models.RegistrationOutcome;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+/**
+ * Optional high-throughput alternative to {@link RegistrationService} for hot on-sale events.
+ *
+ * Seats are counted in memory (one locked counter per event), so admit/cancel decisions
+ * never touch SQLite. Accepted changes are queued and written to the registrations table in
+ * batches by a single background writer, in the order they were decided. A batch that fails
+ * to write stays queued and is retried until it succeeds; only after {@link #close()} does
+ * the writer give up on it (see {@link #getDroppedWrites()}).
+ *
+ * The engine assumes it is the only writer of registrations while it runs; call
+ * {@link #rebuild()} after changing registrations some other way. Event updates and deletes
+ * through EventDAO are applied to the affected counter in place (new capacity and start
+ * time, or closed for good) without waiting for queued writes.
+ */
+public final class SeatReservationEngine implements RegistrationServiceInterface, AutoCloseable {
+
+    private static final int MAX_BATCH = 500;
+    private static final int MAX_WRITE_ATTEMPTS = 3;   // per batch, once closed
+    private static final long RETRY_BACKOFF_MS = 200;
+    private static final long MAX_RETRY_BACKOFF_MS = 5_000;
+
+    private final RegistrationDAO registrationDAO;
+    private final EventDAO eventDAO;
+
+    private final Map<Integer, SeatCounter> counters = new ConcurrentHashMap<>();
+    private final Consumer<EventChange> eventChangeListener = this::apply;
+    // decisions share it; rebuild() takes it exclusively so none run while counters reset
+    private final ReadWriteLock rebuildLock = new ReentrantReadWriteLock();
+
+    private final BlockingQueue<Registration> writeQueue = new LinkedBlockingQueue<>();
+    private final AtomicLong pendingWrites = new AtomicLong();  // queued or in-flight
+    private final Object flushMonitor = new Object();
+    private final Thread writer;
+    private volatile boolean running = true;
+
+    private final LongAdder persistedWrites = new LongAdder();
+    private final LongAdder failedWrites = new LongAdder();
+    private final LongAdder droppedWrites = new LongAdder();
+
+    public SeatReservationEngine() {
+        this(new RegistrationDAO(), new EventDAO());
+    }
+
+    public SeatReservationEngine(RegistrationDAO registrationDAO, EventDAO eventDAO) {
+        this.registrationDAO = registrationDAO;
+        this.eventDAO = eventDAO;
+
+        loadCounters();
+
+        writer = new Thread(this::writeLoop, "popin-registration-writer");
+        writer.setDaemon(true);
+        writer.start();
+        EventDAO.addChangeListener(eventChangeListener);
+    }
+
+    // ---------------- COUNTERS ----------------
+    /**
+     * Reload every counter's registered users from the registrations table. Admissions and
+     * cancellations wait while this runs; queued writes are flushed first so nothing
+     * accepted in memory is lost.
+     */
+    public void rebuild() {
+        rebuildLock.writeLock().lock();
+        try {
+            flush();
+            Map<Integer, List<Integer>> registered = registrationDAO.findRegisteredUserIdsForUpcomingEvents();
+
+            for (Map.Entry<Integer, SeatCounter> e : counters.entrySet()) {
+                List<Integer> users = registered.get(e.getKey());
+                if (users == null) {
+                    // past, deleted or never registered for: reloaded on next use
+                    counters.remove(e.getKey(), e.getValue());
+                } else {
+                    e.getValue().resetRegistrations(users);
+                }
+            }
+        } finally {
+            rebuildLock.writeLock().unlock();
+        }
+    }
+
+    private void loadCounters() {
+        Map<Integer, List<Integer>> registered = registrationDAO.findRegisteredUserIdsForUpcomingEvents();
+
+        for (Event event : eventDAO.findAllUpcoming()) {
+            counters.put(event.getId(), new SeatCounter(event,
+                    registered.getOrDefault(event.getId(), List.of())));
+        }
+    }
+
+    /** EventDAO listener: bring an existing counter in line with an updated or deleted event. */
+    private void apply(EventChange change) {
+        // computeIfPresent waits for a counterFor load of the same event, so that load is not missed
+        counters.computeIfPresent(change.getEventId(), (id, counter) -> {
+            counter.apply(change);
+            return counter;
+        });
+    }
+
+    private SeatCounter counterFor(int eventId) {
+        SeatCounter counter = counters.get(eventId);
+        if (counter != null) {
+            return counter;
+        }
+        // Event created after start-up (or dropped by rebuild): load it once. EventDAO rather
+        // than EventCatalog, whose entry may not be invalidated yet when a change is applied.
+        return counters.computeIfAbsent(eventId, id -> {
+            Event event = eventDAO.findById(id);
+            return event == null ? null : new SeatCounter(event, registrationDAO.findUserIdsByEvent(id));
+        });
+    }
+
+    // ---------------- REGISTRATION API ----------------
+    @Override
+    public RegistrationOutcome admitUser(int eventId, int userId) {
+        ensureOpen();
+        rebuildLock.readLock().lock();
+        try {
+            SeatCounter counter = counterFor(eventId);
+            if (counter == null) {
+                return RegistrationOutcome.EVENT_UNAVAILABLE;
+            }
+            // decide and enqueue under the counter's lock, so the queue holds one event's
+            // changes in the order they were decided
+            synchronized (counter) {
+                if (!counter.isOpen()) {
+                    return RegistrationOutcome.EVENT_UNAVAILABLE;
+                }
+                if (counter.registeredUsers.contains(userId)) {
+                    return RegistrationOutcome.DUPLICATE;
+                }
+                if (counter.taken >= counter.capacity) {
+                    return RegistrationOutcome.FULL;
+                }
+                counter.registeredUsers.add(userId);
+                counter.taken++;
+                enqueue(eventId, userId, "REGISTERED");
+                return RegistrationOutcome.ADMITTED;
+            }
+        } finally {
+            rebuildLock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public boolean registerUser(int eventId, int userId) {
+        return switch (admitUser(eventId, userId)) {
+            case ADMITTED -> true;
+            case DUPLICATE -> throw new IllegalStateException("You are already registered for this event.");
+            case EVENT_UNAVAILABLE -> throw new IllegalArgumentException("Event not found.");
+            case FULL -> throw new EventFullException("This event is full.");
+        };
+    }
+
+    @Override
+    public boolean cancelRegistration(int eventId, int userId) {
+        ensureOpen();
+        releaseSeat(eventId, userId, "CANCELLED", "You are not registered for this event.");
+        return true;
+    }
+
+    @Override
+    public boolean checkInUser(int eventId, int userId) {
+        ensureOpen();
+        // Mirrors RegistrationDAO.countRegistered: only REGISTERED rows hold a seat
+        releaseSeat(eventId, userId, "CHECKED_IN", "User is not registered for this event.");
+        return true;
+    }
+
+    @Override
+    public boolean isEventFull(int eventId) {
+        SeatCounter counter = counterFor(eventId);
+        if (counter == null) {
+            return true;
+        }
+        synchronized (counter) {
+            return counter.taken >= counter.capacity;
+        }
+    }
+
+    @Override
+    public boolean isUserRegistered(int eventId, int userId) {
+        SeatCounter counter = counterFor(eventId);
+        if (counter == null) {
+            return false;
+        }
+        synchronized (counter) {
+            return counter.registeredUsers.contains(userId);
+        }
+    }
+
+    private void releaseSeat(int eventId, int userId, String status, String notRegisteredMessage) {
+        rebuildLock.readLock().lock();
+        try {
+            SeatCounter counter = counterFor(eventId);
+            if (counter == null) {
+                throw new IllegalStateException(notRegisteredMessage);
+            }
+            synchronized (counter) {
+                if (!counter.registeredUsers.remove(userId)) {
+                    throw new IllegalStateException(notRegisteredMessage);
+                }
+                counter.taken--;
+                enqueue(eventId, userId, status);
+            }
+        } finally {
+            rebuildLock.readLock().unlock();
+        }
+    }
+
+    private void ensureOpen() {
+        if (!running) {
+            throw new IllegalStateException("The seat reservation engine is closed.");
+        }
+    }
+
+    // ---------------- WRITE-BEHIND ----------------
+    private void enqueue(int eventId, int userId, String status) {
+        pendingWrites.incrementAndGet();
+        writeQueue.add(new Registration(eventId, userId, status));
+    }
+
+    private void writeLoop() {
+        List<Registration> batch = new ArrayList<>(MAX_BATCH);
+        int attempts = 0;
+
+        while (running || !writeQueue.isEmpty() || !batch.isEmpty()) {
+            try {
+                if (batch.isEmpty()) {
+                    Registration first = writeQueue.poll(100, TimeUnit.MILLISECONDS);
+                    if (first == null) {
+                        continue;
+                    }
+                    batch.add(first);
+                    writeQueue.drainTo(batch, MAX_BATCH - 1);
+                }
+
+                attempts++;
+                if (persist(batch, attempts)) {
+                    persistedWrites.add(batch.size());
+                } else if (!running && attempts >= MAX_WRITE_ATTEMPTS) {
+                    // closing: nobody is left to retry for, so report what is lost
+                    System.err.println("SeatReservationEngine: gave up on " + batch.size()
+                            + " registration(s) after close.");
+                    droppedWrites.add(batch.size());
+                } else {
+                    // the batch stays first in line; later changes must not overtake it
+                    Thread.sleep(Math.min(RETRY_BACKOFF_MS * attempts, MAX_RETRY_BACKOFF_MS));
+                    continue;
+                }
+                completed(batch);
+                attempts = 0;
+
+            } catch (InterruptedException e) {
+                // close() lets us finish the queue; interruption only ends the current wait
+            }
+        }
+    }
+
+    private boolean persist(List<Registration> batch, int attempt) {
+        try {
+            registrationDAO.saveStatuses(batch);
+            return true;
+        } catch (RuntimeException e) {
+            failedWrites.increment();
+            System.err.println("SeatReservationEngine: write attempt " + attempt + " of "
+                    + batch.size() + " registration(s) failed: " + e.getMessage());
+            return false;
+        }
+    }
+
+    private void completed(List<Registration> batch) {
+        pendingWrites.addAndGet(-batch.size());
+        batch.clear();
+        synchronized (flushMonitor) {
+            flushMonitor.notifyAll();
+        }
+    }
+
+    /**
+     * Block until every change accepted so far has been written. While the database is
+     * unavailable this waits for it to come back; after {@link #close()} it returns once
+     * the writer has stopped.
+     */
+    public void flush() {
+        synchronized (flushMonitor) {
+            while (pendingWrites.get() > 0 && writer.isAlive()) {
+                try {
+                    flushMonitor.wait(100);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Stop accepting changes and write out everything already queued. A batch that still
+     * fails after a few more attempts is dropped and counted in {@link #getDroppedWrites()}.
+     */
+    @Override
+    public void close() {
+        running = false;
+        EventDAO.removeChangeListener(eventChangeListener);
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // ---------------- STATISTICS ----------------
+    public long getPendingWrites() { return pendingWrites.get(); }
+
+    public long getPersistedWrites() { return persistedWrites.sum(); }
+
+    /** Write attempts that failed; their batches were retried. */
+    public long getFailedWrites() { return failedWrites.sum(); }
+
+    /** Accepted changes that were never written, because they still failed after close(). */
+    public long getDroppedWrites() { return droppedWrites.sum(); }
+
+    public int getRemainingSeats(int eventId) {
+        SeatCounter counter = counterFor(eventId);
+        if (counter == null) {
+            return 0;
+        }
+        synchronized (counter) {
+            return Math.max(0, counter.capacity - counter.taken);
+        }
+    }
+
+    // ---------------- PER-EVENT STATE ----------------
+    /** Guarded by its own monitor. */
+    private static final class SeatCounter {
+        private int capacity;
+        private LocalDateTime startsAt;
+        private boolean deleted;
+        private int taken;
+        private final Set<Integer> registeredUsers = new HashSet<>();
+
+        private SeatCounter(Event event, List<Integer> registeredUserIds) {
+            this.capacity = event.getCapacity();
+            this.startsAt = event.getDateTime();
+            this.registeredUsers.addAll(registeredUserIds);
+            this.taken = registeredUsers.size();
+        }
+
+        /** Upcoming and not deleted. */
+        private boolean isOpen() {
+            return !deleted && startsAt.isAfter(LocalDateTime.now());
+        }
+
+        private synchronized void apply(EventChange change) {
+            if (change.isDeleted()) {
+                // its registrations go with it; nothing left to cancel or check in
+                deleted = true;
+                registeredUsers.clear();
+                taken = 0;
+            } else {
+                // seats already taken stay taken, even above a lowered capacity
+                capacity = change.getCapacityAfter();
+                startsAt = change.getStartsAfter();
+            }
+        }
+
+        private synchronized void resetRegistrations(List<Integer> registeredUserIds) {
+            registeredUsers.clear();
+            registeredUsers.addAll(registeredUserIds);
+            taken = registeredUsers.size();
+        }
+    }
+}
@@ -0,0 +1,161 @@
+package net.javaguids.popin.services;
+
+import net.javaguids.popin.database.CancellationScope;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BiFunction;
+
+/**
+ * Runs blocking service calls on virtual threads and returns them as {@link CompletableFuture}s.
+ *
+ * Each service gets its own executor (see {@link #forService(String)}) with a limit on how many
+ * calls run at once and a default timeout, configurable per service:
+ * {@code -Dpopin.async.<service>.maxConcurrent=4} and {@code -Dpopin.async.<service>.timeoutMs=10000}.
+ *
+ * Completing the returned future early - {@code cancel()}, a timeout, or {@code complete()} by
+ * the caller - stops the work: a call still waiting for a permit never starts, and one that is
+ * running has its JDBC statements cancelled through a {@link CancellationScope}.
+ * Cancelling a future derived with {@code thenApply} etc. does not reach back to the original,
+ * so keep a reference to the future returned here if you need to cancel, or join two calls
+ * with {@link #combine}, which passes cancellation on to both.
+ *
+ * Calls that change data go through {@link #submitWrite}, without a timeout, and completing a
+ * write's future early only stops waiting for it: the write still runs to the end. Stopping it
+ * midway would leave the caller unsure whether it committed.
+ */
+public final class ServiceExecutor {
+
+    private static final int DEFAULT_MAX_CONCURRENT = 4;
+    private static final long DEFAULT_TIMEOUT_MS = 10_000;
+
+    private static final Map<String, ServiceExecutor> BY_SERVICE = new ConcurrentHashMap<>();
+
+    private final String name;
+    private final Semaphore permits;
+    private final int maxConcurrent;
+    private final Duration timeout;
+    private final ExecutorService threads;
+
+    public ServiceExecutor(String name, int maxConcurrent, Duration timeout) {
+        if (maxConcurrent < 1) {
+            throw new IllegalArgumentException("maxConcurrent must be at least 1.");
+        }
+        this.name = name;
+        this.maxConcurrent = maxConcurrent;
+        this.permits = new Semaphore(maxConcurrent, true);
+        this.timeout = timeout;
+        this.threads = Executors.newThreadPerTaskExecutor(
+                Thread.ofVirtual().name("popin-" + name + "-", 0).factory());
+    }
+
+    /** Shared executor for one service, configured from system properties on first use. */
+    public static ServiceExecutor forService(String name) {
+        return BY_SERVICE.computeIfAbsent(name, n -> new ServiceExecutor(
+                n,
+                Integer.getInteger("popin.async." + n + ".maxConcurrent", DEFAULT_MAX_CONCURRENT),
+                Duration.ofMillis(Long.getLong("popin.async." + n + ".timeoutMs", DEFAULT_TIMEOUT_MS))));
+    }
+
+    // ---------------- SUBMIT ----------------
+    /** Run {@code work} with this service's default timeout. */
+    public <T> CompletableFuture<T> submit(Callable<T> work) {
+        return submit(work, timeout);
+    }
+
+    /**
+     * Run {@code work}, which changes data, with no timeout. It runs to the end even if the
+     * returned future is cancelled first (see the class comment).
+     */
+    public <T> CompletableFuture<T> submitWrite(Callable<T> work) {
+        return submit(work, Duration.ZERO, false);
+    }
+
+    /** Run {@code work}; the future fails with a {@code TimeoutException} after {@code timeout} (zero = none). */
+    public <T> CompletableFuture<T> submit(Callable<T> work, Duration timeout) {
+        return submit(work, timeout, true);
+    }
+
+    private <T> CompletableFuture<T> submit(Callable<T> work, Duration timeout, boolean stoppable) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        CancellationScope scope = new CancellationScope();
+        AtomicBoolean finished = new AtomicBoolean();
+
+        Future<?> task = threads.submit(() -> {
+            try {
+                permits.acquire();
+            } catch (InterruptedException e) {
+                return; // cancelled while queued
+            }
+            try {
+                if (stoppable && result.isDone()) {
+                    return;
+                }
+                T value = scope.call(work);
+                finished.set(true);
+                result.complete(value);
+            } catch (Throwable e) {
+                finished.set(true);
+                result.completeExceptionally(e);
+            } finally {
+                permits.release();
+            }
+        });
+
+        // Anything that completes the future before the work did stops the work
+        if (stoppable) {
+            result.whenComplete((value, error) -> {
+                if (!finished.get()) {
+                    scope.cancel();
+                    task.cancel(true);
+                }
+            });
+        }
+
+        if (!timeout.isZero()) {
+            result.orTimeout(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        }
+        return result;
+    }
+
+    /**
+     * Like {@code first.thenCombine(second, combiner)}, except that completing the result early
+     * (e.g. cancelling it) also cancels {@code first} and {@code second}, stopping their work.
+     */
+    public static <A, B, R> CompletableFuture<R> combine(CompletableFuture<A> first, CompletableFuture<B> second,
+                                                         BiFunction<? super A, ? super B, ? extends R> combiner) {
+        CompletableFuture<R> combined = first.thenCombine(second, combiner);
+        combined.whenComplete((value, error) -> {
+            // no-ops for a source that has already finished
+            first.cancel(true);
+            second.cancel(true);
+        });
+        return combined;
+    }
+
+    // ---------------- STATISTICS ----------------
+    public String getName() { return name; }
+
+    public int getMaxConcurrent() { return maxConcurrent; }
+
+    public Duration getTimeout() { return timeout; }
+
+    /** Calls currently holding a permit. */
+    public int getRunning() {
+        return maxConcurrent - permits.availablePermits();
+    }
+
+    /** Calls waiting for a permit. */
+    public int getQueued() {
+        return permits.getQueueLength();
+    }
+}
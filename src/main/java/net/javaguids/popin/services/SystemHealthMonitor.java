@@ -0,0 +1,69 @@
+package net.javaguids.popin.services;
+
+import net.javaguids.popin.database.ConnectionPool;
+import net.javaguids.popin.database.Database;
+import net.javaguids.popin.database.UserDAO;
+import net.javaguids.popin.models.SystemHealth;
+import net.javaguids.popin.utils.FxStallMonitor;
+import net.javaguids.popin.utils.LatencyHistogram;
+import net.javaguids.popin.utils.MetricsRegistry;
+
+import java.util.Comparator;
+
+/**
+ * Reads the figures behind the System Health view from the in-process sources: the DAO
+ * metrics registry, the connection pool, the event / user / statement caches and the FX
+ * stall monitor. Reading is cheap and never touches the database, so it can run every second.
+ *
+ * Each {@link #sample()} reports throughput and p99 latency for the calls since the previous
+ * sample, which requires DAO metrics to be enabled (see {@link MetricsRegistry}).
+ */
+public final class SystemHealthMonitor {
+
+    private static final double NANOS_PER_MILLI = 1_000_000.0;
+
+    private final MetricsRegistry metrics;
+    private final FxStallMonitor fxStalls;
+
+    private LatencyHistogram.Snapshot lastLatencies;
+    private long lastSampleAt;
+
+    public SystemHealthMonitor(FxStallMonitor fxStalls) {
+        this(MetricsRegistry.getInstance(), fxStalls);
+    }
+
+    SystemHealthMonitor(MetricsRegistry metrics, FxStallMonitor fxStalls) {
+        this.metrics = metrics;
+        this.fxStalls = fxStalls;
+        this.lastLatencies = metrics.getLatencySnapshot();
+        this.lastSampleAt = System.nanoTime();
+    }
+
+    public synchronized SystemHealth sample() {
+        long now = System.nanoTime();
+        LatencyHistogram.Snapshot latencies = metrics.getLatencySnapshot();
+        LatencyHistogram.Snapshot interval = latencies.since(lastLatencies);
+        double seconds = Math.max(now - lastSampleAt, 1) / 1e9;
+        lastLatencies = latencies;
+        lastSampleAt = now;
+
+        String slowest = metrics.getAll().stream()
+                .max(Comparator.comparingLong(MetricsRegistry.OperationStats::p99Nanos))
+                .map(MetricsRegistry.OperationStats::name)
+                .orElse(null);
+
+        ConnectionPool.Stats pool = Database.getPoolStats();
+        EventCatalog catalog = EventCatalog.getInstance();
+
+        return new SystemHealth(
+                interval.getCount() / seconds,
+                interval.getPercentile(99) / NANOS_PER_MILLI,
+                slowest,
+                pool.getActive(), pool.getMaxSize(), pool.getWaiting(),
+                SystemHealth.hitRatio(catalog.getHits(), catalog.getMisses()),
+                SystemHealth.hitRatio(UserDAO.getCacheHits(), UserDAO.getCacheMisses()),
+                SystemHealth.hitRatio(pool.getStatementHits(), pool.getStatementMisses()),
+                fxStalls.takeWorstDelayNanos() / NANOS_PER_MILLI,
+                fxStalls.getStalledNanos() / NANOS_PER_MILLI);
+    }
+}
@@ -0,0 +1,257 @@
+package net.javaguids.popin.utils;
+
+import javafx.application.Platform;
+import javafx.beans.value.ChangeListener;
+import javafx.scene.Node;
+import javafx.scene.Scene;
+import javafx.stage.Window;
+import javafx.stage.WindowEvent;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.function.Consumer;
+
+/**
+ * Runs database work off the JavaFX Application Thread and hands the result back to it.
+ *
+ * Each controller owns one loader. Work runs on virtual threads, at most
+ * {@code popin.async.maxConcurrent} (default 8, the connection pool size) at a time across
+ * the whole app. Starting a request under a key that is still loading makes the older one
+ * stale: its result is dropped. {@link #cancelAll()} drops everything, e.g. when the window closes.
+ */
+public class AsyncLoader {
+
+    private static final int MAX_CONCURRENT = Integer.getInteger("popin.async.maxConcurrent", 8);
+
+    // Shared by every controller so the whole UI never has more queries in flight than the pool can serve
+    private static final ExecutorService WORKERS = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("popin-db-", 0).factory());
+    private static final Semaphore PERMITS = new Semaphore(MAX_CONCURRENT, true);
+
+    private final Executor background;
+    private final Executor ui;
+
+    private final Map<String, Request> latestByKey = new ConcurrentHashMap<>();
+    private final Set<Request> inFlight = ConcurrentHashMap.newKeySet();
+
+    public AsyncLoader() {
+        this(AsyncLoader::runBounded, Platform::runLater);
+    }
+
+    /** For tests: e.g. {@code new AsyncLoader(Runnable::run, Runnable::run)}. */
+    public AsyncLoader(Executor background, Executor ui) {
+        this.background = background;
+        this.ui = ui;
+    }
+
+    private static void runBounded(Runnable task) {
+        WORKERS.execute(() -> {
+            PERMITS.acquireUninterruptibly();
+            try {
+                task.run();
+            } finally {
+                PERMITS.release();
+            }
+        });
+    }
+
+    // ---------------- LOADING ----------------
+    /** Load with the default error handling (an error alert). */
+    public <T> Request load(String key, Callable<T> work, Consumer<? super T> onSuccess) {
+        return load(key, work, onSuccess, AsyncLoader::showError);
+    }
+
+    /**
+     * Run {@code work} in the background, then {@code onSuccess} or {@code onError} on the UI thread
+     * unless the request was cancelled or superseded meanwhile.
+     *
+     * @param key requests sharing a key replace each other; null for independent one-off actions
+     */
+    public <T> Request load(String key, Callable<T> work,
+                            Consumer<? super T> onSuccess, Consumer<Throwable> onError) {
+        Request request = start(key);
+
+        background.execute(() -> {
+            if (request.isCancelled()) {
+                finish(request);
+                return;
+            }
+
+            T result;
+            try {
+                result = work.call();
+            } catch (Throwable e) {
+                publish(request, () -> onError.accept(e));
+                return;
+            }
+            publish(request, () -> onSuccess.accept(result));
+        });
+        return request;
+    }
+
+    /** Deliver a future from the async services; cancelling the request cancels the future (and its query). */
+    public <T> Request await(String key, CompletableFuture<T> future, Consumer<? super T> onSuccess) {
+        return await(key, future, onSuccess, AsyncLoader::showError);
+    }
+
+    public <T> Request await(String key, CompletableFuture<T> future,
+                             Consumer<? super T> onSuccess, Consumer<Throwable> onError) {
+        Request request = start(key);
+        request.onCancel = () -> future.cancel(true);
+
+        future.whenComplete((result, error) -> {
+            if (error != null) {
+                Throwable cause = error instanceof CompletionException && error.getCause() != null
+                        ? error.getCause() : error;
+                publish(request, () -> onError.accept(cause));
+            } else {
+                publish(request, () -> onSuccess.accept(result));
+            }
+        });
+        return request;
+    }
+
+    private Request start(String key) {
+        Request request = new Request(key);
+        inFlight.add(request);
+        if (key != null) {
+            Request previous = latestByKey.put(key, request);
+            if (previous != null) {
+                previous.cancel();
+            }
+        }
+        return request;
+    }
+
+    /** Same as {@link #load} for work whose only result is "done". */
+    public Request run(String key, ThrowingRunnable work, Runnable onDone) {
+        return load(key, () -> {
+            work.run();
+            return null;
+        }, ignored -> onDone.run());
+    }
+
+    private void publish(Request request, Runnable callback) {
+        ui.execute(() -> {
+            finish(request);
+            if (!request.isCancelled()) {
+                request.done = true;
+                callback.run();
+            }
+        });
+    }
+
+    private void finish(Request request) {
+        inFlight.remove(request);
+        if (request.key != null) {
+            latestByKey.remove(request.key, request);
+        }
+    }
+
+    /** Drop the pending result for {@code key}, if any. */
+    public void cancel(String key) {
+        Request request = latestByKey.remove(key);
+        if (request != null) {
+            request.cancel();
+        }
+    }
+
+    /** Drop every pending result, e.g. when the user leaves the screen. */
+    public void cancelAll() {
+        for (Request request : inFlight) {
+            request.cancel();
+        }
+        inFlight.clear();
+        latestByKey.clear();
+    }
+
+    /**
+     * Cancel everything once the node's window is closed or its scene is replaced
+     * (e.g. logging out swaps the scene of the same stage). Safe to call from initialize(),
+     * before the node is attached to a scene.
+     */
+    public void cancelWhenClosed(Node node) {
+        ChangeListener<Window> onWindow = (obs, oldWindow, window) -> {
+            if (window == null) {
+                cancelAll();
+            } else {
+                window.addEventHandler(WindowEvent.WINDOW_HIDDEN, e -> cancelAll());
+            }
+        };
+        ChangeListener<Scene> onScene = (obs, oldScene, scene) -> {
+            if (oldScene != null) {
+                oldScene.windowProperty().removeListener(onWindow);
+            }
+            if (scene == null) {
+                cancelAll();
+                return;
+            }
+            scene.windowProperty().addListener(onWindow);
+            if (scene.getWindow() != null) {
+                onWindow.changed(scene.windowProperty(), null, scene.getWindow());
+            }
+        };
+
+        node.sceneProperty().addListener(onScene);
+        if (node.getScene() != null) {
+            onScene.changed(node.sceneProperty(), null, node.getScene());
+        }
+    }
+
+    public boolean isLoading(String key) {
+        return latestByKey.containsKey(key);
+    }
+
+    public int getPendingCount() {
+        return inFlight.size();
+    }
+
+    private static void showError(Throwable e) {
+        e.printStackTrace();
+        String message = e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
+        AlertUtils.showError("Error", message);
+    }
+
+    // ---------------- HANDLES ----------------
+    @FunctionalInterface
+    public interface ThrowingRunnable {
+        void run() throws Exception;
+    }
+
+    /** Handle to one background request. */
+    public static final class Request {
+        private final String key;
+        private volatile boolean cancelled;
+        private volatile boolean done;
+        private volatile Runnable onCancel;
+
+        private Request(String key) {
+            this.key = key;
+        }
+
+        /**
+         * The result (or error) will not be delivered. Plain loads still run their query to
+         * completion; {@link #await} requests also cancel the future.
+         */
+        public void cancel() {
+            cancelled = true;
+            Runnable hook = onCancel;
+            if (hook != null) {
+                hook.run();
+            }
+        }
+
+        public boolean isCancelled() { return cancelled; }
+
+        /** True once the callback has been delivered on the UI thread. */
+        public boolean isDone() { return done; }
+    }
+}
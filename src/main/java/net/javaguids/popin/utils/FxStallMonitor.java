@@ -0,0 +1,85 @@
+package net.javaguids.popin.utils;
+
+import javafx.application.Platform;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Measures how long the JavaFX Application Thread takes to get to new work.
+ *
+ * A background thread posts an empty task with {@code Platform.runLater} every
+ * {@code popin.fx.stallProbeMs} (default 100) and records how long it waited to run. Only one
+ * probe is queued at a time, so a blocked FX thread shows up as one long delay, which
+ * {@link #takeWorstDelayNanos()} already reports while it is still going on.
+ */
+public final class FxStallMonitor implements AutoCloseable {
+
+    private static final long PROBE_INTERVAL_MS = Long.getLong("popin.fx.stallProbeMs", 100);
+
+    // delays up to about one frame are normal scheduling, not a stall
+    private static final long STALL_THRESHOLD_NANOS = TimeUnit.MILLISECONDS.toNanos(20);
+
+    private final Executor ui;
+    private final long intervalMs;
+    private final ScheduledExecutorService prober = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "popin-fx-stall-probe");
+        t.setDaemon(true);
+        return t;
+    });
+
+    private final AtomicLong pendingSince = new AtomicLong(); // 0 = no probe queued
+    private final LongAccumulator worstDelay = new LongAccumulator(Math::max, 0);
+    private final LongAdder stalledNanos = new LongAdder();
+
+    public FxStallMonitor() {
+        this(Platform::runLater, PROBE_INTERVAL_MS);
+    }
+
+    /** For tests: {@code ui} stands in for the FX thread. */
+    public FxStallMonitor(Executor ui, long intervalMs) {
+        this.ui = ui;
+        this.intervalMs = intervalMs;
+    }
+
+    public void start() {
+        prober.scheduleWithFixedDelay(this::probe, 0, intervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    private void probe() {
+        long posted = System.nanoTime();
+        if (!pendingSince.compareAndSet(0, posted)) {
+            return; // the last probe has not run yet
+        }
+        ui.execute(() -> {
+            long delay = System.nanoTime() - posted;
+            pendingSince.set(0);
+            worstDelay.accumulate(delay);
+            if (delay > STALL_THRESHOLD_NANOS) {
+                stalledNanos.add(delay);
+            }
+        });
+    }
+
+    /** The longest wait since the previous call, including a probe still waiting now. */
+    public long takeWorstDelayNanos() {
+        long worst = worstDelay.getThenReset();
+        long since = pendingSince.get();
+        return since == 0 ? worst : Math.max(worst, System.nanoTime() - since);
+    }
+
+    /** Total time of the waits longer than about a frame, since start. */
+    public long getStalledNanos() {
+        return stalledNanos.sum();
+    }
+
+    @Override
+    public void close() {
+        prober.shutdownNow();
+    }
+}
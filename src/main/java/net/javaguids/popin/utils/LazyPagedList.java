@@ -0,0 +1,263 @@
+package net.javaguids.popin.utils;
+
+import javafx.collections.ObservableListBase;
+import javafx.scene.control.TableView;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+
+/**
+ * Read-only list for a ListView / TableView that loads its rows page by page as they are shown.
+ *
+ * The size is the row count from the database, so the scroll bar is right from the start. Rows
+ * that are not loaded read as the placeholder. A view only calls {@link #get} for the rows it
+ * draws, and that starts loading their page. Reading near the end of a loaded page prefetches
+ * the next one (near the start, the previous one). At most {@code maxPages} pages stay in memory.
+ * Past that, the page farthest from the last row read goes back to placeholders.
+ *
+ * Pages load through the owner's {@link AsyncLoader}. The source gets the row just before the
+ * page whenever it is known, so it can use a keyset query. Otherwise, e.g. after a jump with the
+ * scroll bar, it gets null and has to use the offset. The last row of every page is kept after
+ * eviction for that reason. All methods must be called on the UI thread.
+ *
+ * The list cannot be sorted: sorting would read every row, i.e. load every page. Put it in a
+ * TableView with {@link #showIn}, which turns column sorting off.
+ */
+public class LazyPagedList<T> extends ObservableListBase<T> {
+
+    /** Loads rows {@code offset .. offset + limit - 1} of the listing. */
+    @FunctionalInterface
+    public interface PageSource<T> {
+        /**
+         * @param previous the row at {@code offset - 1} if known (a keyset cursor), else null
+         */
+        List<T> load(int offset, int limit, T previous) throws Exception;
+    }
+
+    private final String name;
+    private final AsyncLoader async;
+    private final Callable<Integer> count;
+    private final PageSource<T> source;
+    private final T placeholder;
+    private final int pageSize;
+    private final int maxPages;
+
+    private int size;
+    private final Map<Integer, List<T>> pages = new HashMap<>();
+    private final Map<Integer, T> lastRows = new HashMap<>(); // outlives eviction: the next page's cursor
+    private final Set<Integer> loading = new HashSet<>();
+    private final Set<Integer> failed = new HashSet<>();      // not retried until refresh()
+    private int generation; // bumped by refresh() so pages of the old listing are dropped
+    private int lastReadPage;
+    private boolean notifying; // listeners reading rows must not count as the view scrolling there
+
+    private int pageLoads;
+
+    /**
+     * @param name       AsyncLoader key for refreshes, unique within the owner's loader
+     * @param count      total row count, run in the background on every refresh
+     * @param placeholder row returned while the real one loads; cells can check {@link #isPlaceholder}
+     */
+    public LazyPagedList(String name, AsyncLoader async, Callable<Integer> count, PageSource<T> source,
+                         T placeholder, int pageSize, int maxPages) {
+        if (pageSize < 1 || maxPages < 2) {
+            throw new IllegalArgumentException("Need a page size of at least 1 and room for 2 pages.");
+        }
+        this.name = name;
+        this.async = async;
+        this.count = count;
+        this.source = source;
+        this.placeholder = placeholder;
+        this.pageSize = pageSize;
+        this.maxPages = maxPages;
+    }
+
+    // ---------------- LIST ----------------
+    @Override
+    public T get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index + ", size " + size);
+        }
+        int page = index / pageSize;
+        int inPage = index % pageSize;
+        List<T> rows = pages.get(page);
+
+        if (!notifying) {
+            lastReadPage = page;
+            if (rows == null) {
+                request(page);
+            } else if (inPage >= pageSize - pageSize / 4) {
+                request(page + 1);
+            } else if (inPage < pageSize / 4) {
+                request(page - 1);
+            }
+        }
+        return rows != null && inPage < rows.size() ? rows.get(inPage) : placeholder;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    public boolean isPlaceholder(T row) {
+        return row == placeholder;
+    }
+
+    /** True if the row at {@code index} is loaded; unlike get, never starts a load. */
+    public boolean isLoaded(int index) {
+        List<T> rows = pages.get(index / pageSize);
+        return rows != null && index % pageSize < rows.size();
+    }
+
+    /** Make this list {@code table}'s items; its columns stop being sortable (see the class comment). */
+    public void showIn(TableView<T> table) {
+        table.getColumns().forEach(column -> column.setSortable(false));
+        table.setItems(this);
+    }
+
+    // ---------------- LOADING ----------------
+    /**
+     * Forget every row and load the count and first page again, e.g. after a delete.
+     * {@code onLoaded} runs once the new size is known.
+     */
+    public void refresh(Runnable onLoaded) {
+        int refreshGeneration = ++generation;
+        loading.clear();
+        failed.clear();
+
+        async.load(name, () -> {
+            int total = count.call();
+            List<T> first = total == 0 ? List.of() : source.load(0, Math.min(pageSize, total), null);
+            return new FirstPage<>(total, first);
+        }, first -> {
+            if (refreshGeneration != generation) {
+                return;
+            }
+            replaceAll(first);
+            onLoaded.run();
+        });
+    }
+
+    private void replaceAll(FirstPage<T> first) {
+        int oldSize = size;
+        pages.clear();
+        lastRows.clear();
+        size = first.total();
+        if (!first.rows().isEmpty()) {
+            store(0, first.rows());
+        }
+
+        notifying = true;
+        try {
+            beginChange();
+            // Only the count of removed rows matters to the views, so no copy of the old rows
+            if (oldSize > 0) {
+                nextRemove(0, Collections.nCopies(oldSize, placeholder));
+            }
+            if (size > 0) {
+                nextAdd(0, size);
+            }
+            endChange();
+        } finally {
+            notifying = false;
+        }
+    }
+
+    private void request(int page) {
+        int offset = page * pageSize;
+        if (page < 0 || offset >= size || pages.containsKey(page) || loading.contains(page) || failed.contains(page)) {
+            return;
+        }
+        int limit = Math.min(pageSize, size - offset);
+        T previous = page == 0 ? null : lastRows.get(page - 1);
+        int requestGeneration = generation;
+
+        loading.add(page);
+        pageLoads++;
+        async.load(null, () -> source.load(offset, limit, previous), rows -> {
+            if (requestGeneration != generation) {
+                return;
+            }
+            loading.remove(page);
+            install(page, rows);
+        }, e -> {
+            if (requestGeneration != generation) {
+                return;
+            }
+            loading.remove(page);
+            failed.add(page);
+            System.err.println("Could not load rows " + offset + "-" + (offset + limit - 1)
+                    + " of " + name + ": " + e.getMessage());
+        });
+    }
+
+    private void install(int page, List<T> rows) {
+        // rows deleted since the count leave placeholders at the end of the page until the next refresh
+        List<T> kept = rows.size() > pageSize ? rows.subList(0, pageSize) : rows;
+        store(page, kept);
+
+        notifying = true;
+        try {
+            beginChange();
+            int offset = page * pageSize;
+            for (int i = 0; i < kept.size() && offset + i < size; i++) {
+                nextSet(offset + i, placeholder);
+            }
+            endChange();
+        } finally {
+            notifying = false;
+        }
+        evictFarPages();
+    }
+
+    private void store(int page, List<T> rows) {
+        pages.put(page, new ArrayList<>(rows));
+        if (!rows.isEmpty()) {
+            lastRows.put(page, rows.get(rows.size() - 1));
+        }
+    }
+
+    private void evictFarPages() {
+        while (pages.size() > maxPages) {
+            int farthest = -1;
+            for (int page : pages.keySet()) {
+                if (farthest < 0 || Math.abs(page - lastReadPage) > Math.abs(farthest - lastReadPage)) {
+                    farthest = page;
+                }
+            }
+            List<T> evicted = pages.remove(farthest);
+
+            notifying = true;
+            try {
+                beginChange();
+                int offset = farthest * pageSize;
+                for (int i = 0; i < evicted.size() && offset + i < size; i++) {
+                    nextSet(offset + i, evicted.get(i));
+                }
+                endChange();
+            } finally {
+                notifying = false;
+            }
+        }
+    }
+
+    // ---------------- STATS ----------------
+    /** Pages currently held in memory. */
+    public int getLoadedPageCount() {
+        return pages.size();
+    }
+
+    /** Page loads started since creation (refreshes not included). */
+    public int getPageLoads() {
+        return pageLoads;
+    }
+
+    private record FirstPage<T>(int total, List<T> rows) {}
+}
@@ -0,0 +1,167 @@
+package net.javaguids.popin.utils;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Process-wide call statistics per named operation (e.g. "EventDAO.findById"): calls,
+ * errors, rows returned and a latency histogram.
+ *
+ * Recording never locks: an operation's counters are created once and then only updated
+ * through LongAdders and {@link LatencyHistogram}. Recording is off unless
+ * {@code popin.metrics.enabled=true} or {@link #setEnabled} turns it on, or some view that
+ * shows the metrics holds an {@link #acquire()}; while off, instrumented code only reads one
+ * volatile flag.
+ */
+public final class MetricsRegistry {
+
+    private static final MetricsRegistry INSTANCE =
+            new MetricsRegistry(Boolean.getBoolean("popin.metrics.enabled"));
+
+    /** Counters of one operation. */
+    private static final class Operation {
+        private final LongAdder calls = new LongAdder();
+        private final LongAdder errors = new LongAdder();
+        private final LongAdder rows = new LongAdder();
+        private final LatencyHistogram latency = new LatencyHistogram();
+    }
+
+    /** What one operation has recorded so far; latencies in nanoseconds. */
+    public record OperationStats(String name, long calls, long errors, long rows,
+                                 long totalNanos, long p50Nanos, long p95Nanos, long p99Nanos, long maxNanos) {
+
+        public long meanNanos() {
+            return calls == 0 ? 0 : totalNanos / calls;
+        }
+    }
+
+    private final Map<String, Operation> operations = new ConcurrentHashMap<>();
+    private final LatencyHistogram allLatencies = new LatencyHistogram(); // every operation together
+    private boolean switchedOn;   // guarded by this: the configured setting
+    private int acquired;         // guarded by this: views currently needing the metrics
+    private volatile boolean enabled;
+
+    MetricsRegistry(boolean enabled) {
+        this.switchedOn = enabled;
+        this.enabled = enabled;
+    }
+
+    public static MetricsRegistry getInstance() {
+        return INSTANCE;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Start or stop recording; what was recorded so far is kept. While anyone holds an
+     * {@link #acquire()}, recording stays on regardless.
+     */
+    public synchronized void setEnabled(boolean enabled) {
+        switchedOn = enabled;
+        update();
+    }
+
+    /** Keep recording on until the matching {@link #release()}; calls from several owners nest. */
+    public synchronized void acquire() {
+        acquired++;
+        update();
+    }
+
+    public synchronized void release() {
+        if (acquired == 0) {
+            throw new IllegalStateException("release() without a matching acquire().");
+        }
+        acquired--;
+        update();
+    }
+
+    private void update() {
+        enabled = switchedOn || acquired > 0;
+    }
+
+    // ---------------- RECORDING ----------------
+    /** One finished call: how long it took, how many rows it returned and whether it threw. */
+    public void record(String name, long nanos, long rows, boolean failed) {
+        Operation operation = operations.get(name);
+        if (operation == null) {
+            operation = operations.computeIfAbsent(name, n -> new Operation());
+        }
+        operation.calls.increment();
+        if (failed) {
+            operation.errors.increment();
+        }
+        operation.rows.add(rows);
+        operation.latency.record(nanos);
+        allLatencies.record(nanos);
+    }
+
+    /** Forget everything recorded so far. */
+    public void reset() {
+        operations.clear();
+        allLatencies.reset();
+    }
+
+    // ---------------- QUERIES ----------------
+    /** The operation's statistics, or null if it was never recorded. */
+    public OperationStats get(String name) {
+        Operation operation = operations.get(name);
+        return operation == null ? null : stats(name, operation);
+    }
+
+    /** Every recorded operation, by name. */
+    public List<OperationStats> getAll() {
+        List<OperationStats> all = new ArrayList<>(operations.size());
+        operations.forEach((name, operation) -> all.add(stats(name, operation)));
+        all.sort(Comparator.comparing(OperationStats::name));
+        return all;
+    }
+
+    /** Calls recorded across all operations, e.g. to derive throughput between two readings. */
+    public long getTotalCalls() {
+        return allLatencies.getCount();
+    }
+
+    /** Latencies of all operations together; diff two snapshots for percentiles over an interval. */
+    public LatencyHistogram.Snapshot getLatencySnapshot() {
+        return allLatencies.snapshot();
+    }
+
+    private static OperationStats stats(String name, Operation operation) {
+        LatencyHistogram latency = operation.latency;
+        return new OperationStats(name, operation.calls.sum(), operation.errors.sum(), operation.rows.sum(),
+                latency.getTotalNanos(), latency.getPercentile(50), latency.getPercentile(95),
+                latency.getPercentile(99), latency.getMaxNanos());
+    }
+
+    /** One line per operation, slowest p99 first; latencies in microseconds. */
+    public String dump() {
+        List<OperationStats> all = getAll();
+        all.sort(Comparator.comparingLong(OperationStats::p99Nanos).reversed());
+
+        StringBuilder out = new StringBuilder(String.format("%-40s %9s %7s %10s %9s %9s %9s %9s %9s%n",
+                "operation", "calls", "errors", "rows", "mean_us", "p50_us", "p95_us", "p99_us", "max_us"));
+        for (OperationStats s : all) {
+            out.append(String.format("%-40s %9d %7d %10d %9.1f %9.1f %9.1f %9.1f %9.1f%n",
+                    s.name(), s.calls(), s.errors(), s.rows(), micros(s.meanNanos()),
+                    micros(s.p50Nanos()), micros(s.p95Nanos()), micros(s.p99Nanos()), micros(s.maxNanos())));
+        }
+        return out.toString();
+    }
+
+    private static double micros(long nanos) {
+        return nanos / (double) TimeUnit.MICROSECONDS.toNanos(1);
+    }
+
+    @Override
+    public String toString() {
+        return "MetricsRegistry[enabled=" + enabled + ", operations=" + operations.size()
+                + ", calls=" + getTotalCalls() + "]";
+    }
+}
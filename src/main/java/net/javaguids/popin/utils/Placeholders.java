@@ -0,0 +1,31 @@
+package net.javaguids.popin.utils;
+
+import javafx.scene.control.Label;
+import javafx.scene.control.ListView;
+import javafx.scene.control.TableView;
+
+/**
+ * Placeholder text for tables and lists while their data loads in the background.
+ */
+public final class Placeholders {
+
+    private Placeholders() {}
+
+    /** Only the placeholder: callers reset their own items, which may be a read-only view. */
+    public static void loading(TableView<?> table) {
+        table.setPlaceholder(new Label("Loading…"));
+    }
+
+    public static void loading(ListView<?> list) {
+        list.setPlaceholder(new Label("Loading…"));
+    }
+
+    /** Shown once loading finished and there was nothing to show. */
+    public static void empty(TableView<?> table, String text) {
+        table.setPlaceholder(new Label(text));
+    }
+
+    public static void empty(ListView<?> list, String text) {
+        list.setPlaceholder(new Label(text));
+    }
+}
@@ -0,0 +1,246 @@
+package net.javaguids.popin.database;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConnectionPoolTest {
+
+    @TempDir
+    Path tempDir;
+
+    private final AtomicInteger opened = new AtomicInteger();
+    private ConnectionPool pool;
+
+    private ConnectionPool newPool(int size, long maxLifetimeMs, long borrowTimeoutMs) {
+        return newPool(size, maxLifetimeMs, borrowTimeoutMs, 0);
+    }
+
+    private ConnectionPool newPool(int size, long maxLifetimeMs, long borrowTimeoutMs, int statementCacheSize) {
+        String url = "jdbc:sqlite:" + tempDir.resolve("pool-test.db");
+        pool = new ConnectionPool(() -> {
+            opened.incrementAndGet();
+            return DriverManager.getConnection(url);
+        }, size, maxLifetimeMs, 60_000, borrowTimeoutMs, statementCacheSize);
+        return pool;
+    }
+
+    private void createTable() throws SQLException {
+        try (Connection conn = pool.borrow();
+             Statement st = conn.createStatement()) {
+            st.execute("CREATE TABLE t (v INTEGER)");
+            st.execute("INSERT INTO t VALUES (1), (2), (3)");
+        }
+    }
+
+    private int countAbove(int min) throws SQLException {
+        try (Connection conn = pool.borrow();
+             PreparedStatement ps = conn.prepareStatement("SELECT COUNT(*) FROM t WHERE v > ?")) {
+            ps.setInt(1, min);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.getInt(1);
+            }
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (pool != null) {
+            pool.close();
+        }
+    }
+
+    @Test
+    void closingReturnsPhysicalConnectionForReuse() throws Exception {
+        newPool(2, 0, 1_000);
+
+        for (int i = 0; i < 5; i++) {
+            try (Connection conn = pool.borrow();
+                 Statement st = conn.createStatement()) {
+                st.execute("SELECT 1");
+            }
+        }
+
+        assertEquals(1, opened.get(), "sequential borrows should reuse one physical connection");
+        ConnectionPool.Stats stats = pool.getStats();
+        assertEquals(5, stats.getBorrowed());
+        assertEquals(0, stats.getActive());
+        assertEquals(1, stats.getIdle());
+    }
+
+    @Test
+    void borrowTimesOutWhenPoolIsExhausted() throws Exception {
+        newPool(1, 0, 50);
+
+        try (Connection held = pool.borrow()) {
+            assertThrows(SQLTimeoutException.class, () -> pool.borrow());
+            assertEquals(1, pool.getStats().getTimeouts());
+            assertEquals(1, pool.getStats().getActive());
+        }
+
+        // permit is back once the holder closes
+        try (Connection again = pool.borrow()) {
+            assertFalse(again.isClosed());
+        }
+    }
+
+    @Test
+    void returnedHandleCannotBeUsedAgain() throws Exception {
+        newPool(1, 0, 1_000);
+
+        Connection conn = pool.borrow();
+        conn.close();
+        conn.close(); // second close is a no-op
+
+        assertTrue(conn.isClosed());
+        assertThrows(SQLException.class, conn::createStatement);
+        assertEquals(0, pool.getStats().getActive());
+    }
+
+    @Test
+    void connectionsPastMaxLifetimeAreReplaced() throws Exception {
+        newPool(1, 1, 1_000);
+
+        try (Connection conn = pool.borrow()) {
+            Thread.sleep(5);
+        }
+        try (Connection conn = pool.borrow()) {
+            assertFalse(conn.isClosed());
+        }
+
+        assertEquals(2, opened.get());
+        assertTrue(pool.getStats().getDestroyed() >= 1);
+    }
+
+    @Test
+    void uncommittedWorkIsRolledBackOnRelease() throws Exception {
+        newPool(1, 0, 1_000);
+
+        try (Connection conn = pool.borrow();
+             Statement st = conn.createStatement()) {
+            st.execute("CREATE TABLE t (v INTEGER)");
+        }
+
+        try (Connection conn = pool.borrow();
+             Statement st = conn.createStatement()) {
+            conn.setAutoCommit(false);
+            st.executeUpdate("INSERT INTO t VALUES (1)");
+            // returned without commit
+        }
+
+        try (Connection conn = pool.borrow();
+             Statement st = conn.createStatement();
+             ResultSet rs = st.executeQuery("SELECT COUNT(*) FROM t")) {
+            assertTrue(conn.getAutoCommit());
+            assertEquals(0, rs.getInt(1));
+        }
+    }
+
+    @Test
+    void preparedStatementsAreReusedAcrossBorrows() throws Exception {
+        newPool(1, 0, 1_000, 8);
+        createTable();
+
+        assertEquals(3, countAbove(0));
+        assertEquals(1, countAbove(2));
+        assertEquals(0, countAbove(3));
+
+        assertEquals(2, pool.getStats().getStatementHits());
+        assertEquals(1, pool.getStats().getStatementMisses());
+    }
+
+    @Test
+    void returningAStatementClosesItsResultsAndParameters() throws Exception {
+        newPool(1, 0, 1_000, 8);
+        createTable();
+
+        ResultSet leftOpen;
+        try (Connection conn = pool.borrow();
+             PreparedStatement ps = conn.prepareStatement("SELECT v FROM t WHERE v > ?")) {
+            ps.setInt(1, 0);
+            leftOpen = ps.executeQuery();
+            assertTrue(leftOpen.next());
+        }
+        assertTrue(leftOpen.isClosed(), "an open result set would pin SQLite's read snapshot");
+
+        try (Connection conn = pool.borrow();
+             PreparedStatement ps = conn.prepareStatement("SELECT v FROM t WHERE v > ?")) {
+            try (ResultSet rs = ps.executeQuery()) {
+                assertFalse(rs.next(), "the previous caller's parameter was cleared (v > NULL matches nothing)");
+            }
+        }
+    }
+
+    @Test
+    void nestedUseOfTheSameSqlGetsItsOwnStatement() throws Exception {
+        newPool(1, 0, 1_000, 8);
+        createTable();
+
+        try (Connection conn = pool.borrow();
+             PreparedStatement outer = conn.prepareStatement("SELECT v FROM t WHERE v > ? ORDER BY v");
+             PreparedStatement inner = conn.prepareStatement("SELECT v FROM t WHERE v > ? ORDER BY v")) {
+            assertNotSame(outer, inner);
+            outer.setInt(1, 0);
+            inner.setInt(1, 2);
+            try (ResultSet a = outer.executeQuery(); ResultSet b = inner.executeQuery()) {
+                assertTrue(a.next());
+                assertTrue(b.next());
+                assertEquals(1, a.getInt(1));
+                assertEquals(3, b.getInt(1));
+            }
+        }
+        assertEquals(2, pool.getStats().getStatementMisses());
+    }
+
+    @Test
+    void leastRecentlyUsedStatementsAreEvictedAndInsertsNeverCached() throws Exception {
+        newPool(1, 0, 1_000, 2);
+        createTable();
+
+        try (Connection conn = pool.borrow()) {
+            for (String sql : List.of("SELECT 1", "SELECT 2", "SELECT 3", "SELECT 1")) {
+                try (PreparedStatement ps = conn.prepareStatement(sql)) {
+                    ps.executeQuery().close();
+                }
+            }
+            for (int i = 0; i < 2; i++) {
+                try (PreparedStatement ps = conn.prepareStatement("INSERT INTO t VALUES (?)")) {
+                    ps.setInt(1, 10 + i);
+                    ps.executeUpdate();
+                }
+            }
+        }
+
+        assertEquals(0, pool.getStats().getStatementHits(), "SELECT 1 was evicted by SELECT 3");
+        assertEquals(4, pool.getStats().getStatementMisses(), "inserts bypass the cache entirely");
+    }
+
+    @Test
+    void closedStatementsCannotBeUsedOrCancelled() throws Exception {
+        newPool(1, 0, 1_000, 8);
+        createTable();
+
+        PreparedStatement ps;
+        try (Connection conn = pool.borrow()) {
+            ps = conn.prepareStatement("SELECT COUNT(*) FROM t");
+            ps.close();
+            assertTrue(ps.isClosed());
+            assertThrows(SQLException.class, ps::executeQuery);
+            ps.cancel(); // no-op: the statement may already be lent to someone else
+        }
+        assertEquals(3, countAbove(0));
+    }
+}
@@ -1,17 +1,33 @@
 package net.javaguids.popin.database;
 
+import net.javaguids.popin.exceptions.DatabaseOperationException;
+import net.javaguids.popin.models.AttendeeEntry;
 import net.javaguids.popin.models.Event;
+import net.javaguids.popin.models.EventChange;
+import net.javaguids.popin.models.EventCursor;
+import net.javaguids.popin.models.EventPage;
+import net.javaguids.popin.models.EventSearchResult;
+import net.javaguids.popin.models.Registration;
+import net.javaguids.popin.models.ReportedEvent;
 import net.javaguids.popin.models.User;
 import net.javaguids.popin.services.AuthService;
+import net.javaguids.popin.services.EventCatalog;
 import net.javaguids.popin.services.EventService;
 import net.javaguids.popin.services.RegistrationService;
+import net.javaguids.popin.utils.IntIntHashMap;
+import net.javaguids.popin.utils.MetricsRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 import java.sql.Connection;
 import java.sql.Statement;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -40,9 +56,12 @@ class DAOTest {
         try (Connection conn = Database.getConnection();
              Statement st = conn.createStatement()) {
             st.executeUpdate("DELETE FROM registrations");
+            st.executeUpdate("DELETE FROM reports");
             st.executeUpdate("DELETE FROM events");
             st.executeUpdate("DELETE FROM users");
         }
+        UserDAO.clearCache();
+        EventCatalog.getInstance().clear();
     }
 
     @Test
@@ -116,6 +135,367 @@ class DAOTest {
         assertEquals(e.getId(), userEvents.get(0).getId());
     }
 
+    @Test
+    void findAllUpcomingSkipsPastEventsAndSortsBySoonest() {
+        LocalDateTime now = LocalDateTime.now();
+        eventDAO.createEvent(new Event("later", "d", now.plusDays(3), "v", 10, 1));
+        eventDAO.createEvent(new Event("past", "d", now.minusDays(1), "v", 10, 1));
+        eventDAO.createEvent(new Event("soon", "d", now.plusHours(2), "v", 10, 1));
+
+        List<Event> upcoming = eventDAO.findAllUpcoming();
+        assertEquals(2, upcoming.size());
+        assertEquals("soon", upcoming.get(0).getTitle());
+        assertEquals("later", upcoming.get(1).getTitle());
+        assertEquals(now.plusHours(2).withNano(0), upcoming.get(0).getDateTime());
+    }
+
+    @Test
+    void countRegisteredByEventIdsGroupsInOneCall() {
+        LocalDateTime when = LocalDateTime.now().plusDays(1);
+        Event a = new Event("a", "d", when, "v", 10, 1);
+        Event b = new Event("b", "d", when, "v", 10, 1);
+        Event empty = new Event("c", "d", when, "v", 10, 1);
+        eventDAO.createEvent(a);
+        eventDAO.createEvent(b);
+        eventDAO.createEvent(empty);
+
+        registrationDAO.registerUser(a.getId(), 1);
+        registrationDAO.registerUser(a.getId(), 2);
+        registrationDAO.registerUser(b.getId(), 1);
+        registrationDAO.updateStatus(b.getId(), 1, "CANCELLED");
+        registrationDAO.registerUser(b.getId(), 3);
+
+        IntIntHashMap counts = registrationDAO.countRegisteredByEventIds(
+                List.of(a.getId(), b.getId(), empty.getId()));
+
+        assertEquals(2, counts.getOrDefault(a.getId(), 0));
+        assertEquals(1, counts.getOrDefault(b.getId(), 0));
+        assertFalse(counts.containsKey(empty.getId()));
+        assertTrue(registrationDAO.countRegisteredByEventIds(List.of()).isEmpty());
+    }
+
+    @Test
+    void findAttendeesPageJoinsUsernamesAndPagesByUserId() {
+        Event e = new Event("party", "d", LocalDateTime.now().plusDays(1), "v", 10, 1);
+        eventDAO.createEvent(e);
+
+        int[] ids = new int[5];
+        for (int i = 0; i < ids.length; i++) {
+            authService.registerUser("guest" + i, "pw", "ATTENDEE");
+            ids[i] = userDAO.findByUsername("guest" + i).orElseThrow().getId();
+            registrationDAO.registerUser(e.getId(), ids[i]);
+        }
+        registrationDAO.updateStatus(e.getId(), ids[1], "CHECKED_IN");
+        registrationDAO.updateStatus(e.getId(), ids[2], "CANCELLED");
+
+        List<AttendeeEntry> first = registrationDAO.findAttendeesPage(e.getId(), 0, 2);
+        assertEquals(List.of("guest0", "guest1"), first.stream().map(AttendeeEntry::getUsername).toList());
+        assertTrue(first.get(1).isCheckedIn());
+
+        List<AttendeeEntry> rest = registrationDAO.findAttendeesPage(e.getId(), first.get(1).getUserId(), 2);
+        assertEquals(List.of("guest3", "guest4"), rest.stream().map(AttendeeEntry::getUsername).toList(),
+                "cancelled registrations are skipped");
+        assertTrue(registrationDAO.findAttendeesPage(e.getId(), ids[4], 2).isEmpty());
+    }
+
+    @Test
+    void findReportedEventsJoinsEventAndOrganizerMostReportedFirst() {
+        authService.registerUser("org", "pw", "ORGANIZER");
+        User org = userDAO.findByUsername("org").orElseThrow();
+
+        LocalDateTime when = LocalDateTime.now().plusDays(1);
+        Event calm = new Event("calm", "d", when, "v", 10, org.getId());
+        Event noisy = new Event("noisy", "d", when, "v", 10, org.getId());
+        Event orphan = new Event("orphan", "d", when, "v", 10, 424242);
+        eventDAO.createEvent(calm);
+        eventDAO.createEvent(noisy);
+        eventDAO.createEvent(orphan);
+
+        ReportDAO reportDAO = new ReportDAO();
+        reportDAO.addReport(calm.getId(), 1);
+        reportDAO.addReport(noisy.getId(), 1);
+        reportDAO.addReport(noisy.getId(), 2);
+        reportDAO.addReport(noisy.getId(), 3);
+        reportDAO.addReport(orphan.getId(), 1);
+        reportDAO.addReport(orphan.getId(), 2);
+
+        List<ReportedEvent> first = reportDAO.findReportedEvents(2, 0);
+        assertEquals(2, first.size());
+        assertEquals("noisy", first.get(0).getEventTitle());
+        assertEquals("org", first.get(0).getOrganizerName());
+        assertEquals(3, first.get(0).getReportCount());
+        assertEquals(3.0, first.get(0).getReportsPerDay(), 0.001);
+        assertNotNull(first.get(0).getFirstReportedAt());
+        assertEquals("User #424242", first.get(1).getOrganizerName());
+
+        List<ReportedEvent> second = reportDAO.findReportedEvents(2, 2);
+        assertEquals(List.of("calm"), second.stream().map(ReportedEvent::getEventTitle).toList());
+    }
+
+    /** Follow next cursors from the first page to the last, collecting event ids. */
+    private static List<Integer> walkPages(Function<EventCursor, EventPage> query) {
+        List<Integer> ids = new ArrayList<>();
+        EventCursor cursor = null;
+        do {
+            EventPage page = query.apply(cursor);
+            page.getEvents().forEach(e -> ids.add(e.getId()));
+            cursor = page.getNext();
+        } while (cursor != null);
+        return ids;
+    }
+
+    @Test
+    void keysetPagesWalkEveryEventOnceInListingOrder() {
+        LocalDateTime base = LocalDateTime.now().plusDays(1).withNano(0);
+        // two pairs start at the same second, so the id tie-break decides the page boundary
+        eventDAO.createEvent(new Event("a", "d", base, "v", 10, 1));
+        eventDAO.createEvent(new Event("b", "d", base, "v", 10, 2));
+        eventDAO.createEvent(new Event("c", "d", base.plusHours(1), "v", 10, 1));
+        eventDAO.createEvent(new Event("d", "d", base.plusHours(2), "v", 10, 1));
+        eventDAO.createEvent(new Event("e", "d", base.plusHours(2), "v", 10, 1));
+        eventDAO.createEvent(new Event("past", "d", base.minusDays(3), "v", 10, 1));
+
+        // findAll's order (latest first) with the id tie-break made explicit
+        List<Integer> all = eventDAO.findAll().stream()
+                .sorted(java.util.Comparator.comparing(Event::getDateTime).thenComparing(Event::getId).reversed())
+                .map(Event::getId).toList();
+        assertEquals(6, all.size());
+        for (int size : new int[] {1, 2, 4, 6, 10}) {
+            assertEquals(all, walkPages(c -> eventDAO.findAllPage(c, size)),
+                    "page size " + size + " must return each event exactly once, in order");
+        }
+
+        List<Integer> upcoming = eventDAO.findAllUpcoming().stream().map(Event::getId).toList();
+        assertEquals(upcoming, walkPages(c -> eventDAO.findUpcomingPage(c, 2)));
+        assertEquals(5, eventDAO.countUpcoming());
+
+        List<Integer> organizerOne = walkPages(c -> eventDAO.findByOrganizerPage(1, c, 2));
+        assertEquals(5, organizerOne.size());
+        assertEquals(5, eventDAO.countByOrganizer(1));
+        assertEquals(List.of("e", "d"), eventDAO.findByOrganizerPage(1, null, 2).getEvents()
+                .stream().map(Event::getTitle).toList(), "latest first, higher id first on ties");
+
+        // positional pages land on the same rows as walking there with the cursor
+        assertEquals(all.subList(2, 4), eventDAO.findAllAt(2, 2).getEvents().stream().map(Event::getId).toList());
+        assertEquals(upcoming.subList(3, 5), eventDAO.findUpcomingAt(3, 5).getEvents().stream().map(Event::getId).toList());
+        assertEquals(organizerOne.subList(4, 5),
+                eventDAO.findByOrganizerAt(1, 4, 2).getEvents().stream().map(Event::getId).toList());
+        assertTrue(eventDAO.findAllAt(0, 5).hasMore());
+    }
+
+    @Test
+    void listingsLeaveOutTheDescriptionButFindByIdLoadsIt() {
+        Event created = new Event("Talk", "a long abstract", LocalDateTime.now().plusDays(1), "Hall", 50, 1);
+        eventDAO.createEvent(created);
+
+        Event listed = eventDAO.findUpcomingPage(null, 10).getEvents().get(0);
+        assertTrue(listed.isSummary());
+        assertNull(listed.getDescription());
+        assertEquals("Hall", listed.getVenue());
+        assertTrue(eventDAO.findAll().get(0).isSummary());
+
+        Event full = eventDAO.findById(created.getId());
+        assertFalse(full.isSummary());
+        assertEquals("a long abstract", full.getDescription());
+
+        assertThrows(IllegalArgumentException.class, () -> eventDAO.updateEvent(listed, null),
+                "saving a summary would erase the description");
+        assertEquals("a long abstract", eventDAO.findById(created.getId()).getDescription());
+    }
+
+    @Test
+    void lastPageHasNoCursor() {
+        eventDAO.createEvent(new Event("only", "d", LocalDateTime.now().plusDays(1), "v", 10, 1));
+
+        EventPage exact = eventDAO.findUpcomingPage(null, 1);
+        assertEquals(1, exact.getEvents().size());
+        assertFalse(exact.hasMore(), "a full page is only followed by another if a further row exists");
+        assertEquals(1, eventDAO.findUpcomingPage(null, 5).getEvents().size());
+        assertThrows(IllegalArgumentException.class, () -> eventDAO.findAllPage(null, 0));
+    }
+
+    @Test
+    void searchMatchesAllTextColumnsAndRanksTitleHitsFirst() {
+        LocalDateTime when = LocalDateTime.now().plusDays(1);
+        Event inVenue = new Event("Open mic", "songs", when, "Jazz Cellar", 10, 1);
+        Event inTitle = new Event("Jazz night", "live music", when, "Main hall", 10, 1);
+        Event past = new Event("Jazz brunch", "d", LocalDateTime.now().minusDays(1), "v", 10, 1);
+        eventDAO.createEvent(inVenue);
+        eventDAO.createEvent(inTitle);
+        eventDAO.createEvent(past);
+        eventDAO.createEvent(new Event("Chess club", "boards", when, "Library", 10, 1));
+
+        List<EventSearchResult> hits = eventDAO.searchUpcoming("jaz", 10, 0);
+        assertEquals(List.of(inTitle.getId(), inVenue.getId()),
+                hits.stream().map(h -> h.getEvent().getId()).toList(), "prefix match, title weighted highest");
+
+        List<String> highlighted = new java.util.ArrayList<>();
+        hits.get(0).forEachSnippetPart((text, bold) -> {
+            if (bold) highlighted.add(text);
+        });
+        assertEquals(List.of("Jazz"), highlighted);
+
+        assertEquals(3, eventDAO.search("jazz", 10, 0).size(), "search() includes past events");
+        assertEquals(1, eventDAO.search("jazz", 1, 1).size());
+        assertEquals(List.of(inTitle.getId()),
+                eventDAO.search("LIVE music", 10, 0).stream().map(h -> h.getEvent().getId()).toList());
+    }
+
+    @Test
+    void searchIndexFollowsUpdatesAndDeletes() {
+        LocalDateTime when = LocalDateTime.now().plusDays(1);
+        Event e = new Event("Pottery", "clay", when, "Studio", 10, 1);
+        eventDAO.createEvent(e);
+
+        eventDAO.updateEvent(new Event(e.getId(), "Painting", "oil", when, "Studio", 10, 1), null);
+        assertTrue(eventDAO.search("pottery", 10, 0).isEmpty());
+        assertEquals(1, eventDAO.search("painting", 10, 0).size());
+
+        eventDAO.deleteEvent(e.getId());
+        assertTrue(eventDAO.search("painting", 10, 0).isEmpty());
+    }
+
+    @Test
+    void changeListenersRunAfterTheConnectionIsReleased() {
+        List<String> seen = new ArrayList<>();
+        Consumer<EventChange> listener = change -> seen.add(change
+                + " organizer 7 " + change.involvesOrganizer(7)
+                + " active " + Database.getPoolStats().getActive());
+        EventDAO.addChangeListener(listener);
+        try {
+            LocalDateTime when = LocalDateTime.now().plusDays(1);
+            Event e = new Event("Pottery", "clay", when, "Studio", 10, 7);
+            eventDAO.createEvent(e);
+            eventDAO.updateEvent(new Event(e.getId(), "Pottery", "clay", when, "Studio", 10, 8), null);
+            eventDAO.deleteEvent(e.getId());
+
+            int id = e.getId();
+            assertEquals(List.of(
+                    "event " + id + " created organizer 7 true active 0",
+                    "event " + id + " updated organizer 7 true active 0",   // 7 before, 8 after
+                    "event " + id + " deleted organizer 7 false active 0"), seen);
+        } finally {
+            EventDAO.removeChangeListener(listener);
+        }
+    }
+
+    @Test
+    void updatesAndDeletesSurviveConcurrentCommits() throws Exception {
+        LocalDateTime when = LocalDateTime.now().plusDays(1);
+        Event e = new Event("Pottery", "clay", when, "Studio", 10, 1);
+        Event busy = new Event("Hot Drop", "desc", when, "Arena", 1_000_000, 1);
+        eventDAO.createEvent(e);
+        eventDAO.createEvent(busy);
+
+        // another connection committing the whole time, like the seat engine's writer
+        AtomicBoolean stop = new AtomicBoolean();
+        Thread writer = Thread.ofPlatform().start(() -> {
+            for (int user = 1; !stop.get(); user++) {
+                registrationDAO.saveStatuses(List.of(new Registration(busy.getId(), user, "REGISTERED")));
+            }
+        });
+        try {
+            for (int i = 0; i < 200; i++) {
+                assertTrue(eventDAO.updateEvent(new Event(e.getId(), "Pottery " + i, "clay", when, "Studio", 10, 1), null));
+            }
+            assertTrue(eventDAO.deleteEvent(e.getId()));
+        } finally {
+            stop.set(true);
+            writer.join();
+        }
+    }
+
+    @Test
+    void searchTreatsOperatorsAndPunctuationAsText() {
+        assertEquals("\"rock\"* \"n\"* \"roll\"*", EventDAO.toMatchQuery("rock 'n' roll"));
+        assertEquals("\"NOT\"* \"a\"*", EventDAO.toMatchQuery("NOT a\"*"));
+        assertEquals("", EventDAO.toMatchQuery("  -- "));
+        assertTrue(eventDAO.search("()\"", 10, 0).isEmpty());
+    }
+
+    @Test
+    void userLookupsAreCachedUntilTheRowIsWritten() {
+        authService.registerUser("alice", "password123", "ATTENDEE");
+        User alice = userDAO.findByUsername("alice").orElseThrow();
+        long hits = UserDAO.CACHE.getHits();
+
+        assertSame(alice, userDAO.findByUsername("alice").orElseThrow());
+        assertSame(alice, userDAO.findById(alice.getId()));
+        assertEquals(hits + 2, UserDAO.CACHE.getHits());
+
+        userDAO.updateUsername(alice.getId(), "alicia");
+        assertTrue(userDAO.findByUsername("alice").isEmpty());
+        assertEquals("alicia", userDAO.findById(alice.getId()).getUsername());
+
+        userDAO.updatePassword(alice.getId(), "new-hash");
+        assertEquals("new-hash", userDAO.findByUsername("alicia").orElseThrow().getPasswordHash());
+
+        userDAO.deleteById(alice.getId());
+        assertNull(userDAO.findById(alice.getId()));
+    }
+
+    @Test
+    void usernameLookupsStayExactWhileTheIndexIgnoresCase() {
+        authService.registerUser("Bob", "password123", "ATTENDEE");
+        int id = userDAO.findByUsername("Bob").orElseThrow().getId();
+
+        assertTrue(userDAO.findByUsername("bob").isEmpty(), "usernames are case-sensitive in the table");
+
+        userDAO.updateUsername(id, "BOB");
+        assertTrue(userDAO.findByUsername("Bob").isEmpty());
+        assertEquals(id, userDAO.findByUsername("BOB").orElseThrow().getId());
+    }
+
+    @Test
+    void findByIdsServesHitsFromTheCacheAndSkipsUnknownIds() {
+        authService.registerUser("u1", "password123", "ATTENDEE");
+        authService.registerUser("u2", "password123", "ORGANIZER");
+        authService.registerUser("u3", "password123", "ATTENDEE");
+        List<Integer> ids = userDAO.listAll().stream().map(User::getId).toList();
+        User first = userDAO.findById(ids.get(0));
+
+        List<Integer> wanted = new ArrayList<>(ids);
+        wanted.add(ids.get(1));
+        wanted.add(9999);
+        Map<Integer, User> found = userDAO.findByIds(wanted);
+
+        assertEquals(3, found.size());
+        assertSame(first, found.get(ids.get(0)));
+        assertEquals("ORGANIZER", found.get(ids.get(1)).getRole().getName());
+
+        long misses = UserDAO.CACHE.getMisses();
+        assertEquals(found, userDAO.findByIds(ids));
+        assertEquals(misses, UserDAO.CACHE.getMisses(), "the second call never reaches the database");
+        assertTrue(userDAO.findByIds(List.of()).isEmpty());
+    }
+
+    @Test
+    void daoCallsAreRecordedOnlyWhileMetricsAreEnabled() {
+        MetricsRegistry metrics = MetricsRegistry.getInstance();
+        metrics.reset();
+        eventDAO.createEvent(new Event("Metered", "d", LocalDateTime.now().plusDays(1), "v", 20, 1));
+        assertNull(metrics.get("EventDAO.createEvent"));
+
+        metrics.setEnabled(true);
+        try {
+            eventDAO.createEvent(new Event("Metered 2", "d", LocalDateTime.now().plusDays(1), "v", 20, 1));
+            assertEquals(2, eventDAO.findAll().size());
+            assertNull(eventDAO.findById(9999));
+            // status is NOT NULL
+            assertThrows(DatabaseOperationException.class,
+                    () -> registrationDAO.saveStatuses(List.of(new Registration(1, 1, null))));
+        } finally {
+            metrics.setEnabled(false);
+        }
+
+        assertEquals(1, metrics.get("EventDAO.createEvent").calls());
+        assertEquals(2, metrics.get("EventDAO.findAll").rows());
+        assertEquals(0, metrics.get("EventDAO.findById").rows());
+        assertEquals(1, metrics.get("RegistrationDAO.saveStatuses").errors());
+        assertTrue(metrics.dump().contains("EventDAO.findAll"));
+        metrics.reset();
+    }
+
     @Test
     void findByIdReturnsNullWhenMissing() {
         assertNull(eventDAO.findById(9999));
@@ -0,0 +1,130 @@
+package net.javaguids.popin.database;
+
+import net.javaguids.popin.services.AuthService;
+import net.javaguids.popin.services.EventCatalog;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DatasetGeneratorTest {
+
+    private static final DatasetGenerator.Spec SPEC = new DatasetGenerator.Spec(400, 50, 5_000, 300, 42);
+
+    @BeforeEach
+    void setUp() throws Exception {
+        reset();
+    }
+
+    private static void reset() throws Exception {
+        try (Connection conn = Database.getConnection();
+             Statement st = conn.createStatement()) {
+            st.executeUpdate("DELETE FROM registrations");
+            st.executeUpdate("DELETE FROM reports");
+            st.executeUpdate("DELETE FROM events");
+            st.executeUpdate("DELETE FROM users");
+        }
+        UserDAO.clearCache();
+        EventCatalog.getInstance().clear();
+    }
+
+    private static int count(String sql) throws Exception {
+        try (Connection conn = Database.getConnection();
+             Statement st = conn.createStatement();
+             ResultSet rs = st.executeQuery(sql)) {
+            return rs.getInt(1);
+        }
+    }
+
+    /** Per event title: registrations by status and reports, independent of the generated ids. */
+    private static List<String> fingerprint() throws Exception {
+        String sql = """
+            SELECT e.title, e.capacity, e.price,
+                   (SELECT group_concat(u.username || ':' || r.status)
+                      FROM registrations r JOIN users u ON u.id = r.user_id
+                     WHERE r.event_id = e.id),
+                   (SELECT COUNT(*) FROM reports p WHERE p.event_id = e.id)
+            FROM events e ORDER BY e.title;
+        """;
+        List<String> rows = new ArrayList<>();
+        try (Connection conn = Database.getConnection();
+             Statement st = conn.createStatement();
+             ResultSet rs = st.executeQuery(sql)) {
+            while (rs.next()) {
+                rows.add(rs.getString(1) + "|" + rs.getInt(2) + "|" + rs.getString(3)
+                        + "|" + rs.getString(4) + "|" + rs.getInt(5));
+            }
+        }
+        return rows;
+    }
+
+    @Test
+    void generatesTheRequestedRowCounts() throws Exception {
+        DatasetGenerator.Result result = DatasetGenerator.generate(SPEC);
+
+        assertEquals(400, count("SELECT COUNT(*) FROM users"));
+        assertEquals(50, count("SELECT COUNT(*) FROM events"));
+        assertEquals(5_000, count("SELECT COUNT(*) FROM registrations"));
+        assertEquals(300, count("SELECT COUNT(*) FROM reports"));
+
+        // ids and credentials the callers rely on
+        assertEquals(DatasetGenerator.Result.username(7),
+                new UserDAO().findById(result.userId(7)).getUsername());
+        assertEquals("Event 3", new EventDAO().findById(result.eventId(3)).getTitle());
+        assertTrue(new AuthService().login("user1", DatasetGenerator.PASSWORD).isPresent());
+    }
+
+    @Test
+    void sameSeedGivesTheSameDataset() throws Exception {
+        DatasetGenerator.generate(SPEC);
+        List<String> first = fingerprint();
+
+        reset();
+        DatasetGenerator.generate(SPEC);
+        assertEquals(first, fingerprint());
+
+        reset();
+        DatasetGenerator.generate(new DatasetGenerator.Spec(400, 50, 5_000, 300, 7));
+        assertNotEquals(first, fingerprint());
+    }
+
+    @Test
+    void distributionsAreSkewedAndConsistent() throws Exception {
+        DatasetGenerator.generate(SPEC);
+
+        // Zipf: the most popular event holds several times an even share (100)
+        int busiest = count("SELECT MAX(n) FROM (SELECT COUNT(*) n FROM registrations GROUP BY event_id)");
+        assertTrue(busiest > 300, "busiest event has " + busiest);
+
+        // no event holds more registered attendees than seats
+        assertEquals(0, count("""
+            SELECT COUNT(*) FROM events e
+            WHERE e.capacity < (SELECT COUNT(*) FROM registrations r
+                                WHERE r.event_id = e.id AND r.status = 'REGISTERED')
+        """));
+
+        // check-ins only happen at past events, and some registrations are cancelled
+        assertEquals(0, count("""
+            SELECT COUNT(*) FROM registrations r JOIN events e ON e.id = r.event_id
+            WHERE r.status = 'CHECKED_IN' AND e.starts_at > strftime('%s', 'now', 'localtime')
+        """));
+        assertTrue(count("SELECT COUNT(*) FROM registrations WHERE status = 'CHECKED_IN'") > 0);
+        assertTrue(count("SELECT COUNT(*) FROM registrations WHERE status = 'CANCELLED'") > 0);
+
+        // reports cluster: the most reported event draws a large share of them
+        int mostReported = count("SELECT MAX(n) FROM (SELECT COUNT(*) n FROM reports GROUP BY event_id)");
+        assertTrue(mostReported > 300 / 5, "most reported event has " + mostReported);
+
+        // every event's organizer is a generated organizer
+        assertEquals(0, count("""
+            SELECT COUNT(*) FROM events e LEFT JOIN users u ON u.id = e.organizer_id
+            WHERE u.role_name IS NOT 'ORGANIZER'
+        """));
+    }
+}
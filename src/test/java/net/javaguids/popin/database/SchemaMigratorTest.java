@@ -0,0 +1,169 @@
+package net.javaguids.popin.database;
+
+import net.javaguids.popin.exceptions.DatabaseOperationException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SchemaMigratorTest {
+
+    @TempDir
+    Path tempDir;
+
+    private Connection conn;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        conn = DriverManager.getConnection("jdbc:sqlite:" + tempDir.resolve("migrate.db"));
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        conn.close();
+    }
+
+    private String queryPlan(String sql) throws Exception {
+        StringBuilder plan = new StringBuilder();
+        try (Statement st = conn.createStatement();
+             ResultSet rs = st.executeQuery("EXPLAIN QUERY PLAN " + sql)) {
+            while (rs.next()) {
+                plan.append(rs.getString("detail")).append('\n');
+            }
+        }
+        return plan.toString();
+    }
+
+    @Test
+    void appliesAllMigrationsOnceAndRecordsVersion() throws Exception {
+        SchemaMigrator migrator = SchemaMigrator.withDefaultMigrations();
+
+        int applied = migrator.migrate(conn);
+        assertEquals(SchemaMigrations.all().size(), applied);
+        assertEquals(migrator.latestVersion(), SchemaMigrator.currentVersion(conn));
+
+        // second start-up is a no-op
+        assertEquals(0, migrator.migrate(conn));
+    }
+
+    @Test
+    void hotPathQueriesUseIndexes() throws Exception {
+        SchemaMigrator.withDefaultMigrations().migrate(conn);
+
+        assertTrue(queryPlan("SELECT COUNT(*) FROM registrations WHERE event_id = 1 AND status = 'REGISTERED'")
+                .contains("COVERING INDEX"));
+        assertTrue(queryPlan("SELECT event_id FROM registrations WHERE user_id = 1 AND status = 'REGISTERED'")
+                .contains("idx_registrations_user_status_event"));
+        assertTrue(queryPlan("SELECT COUNT(*) FROM reports WHERE event_id = 1 AND attendee_id = 2")
+                .contains("idx_reports_event_attendee"));
+        assertFalse(queryPlan("SELECT * FROM events WHERE organizer_id = 1")
+                .contains("SCAN events"));
+    }
+
+    @Test
+    void startsAtIsBackfilledFromExistingTextTimestamps() throws Exception {
+        // database as it looked before V3
+        new SchemaMigrator(SchemaMigrations.all().subList(0, 2)).migrate(conn);
+        try (Statement st = conn.createStatement()) {
+            st.executeUpdate("INSERT INTO events (title, date_time, venue, capacity, organizer_id) "
+                    + "VALUES ('a', '2030-05-01T18:30', 'v', 10, 1), "
+                    + "('b', '2030-05-01T18:30:15.123456789', 'v', 10, 1)");
+        }
+
+        SchemaMigrator.withDefaultMigrations().migrate(conn);
+
+        long expected = LocalDateTime.of(2030, 5, 1, 18, 30)
+                .toEpochSecond(ZoneOffset.UTC);
+        try (Statement st = conn.createStatement();
+             ResultSet rs = st.executeQuery("SELECT starts_at FROM events ORDER BY id")) {
+            assertTrue(rs.next());
+            assertEquals(expected, rs.getLong(1));
+            assertTrue(rs.next());
+            assertEquals(expected + 15, rs.getLong(1));
+        }
+
+        String plan = queryPlan("SELECT * FROM events WHERE starts_at > 0 ORDER BY starts_at");
+        assertTrue(plan.contains("idx_events_starts_at"), plan);
+        assertFalse(plan.contains("TEMP B-TREE"), plan);
+    }
+
+    @Test
+    void descriptionMovesLastWithoutLosingRowsIdsOrSearch() throws Exception {
+        // database as it looked before V6, with a deleted event above the highest id
+        new SchemaMigrator(SchemaMigrations.all().subList(0, 5)).migrate(conn);
+        try (Statement st = conn.createStatement()) {
+            st.executeUpdate("INSERT INTO events (title, description, date_time, venue, capacity, organizer_id, starts_at) "
+                    + "VALUES ('Jazz night', 'live music', '2030-05-01T18:30', 'Cellar', 10, 1, 1), "
+                    + "('Chess club', 'boards', '2030-05-02T18:30', 'Library', 10, 1, 2), "
+                    + "('gone', 'x', '2030-05-03T18:30', 'v', 10, 1, 3)");
+            st.executeUpdate("DELETE FROM events WHERE title = 'gone'");
+        }
+
+        SchemaMigrator.withDefaultMigrations().migrate(conn);
+
+        try (Statement st = conn.createStatement()) {
+            List<String> columns = new java.util.ArrayList<>();
+            try (ResultSet rs = st.executeQuery("SELECT name FROM pragma_table_info('events') ORDER BY cid")) {
+                while (rs.next()) {
+                    columns.add(rs.getString(1));
+                }
+            }
+            assertEquals("description", columns.get(columns.size() - 1));
+
+            try (ResultSet rs = st.executeQuery("SELECT id, description FROM events WHERE title = 'Chess club'")) {
+                assertTrue(rs.next());
+                assertEquals(2, rs.getInt(1));
+                assertEquals("boards", rs.getString(2));
+            }
+
+            // AUTOINCREMENT still skips the deleted id, and the FTS triggers are back
+            st.executeUpdate("INSERT INTO events (title, description, date_time, venue, capacity, organizer_id, starts_at) "
+                    + "VALUES ('Jazz brunch', 'food', '2030-05-04T11:00', 'Cafe', 10, 1, 4)");
+            try (ResultSet rs = st.executeQuery("SELECT rowid FROM events_fts WHERE events_fts MATCH 'jazz' ORDER BY rowid")) {
+                assertTrue(rs.next());
+                assertEquals(1, rs.getInt(1));
+                assertTrue(rs.next());
+                assertEquals(4, rs.getInt(1));
+                assertFalse(rs.next());
+            }
+        }
+        assertTrue(queryPlan("SELECT * FROM events WHERE starts_at > 0 ORDER BY starts_at")
+                .contains("idx_events_starts_at"));
+    }
+
+    @Test
+    void failedMigrationIsRolledBackAndNotRecorded() throws Exception {
+        SchemaMigrator migrator = new SchemaMigrator(List.of(
+                new Migration(1, "ok", "CREATE TABLE a (id INTEGER)"),
+                new Migration(2, "broken", "CREATE TABLE b (id INTEGER)", "THIS IS NOT SQL")
+        ));
+
+        assertThrows(DatabaseOperationException.class, () -> migrator.migrate(conn));
+        assertEquals(1, SchemaMigrator.currentVersion(conn));
+
+        try (Statement st = conn.createStatement();
+             ResultSet rs = st.executeQuery(
+                     "SELECT COUNT(*) FROM sqlite_master WHERE type = 'table' AND name = 'b'")) {
+            assertEquals(0, rs.getInt(1), "partial migration must not leave table b behind");
+        }
+    }
+
+    @Test
+    void duplicateVersionsAreRejected() {
+        assertThrows(IllegalArgumentException.class, () -> new SchemaMigrator(List.of(
+                new Migration(1, "a"),
+                new Migration(1, "b")
+        )));
+    }
+}
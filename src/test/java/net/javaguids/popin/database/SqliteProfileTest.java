@@ -0,0 +1,59 @@
+package net.javaguids.popin.database;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.Statement;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SqliteProfileTest {
+
+    @TempDir
+    Path tempDir;
+
+    private String pragma(Connection conn, String name) throws Exception {
+        try (Statement st = conn.createStatement();
+             ResultSet rs = st.executeQuery("PRAGMA " + name)) {
+            return rs.getString(1);
+        }
+    }
+
+    @Test
+    void balancedProfileSwitchesToWalAndNormalSync() throws Exception {
+        try (Connection conn = DriverManager.getConnection("jdbc:sqlite:" + tempDir.resolve("p.db"))) {
+            SqliteProfile.BALANCED.apply(conn);
+
+            assertEquals("wal", pragma(conn, "journal_mode"));
+            assertEquals("1", pragma(conn, "synchronous"));
+            assertEquals("-16000", pragma(conn, "cache_size"));
+            assertEquals("5000", pragma(conn, "busy_timeout"));
+
+            String report = SqliteProfile.BALANCED.describeEffective(conn);
+            assertTrue(report.contains("journal_mode=wal"), report);
+            assertTrue(report.contains("synchronous=NORMAL"), report);
+        }
+    }
+
+    @Test
+    void durableProfileUsesFullSync() throws Exception {
+        try (Connection conn = DriverManager.getConnection("jdbc:sqlite:" + tempDir.resolve("d.db"))) {
+            SqliteProfile.DURABLE.apply(conn);
+
+            assertEquals("wal", pragma(conn, "journal_mode"));
+            assertEquals("2", pragma(conn, "synchronous"));
+        }
+    }
+
+    @Test
+    void profileNamesAreCaseInsensitiveWithBalancedFallback() {
+        assertEquals(SqliteProfile.THROUGHPUT, SqliteProfile.fromName(" Throughput "));
+        assertEquals(SqliteProfile.DURABLE, SqliteProfile.fromName("durable"));
+        assertEquals(SqliteProfile.BALANCED, SqliteProfile.fromName(null));
+        assertEquals(SqliteProfile.BALANCED, SqliteProfile.fromName("turbo"));
+    }
+}
@@ -0,0 +1,108 @@
+package net.javaguids.popin.services;
+
+import net.javaguids.popin.database.AnalyticsDAO;
+import net.javaguids.popin.database.Database;
+import net.javaguids.popin.database.UserDAO;
+import net.javaguids.popin.database.EventDAO;
+import net.javaguids.popin.database.RegistrationDAO;
+import net.javaguids.popin.models.AnalyticsSnapshot;
+import net.javaguids.popin.models.Event;
+import net.javaguids.popin.models.PaidEvent;
+import net.javaguids.popin.models.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.Statement;
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AnalyticsServiceTest {
+
+    private EventDAO eventDAO;
+    private RegistrationDAO registrationDAO;
+    private AuthService authService;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        eventDAO = new EventDAO();
+        registrationDAO = new RegistrationDAO();
+        authService = new AuthService();
+
+        try (Connection conn = Database.getConnection();
+             Statement st = conn.createStatement()) {
+            st.executeUpdate("DELETE FROM registrations");
+            st.executeUpdate("DELETE FROM events");
+            st.executeUpdate("DELETE FROM users");
+        }
+        EventCatalog.getInstance().clear();
+        UserDAO.clearCache();
+    }
+
+    private User createOrganizer(String name) {
+        authService.registerUser(name, "pw", "ORGANIZER");
+        return authService.login(name, "pw").orElseThrow();
+    }
+
+    @Test
+    void snapshotAggregatesEveryFigure() {
+        User busy = createOrganizer("busy");
+        User quiet = createOrganizer("quiet");
+        LocalDateTime now = LocalDateTime.now();
+
+        Event small = new Event("small", "d", now.plusDays(1), "v", 10, busy.getId());
+        Event big = new PaidEvent("big", "d", now.plusDays(2), "v", 10, busy.getId(), 20.0);
+        Event past = new PaidEvent("past", "d", now.minusDays(1), "v", 10, quiet.getId(), 10.0);
+        eventDAO.createEvent(small);
+        eventDAO.createEvent(big);
+        eventDAO.createEvent(past);
+
+        registrationDAO.registerUser(small.getId(), 1);
+        registrationDAO.registerUser(big.getId(), 1);
+        registrationDAO.registerUser(big.getId(), 2);
+        registrationDAO.registerUser(past.getId(), 1);
+        registrationDAO.registerUser(past.getId(), 2);
+        registrationDAO.registerUser(past.getId(), 3);
+
+        AnalyticsSnapshot stats = new AnalyticsDAO().loadSnapshot();
+
+        assertEquals(2, stats.getTotalUsers());
+        assertEquals(3, stats.getTotalEvents());
+        assertEquals(6, stats.getTotalRegistrations());
+        assertEquals("busy", stats.getMostActiveOrganizer());
+        assertEquals(2, stats.getMostActiveOrganizerEvents());
+        assertEquals(2, stats.getPaidEventCount());
+        assertEquals(15.0, stats.getAveragePaidPrice(), 0.001);
+        assertEquals("big", stats.getMostPopularUpcomingEvent(), "past events are not upcoming");
+        assertEquals(2, stats.getMostPopularUpcomingRegistrations());
+    }
+
+    @Test
+    void emptyDatabaseHasNoLeaders() {
+        AnalyticsSnapshot stats = new AnalyticsDAO().loadSnapshot();
+
+        assertEquals(0, stats.getTotalEvents());
+        assertNull(stats.getMostActiveOrganizer());
+        assertNull(stats.getMostPopularUpcomingEvent());
+        assertEquals(0.0, stats.getAveragePaidPrice());
+    }
+
+    @Test
+    void snapshotIsCachedUntilTtlExpires() {
+        AnalyticsService fresh = new AnalyticsService(new AnalyticsDAO(), Duration.ofHours(1), Runnable::run);
+        AnalyticsSnapshot first = fresh.getSnapshot();
+
+        createOrganizer("late");
+        assertSame(first, fresh.getSnapshot(), "within the TTL the cached snapshot is served");
+
+        AnalyticsService expiring = new AnalyticsService(new AnalyticsDAO(), Duration.ZERO, Runnable::run);
+        AnalyticsSnapshot stale = expiring.refreshNow();
+        createOrganizer("later");
+
+        // the stale snapshot is served once while the (here synchronous) refresh replaces it
+        assertSame(stale, expiring.getSnapshot());
+        assertEquals(stale.getTotalUsers() + 1, expiring.getSnapshot().getTotalUsers());
+    }
+}
@@ -37,6 +37,8 @@ class AuthServiceTest {
             st.executeUpdate("DELETE FROM events");
             st.executeUpdate("DELETE FROM users");
         }
+        EventCatalog.getInstance().clear();
+        UserDAO.clearCache();
     }
 
     @Test
@@ -0,0 +1,140 @@
+package net.javaguids.popin.services;
+
+import net.javaguids.popin.database.Database;
+import net.javaguids.popin.database.EventDAO;
+import net.javaguids.popin.models.Event;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EventCatalogTest {
+
+    private EventDAO eventDAO;
+    private EventCatalog catalog;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        eventDAO = new EventDAO();
+        catalog = EventCatalog.getInstance();
+
+        try (Connection conn = Database.getConnection();
+             Statement st = conn.createStatement()) {
+            st.executeUpdate("DELETE FROM registrations");
+            st.executeUpdate("DELETE FROM events");
+        }
+        catalog.clear();
+    }
+
+    private Event createEvent(LocalDateTime when) {
+        return createEvent(when, 1);
+    }
+
+    private Event createEvent(LocalDateTime when, int organizerId) {
+        Event event = new Event("Gig", "desc", when, "Hall", 10, organizerId);
+        eventDAO.createEvent(event);
+        return event;
+    }
+
+    @Test
+    void createEventAssignsGeneratedId() {
+        Event event = createEvent(LocalDateTime.now().plusDays(1));
+
+        assertTrue(event.getId() > 0);
+        assertEquals("Gig", catalog.findById(event.getId()).getTitle());
+    }
+
+    @Test
+    void repeatedLookupsAreServedFromMemory() {
+        int id = createEvent(LocalDateTime.now().plusDays(1)).getId();
+
+        Event first = catalog.findById(id);
+        assertSame(first, catalog.findById(id));
+        assertEquals(1, catalog.size());
+    }
+
+    @Test
+    void updateAndDeleteInvalidateTheEntry() {
+        Event event = createEvent(LocalDateTime.now().plusDays(1));
+        int id = event.getId();
+        assertTrue(catalog.isUpcoming(id));
+
+        Event moved = new Event(id, "Gig", "desc", LocalDateTime.now().minusDays(1), "Hall", 10, 1);
+        eventDAO.updateEvent(moved, null);
+        assertFalse(catalog.isUpcoming(id), "update must not leave the old date cached");
+
+        eventDAO.deleteEvent(id);
+        assertNull(catalog.findById(id));
+    }
+
+    @Test
+    void unknownEventIsNotUpcoming() {
+        assertFalse(catalog.isUpcoming(123_456));
+        assertEquals(0, catalog.size());
+    }
+
+    @Test
+    void hitsAndMissesAreCounted() {
+        int id = createEvent(LocalDateTime.now().plusDays(1)).getId();
+        long hits = catalog.getHits();
+        long misses = catalog.getMisses();
+
+        catalog.findById(id);
+        catalog.findById(id);
+        catalog.findById(id);
+
+        assertEquals(misses + 1, catalog.getMisses());
+        assertEquals(hits + 2, catalog.getHits());
+    }
+
+    @Test
+    void writesOnlyDropTheResultsTheyCanChange() {
+        createEvent(LocalDateTime.now().plusDays(1), 1);
+        Event other = createEvent(LocalDateTime.now().minusDays(1), 2);
+        List<Event> firstOrganizer = catalog.forOrganizer(1, "list", () -> eventDAO.findByOrganizerId(1));
+        List<Event> upcoming = catalog.upcoming("list", eventDAO::findAllUpcoming);
+        catalog.all("count", eventDAO::countAll);
+
+        // a past event of organizer 2 moves further into the past
+        Event moved = new Event(other.getId(), "Gig", "desc", LocalDateTime.now().minusDays(2), "Hall", 10, 2);
+        eventDAO.updateEvent(moved, null);
+
+        assertSame(firstOrganizer, catalog.forOrganizer(1, "list", () -> fail("organizer 1 was not touched")));
+        assertSame(upcoming, catalog.upcoming("list", () -> fail("no upcoming event was touched")));
+        assertEquals(2, catalog.all("count", eventDAO::countAll), "totals are always recomputed");
+        assertTrue(catalog.getInvalidations() > 0);
+
+        eventDAO.createEvent(new Event("New", "desc", LocalDateTime.now().plusDays(3), "Hall", 10, 1));
+        assertEquals(2, catalog.forOrganizer(1, "list", () -> eventDAO.findByOrganizerId(1)).size());
+        assertEquals(2, catalog.upcoming("list", eventDAO::findAllUpcoming).size());
+    }
+
+    @Test
+    void theCacheStaysWithinItsByteBudget() {
+        EventCatalog small = new EventCatalog(eventDAO, 4_000);
+        for (int i = 0; i < 20; i++) {
+            createEvent(LocalDateTime.now().plusDays(1));
+        }
+        List<Event> all = eventDAO.findAll();
+        long perEvent = EventCatalog.weigh(all.get(0));
+
+        int recent = all.get(all.size() - 1).getId();
+        for (Event event : all) {
+            small.findById(event.getId());
+            small.findById(recent); // keep one entry hot
+            assertTrue(small.getWeight() <= small.getMaxBytes(), small.toString());
+        }
+
+        assertTrue(small.getEvictions() > 0);
+        assertTrue(small.size() < all.size());
+        assertTrue(small.size() * perEvent <= small.getMaxBytes());
+        long misses = small.getMisses();
+        small.findById(recent);
+        assertEquals(misses, small.getMisses(), "the most recently used entry survived eviction");
+    }
+}
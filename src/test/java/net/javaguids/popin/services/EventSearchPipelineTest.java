@@ -0,0 +1,123 @@
+package net.javaguids.popin.services;
+
+import net.javaguids.popin.models.Event;
+import net.javaguids.popin.models.EventSearchResult;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EventSearchPipelineTest {
+
+    private static final LocalDateTime WHEN = LocalDateTime.now().plusDays(1);
+
+    private final List<Event> catalog = List.of(
+            new Event(1, "Jazz night", "live music", WHEN, "Main hall", 10, 1),
+            new Event(2, "Open mic", "songs and jazz standards", WHEN, "Cellar", 10, 1),
+            new Event(3, "Jazzercise", "fitness", WHEN, "Gym", 10, 1),
+            new Event(4, "Chess club", null, WHEN, "Café Noir", 10, 1));
+
+    private final List<String> backendCalls = new ArrayList<>();
+
+    /** Stand-in for the FTS query: same word-prefix rule, catalog order as ranking. */
+    private List<EventSearchResult> fakeSearch(String query, int limit) {
+        backendCalls.add(query);
+        List<String> words = EventSearchPipeline.words(query);
+        return catalog.stream()
+                .filter(e -> words.stream().allMatch(w -> EventSearchPipeline.words(
+                        e.getTitle() + " " + e.getDescription() + " " + e.getVenue()).stream()
+                        .anyMatch(t -> t.startsWith(w))))
+                .limit(limit)
+                .map(e -> new EventSearchResult(e, e.getTitle(), 0))
+                .toList();
+    }
+
+    private EventSearchPipeline pipeline(int limit, int cacheSize) {
+        return new EventSearchPipeline(this::fakeSearch,
+                new ServiceExecutor("test-search", 1, Duration.ZERO), limit, cacheSize);
+    }
+
+    private static List<Integer> ids(List<EventSearchResult> results) {
+        return results.stream().map(r -> r.getEvent().getId()).toList();
+    }
+
+    @Test
+    void typingAWordQueriesTheDatabaseOnce() {
+        EventSearchPipeline search = pipeline(50, 8);
+
+        assertEquals(List.of(1, 2, 3), ids(search.search("j")));
+        assertEquals(List.of(1, 2, 3), ids(search.search("Ja")));
+        assertEquals(List.of(1, 2, 3), ids(search.search("jazz")));
+        assertEquals(List.of(3), ids(search.search("jazze")));
+        assertEquals(List.of(1), ids(search.search("jazz  NIGHT")));
+
+        assertEquals(List.of("j"), backendCalls);
+        assertEquals(4, search.getRefinements());
+        assertEquals(1, search.getBackendQueries());
+    }
+
+    @Test
+    void truncatedResultsAreNotRefined() {
+        EventSearchPipeline search = pipeline(2, 8);
+
+        assertEquals(List.of(1, 2), ids(search.search("ja")));
+        assertEquals(List.of(1, 2), ids(search.search("jazz")), "ja hit the limit, so jazz must ask again");
+        assertEquals(List.of("ja", "jazz"), backendCalls);
+    }
+
+    @Test
+    void repeatedQueriesHitTheCacheUntilCleared() {
+        EventSearchPipeline search = pipeline(50, 8);
+
+        search.search("chess");
+        search.search("Chess ");
+        assertEquals(1, search.getCacheHits());
+
+        search.clear();
+        search.search("chess");
+        assertEquals(List.of("chess", "chess"), backendCalls);
+    }
+
+    @Test
+    void leastRecentlyUsedQueriesAreEvicted() {
+        EventSearchPipeline search = pipeline(50, 2);
+
+        search.search("chess");
+        search.search("mic");
+        search.search("chess"); // chess is now the most recently used
+        search.search("gym");   // evicts mic
+
+        search.search("chess");
+        search.search("mic");
+        assertEquals(List.of("chess", "mic", "gym", "mic"), backendCalls);
+    }
+
+    @Test
+    void diacriticsAndWordOrderFollowTheTokenizer() {
+        assertEquals(List.of("cafe", "noir"), EventSearchPipeline.words("  Café-NOIR! "));
+        assertTrue(EventSearchPipeline.narrows(List.of("jazz", "night"), List.of("ja")));
+        assertFalse(EventSearchPipeline.narrows(List.of("night", "jazz"), List.of("jazz")));
+        assertFalse(EventSearchPipeline.narrows(List.of("j"), List.of("ja")));
+
+        EventSearchPipeline search = pipeline(50, 8);
+        search.search("ca");
+        assertEquals(List.of(4), ids(search.search("cafe")));
+        assertEquals(1, backendCalls.size());
+    }
+
+    @Test
+    void cachedAnswersCompleteWithoutAThread() throws Exception {
+        EventSearchPipeline search = pipeline(50, 8);
+        assertEquals(List.of(1, 2, 3), ids(search.searchAsync("jaz").get()));
+
+        CompletableFuture<List<EventSearchResult>> narrowed = search.searchAsync("jazzer");
+        assertTrue(narrowed.isDone());
+        assertEquals(List.of(3), ids(narrowed.get()));
+        assertTrue(search.searchAsync("  ").isDone());
+    }
+}
@@ -1,9 +1,11 @@
 package net.javaguids.popin.services;
 
 import net.javaguids.popin.database.Database;
+import net.javaguids.popin.database.UserDAO;
 import net.javaguids.popin.database.EventDAO;
 import net.javaguids.popin.database.RegistrationDAO;
 import net.javaguids.popin.models.Event;
+import net.javaguids.popin.models.RegistrationOutcome;
 import net.javaguids.popin.models.User;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -11,6 +13,16 @@ import org.junit.jupiter.api.Test;
 import java.sql.Connection;
 import java.sql.Statement;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntUnaryOperator;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -37,6 +49,8 @@ class RegistrationServiceTest {
             st.executeUpdate("DELETE FROM events");
             st.executeUpdate("DELETE FROM users");
         }
+        EventCatalog.getInstance().clear();
+        UserDAO.clearCache();
     }
 
     private User createAttendee(String username) {
@@ -133,8 +147,77 @@ class RegistrationServiceTest {
         );
     }
 
+    @Test
+    void admitUserReportsTypedOutcomes() {
+        Event event = createEventWithCapacity(1);
+
+        assertEquals(RegistrationOutcome.ADMITTED, registrationService.admitUser(event.getId(), 1));
+        assertEquals(RegistrationOutcome.DUPLICATE, registrationService.admitUser(event.getId(), 1));
+        assertEquals(RegistrationOutcome.FULL, registrationService.admitUser(event.getId(), 2));
+        assertEquals(RegistrationOutcome.EVENT_UNAVAILABLE, registrationService.admitUser(9999, 2));
+
+        // a cancelled seat can be taken again
+        registrationService.cancelRegistration(event.getId(), 1);
+        assertEquals(RegistrationOutcome.ADMITTED, registrationService.admitUser(event.getId(), 2));
+        assertEquals(1, registrationDAO.countRegistered(event.getId()));
+    }
+
+    @Test
+    void admitUserKeepsCheckIns() {
+        Event event = createEventWithCapacity(2);
+        registrationService.admitUser(event.getId(), 1);
+        registrationService.checkInUser(event.getId(), 1);
+
+        assertEquals(RegistrationOutcome.DUPLICATE, registrationService.admitUser(event.getId(), 1));
+        assertEquals("CHECKED_IN", registrationDAO.findAllByEvent(event.getId()).get(0).getStatus());
+    }
+
+    @Test
+    void concurrentRegistrationsNeverOversell() throws Exception {
+        int capacity = 25;
+        int users = 200;
+        Event event = createEventWithCapacity(capacity);
+
+        Map<RegistrationOutcome, Integer> outcomes = hammer(event.getId(), users, i -> i + 1);
+
+        assertEquals(capacity, outcomes.getOrDefault(RegistrationOutcome.ADMITTED, 0));
+        assertEquals(users - capacity, outcomes.getOrDefault(RegistrationOutcome.FULL, 0));
+        assertEquals(capacity, registrationDAO.countRegistered(event.getId()));
+    }
+
+    @Test
+    void concurrentDuplicateClicksAdmitOnlyOnce() throws Exception {
+        Event event = createEventWithCapacity(10);
 
+        Map<RegistrationOutcome, Integer> outcomes = hammer(event.getId(), 50, i -> 42);
 
+        assertEquals(1, outcomes.getOrDefault(RegistrationOutcome.ADMITTED, 0));
+        assertEquals(49, outcomes.getOrDefault(RegistrationOutcome.DUPLICATE, 0));
+        assertEquals(1, registrationDAO.countRegistered(event.getId()));
+    }
 
+    /** Fire {@code attempts} admissions at one event from many threads at once. */
+    private Map<RegistrationOutcome, Integer> hammer(int eventId, int attempts,
+                                                     IntUnaryOperator userIdFor)
+            throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(32);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<RegistrationOutcome>> futures = new ArrayList<>();
+
+        for (int i = 0; i < attempts; i++) {
+            int userId = userIdFor.applyAsInt(i);
+            futures.add(pool.submit(() -> {
+                start.await();
+                return registrationService.admitUser(eventId, userId);
+            }));
+        }
 
-}
\ No newline at end of file
+        start.countDown();
+        Map<RegistrationOutcome, Integer> counts = new EnumMap<>(RegistrationOutcome.class);
+        for (Future<RegistrationOutcome> f : futures) {
+            counts.merge(f.get(30, TimeUnit.SECONDS), 1, Integer::sum);
+        }
+        pool.shutdown();
+        return counts;
+    }
+}
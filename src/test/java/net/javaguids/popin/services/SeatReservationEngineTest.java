@@ -0,0 +1,227 @@
+package net.javaguids.popin.services;
+
+import net.javaguids.popin.database.Database;
+import net.javaguids.popin.database.UserDAO;
+import net.javaguids.popin.database.EventDAO;
+import net.javaguids.popin.database.RegistrationDAO;
+import net.javaguids.popin.exceptions.DatabaseOperationException;
+import net.javaguids.popin.models.Event;
+import net.javaguids.popin.models.Registration;
+import net.javaguids.popin.models.RegistrationOutcome;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.Statement;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SeatReservationEngineTest {
+
+    private EventDAO eventDAO;
+    private RegistrationDAO registrationDAO;
+    private SeatReservationEngine engine;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        eventDAO = new EventDAO();
+        registrationDAO = new RegistrationDAO();
+
+        try (Connection conn = Database.getConnection();
+             Statement st = conn.createStatement()) {
+            st.executeUpdate("DELETE FROM registrations");
+            st.executeUpdate("DELETE FROM events");
+            st.executeUpdate("DELETE FROM users");
+        }
+        EventCatalog.getInstance().clear();
+        UserDAO.clearCache();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (engine != null) {
+            engine.close();
+        }
+    }
+
+    private int createEvent(int capacity) {
+        eventDAO.createEvent(new Event("Hot Drop", "desc",
+                LocalDateTime.now().plusDays(1), "Arena", capacity, 1));
+        return eventDAO.findAll().get(0).getId();
+    }
+
+    @Test
+    void admitsUpToCapacityAndPersistsOnFlush() {
+        int eventId = createEvent(2);
+        engine = new SeatReservationEngine();
+
+        assertEquals(RegistrationOutcome.ADMITTED, engine.admitUser(eventId, 1));
+        assertEquals(RegistrationOutcome.DUPLICATE, engine.admitUser(eventId, 1));
+        assertEquals(RegistrationOutcome.ADMITTED, engine.admitUser(eventId, 2));
+        assertEquals(RegistrationOutcome.FULL, engine.admitUser(eventId, 3));
+        assertEquals(RegistrationOutcome.EVENT_UNAVAILABLE, engine.admitUser(9999, 3));
+
+        engine.flush();
+        assertEquals(2, registrationDAO.countRegistered(eventId));
+        assertEquals(0, engine.getPendingWrites());
+    }
+
+    @Test
+    void cancellingFreesASeatInMemoryAndOnDisk() {
+        int eventId = createEvent(1);
+        engine = new SeatReservationEngine();
+
+        engine.registerUser(eventId, 1);
+        assertTrue(engine.isEventFull(eventId));
+
+        engine.cancelRegistration(eventId, 1);
+        assertFalse(engine.isEventFull(eventId));
+        assertEquals(RegistrationOutcome.ADMITTED, engine.admitUser(eventId, 2));
+
+        engine.flush();
+        assertFalse(registrationDAO.isUserRegistered(eventId, 1));
+        assertTrue(registrationDAO.isUserRegistered(eventId, 2));
+    }
+
+    @Test
+    void countersAreRebuiltFromRegistrationsTable() {
+        int eventId = createEvent(3);
+        registrationDAO.registerUser(eventId, 10);
+        registrationDAO.registerUser(eventId, 11);
+
+        engine = new SeatReservationEngine();
+
+        assertEquals(1, engine.getRemainingSeats(eventId));
+        assertTrue(engine.isUserRegistered(eventId, 10));
+        assertEquals(RegistrationOutcome.DUPLICATE, engine.admitUser(eventId, 11));
+    }
+
+    @Test
+    void concurrentBurstNeverOversells() throws Exception {
+        int capacity = 100;
+        int eventId = createEvent(capacity);
+        engine = new SeatReservationEngine();
+
+        ExecutorService pool = Executors.newFixedThreadPool(16);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<RegistrationOutcome>> futures = new ArrayList<>();
+        for (int userId = 1; userId <= 1_000; userId++) {
+            int id = userId;
+            futures.add(pool.submit(() -> {
+                start.await();
+                return engine.admitUser(eventId, id);
+            }));
+        }
+        start.countDown();
+
+        int admitted = 0;
+        for (Future<RegistrationOutcome> f : futures) {
+            if (f.get(30, TimeUnit.SECONDS) == RegistrationOutcome.ADMITTED) {
+                admitted++;
+            }
+        }
+        pool.shutdown();
+
+        assertEquals(capacity, admitted);
+        assertEquals(0, engine.getRemainingSeats(eventId));
+
+        engine.flush();
+        assertEquals(capacity, registrationDAO.countRegistered(eventId));
+    }
+
+    @Test
+    void failedWritesStayQueuedUntilTheyPersist() {
+        int eventId = createEvent(5);
+        AtomicInteger failuresLeft = new AtomicInteger(2);
+        engine = new SeatReservationEngine(new RegistrationDAO() {
+            @Override
+            public void saveStatuses(List<Registration> registrations) {
+                if (failuresLeft.getAndDecrement() > 0) {
+                    throw new DatabaseOperationException("database is locked");
+                }
+                super.saveStatuses(registrations);
+            }
+        }, eventDAO);
+
+        assertEquals(RegistrationOutcome.ADMITTED, engine.admitUser(eventId, 1));
+        engine.flush();
+
+        assertTrue(registrationDAO.isUserRegistered(eventId, 1));
+        assertEquals(2, engine.getFailedWrites());
+        assertEquals(1, engine.getPersistedWrites());
+        assertEquals(0, engine.getDroppedWrites());
+    }
+
+    @Test
+    void closedEngineRejectsChangesAndFlushReturns() {
+        int eventId = createEvent(5);
+        engine = new SeatReservationEngine();
+        engine.registerUser(eventId, 1);
+        engine.close();
+
+        assertTrue(registrationDAO.isUserRegistered(eventId, 1));
+        assertThrows(IllegalStateException.class, () -> engine.admitUser(eventId, 2));
+        assertThrows(IllegalStateException.class, () -> engine.cancelRegistration(eventId, 1));
+        assertThrows(IllegalStateException.class, () -> engine.checkInUser(eventId, 1));
+        assertFalse(engine.isUserRegistered(eventId, 2));
+
+        engine.flush();
+        assertEquals(0, engine.getPendingWrites());
+    }
+
+    @Test
+    void eventUpdatesApplyToTheCounter() {
+        int eventId = createEvent(1);
+        engine = new SeatReservationEngine();
+        engine.registerUser(eventId, 1);
+        assertTrue(engine.isEventFull(eventId));
+
+        Event event = eventDAO.findById(eventId);
+        event.setCapacity(3);
+        eventDAO.updateEvent(event, null);
+
+        assertEquals(2, engine.getRemainingSeats(eventId));
+        assertTrue(engine.isUserRegistered(eventId, 1));
+
+        eventDAO.deleteEvent(eventId);
+        assertEquals(RegistrationOutcome.EVENT_UNAVAILABLE, engine.admitUser(eventId, 2));
+    }
+
+    @Test
+    void eventUpdatesDoNotWaitForQueuedWrites() {
+        int eventId = createEvent(1);
+        AtomicBoolean databaseDown = new AtomicBoolean(true);
+        engine = new SeatReservationEngine(new RegistrationDAO() {
+            @Override
+            public void saveStatuses(List<Registration> registrations) {
+                if (databaseDown.get()) {
+                    throw new DatabaseOperationException("database is locked");
+                }
+                super.saveStatuses(registrations);
+            }
+        }, eventDAO);
+        engine.registerUser(eventId, 1);
+
+        Event event = eventDAO.findById(eventId);
+        event.setCapacity(2);
+        assertTimeoutPreemptively(Duration.ofSeconds(5), () -> eventDAO.updateEvent(event, null));
+        assertEquals(1, engine.getPendingWrites());
+        assertEquals(RegistrationOutcome.ADMITTED, engine.admitUser(eventId, 2));
+
+        databaseDown.set(false);
+        engine.flush();
+        assertEquals(2, registrationDAO.countRegistered(eventId));
+    }
+}
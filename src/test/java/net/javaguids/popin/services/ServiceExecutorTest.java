@@ -0,0 +1,206 @@
+package net.javaguids.popin.services;
+
+import net.javaguids.popin.database.Database;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ServiceExecutorTest {
+
+    // Counts to 500 million in SQLite: runs for many seconds unless interrupted
+    private static final String SLOW_QUERY =
+            "WITH RECURSIVE c(x) AS (SELECT 1 UNION ALL SELECT x + 1 FROM c LIMIT 500000000) "
+                    + "SELECT count(*) FROM c";
+
+    @Test
+    void independentCallsCompose() throws Exception {
+        ServiceExecutor executor = new ServiceExecutor("test", 2, Duration.ofSeconds(5));
+
+        CompletableFuture<Integer> sum = executor.submit(() -> 20)
+                .thenCombine(executor.submit(() -> 22), Integer::sum);
+
+        assertEquals(42, sum.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void concurrencyIsLimitedAndQueuedCallsCanBeCancelled() throws Exception {
+        ServiceExecutor executor = new ServiceExecutor("test", 1, Duration.ZERO);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicBoolean queuedRan = new AtomicBoolean();
+
+        CompletableFuture<String> running = executor.submit(() -> {
+            started.countDown();
+            release.await();
+            return "done";
+        });
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        CompletableFuture<String> queued = executor.submit(() -> {
+            queuedRan.set(true);
+            return "never";
+        });
+        waitUntil(() -> executor.getQueued() == 1);
+        assertEquals(1, executor.getRunning());
+
+        queued.cancel(true);
+        release.countDown();
+
+        assertEquals("done", running.get(5, TimeUnit.SECONDS));
+        assertThrows(CancellationException.class, queued::join);
+        waitUntil(() -> executor.getRunning() == 0);
+        assertFalse(queuedRan.get(), "a call cancelled while queued never starts");
+    }
+
+    @Test
+    void timeoutCancelsTheRunningStatement() {
+        ServiceExecutor executor = new ServiceExecutor("test", 1, Duration.ofMillis(200));
+        AtomicReference<Throwable> queryError = new AtomicReference<>();
+        CountDownLatch queryEnded = new CountDownLatch(1);
+
+        CompletableFuture<Long> slow = executor.submit(() -> {
+            try (Connection conn = Database.getConnection();
+                 Statement st = conn.createStatement();
+                 ResultSet rs = st.executeQuery(SLOW_QUERY)) {
+                rs.next();
+                return rs.getLong(1);
+            } catch (SQLException e) {
+                queryError.set(e);
+                throw e;
+            } finally {
+                queryEnded.countDown();
+            }
+        });
+
+        ExecutionException e = assertThrows(ExecutionException.class, () -> slow.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(TimeoutException.class, e.getCause());
+
+        assertTimeoutPreemptively(Duration.ofSeconds(5), () -> queryEnded.await());
+        assertInstanceOf(SQLException.class, queryError.get(), "the query was interrupted, not left running");
+    }
+
+    @Test
+    void cancelledScopeRefusesNewQueries() throws Exception {
+        ServiceExecutor executor = new ServiceExecutor("test", 1, Duration.ZERO);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch cancelled = new CountDownLatch(1);
+        AtomicReference<Throwable> borrowError = new AtomicReference<>();
+        CountDownLatch finished = new CountDownLatch(1);
+
+        CompletableFuture<Void> call = executor.submit(() -> {
+            started.countDown();
+            try {
+                cancelled.await();
+            } catch (InterruptedException expected) {
+                // cancel(true) interrupts the wait; carry on so only the scope check can refuse the borrow
+            }
+            try (Connection ignored = Database.getConnection()) {
+                return null;
+            } catch (SQLException e) {
+                borrowError.set(e);
+                return null;
+            } finally {
+                finished.countDown();
+            }
+        });
+
+        // cancelling before the call holds its permit would just skip it
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        call.cancel(true);
+        cancelled.countDown();
+
+        assertTrue(finished.await(5, TimeUnit.SECONDS));
+        assertNotNull(borrowError.get());
+        assertEquals("Query was cancelled.", borrowError.get().getMessage());
+    }
+
+    @Test
+    void cancellingACombinedFutureStopsBothCalls() throws Exception {
+        ServiceExecutor executor = new ServiceExecutor("test", 2, Duration.ZERO);
+        CountDownLatch bothStarted = new CountDownLatch(2);
+        CountDownLatch bothStopped = new CountDownLatch(2);
+        Callable<Boolean> blocking = () -> {
+            bothStarted.countDown();
+            try {
+                new CountDownLatch(1).await();
+                return true;
+            } finally {
+                bothStopped.countDown();
+            }
+        };
+
+        CompletableFuture<Boolean> first = executor.submit(blocking);
+        CompletableFuture<Boolean> second = executor.submit(blocking);
+        CompletableFuture<Boolean> both = ServiceExecutor.combine(first, second, Boolean::logicalAnd);
+        assertTrue(bothStarted.await(5, TimeUnit.SECONDS));
+
+        both.cancel(true);
+
+        assertTrue(first.isCancelled());
+        assertTrue(second.isCancelled());
+        assertTrue(bothStopped.await(5, TimeUnit.SECONDS), "both calls were interrupted");
+        waitUntil(() -> executor.getRunning() == 0);
+    }
+
+    @Test
+    void writesIgnoreTheDefaultTimeout() throws Exception {
+        ServiceExecutor executor = new ServiceExecutor("test", 1, Duration.ofMillis(50));
+
+        CompletableFuture<String> write = executor.submitWrite(() -> {
+            Thread.sleep(300);
+            return "committed";
+        });
+
+        assertEquals("committed", write.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void cancelledWritesStillRunToTheEnd() throws Exception {
+        ServiceExecutor executor = new ServiceExecutor("test", 1, Duration.ZERO);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch committed = new CountDownLatch(2);
+        Callable<Boolean> write = () -> {
+            started.countDown();
+            release.await();
+            committed.countDown();
+            return true;
+        };
+
+        CompletableFuture<Boolean> running = executor.submitWrite(write);
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        CompletableFuture<Boolean> queued = executor.submitWrite(write);
+
+        running.cancel(true);
+        queued.cancel(true);
+        release.countDown();
+
+        assertTrue(committed.await(5, TimeUnit.SECONDS), "neither write was interrupted or skipped");
+        assertThrows(CancellationException.class, running::join);
+    }
+
+    private static void waitUntil(java.util.function.BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            if (System.nanoTime() > deadline) {
+                fail("condition not reached in time");
+            }
+            Thread.sleep(5);
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package net.javaguids.popin.services;
+
+import net.javaguids.popin.database.Database;
+import net.javaguids.popin.models.SystemHealth;
+import net.javaguids.popin.utils.FxStallMonitor;
+import net.javaguids.popin.utils.MetricsRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SystemHealthMonitorTest {
+
+    private final MetricsRegistry metrics = MetricsRegistry.getInstance();
+
+    @AfterEach
+    void tearDown() {
+        metrics.reset();
+    }
+
+    @Test
+    void ratesAndLatencyCoverOnlyTheLastInterval() throws Exception {
+        metrics.reset();
+        metrics.record("EventDAO.findAll", 50_000_000, 10, false); // before the first sample
+
+        SystemHealthMonitor monitor = new SystemHealthMonitor(new FxStallMonitor(Runnable::run, 10));
+        for (int i = 0; i < 100; i++) {
+            metrics.record("UserDAO.findById", 1_000_000, 1, false);
+        }
+        Thread.sleep(20);
+        SystemHealth health = monitor.sample();
+
+        assertTrue(health.getCallsPerSecond() > 0);
+        assertEquals(1.0, health.getP99Millis(), 0.07);
+        assertEquals("EventDAO.findAll", health.getSlowestOperation());
+        assertEquals(Database.getPoolStats().getMaxSize(), health.getConnectionPoolSize());
+
+        SystemHealth idle = monitor.sample();
+        assertEquals(0, idle.getCallsPerSecond());
+        assertEquals(0, idle.getP99Millis());
+    }
+
+    @Test
+    void hitRatioIsNegativeUntilTheFirstLookup() {
+        assertEquals(-1, SystemHealth.hitRatio(0, 0));
+        assertEquals(0.75, SystemHealth.hitRatio(3, 1));
+    }
+}
@@ -0,0 +1,91 @@
+package net.javaguids.popin.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AsyncLoaderTest {
+
+    // Background and UI "threads" that only run when the test drains them
+    private final Queue<Runnable> background = new ArrayDeque<>();
+    private final Queue<Runnable> ui = new ArrayDeque<>();
+    private final AsyncLoader loader = new AsyncLoader(background::add, ui::add);
+
+    private void drain() {
+        while (!background.isEmpty() || !ui.isEmpty()) {
+            while (!background.isEmpty()) background.poll().run();
+            while (!ui.isEmpty()) ui.poll().run();
+        }
+    }
+
+    @Test
+    void resultIsDeliveredOnTheUiExecutor() {
+        List<String> delivered = new ArrayList<>();
+        AsyncLoader.Request request = loader.load("k", () -> "rows", delivered::add);
+
+        assertTrue(loader.isLoading("k"));
+        background.poll().run();
+        assertTrue(delivered.isEmpty(), "nothing is delivered until the UI executor runs");
+
+        ui.poll().run();
+        assertEquals(List.of("rows"), delivered);
+        assertTrue(request.isDone());
+        assertFalse(loader.isLoading("k"));
+        assertEquals(0, loader.getPendingCount());
+    }
+
+    @Test
+    void newerRequestWithSameKeyMakesOlderOneStale() {
+        List<String> delivered = new ArrayList<>();
+        AsyncLoader.Request first = loader.load("events", () -> "old", delivered::add);
+        AsyncLoader.Request second = loader.load("events", () -> "new", delivered::add);
+        loader.load("other", () -> "independent", delivered::add);
+        drain();
+
+        assertTrue(first.isCancelled());
+        assertFalse(second.isCancelled());
+        assertEquals(List.of("new", "independent"), delivered);
+    }
+
+    @Test
+    void requestsWithoutKeyNeverReplaceEachOther() {
+        List<Integer> delivered = new ArrayList<>();
+        loader.load(null, () -> 1, delivered::add);
+        loader.load(null, () -> 2, delivered::add);
+        drain();
+
+        assertEquals(List.of(1, 2), delivered);
+    }
+
+    @Test
+    void cancelAllDropsPendingResults() {
+        List<String> delivered = new ArrayList<>();
+        loader.load("a", () -> "a", delivered::add);
+        background.poll().run(); // finished in the background, not yet published
+        loader.load("b", () -> "b", delivered::add);
+
+        loader.cancelAll();
+        drain();
+
+        assertTrue(delivered.isEmpty());
+        assertEquals(0, loader.getPendingCount());
+    }
+
+    @Test
+    void failuresGoToTheErrorHandler() {
+        AtomicReference<Throwable> error = new AtomicReference<>();
+        loader.load("k", () -> {
+            throw new IllegalStateException("db down");
+        }, result -> fail("should not succeed"), error::set);
+        drain();
+
+        assertInstanceOf(IllegalStateException.class, error.get());
+        assertEquals("db down", error.get().getMessage());
+    }
+}
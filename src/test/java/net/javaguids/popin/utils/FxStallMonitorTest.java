@@ -0,0 +1,40 @@
+package net.javaguids.popin.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FxStallMonitorTest {
+
+    @Test
+    void aBlockedUiThreadIsReportedWhileAndAfterItStalls() throws Exception {
+        ExecutorService ui = Executors.newSingleThreadExecutor(); // stands in for the FX thread
+        try (FxStallMonitor monitor = new FxStallMonitor(ui, 5)) {
+            monitor.start();
+            Thread.sleep(50);
+            assertTrue(monitor.takeWorstDelayNanos() < TimeUnit.MILLISECONDS.toNanos(20), "idle UI thread");
+
+            CountDownLatch release = new CountDownLatch(1);
+            ui.execute(() -> {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+            Thread.sleep(200);
+            assertTrue(monitor.takeWorstDelayNanos() >= TimeUnit.MILLISECONDS.toNanos(150), "still stalled");
+
+            release.countDown();
+            Thread.sleep(50);
+            assertTrue(monitor.getStalledNanos() >= TimeUnit.MILLISECONDS.toNanos(150));
+        } finally {
+            ui.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package net.javaguids.popin.utils;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IntIntHashMapTest {
+
+    @Test
+    void putOverwritesAndMissingKeysUseDefault() {
+        IntIntHashMap map = new IntIntHashMap();
+        map.put(7, 1);
+        map.put(7, 2);
+        map.put(0, 5);
+        map.put(-3, 9);
+
+        assertEquals(3, map.size());
+        assertEquals(2, map.getOrDefault(7, 0));
+        assertEquals(5, map.getOrDefault(0, -1));
+        assertEquals(9, map.getOrDefault(-3, 0));
+        assertEquals(-1, map.getOrDefault(8, -1));
+        assertFalse(map.containsKey(8));
+    }
+
+    @Test
+    void growsPastInitialCapacity() {
+        IntIntHashMap map = new IntIntHashMap(2);
+        for (int i = 0; i < 10_000; i++) {
+            map.put(i * 31, i);
+        }
+
+        assertEquals(10_000, map.size());
+        for (int i = 0; i < 10_000; i++) {
+            assertEquals(i, map.getOrDefault(i * 31, -1));
+        }
+
+        map.clear();
+        assertTrue(map.isEmpty());
+        assertFalse(map.containsKey(31));
+    }
+}
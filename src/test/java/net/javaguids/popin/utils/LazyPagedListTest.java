@@ -0,0 +1,128 @@
+package net.javaguids.popin.utils;
+
+import javafx.collections.ListChangeListener;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LazyPagedListTest {
+
+    private record Row(int index) {}
+
+    private static final Row LOADING = new Row(-1);
+    private static final int TOTAL = 1000;
+
+    private final Queue<Runnable> background = new ArrayDeque<>();
+    private final Queue<Runnable> ui = new ArrayDeque<>();
+    private final AsyncLoader loader = new AsyncLoader(background::add, ui::add);
+
+    // One entry per page query: "offset+limit" for positional loads, "after:N" for keyset loads
+    private final List<String> queries = new ArrayList<>();
+
+    private List<Row> load(int offset, int limit, Row previous) {
+        queries.add(previous == null ? offset + "+" + limit : "after:" + previous.index());
+        int from = previous == null ? offset : previous.index() + 1;
+        return IntStream.range(from, Math.min(from + limit, TOTAL)).mapToObj(Row::new).toList();
+    }
+
+    private LazyPagedList<Row> list(int maxPages) {
+        LazyPagedList<Row> list = new LazyPagedList<>("rows", loader, () -> TOTAL, this::load, LOADING, 100, maxPages);
+        list.refresh(() -> {});
+        drain();
+        return list;
+    }
+
+    private void drain() {
+        while (!background.isEmpty() || !ui.isEmpty()) {
+            while (!background.isEmpty()) background.poll().run();
+            while (!ui.isEmpty()) ui.poll().run();
+        }
+    }
+
+    @Test
+    void refreshLoadsTheCountAndOnlyTheFirstPage() {
+        LazyPagedList<Row> list = list(4);
+
+        assertEquals(TOTAL, list.size());
+        assertEquals(List.of("0+100"), queries);
+        assertEquals(new Row(42), list.get(42));
+        assertTrue(list.isLoaded(99));
+        assertFalse(list.isLoaded(100));
+    }
+
+    @Test
+    void unloadedRowsReadAsThePlaceholderUntilTheirPageArrives() {
+        LazyPagedList<Row> list = list(4);
+        List<Integer> replaced = new ArrayList<>();
+        list.addListener((ListChangeListener<Row>) c -> {
+            while (c.next()) {
+                if (c.wasReplaced()) {
+                    IntStream.range(c.getFrom(), c.getTo()).forEach(replaced::add);
+                }
+            }
+        });
+
+        assertSame(LOADING, list.get(550));
+        assertTrue(list.isPlaceholder(list.get(550)));
+        drain();
+
+        assertEquals(new Row(550), list.get(550));
+        assertEquals(List.of("0+100", "500+100"), queries, "a jump has no cursor, so it loads by offset");
+        assertEquals(IntStream.range(500, 600).boxed().toList(), replaced, "the page's rows are reported as replaced");
+    }
+
+    @Test
+    void scrollingOnUsesTheKeysetAndPrefetchesTheNextPage() {
+        LazyPagedList<Row> list = list(4);
+
+        list.get(80); // last quarter of page 0
+        drain();
+        assertTrue(list.isLoaded(150), "page 1 was prefetched before it was shown");
+
+        list.get(180);
+        drain();
+        assertEquals(List.of("0+100", "after:99", "after:199"), queries);
+    }
+
+    @Test
+    void theWindowIsBoundedAndKeepsCursorsOfEvictedPages() {
+        LazyPagedList<Row> list = list(3);
+
+        for (int i = 0; i < TOTAL; i += 10) {
+            assertTrue(list.isPlaceholder(list.get(i)) || list.get(i).index() == i);
+            drain();
+            assertTrue(list.getLoadedPageCount() <= 3);
+        }
+        assertFalse(list.isLoaded(0), "the first page was evicted on the way down");
+        assertTrue(list.isLoaded(TOTAL - 1));
+        assertTrue(queries.stream().skip(1).allMatch(q -> q.startsWith("after:")),
+                "walking down never needs an offset: " + queries);
+
+        list.get(5);
+        drain();
+        assertEquals(new Row(5), list.get(5));
+        assertEquals("0+100", queries.get(queries.size() - 1));
+    }
+
+    @Test
+    void listenersReadingRowsDoNotStartLoads() {
+        LazyPagedList<Row> list = list(4);
+        list.addListener((ListChangeListener<Row>) c -> {
+            while (c.next()) {
+                c.getAddedSubList().forEach(row -> {});
+            }
+        });
+
+        list.refresh(() -> {});
+        drain();
+
+        assertEquals(List.of("0+100", "0+100"), queries);
+        assertEquals(0, list.getPageLoads());
+    }
+}
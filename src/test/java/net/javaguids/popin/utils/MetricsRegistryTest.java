@@ -0,0 +1,102 @@
+package net.javaguids.popin.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MetricsRegistryTest {
+
+    @Test
+    void percentilesAreWithinABucketOfTheTrueValue() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 1; i <= 10_000; i++) {
+            histogram.record(i * 1_000L); // 1 us .. 10 ms
+        }
+
+        assertEquals(10_000, histogram.getCount());
+        assertEquals(10_000_000, histogram.getMaxNanos());
+        assertEquals(5_000_000, histogram.getPercentile(50), 5_000_000 * 0.07);
+        assertEquals(9_900_000, histogram.getPercentile(99), 9_900_000 * 0.07);
+        assertEquals(10_000_000, histogram.getPercentile(100));
+
+        histogram.reset();
+        assertEquals(0, histogram.getCount());
+        assertEquals(0, histogram.getPercentile(99));
+    }
+
+    @Test
+    void bucketsCoverEveryValueWithoutGaps() {
+        long previousUpper = -1;
+        for (int index = 0; index < LatencyHistogram.bucketOf(Long.MAX_VALUE); index++) {
+            long lower = previousUpper + 1;
+            assertEquals(index, LatencyHistogram.bucketOf(lower));
+            assertEquals(index, LatencyHistogram.bucketOf(LatencyHistogram.upperBound(index)));
+            previousUpper = LatencyHistogram.upperBound(index);
+        }
+    }
+
+    @Test
+    void recordsCallsErrorsAndRowsPerOperation() {
+        MetricsRegistry registry = new MetricsRegistry(true);
+        registry.record("EventDAO.findAll", 2_000, 10, false);
+        registry.record("EventDAO.findAll", 4_000, 20, false);
+        registry.record("EventDAO.findAll", 1_000_000, 0, true);
+        registry.record("UserDAO.findById", 500, 1, false);
+
+        MetricsRegistry.OperationStats findAll = registry.get("EventDAO.findAll");
+        assertEquals(3, findAll.calls());
+        assertEquals(1, findAll.errors());
+        assertEquals(30, findAll.rows());
+        assertEquals(1_000_000, findAll.maxNanos());
+        assertEquals((2_000 + 4_000 + 1_000_000) / 3, findAll.meanNanos());
+        assertEquals(4, registry.getTotalCalls());
+        assertNull(registry.get("ReportDAO.addReport"));
+
+        String dump = registry.dump();
+        assertTrue(dump.indexOf("EventDAO.findAll") < dump.indexOf("UserDAO.findById"), "slowest p99 first");
+
+        registry.reset();
+        assertTrue(registry.getAll().isEmpty());
+    }
+
+    @Test
+    void recordingStaysOnWhileAnyoneHoldsIt() {
+        MetricsRegistry registry = new MetricsRegistry(false);
+
+        registry.acquire();                   // view A opens
+        registry.acquire();                   // view B opens
+        registry.release();                   // A closes, B still showing
+        assertTrue(registry.isEnabled());
+        registry.release();                   // B closes
+        assertFalse(registry.isEnabled());
+
+        registry.setEnabled(true);            // switched on by configuration
+        registry.acquire();
+        registry.release();
+        assertTrue(registry.isEnabled());
+
+        assertThrows(IllegalStateException.class, registry::release);
+    }
+
+    @Test
+    void concurrentRecordingLosesNothing() throws Exception {
+        MetricsRegistry registry = new MetricsRegistry(true);
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            threads.add(Thread.ofPlatform().start(() -> {
+                for (int i = 0; i < 10_000; i++) {
+                    registry.record("op" + (i % 4), i, 1, false);
+                }
+            }));
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertEquals(80_000, registry.getTotalCalls());
+        assertEquals(20_000, registry.get("op0").rows());
+    }
+}